@@ -1,26 +1,35 @@
 package com.energymarket.config;
 
 import java.time.Clock;
+import java.time.Instant;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * Provides application wide time configuration.
  *
- * <p>Having the clock as a managed bean enables deterministic testing and a single source of
- * truth for all time based calculations across the service.
+ * <p>Having the clock as a managed bean enables deterministic testing and a single source of truth
+ * for all time based calculations across the service.
  */
 @Configuration
 public class ClockConfiguration {
 
   /**
-   * Exposes the system UTC clock so time calculations are consistent and easily overridden in
-   * tests.
+   * Exposes the application clock. By default it follows the system UTC clock; setting {@code
+   * market.clock.start} and/or {@code market.clock.speed} replays market time from another instant
+   * or at a multiple of wall-clock speed. Both can be changed at runtime through the admin clock
+   * endpoint.
    *
-   * @return the system UTC clock
+   * @param start simulated start instant in ISO-8601 form, blank for the current time
+   * @param speed simulated seconds per wall-clock second
+   * @return the application clock
    */
   @Bean
-  public Clock systemClock() {
-    return Clock.systemUTC();
+  public SimulationClock clock(
+      @Value("${market.clock.start:}") String start,
+      @Value("${market.clock.speed:1}") double speed) {
+    return new SimulationClock(
+        Clock.systemUTC(), start.isBlank() ? null : Instant.parse(start), speed);
   }
 }
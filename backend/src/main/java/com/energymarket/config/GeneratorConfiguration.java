@@ -0,0 +1,26 @@
+package com.energymarket.config;
+
+import com.energymarket.market.generator.MarketDataGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the synthetic market data generator shared by every service.
+ *
+ * <p>The generator caches sketch indexes and fitted forecasters per market, so a single instance
+ * keeps that memory from being duplicated and lets the warm-start checkpoint save and restore the
+ * caches every service reads from.
+ */
+@Configuration
+public class GeneratorConfiguration {
+
+  /**
+   * Exposes the application wide market data generator.
+   *
+   * @return the shared generator
+   */
+  @Bean
+  public MarketDataGenerator marketDataGenerator() {
+    return new MarketDataGenerator();
+  }
+}
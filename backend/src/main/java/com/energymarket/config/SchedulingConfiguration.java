@@ -0,0 +1,34 @@
+package com.energymarket.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Enables Spring's scheduled task support.
+ *
+ * <p>The market tick publisher relies on a fixed-delay schedule to advance the live data feed in
+ * step with the application clock.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+
+  /**
+   * Runs scheduled tasks on a pool instead of Spring Boot's single thread, so a slow checkpoint
+   * write cannot hold back the tick publisher, load sampling or cluster probes. The builder keeps
+   * the other {@code spring.task.scheduling} settings.
+   *
+   * @param poolSize number of scheduler threads
+   * @return the scheduler running {@code @Scheduled} methods
+   */
+  @Bean
+  public ThreadPoolTaskScheduler taskScheduler(
+      ThreadPoolTaskSchedulerBuilder builder,
+      @Value("${market.scheduling.pool-size:4}") int poolSize) {
+    return builder.poolSize(poolSize).build();
+  }
+}
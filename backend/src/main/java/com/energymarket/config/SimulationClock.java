@@ -0,0 +1,118 @@
+package com.energymarket.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Clock that runs from a chosen start instant at a multiple of the speed of a source clock.
+ *
+ * <p>At speed 1 and with no start instant it tracks the source clock exactly, which is the
+ * production default. The start instant and speed can be changed at runtime; a change rebases the
+ * clock on the current source time so simulated time never jumps unless a new start is given. Zoned
+ * copies returned by {@link #withZone} share the same timeline.
+ */
+public final class SimulationClock extends Clock {
+
+  /** Largest accepted speed multiplier. */
+  public static final double MAX_SPEED = 100_000.0;
+
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private final Clock source;
+  private final ZoneId zone;
+  private final AtomicReference<Anchor> anchor;
+
+  /**
+   * Creates a simulation clock.
+   *
+   * @param source clock supplying real elapsed time
+   * @param start simulated start instant, or {@code null} to start at the source's current time
+   * @param speed simulated seconds per source second; {@code 0} pauses the clock
+   */
+  public SimulationClock(Clock source, Instant start, double speed) {
+    this(source, source.getZone(), new AtomicReference<>(anchorAt(source.instant(), start, speed)));
+  }
+
+  private SimulationClock(Clock source, ZoneId zone, AtomicReference<Anchor> anchor) {
+    this.source = Objects.requireNonNull(source, "source");
+    this.zone = Objects.requireNonNull(zone, "zone");
+    this.anchor = anchor;
+  }
+
+  @Override
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  @Override
+  public Clock withZone(ZoneId zone) {
+    return zone.equals(this.zone) ? this : new SimulationClock(source, zone, anchor);
+  }
+
+  @Override
+  public Instant instant() {
+    return anchor.get().at(source.instant());
+  }
+
+  /** Returns the current speed multiplier. */
+  public double speed() {
+    return anchor.get().speed();
+  }
+
+  /**
+   * Restarts the simulation.
+   *
+   * @param start new simulated instant, or {@code null} to continue from the current simulated time
+   * @param speed new speed multiplier
+   * @throws IllegalArgumentException if the speed is negative, above {@link #MAX_SPEED} or not a
+   *     number
+   */
+  public void reset(Instant start, double speed) {
+    validateSpeed(speed);
+    anchor.updateAndGet(
+        current -> {
+          Instant wall = source.instant();
+          return new Anchor(wall, start != null ? start : current.at(wall), speed);
+        });
+  }
+
+  /**
+   * Restarts the simulation from {@code start} at the speed in effect at the time of the restart,
+   * in one atomic step with reading that speed.
+   *
+   * @param start new simulated instant, or {@code null} to continue from the current simulated time
+   */
+  public void restart(Instant start) {
+    anchor.updateAndGet(
+        current -> {
+          Instant wall = source.instant();
+          return new Anchor(wall, start != null ? start : current.at(wall), current.speed());
+        });
+  }
+
+  private static Anchor anchorAt(Instant wall, Instant start, double speed) {
+    validateSpeed(speed);
+    return new Anchor(wall, start != null ? start : wall, speed);
+  }
+
+  private static void validateSpeed(double speed) {
+    if (!(speed >= 0.0 && speed <= MAX_SPEED)) {
+      throw new IllegalArgumentException("speed must be between 0 and " + (long) MAX_SPEED);
+    }
+  }
+
+  /** Maps source time to simulated time: {@code simulated + (wallNow - wall) * speed}. */
+  private record Anchor(Instant wall, Instant simulated, double speed) {
+
+    Instant at(Instant wallNow) {
+      double seconds = Duration.between(wall, wallNow).toNanos() / NANOS_PER_SECOND * speed;
+      long wholeSeconds = (long) Math.floor(seconds);
+      long nanos = Math.round((seconds - wholeSeconds) * NANOS_PER_SECOND);
+      return simulated.plusSeconds(wholeSeconds).plusNanos(nanos);
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package com.energymarket.market.admission;
+
+import com.energymarket.market.api.ApiExceptionHandler;
+import com.energymarket.market.cluster.ClusterMembership;
+import com.energymarket.market.exception.RateLimitExceededException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Rate limits and fairly schedules requests to the market API.
+ *
+ * <p>Every {@code /api/markets} request is charged its {@link RequestCost estimated cost} against
+ * its client's token bucket, the client being identified by its remote address or, behind a trusted
+ * proxy, by its forwarded address (see {@link ClientAddressResolver}). A request beyond the budget
+ * is answered with {@code 429 Too Many Requests}, rendered as an RFC 7807 problem by {@link
+ * ApiExceptionHandler} with a {@code Retry-After} header. Admitted requests are handled on a {@link
+ * FairScheduler} pool rather than on the event loop, so a client looping over week-long snapshots
+ * only queues behind itself while cheap overview and catalogue calls of other clients run next. The
+ * time requests wait for a worker feeds the {@link LoadMonitor}.
+ *
+ * <p>Requests a cluster peer forwards to the market's owner (marked with {@link
+ * ClusterMembership#FORWARDED_BY}) come from the peer's address on behalf of all of its clients,
+ * which the peer has already charged. They are charged to a separate, larger budget per peer, so
+ * they neither drain nor share the budget of a client at that address. Only a request carrying the
+ * cluster's shared secret ({@link ClusterMembership#SECRET}) and naming a configured peer counts,
+ * so a client cannot claim the larger budget.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class AdmissionFilter implements WebFilter {
+
+  private static final String PATH_PREFIX = "/api/markets";
+
+  private final ApiExceptionHandler errors;
+  private final ObjectMapper objectMapper;
+  private final ClientRateLimiter limiter;
+  private final ClientRateLimiter forwardedLimiter;
+  private final ClientAddressResolver clients;
+  private final Predicate<HttpHeaders> forwardedByPeer;
+  private final FairScheduler scheduler;
+  private final Counter admitted;
+  private final Counter rejected;
+
+  @Autowired
+  public AdmissionFilter(
+      ApiExceptionHandler errors,
+      ObjectMapper objectMapper,
+      MeterRegistry registry,
+      LoadMonitor loadMonitor,
+      ClusterMembership cluster,
+      @Value("${market.rate-limit.points-per-second:20000}") long pointsPerSecond,
+      @Value("${market.rate-limit.burst-points:100000}") long burstPoints,
+      @Value("${market.rate-limit.forwarded-points-per-second:200000}")
+          long forwardedPointsPerSecond,
+      @Value("${market.rate-limit.forwarded-burst-points:1000000}") long forwardedBurstPoints,
+      @Value("${market.rate-limit.workers:0}") int workers,
+      @Value("${market.rate-limit.trusted-proxies:}") List<String> trustedProxies) {
+    this(
+        errors,
+        objectMapper,
+        registry,
+        new ClientRateLimiter(pointsPerSecond, burstPoints, System::nanoTime),
+        new ClientRateLimiter(forwardedPointsPerSecond, forwardedBurstPoints, System::nanoTime),
+        new ClientAddressResolver(trustedProxies),
+        cluster::forwardedByPeer,
+        workers > 0 ? workers : Math.max(2, Runtime.getRuntime().availableProcessors()),
+        loadMonitor::recordQueueDelay);
+  }
+
+  AdmissionFilter(
+      ApiExceptionHandler errors,
+      ObjectMapper objectMapper,
+      MeterRegistry registry,
+      ClusterMembership cluster,
+      long pointsPerSecond,
+      long burstPoints,
+      LongSupplier nanoTime) {
+    this(
+        errors,
+        objectMapper,
+        registry,
+        new ClientRateLimiter(pointsPerSecond, burstPoints, nanoTime),
+        new ClientRateLimiter(pointsPerSecond, burstPoints, nanoTime),
+        new ClientAddressResolver(List.of()),
+        cluster::forwardedByPeer,
+        2,
+        delay -> {});
+  }
+
+  private AdmissionFilter(
+      ApiExceptionHandler errors,
+      ObjectMapper objectMapper,
+      MeterRegistry registry,
+      ClientRateLimiter limiter,
+      ClientRateLimiter forwardedLimiter,
+      ClientAddressResolver clients,
+      Predicate<HttpHeaders> forwardedByPeer,
+      int workers,
+      LongConsumer queueDelays) {
+    this.errors = errors;
+    this.objectMapper = objectMapper;
+    this.limiter = limiter;
+    this.forwardedLimiter = forwardedLimiter;
+    this.clients = clients;
+    this.forwardedByPeer = forwardedByPeer;
+    this.scheduler = new FairScheduler(workers, queueDelays);
+    this.admitted = registry.counter("market.admission.requests", "outcome", "admitted");
+    this.rejected = registry.counter("market.admission.requests", "outcome", "rejected");
+    Gauge.builder("market.admission.queued", scheduler, FairScheduler::queued)
+        .description("Admitted requests waiting for a worker")
+        .register(registry);
+    Gauge.builder("market.admission.clients", limiter, ClientRateLimiter::clients)
+        .description("Clients with a partially used request budget")
+        .register(registry);
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    ServerHttpRequest request = exchange.getRequest();
+    String path = request.getPath().pathWithinApplication().value();
+    if (!path.startsWith(PATH_PREFIX)) {
+      return chain.filter(exchange);
+    }
+    String client = clients.resolve(request);
+    long cost = RequestCost.estimate(path, request.getQueryParams());
+    ClientRateLimiter budget =
+        forwardedByPeer.test(request.getHeaders()) ? forwardedLimiter : limiter;
+    long waitNanos = budget.acquire(client, cost);
+    if (waitNanos > 0) {
+      rejected.increment();
+      return reject(exchange, new RateLimitExceededException(cost, Duration.ofNanos(waitNanos)));
+    }
+    admitted.increment();
+    return Mono.defer(() -> chain.filter(exchange))
+        .subscribeOn(Schedulers.fromExecutor(scheduler.forRequest(client, cost)));
+  }
+
+  /** Drops the state of clients whose budget has refilled. */
+  @Scheduled(fixedDelayString = "${market.rate-limit.sweep-interval:PT1M}")
+  public void evictIdleClients() {
+    limiter.evictFull();
+    forwardedLimiter.evictFull();
+    scheduler.evictIdle();
+  }
+
+  @PreDestroy
+  void close() {
+    scheduler.shutdown();
+  }
+
+  private Mono<Void> reject(ServerWebExchange exchange, RateLimitExceededException exception) {
+    ResponseEntity<ProblemDetail> problem = errors.handleRateLimitExceeded(exception);
+    ServerHttpResponse response = exchange.getResponse();
+    response.setStatusCode(problem.getStatusCode());
+    response.getHeaders().addAll(problem.getHeaders());
+    response.getHeaders().setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+    problem.getBody().setInstance(URI.create(exchange.getRequest().getPath().value()));
+    return response.writeWith(
+        Mono.fromCallable(() -> objectMapper.writeValueAsBytes(problem.getBody()))
+            .map(body -> response.bufferFactory().wrap(body)));
+  }
+}
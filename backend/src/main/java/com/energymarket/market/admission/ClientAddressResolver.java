@@ -0,0 +1,184 @@
+package com.energymarket.market.admission;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * Identifies the client a request is charged to.
+ *
+ * <p>A client is its remote address, unless that address is one of the configured trusted proxies.
+ * Then the {@code Forwarded} header, or {@code X-Forwarded-For} without it, is read from the right
+ * and the first hop that is not itself a trusted proxy becomes the client, so users behind a
+ * reverse proxy get their own budgets. Headers from any other peer are ignored, since anyone can
+ * send them; Spring's {@code ForwardedHeaderTransformer} would trust them from every peer.
+ *
+ * <p>Trusted proxies are IP addresses or CIDR ranges such as {@code 10.0.0.0/8}.
+ */
+final class ClientAddressResolver {
+
+  static final String UNKNOWN_CLIENT = "unknown";
+
+  private static final String FORWARDED = "Forwarded";
+  private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+  private static final Pattern IPV4_LITERAL = Pattern.compile("[0-9]{1,3}(\\.[0-9]{1,3}){3}");
+  private static final Pattern IPV6_LITERAL = Pattern.compile("[0-9a-fA-F:]*:[0-9a-fA-F:.]*");
+
+  private final List<AddressRange> trustedProxies;
+
+  /**
+   * Creates a resolver.
+   *
+   * @param trustedProxies addresses or CIDR ranges of proxies whose forwarding headers are used
+   * @throws IllegalArgumentException if an entry is not an IP address or CIDR range
+   */
+  ClientAddressResolver(List<String> trustedProxies) {
+    List<AddressRange> ranges = new ArrayList<>(trustedProxies.size());
+    for (String entry : trustedProxies) {
+      if (!entry.isBlank()) {
+        ranges.add(AddressRange.parse(entry.strip()));
+      }
+    }
+    this.trustedProxies = List.copyOf(ranges);
+  }
+
+  /** Returns the client key of a request. */
+  String resolve(ServerHttpRequest request) {
+    InetSocketAddress remote = request.getRemoteAddress();
+    if (remote == null || remote.getAddress() == null) {
+      return UNKNOWN_CLIENT;
+    }
+    InetAddress address = remote.getAddress();
+    if (!trusted(address)) {
+      return address.getHostAddress();
+    }
+    List<String> hops = hops(request.getHeaders());
+    String client = address.getHostAddress();
+    for (int i = hops.size() - 1; i >= 0; i--) {
+      String hop = hops.get(i);
+      InetAddress parsed = literal(hop);
+      if (parsed == null) {
+        // An obfuscated or unknown hop still names a distinct client behind a trusted proxy.
+        return hop.isEmpty() ? client : hop;
+      }
+      client = parsed.getHostAddress();
+      if (!trusted(parsed)) {
+        return client;
+      }
+    }
+    return client;
+  }
+
+  private boolean trusted(InetAddress address) {
+    for (AddressRange range : trustedProxies) {
+      if (range.contains(address)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the forwarded hops, nearest to the client first, with ports and quotes removed. */
+  private static List<String> hops(HttpHeaders headers) {
+    List<String> hops = new ArrayList<>();
+    List<String> forwarded = headers.getOrEmpty(FORWARDED);
+    if (!forwarded.isEmpty()) {
+      for (String value : forwarded) {
+        for (String element : value.split(",")) {
+          for (String pair : element.split(";")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0
+                && pair.substring(0, equals).strip().toLowerCase(Locale.ROOT).equals("for")) {
+              hops.add(host(pair.substring(equals + 1)));
+            }
+          }
+        }
+      }
+      return hops;
+    }
+    for (String value : headers.getOrEmpty(X_FORWARDED_FOR)) {
+      for (String hop : value.split(",")) {
+        hops.add(host(hop));
+      }
+    }
+    return hops;
+  }
+
+  private static String host(String node) {
+    String host = node.strip();
+    if (host.length() >= 2 && host.startsWith("\"") && host.endsWith("\"")) {
+      host = host.substring(1, host.length() - 1).strip();
+    }
+    if (host.startsWith("[")) {
+      int end = host.indexOf(']');
+      return end > 0 ? host.substring(1, end) : host;
+    }
+    int colon = host.indexOf(':');
+    if (colon >= 0 && colon == host.lastIndexOf(':')) {
+      return host.substring(0, colon);
+    }
+    return host;
+  }
+
+  /** Parses an IP literal without ever resolving a host name, or returns null. */
+  private static InetAddress literal(String host) {
+    if (!IPV4_LITERAL.matcher(host).matches() && !IPV6_LITERAL.matcher(host).matches()) {
+      return null;
+    }
+    try {
+      return InetAddress.getByName(host);
+    } catch (UnknownHostException exception) {
+      return null;
+    }
+  }
+
+  private record AddressRange(byte[] network, int prefixLength) {
+
+    static AddressRange parse(String entry) {
+      int slash = entry.indexOf('/');
+      String host = slash < 0 ? entry : entry.substring(0, slash);
+      InetAddress address = literal(host);
+      if (address == null) {
+        throw new IllegalArgumentException("trusted proxy is not an IP address: " + entry);
+      }
+      int bits = address.getAddress().length * 8;
+      int prefixLength = bits;
+      if (slash >= 0) {
+        try {
+          prefixLength = Integer.parseInt(entry.substring(slash + 1));
+        } catch (NumberFormatException exception) {
+          prefixLength = -1;
+        }
+        if (prefixLength < 0 || prefixLength > bits) {
+          throw new IllegalArgumentException("invalid trusted proxy range: " + entry);
+        }
+      }
+      return new AddressRange(address.getAddress(), prefixLength);
+    }
+
+    boolean contains(InetAddress address) {
+      byte[] candidate = address.getAddress();
+      if (candidate.length != network.length) {
+        return false;
+      }
+      int full = prefixLength / 8;
+      for (int i = 0; i < full; i++) {
+        if (candidate[i] != network[i]) {
+          return false;
+        }
+      }
+      int rest = prefixLength % 8;
+      if (rest == 0) {
+        return true;
+      }
+      int mask = 0xff << (8 - rest);
+      return (candidate[full] & mask) == (network[full] & mask);
+    }
+  }
+}
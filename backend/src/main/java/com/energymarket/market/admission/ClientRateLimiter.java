@@ -0,0 +1,76 @@
+package com.energymarket.market.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets charged with the cost of each request.
+ *
+ * <p>Each bucket refills at {@code pointsPerSecond} up to {@code burstPoints}. It is kept in the
+ * equivalent generic cell rate form: a single theoretical arrival time that advances by the cost of
+ * every admitted request, where a request is admitted while that time stays within the burst
+ * allowance of now. Admission is therefore one compare-and-set on the client's {@link AtomicLong},
+ * without locks; buckets of different clients never contend. A bucket whose arrival time has fallen
+ * behind the clock is full and can be evicted without changing any decision.
+ */
+final class ClientRateLimiter {
+
+  private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+  private final double nanosPerPoint;
+  private final long burstNanos;
+  private final LongSupplier nanoTime;
+
+  /**
+   * @param pointsPerSecond sustained cost budget of a client
+   * @param burstPoints cost a client with a full bucket may spend at once
+   * @param nanoTime clock on the {@link System#nanoTime()} scale
+   */
+  ClientRateLimiter(long pointsPerSecond, long burstPoints, LongSupplier nanoTime) {
+    if (pointsPerSecond < 1 || burstPoints < 1) {
+      throw new IllegalArgumentException("points per second and burst points must be positive");
+    }
+    this.nanosPerPoint = 1_000_000_000.0 / pointsPerSecond;
+    this.burstNanos = (long) (burstPoints * nanosPerPoint);
+    this.nanoTime = nanoTime;
+  }
+
+  /**
+   * Charges {@code cost} points to the bucket of {@code client} if it holds enough.
+   *
+   * @param cost request cost; costs above the burst are charged as a full burst
+   * @return {@code 0} if the request is admitted, otherwise the nanoseconds until it would be
+   */
+  long acquire(String client, long cost) {
+    long now = nanoTime.getAsLong();
+    AtomicLong bucket = buckets.get(client);
+    if (bucket == null) {
+      bucket = buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+    }
+    long charge = Math.min(burstNanos, (long) (cost * nanosPerPoint));
+    while (true) {
+      long arrival = bucket.get();
+      long next = (arrival - now < 0 ? now : arrival) + charge;
+      long excess = next - now - burstNanos;
+      if (excess > 0) {
+        return excess;
+      }
+      if (bucket.compareAndSet(arrival, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /** Drops the buckets that have refilled completely and returns how many remain. */
+  int evictFull() {
+    long now = nanoTime.getAsLong();
+    buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    return buckets.size();
+  }
+
+  /** Returns the number of clients with a bucket. */
+  int clients() {
+    return buckets.size();
+  }
+}
@@ -0,0 +1,120 @@
+package com.energymarket.market.admission;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * Worker pool that runs request handling in start-time fair queuing order across clients.
+ *
+ * <p>A task is tagged with a start time, the later of the virtual clock and the finish time of the
+ * previous task of its client, and advances its client's finish time by its cost. Workers always
+ * take the queued task with the smallest start time, and the virtual clock follows the start time
+ * of the task taken last. A client queueing many expensive snapshots therefore only delays its own
+ * later requests: a cheap overview from another client is tagged at the current virtual time and
+ * overtakes that backlog instead of waiting behind it. The time every task spent queued is reported
+ * as it starts.
+ */
+final class FairScheduler {
+
+  private final ThreadPoolExecutor executor;
+  private final LongConsumer queueDelays;
+  private final Map<String, Long> finishTimes = new HashMap<>();
+  private long virtualTime;
+  private long sequence;
+
+  /**
+   * @param queueDelays receives the nanoseconds each task waited for a worker
+   */
+  FairScheduler(int workers, LongConsumer queueDelays) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("workers must be positive");
+    }
+    this.queueDelays = queueDelays;
+    AtomicInteger threads = new AtomicInteger();
+    executor =
+        new ThreadPoolExecutor(
+            workers,
+            workers,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(
+                64, Comparator.comparing(task -> (Tagged) task, Tagged.ORDER)),
+            task -> {
+              Thread thread = new Thread(task, "market-fair-" + threads.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Returns an executor for the tasks of one request. The first task is charged {@code cost}; any
+   * further task of the request, such as a deferred demand signal, runs at its client's current tag
+   * without being charged again.
+   */
+  Executor forRequest(String client, long cost) {
+    AtomicBoolean charged = new AtomicBoolean();
+    return task -> {
+      long charge = charged.compareAndSet(false, true) ? cost : 0;
+      executor.execute(tag(client, charge, task));
+    };
+  }
+
+  /** Returns the number of tasks waiting for a worker. */
+  int queued() {
+    return executor.getQueue().size();
+  }
+
+  /** Forgets clients whose finish time the virtual clock has passed and returns the rest. */
+  synchronized int evictIdle() {
+    finishTimes.values().removeIf(finish -> finish <= virtualTime);
+    return finishTimes.size();
+  }
+
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private synchronized Tagged tag(String client, long cost, Runnable task) {
+    long start = Math.max(virtualTime, finishTimes.getOrDefault(client, virtualTime));
+    finishTimes.put(client, start + cost);
+    return new Tagged(start, sequence++, task);
+  }
+
+  private synchronized void started(long start) {
+    virtualTime = Math.max(virtualTime, start);
+  }
+
+  /** A task with its start tag and queueing time; equal tags run in submission order. */
+  private final class Tagged implements Runnable {
+
+    static final Comparator<Tagged> ORDER =
+        Comparator.comparingLong((Tagged tagged) -> tagged.start)
+            .thenComparingLong(tagged -> tagged.sequence);
+
+    private final long start;
+    private final long sequence;
+    private final Runnable task;
+    private final long queuedAt = System.nanoTime();
+
+    Tagged(long start, long sequence, Runnable task) {
+      this.start = start;
+      this.sequence = sequence;
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      queueDelays.accept(System.nanoTime() - queuedAt);
+      started(start);
+      task.run();
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.energymarket.market.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides whether this node is overloaded from the queueing delay of admitted requests and the CPU
+ * load of the process.
+ *
+ * <p>{@link FairScheduler} reports how long every task waited for a worker, and the delays are
+ * smoothed into an exponentially weighted moving average with one atomic update per task. On every
+ * sample the node is marked overloaded while the average delay or the CPU load exceeds its
+ * threshold. Once both are back below, the mark is held for a further {@code hold} before the node
+ * counts as recovered, so load hovering around a threshold does not flip the state on every sample.
+ * An idle queue reports no delays, so a sampling period in which no task started halves the average
+ * instead.
+ */
+@Component
+public class LoadMonitor {
+
+  private static final double SMOOTHING = 0.2;
+
+  private final long queueDelayThresholdNanos;
+  private final double cpuThreshold;
+  private final long holdNanos;
+  private final DoubleSupplier cpuLoad;
+  private final LongSupplier nanoTime;
+  private final AtomicLong queueDelayNanos = new AtomicLong();
+  private final AtomicLong delaysRecorded = new AtomicLong();
+  private final AtomicReference<LoadState> state =
+      new AtomicReference<>(new LoadState(false, Double.NaN, 0L));
+  private final Counter overloads;
+  private long delaysAtLastSample;
+
+  @Autowired
+  public LoadMonitor(
+      MeterRegistry registry,
+      @Value("${market.overload.queue-delay:PT0.25S}") Duration queueDelayThreshold,
+      @Value("${market.overload.cpu:0.85}") double cpuThreshold,
+      @Value("${market.overload.hold:PT30S}") Duration hold) {
+    this(
+        registry,
+        queueDelayThreshold,
+        cpuThreshold,
+        hold,
+        processCpuLoad(ManagementFactory.getOperatingSystemMXBean()),
+        System::nanoTime);
+  }
+
+  /**
+   * @param cpuLoad CPU load of the process between 0 and 1, or {@code NaN} if unknown
+   * @param nanoTime clock on the {@link System#nanoTime()} scale
+   */
+  LoadMonitor(
+      MeterRegistry registry,
+      Duration queueDelayThreshold,
+      double cpuThreshold,
+      Duration hold,
+      DoubleSupplier cpuLoad,
+      LongSupplier nanoTime) {
+    if (queueDelayThreshold.isNegative() || queueDelayThreshold.isZero()) {
+      throw new IllegalArgumentException("market.overload.queue-delay must be positive");
+    }
+    if (!(cpuThreshold > 0.0 && cpuThreshold <= 1.0)) {
+      throw new IllegalArgumentException("market.overload.cpu must be within (0, 1]");
+    }
+    if (hold.isNegative()) {
+      throw new IllegalArgumentException("market.overload.hold must not be negative");
+    }
+    this.queueDelayThresholdNanos = queueDelayThreshold.toNanos();
+    this.cpuThreshold = cpuThreshold;
+    this.holdNanos = hold.toNanos();
+    this.cpuLoad = cpuLoad;
+    this.nanoTime = nanoTime;
+    this.overloads = registry.counter("market.overload.entered");
+    Gauge.builder("market.overload.active", state, current -> current.get().overloaded() ? 1 : 0)
+        .description("Whether snapshots are served at a degraded resolution")
+        .register(registry);
+    Gauge.builder("market.overload.queue.delay", queueDelayNanos, delay -> delay.get() / 1e9)
+        .description("Smoothed time admitted requests wait for a worker")
+        .baseUnit("seconds")
+        .register(registry);
+    Gauge.builder("market.overload.cpu", state, current -> current.get().cpuLoad())
+        .description("CPU load of the process at the last sample")
+        .register(registry);
+  }
+
+  /** Returns whether the node was overloaded at the last sample. */
+  public boolean overloaded() {
+    return state.get().overloaded();
+  }
+
+  /** Records that a task waited {@code nanos} between being queued and starting. */
+  void recordQueueDelay(long nanos) {
+    queueDelayNanos.getAndUpdate(average -> average + Math.round((nanos - average) * SMOOTHING));
+    delaysRecorded.incrementAndGet();
+  }
+
+  /** Returns the smoothed queueing delay in nanoseconds. */
+  long queueDelayNanos() {
+    return queueDelayNanos.get();
+  }
+
+  /** Samples the CPU load and re-evaluates the overload state against the thresholds. */
+  @Scheduled(fixedDelayString = "${market.overload.sample-interval:PT1S}")
+  public synchronized void sample() {
+    long recorded = delaysRecorded.get();
+    if (recorded == delaysAtLastSample) {
+      queueDelayNanos.getAndUpdate(average -> average / 2);
+    }
+    delaysAtLastSample = recorded;
+    double cpu = cpuLoad.getAsDouble();
+    long now = nanoTime.getAsLong();
+    LoadState previous = state.get();
+    boolean hot = queueDelayNanos.get() > queueDelayThresholdNanos || cpu > cpuThreshold;
+    boolean overloaded =
+        hot || (previous.overloaded() && now - previous.lastHotNanos() < holdNanos);
+    if (overloaded && !previous.overloaded()) {
+      overloads.increment();
+    }
+    state.set(new LoadState(overloaded, cpu, hot ? now : previous.lastHotNanos()));
+  }
+
+  private static DoubleSupplier processCpuLoad(OperatingSystemMXBean bean) {
+    if (!(bean instanceof com.sun.management.OperatingSystemMXBean os)) {
+      return () -> Double.NaN;
+    }
+    return () -> {
+      double load = os.getProcessCpuLoad();
+      return load < 0.0 ? Double.NaN : load;
+    };
+  }
+
+  /**
+   * @param lastHotNanos time of the last sample at which a threshold was exceeded
+   */
+  private record LoadState(boolean overloaded, double cpuLoad, long lastHotNanos) {}
+}
@@ -0,0 +1,100 @@
+package com.energymarket.market.admission;
+
+import com.energymarket.market.MarketCode;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates what a market API request costs, in generated points, from its path and parameters.
+ *
+ * <p>A full snapshot costs its history points plus its forecast points, so a week at five-minute
+ * resolution weighs about 2,000 points against roughly 100 for the default snapshot. Delta polls
+ * (with a {@code cursor} or {@code since}) only regenerate the forecast. Parameters are clamped to
+ * the bounds the controller enforces; a request outside them is rejected by validation anyway.
+ * Every request carries {@link #BASE} points of fixed overhead, and endpoints without a specific
+ * estimate cost {@link #DEFAULT}.
+ *
+ * <p>Weekly profiles reduce their points in place without materialising or serialising them and are
+ * charged a quarter of a point each, so a year at five-minute resolution still fits the default
+ * burst.
+ */
+final class RequestCost {
+
+  /** Fixed overhead of any request. */
+  static final long BASE = 16;
+
+  /** Cost of an endpoint without a specific estimate. */
+  static final long DEFAULT = 512;
+
+  private static final String PREFIX = "/api/markets/";
+  private static final long POINTS_PER_OVERVIEW_MARKET = 96;
+  private static final long PROFILE_POINTS_PER_COST = 4;
+
+  private RequestCost() {}
+
+  /**
+   * Returns the estimated cost of a request.
+   *
+   * @param path request path within the application
+   * @param query query parameters of the request
+   */
+  static long estimate(String path, Map<String, List<String>> query) {
+    if (!path.startsWith(PREFIX)) {
+      return DEFAULT;
+    }
+    String[] segments = path.substring(PREFIX.length()).split("/");
+    if (segments.length == 1) {
+      return switch (segments[0]) {
+        case "catalog" -> BASE;
+        case "overview" -> BASE + MarketCode.values().length * POINTS_PER_OVERVIEW_MARKET;
+        case "distribution" ->
+            BASE + distributionMarkets(query) * 4L * parameter(query, "historyHours", 24, 1, 168);
+        default -> DEFAULT;
+      };
+    }
+    if (segments.length == 2 && segments[1].equals("snapshot")) {
+      long forecast =
+          parameter(query, "forecastHours", 12, 1, 72)
+              * 60
+              / parameter(query, "forecastResolutionMinutes", 60, 15, 240);
+      if (query.containsKey("cursor") || query.containsKey("since")) {
+        return BASE + forecast;
+      }
+      long history =
+          parameter(query, "historyHours", 24, 1, 168)
+              * 60
+              / parameter(query, "historyResolutionMinutes", 15, 5, 180);
+      return BASE + history + forecast;
+    }
+    if (segments.length == 2 && segments[1].equals("profile")) {
+      long points =
+          parameter(query, "days", 28, 7, 365)
+              * 1440
+              / parameter(query, "resolutionMinutes", 15, 5, 60);
+      return BASE + points / PROFILE_POINTS_PER_COST;
+    }
+    return DEFAULT;
+  }
+
+  private static long distributionMarkets(Map<String, List<String>> query) {
+    List<String> values = query.get("markets");
+    if (values == null) {
+      return MarketCode.values().length;
+    }
+    long markets = values.stream().mapToLong(value -> value.split(",").length).sum();
+    return Math.max(1, Math.min(markets, MarketCode.values().length));
+  }
+
+  private static long parameter(
+      Map<String, List<String>> query, String name, long defaultValue, long min, long max) {
+    List<String> values = query.get(name);
+    if (values == null || values.isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return Math.max(min, Math.min(max, Long.parseLong(values.getFirst().trim())));
+    } catch (NumberFormatException exception) {
+      return defaultValue;
+    }
+  }
+}
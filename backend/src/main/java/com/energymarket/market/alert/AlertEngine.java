@@ -0,0 +1,181 @@
+package com.energymarket.market.alert;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.MarketAlert;
+import com.energymarket.market.model.MarketMetric;
+import com.energymarket.market.model.PricePoint;
+import com.energymarket.market.tick.MarketTick;
+import com.energymarket.market.tick.MarketTickListener;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Incremental rule engine that evaluates every registered {@link AlertRule} against each market
+ * tick.
+ *
+ * <p>Rules are partitioned by market into flat slot arrays, so a tick costs O(rules bound to its
+ * market) with no rescans of history. Alerts are edge-triggered: a rule fires when its condition
+ * becomes true and re-arms once the condition clears. Fired alerts are appended to the {@link
+ * AlertLog} and live ones are pushed to stream subscribers. A tick that is not newer than the
+ * previous one for its market, which happens when a simulation clock is rewound, resets the
+ * evaluators of that market before it is evaluated.
+ */
+@Component
+public class AlertEngine implements MarketTickListener {
+
+  private static final MarketMetric[] METRICS = MarketMetric.values();
+
+  private final AlertLog alertLog;
+  private final Map<String, AlertRule> rules = new ConcurrentHashMap<>();
+  private final Map<MarketCode, MarketRuleSet> ruleSets = new EnumMap<>(MarketCode.class);
+  private final Sinks.Many<MarketAlert> sink = Sinks.many().multicast().directBestEffort();
+  private final AtomicLong sequence = new AtomicLong();
+
+  @Autowired
+  public AlertEngine(AlertLog alertLog) {
+    this(alertLog, AlertRules.defaults());
+  }
+
+  AlertEngine(AlertLog alertLog, Collection<AlertRule> initialRules) {
+    this.alertLog = Objects.requireNonNull(alertLog, "alertLog");
+    for (MarketCode market : MarketCode.values()) {
+      ruleSets.put(market, new MarketRuleSet());
+    }
+    for (AlertRule rule : initialRules) {
+      registerRule(rule);
+    }
+  }
+
+  /** Registers a rule, replacing any existing rule with the same identifier. */
+  public void register(AlertRule rule) {
+    registerRule(rule);
+  }
+
+  private void registerRule(AlertRule rule) {
+    Objects.requireNonNull(rule, "rule");
+    rules.put(rule.id(), rule);
+    ruleSets.forEach(
+        (market, ruleSet) -> {
+          ruleSet.remove(rule.id());
+          if (rule.appliesTo(market)) {
+            ruleSet.add(rule);
+          }
+        });
+  }
+
+  /**
+   * Removes a rule and its evaluation state.
+   *
+   * @return {@code true} if the rule existed
+   */
+  public boolean remove(String ruleId) {
+    if (rules.remove(ruleId) == null) {
+      return false;
+    }
+    ruleSets.values().forEach(ruleSet -> ruleSet.remove(ruleId));
+    return true;
+  }
+
+  /** Returns every registered rule ordered by identifier. */
+  public List<AlertRule> rules() {
+    return rules.values().stream().sorted(Comparator.comparing(AlertRule::id)).toList();
+  }
+
+  @Override
+  public void onTick(MarketTick tick) {
+    List<MarketAlert> fired = ruleSets.get(tick.market()).evaluate(tick);
+    for (MarketAlert alert : fired) {
+      alertLog.append(tick.market(), alert);
+      if (!tick.replay()) {
+        sink.tryEmitNext(alert);
+      }
+    }
+  }
+
+  /**
+   * Streams live alerts as they fire.
+   *
+   * @param market market to filter on, or {@code null} for every market
+   */
+  public Flux<MarketAlert> stream(MarketCode market) {
+    Flux<MarketAlert> alerts = sink.asFlux();
+    return market == null
+        ? alerts
+        : alerts.filter(alert -> alert.marketCode().equals(market.code()));
+  }
+
+  private MarketAlert toAlert(MarketTick tick, AlertRule rule, double value, double statistic) {
+    return new MarketAlert(
+        sequence.incrementAndGet(),
+        tick.market().code(),
+        rule.id(),
+        rule.metric(),
+        tick.point().timestamp(),
+        value,
+        String.format(Locale.US, rule.message(), value, statistic));
+  }
+
+  private static final class Slot {
+    private final AlertRule rule;
+    private final AlertRule.Evaluator evaluator;
+    private boolean active;
+
+    Slot(AlertRule rule) {
+      this.rule = rule;
+      this.evaluator = rule.newEvaluator();
+    }
+  }
+
+  /** Copy-on-write slot array for one market; evaluation is serialised per market. */
+  private final class MarketRuleSet {
+    private volatile Slot[] slots = new Slot[0];
+    private Instant lastTimestamp;
+
+    synchronized void add(AlertRule rule) {
+      Slot[] next = Arrays.copyOf(slots, slots.length + 1);
+      next[slots.length] = new Slot(rule);
+      slots = next;
+    }
+
+    synchronized void remove(String ruleId) {
+      slots =
+          Arrays.stream(slots).filter(slot -> !slot.rule.id().equals(ruleId)).toArray(Slot[]::new);
+    }
+
+    synchronized List<MarketAlert> evaluate(MarketTick tick) {
+      PricePoint point = tick.point();
+      if (lastTimestamp != null && !point.timestamp().isAfter(lastTimestamp)) {
+        slots = Arrays.stream(slots).map(slot -> new Slot(slot.rule)).toArray(Slot[]::new);
+      }
+      lastTimestamp = point.timestamp();
+      double[] values = new double[METRICS.length];
+      for (MarketMetric metric : METRICS) {
+        values[metric.ordinal()] = metric.extract(point);
+      }
+      List<MarketAlert> fired = new ArrayList<>(0);
+      for (Slot slot : slots) {
+        double value = values[slot.rule.metric().ordinal()];
+        boolean breached = slot.evaluator.update(point.timestamp(), value);
+        if (breached && !slot.active) {
+          fired.add(toAlert(tick, slot.rule, value, slot.evaluator.statistic()));
+        }
+        slot.active = breached;
+      }
+      return fired;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.energymarket.market.alert;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.MarketAlert;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, time-indexed log of fired alerts.
+ *
+ * <p>Each market keeps its own skip list ordered by alert timestamp, so range queries cost O(log n
+ * + k) and appends never contend across markets. An alert replaces any earlier one of the same rule
+ * at the same timestamp, so the alerts a rewound clock's warm-up replay fires again are not logged
+ * twice. Once a market exceeds its retention capacity the oldest entries are evicted.
+ */
+@Component
+public class AlertLog {
+
+  /** Retention used when no capacity is configured. */
+  public static final int DEFAULT_CAPACITY_PER_MARKET = 10_000;
+
+  private final int capacityPerMarket;
+  private final Map<MarketCode, MarketLog> logs = new EnumMap<>(MarketCode.class);
+
+  public AlertLog(@Value("${market.alerts.capacity-per-market:10000}") int capacityPerMarket) {
+    if (capacityPerMarket < 1) {
+      throw new IllegalArgumentException("capacityPerMarket must be positive");
+    }
+    this.capacityPerMarket = capacityPerMarket;
+    for (MarketCode market : MarketCode.values()) {
+      logs.put(market, new MarketLog());
+    }
+  }
+
+  /**
+   * Appends an alert, replacing the alert of the same rule at the same timestamp if there is one
+   * and otherwise evicting the oldest entry of its market when the log is full.
+   */
+  public void append(MarketCode market, MarketAlert alert) {
+    Objects.requireNonNull(alert, "alert");
+    MarketLog log = logs.get(Objects.requireNonNull(market, "market"));
+    MarketAlert replaced = log.entries.put(new Key(alert.timestamp(), alert.ruleId()), alert);
+    log.revision.incrementAndGet();
+    if (replaced != null) {
+      return;
+    }
+    if (log.size.incrementAndGet() > capacityPerMarket && log.entries.pollFirstEntry() != null) {
+      log.size.decrementAndGet();
+    }
+  }
+
+  /**
+   * Returns alerts whose timestamp lies within {@code [from, to]}, newest first.
+   *
+   * @param market market to query, or {@code null} for every market
+   * @param from inclusive lower bound
+   * @param to inclusive upper bound
+   * @param limit maximum number of alerts to return
+   * @return matching alerts, newest first
+   */
+  public List<MarketAlert> query(MarketCode market, Instant from, Instant to, int limit) {
+    Objects.requireNonNull(from, "from");
+    Objects.requireNonNull(to, "to");
+    if (limit < 1 || to.isBefore(from)) {
+      return List.of();
+    }
+    Key lower = new Key(from, null);
+    Key upper = new Key(to.equals(Instant.MAX) ? to : to.plusNanos(1), null);
+    if (market != null) {
+      return logs
+          .get(market)
+          .entries
+          .subMap(lower, true, upper, false)
+          .descendingMap()
+          .values()
+          .stream()
+          .limit(limit)
+          .toList();
+    }
+    List<MarketAlert> merged = new ArrayList<>();
+    for (MarketLog log : logs.values()) {
+      ConcurrentNavigableMap<Key, MarketAlert> range =
+          log.entries.subMap(lower, true, upper, false).descendingMap();
+      range.values().stream().limit(limit).forEach(merged::add);
+    }
+    merged.sort(
+        Comparator.comparing(MarketAlert::timestamp)
+            .thenComparingLong(MarketAlert::sequence)
+            .reversed());
+    return merged.size() > limit ? List.copyOf(merged.subList(0, limit)) : List.copyOf(merged);
+  }
+
+  /** Returns the number of retained alerts for a market. */
+  public int size(MarketCode market) {
+    return logs.get(market).size.get();
+  }
+
+  /**
+   * Returns the number of alerts ever appended for a market. The log of the market is unchanged for
+   * as long as its revision is.
+   */
+  public long revision(MarketCode market) {
+    return logs.get(market).revision.get();
+  }
+
+  /** Log position of an alert; a {@code null} rule sorts before every rule at its timestamp. */
+  private record Key(Instant timestamp, String ruleId) implements Comparable<Key> {
+
+    private static final Comparator<Key> ORDER =
+        Comparator.comparing(Key::timestamp)
+            .thenComparing(Key::ruleId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    @Override
+    public int compareTo(Key other) {
+      return ORDER.compare(this, other);
+    }
+  }
+
+  private static final class MarketLog {
+    private final ConcurrentSkipListMap<Key, MarketAlert> entries = new ConcurrentSkipListMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong revision = new AtomicLong();
+  }
+}
@@ -0,0 +1,75 @@
+package com.energymarket.market.alert;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.MarketMetric;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import java.time.Instant;
+
+/**
+ * A streaming alert rule evaluated incrementally against each market tick.
+ *
+ * <p>Rules are immutable definitions; all per-market mutable state lives in the {@link Evaluator}
+ * instances created by {@link #newEvaluator()}, so evaluating a tick costs O(1) per rule regardless
+ * of how much history has been observed.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+  @JsonSubTypes.Type(value = ThresholdRule.class, name = "threshold"),
+  @JsonSubTypes.Type(value = EwmaZScoreRule.class, name = "ewma-zscore"),
+  @JsonSubTypes.Type(value = RateOfChangeRule.class, name = "rate-of-change")
+})
+public sealed interface AlertRule permits ThresholdRule, EwmaZScoreRule, RateOfChangeRule {
+
+  /** Unique identifier of the rule. */
+  String id();
+
+  /** Market the rule is bound to, or {@code null} when it applies to every market. */
+  MarketCode market();
+
+  /** Column of the tick the rule observes. */
+  MarketMetric metric();
+
+  /** Side of the statistic that triggers the rule. */
+  Direction direction();
+
+  /**
+   * Message template rendered with {@link String#format}; argument 1 is the observed value and
+   * argument 2 the rule-specific statistic.
+   */
+  String message();
+
+  /** Creates fresh evaluation state for one market. */
+  Evaluator newEvaluator();
+
+  /** Returns whether this rule observes the given market. */
+  default boolean appliesTo(MarketCode candidate) {
+    return market() == null || market() == candidate;
+  }
+
+  /** Side of a threshold that counts as a breach. */
+  enum Direction {
+    ABOVE,
+    BELOW;
+
+    boolean breached(double statistic, double threshold) {
+      return this == ABOVE ? statistic > threshold : statistic < threshold;
+    }
+  }
+
+  /** Mutable, single-market evaluation state for a rule. */
+  interface Evaluator {
+
+    /**
+     * Folds a new observation into the state.
+     *
+     * @param timestamp observation time
+     * @param value observed metric value
+     * @return {@code true} when the rule condition holds after this observation
+     */
+    boolean update(Instant timestamp, double value);
+
+    /** Rule-specific statistic from the latest observation, used when rendering messages. */
+    double statistic();
+  }
+}
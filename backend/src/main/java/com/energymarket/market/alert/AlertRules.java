@@ -0,0 +1,79 @@
+package com.energymarket.market.alert;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.MarketCode.MarketParameters;
+import com.energymarket.market.alert.AlertRule.Direction;
+import com.energymarket.market.model.MarketMetric;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/** Validation helpers and the default rule set shipped with the service. */
+final class AlertRules {
+
+  private static final double DEFAULT_ALPHA = 0.05;
+
+  private AlertRules() {}
+
+  /**
+   * Streaming equivalents of the fixed alerts previously computed over the full history window:
+   * price spikes, demand approaching peak load, weak renewables and rising carbon intensity.
+   */
+  static List<AlertRule> defaults() {
+    List<AlertRule> rules = new ArrayList<>();
+    rules.add(
+        new EwmaZScoreRule(
+            "price-spike",
+            null,
+            MarketMetric.PRICE,
+            Direction.ABOVE,
+            DEFAULT_ALPHA,
+            1.5,
+            16,
+            "Price spike detected: %2$+.1f%% vs average"));
+    rules.add(
+        new EwmaZScoreRule(
+            "renewables-shortfall",
+            null,
+            MarketMetric.RENEWABLES,
+            Direction.BELOW,
+            DEFAULT_ALPHA,
+            1.5,
+            16,
+            "Renewable output is significantly below typical levels"));
+    rules.add(
+        new RateOfChangeRule(
+            "carbon-rising",
+            null,
+            MarketMetric.CARBON,
+            Direction.ABOVE,
+            0.25,
+            1.0,
+            "Carbon intensity trending upward"));
+    for (MarketCode market : MarketCode.values()) {
+      MarketParameters parameters = market.parameters();
+      double nominalPeak = parameters.demandBase() + parameters.demandSwing() * 2.35;
+      rules.add(
+          new ThresholdRule(
+              "demand-peak-" + market.code().toLowerCase(Locale.US),
+              market,
+              MarketMetric.DEMAND,
+              Direction.ABOVE,
+              Math.round(nominalPeak * 0.95),
+              "Demand is approaching the nominal peak load"));
+    }
+    return List.copyOf(rules);
+  }
+
+  static void requireId(String id) {
+    if (id == null || id.isBlank()) {
+      throw new IllegalArgumentException("rule id must not be blank");
+    }
+  }
+
+  static void requireAlpha(double alpha) {
+    if (!(alpha > 0.0 && alpha <= 1.0)) {
+      throw new IllegalArgumentException("alpha must be within (0, 1]");
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.energymarket.market.alert;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.MarketMetric;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Fires when an observation deviates from the exponentially weighted mean by more than {@code
+ * zThreshold} exponentially weighted standard deviations.
+ *
+ * <p>The statistic exposed to messages is the percentage deviation from the running mean.
+ */
+public record EwmaZScoreRule(
+    String id,
+    MarketCode market,
+    MarketMetric metric,
+    Direction direction,
+    double alpha,
+    double zThreshold,
+    int warmupTicks,
+    String message)
+    implements AlertRule {
+
+  public EwmaZScoreRule {
+    AlertRules.requireId(id);
+    Objects.requireNonNull(metric, "metric");
+    Objects.requireNonNull(direction, "direction");
+    Objects.requireNonNull(message, "message");
+    AlertRules.requireAlpha(alpha);
+    if (zThreshold <= 0.0) {
+      throw new IllegalArgumentException("zThreshold must be positive");
+    }
+    if (warmupTicks < 1) {
+      throw new IllegalArgumentException("warmupTicks must be at least 1");
+    }
+  }
+
+  @Override
+  public Evaluator newEvaluator() {
+    return new Evaluator() {
+      private long observations;
+      private double mean;
+      private double variance;
+      private double deviationPercent;
+
+      @Override
+      public boolean update(Instant timestamp, double value) {
+        if (observations++ == 0) {
+          mean = value;
+          return false;
+        }
+        double deviation = value - mean;
+        double standardDeviation = Math.sqrt(variance);
+        deviationPercent = mean == 0.0 ? 0.0 : (deviation / mean) * 100.0;
+        double signedThreshold = direction == Direction.ABOVE ? zThreshold : -zThreshold;
+        boolean breached =
+            observations > warmupTicks
+                && standardDeviation > 0.0
+                && direction.breached(deviation / standardDeviation, signedThreshold);
+        // West's incremental EWMA variance update.
+        double increment = alpha * deviation;
+        mean += increment;
+        variance = (1.0 - alpha) * (variance + deviation * increment);
+        return breached;
+      }
+
+      @Override
+      public double statistic() {
+        return deviationPercent;
+      }
+    };
+  }
+}
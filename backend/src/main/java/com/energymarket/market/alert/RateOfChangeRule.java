@@ -0,0 +1,60 @@
+package com.energymarket.market.alert;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.MarketMetric;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Fires when the exponentially smoothed rate of change per hour crosses {@code perHourThreshold}.
+ */
+public record RateOfChangeRule(
+    String id,
+    MarketCode market,
+    MarketMetric metric,
+    Direction direction,
+    double alpha,
+    double perHourThreshold,
+    String message)
+    implements AlertRule {
+
+  public RateOfChangeRule {
+    AlertRules.requireId(id);
+    Objects.requireNonNull(metric, "metric");
+    Objects.requireNonNull(direction, "direction");
+    Objects.requireNonNull(message, "message");
+    AlertRules.requireAlpha(alpha);
+  }
+
+  @Override
+  public Evaluator newEvaluator() {
+    return new Evaluator() {
+      private Instant previousTimestamp;
+      private double previousValue;
+      private double smoothedRate;
+      private boolean primed;
+
+      @Override
+      public boolean update(Instant timestamp, double value) {
+        if (previousTimestamp == null || !timestamp.isAfter(previousTimestamp)) {
+          previousTimestamp = timestamp;
+          previousValue = value;
+          return false;
+        }
+        double hours = Duration.between(previousTimestamp, timestamp).toSeconds() / 3600.0;
+        double rate = (value - previousValue) / hours;
+        smoothedRate = primed ? smoothedRate + alpha * (rate - smoothedRate) : rate;
+        primed = true;
+        previousTimestamp = timestamp;
+        previousValue = value;
+        return direction.breached(smoothedRate, perHourThreshold);
+      }
+
+      @Override
+      public double statistic() {
+        return smoothedRate;
+      }
+    };
+  }
+}
@@ -0,0 +1,39 @@
+package com.energymarket.market.alert;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.MarketMetric;
+import java.time.Instant;
+import java.util.Objects;
+
+/** Fires when the observed metric crosses a fixed threshold. */
+public record ThresholdRule(
+    String id,
+    MarketCode market,
+    MarketMetric metric,
+    Direction direction,
+    double threshold,
+    String message)
+    implements AlertRule {
+
+  public ThresholdRule {
+    AlertRules.requireId(id);
+    Objects.requireNonNull(metric, "metric");
+    Objects.requireNonNull(direction, "direction");
+    Objects.requireNonNull(message, "message");
+  }
+
+  @Override
+  public Evaluator newEvaluator() {
+    return new Evaluator() {
+      @Override
+      public boolean update(Instant timestamp, double value) {
+        return direction.breached(value, threshold);
+      }
+
+      @Override
+      public double statistic() {
+        return threshold;
+      }
+    };
+  }
+}
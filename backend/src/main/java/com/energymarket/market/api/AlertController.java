@@ -0,0 +1,108 @@
+package com.energymarket.market.api;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.alert.AlertEngine;
+import com.energymarket.market.alert.AlertLog;
+import com.energymarket.market.alert.AlertRule;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.model.MarketAlert;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller exposing the streaming alert engine: the alert log, a live alert stream
+ * and rule management.
+ */
+@RestController
+@RequestMapping("/api/alerts")
+@Validated
+public class AlertController {
+
+  private static final Duration DEFAULT_LOOKBACK = Duration.ofHours(24);
+
+  private final AlertEngine alertEngine;
+  private final AlertLog alertLog;
+  private final Clock clock;
+
+  public AlertController(AlertEngine alertEngine, AlertLog alertLog, Clock clock) {
+    this.alertEngine = alertEngine;
+    this.alertLog = alertLog;
+    this.clock = clock;
+  }
+
+  /** Returns logged alerts within a time range, newest first. Defaults to the last 24 hours. */
+  @GetMapping
+  public Mono<List<MarketAlert>> getAlerts(
+      @RequestParam(required = false) String market,
+      @RequestParam(required = false) Instant from,
+      @RequestParam(required = false) Instant to,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+    return Mono.fromSupplier(
+        () -> {
+          Instant end = to != null ? to : clock.instant();
+          Instant start = from != null ? from : end.minus(DEFAULT_LOOKBACK);
+          return alertLog.query(resolveMarket(market), start, end, limit);
+        });
+  }
+
+  /** Streams alerts as they fire, optionally filtered to one market. */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<MarketAlert> streamAlerts(@RequestParam(required = false) String market) {
+    return Flux.defer(() -> alertEngine.stream(resolveMarket(market)));
+  }
+
+  /** Returns every registered rule. */
+  @GetMapping("/rules")
+  public Mono<List<AlertRule>> getRules() {
+    return Mono.fromSupplier(alertEngine::rules);
+  }
+
+  /** Registers a rule, replacing any existing rule with the same identifier. */
+  @PutMapping("/rules/{ruleId}")
+  public Mono<AlertRule> putRule(@PathVariable String ruleId, @RequestBody AlertRule rule) {
+    return Mono.fromSupplier(
+        () -> {
+          if (!rule.id().equals(ruleId)) {
+            throw new IllegalArgumentException("rule id must match the request path");
+          }
+          alertEngine.register(rule);
+          return rule;
+        });
+  }
+
+  /** Removes a rule. */
+  @DeleteMapping("/rules/{ruleId}")
+  public Mono<Void> deleteRule(@PathVariable String ruleId) {
+    return Mono.fromRunnable(
+        () -> {
+          if (!alertEngine.remove(ruleId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown rule: " + ruleId);
+          }
+        });
+  }
+
+  private static MarketCode resolveMarket(String market) {
+    if (market == null || market.isBlank()) {
+      return null;
+    }
+    return MarketCode.fromCode(market).orElseThrow(() -> new MarketNotFoundException(market));
+  }
+}
@@ -1,18 +1,19 @@
 package com.energymarket.market.api;
 
 import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.exception.RateLimitExceededException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import java.util.Map;
 import java.util.stream.Collectors;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-/**
- * Centralised error handling for the market API, returning RFC7807 responses.
- */
+/** Centralised error handling for the market API, returning RFC7807 responses. */
 @RestControllerAdvice
 public class ApiExceptionHandler {
 
@@ -32,6 +33,18 @@ public class ApiExceptionHandler {
     return problem;
   }
 
+  @ExceptionHandler(RateLimitExceededException.class)
+  public ResponseEntity<ProblemDetail> handleRateLimitExceeded(
+      RateLimitExceededException exception) {
+    ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.TOO_MANY_REQUESTS);
+    problem.setTitle("Rate limit exceeded");
+    problem.setDetail(exception.getMessage());
+    problem.setProperty("retryAfterSeconds", exception.retryAfterSeconds());
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, Long.toString(exception.retryAfterSeconds()))
+        .body(problem);
+  }
+
   @ExceptionHandler(ConstraintViolationException.class)
   public ProblemDetail handleConstraintViolation(ConstraintViolationException exception) {
     ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
@@ -0,0 +1,73 @@
+package com.energymarket.market.api;
+
+import com.energymarket.market.generator.ForecastModel;
+import com.energymarket.market.model.BacktestReport;
+import com.energymarket.market.service.ForecastBacktestService;
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/** Reactive REST controller reporting how the price forecast performed against past prices. */
+@RestController
+@RequestMapping("/api/markets")
+public class BacktestController {
+
+  private final ForecastBacktestService backtestService;
+
+  public BacktestController(ForecastBacktestService backtestService) {
+    this.backtestService = backtestService;
+  }
+
+  /**
+   * Returns forecast accuracy per horizon step for each market.
+   *
+   * <p>{@code model} selects the forecaster to score, {@code naive} (default) or {@code
+   * holt-winters}; comparing both reports shows their accuracy and per-forecast latency.
+   *
+   * @param markets comma separated market codes; all markets when omitted
+   */
+  @GetMapping("/backtest")
+  public Mono<List<BacktestReport>> backtest(
+      @RequestParam(required = false) List<String> markets,
+      @RequestParam(defaultValue = "365") int days,
+      @RequestParam(defaultValue = "60") int originSpacingMinutes,
+      @RequestParam(defaultValue = "12") int forecastHours,
+      @RequestParam(defaultValue = "60") int forecastResolutionMinutes,
+      @RequestParam(required = false) String model) {
+    return Mono.fromSupplier(
+        () ->
+            backtestService.backtest(
+                markets == null ? List.of() : markets,
+                days,
+                originSpacingMinutes,
+                forecastHours,
+                forecastResolutionMinutes,
+                ForecastModel.parse(model)));
+  }
+
+  /** Returns forecast accuracy per horizon step for one market. */
+  @GetMapping("/{marketCode}/backtest")
+  public Mono<BacktestReport> backtestMarket(
+      @PathVariable String marketCode,
+      @RequestParam(defaultValue = "365") int days,
+      @RequestParam(defaultValue = "60") int originSpacingMinutes,
+      @RequestParam(defaultValue = "12") int forecastHours,
+      @RequestParam(defaultValue = "60") int forecastResolutionMinutes,
+      @RequestParam(required = false) String model) {
+    return Mono.fromSupplier(
+        () ->
+            backtestService
+                .backtest(
+                    List.of(marketCode),
+                    days,
+                    originSpacingMinutes,
+                    forecastHours,
+                    forecastResolutionMinutes,
+                    ForecastModel.parse(model))
+                .getFirst());
+  }
+}
@@ -0,0 +1,64 @@
+package com.energymarket.market.api;
+
+import com.energymarket.config.SimulationClock;
+import java.time.Instant;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admin endpoint for inspecting and steering the application clock, used to replay market days at
+ * accelerated speed.
+ *
+ * <p>Changing the clock affects every client and a rewind replays ticks and alerts, so the endpoint
+ * is only registered when {@code market.clock.admin-enabled} is {@code true}. It is off by default
+ * and is meant for simulation deployments that are not exposed publicly.
+ */
+@RestController
+@ConditionalOnProperty(name = "market.clock.admin-enabled", havingValue = "true")
+@RequestMapping("/api/admin/clock")
+public class ClockController {
+
+  private final SimulationClock clock;
+
+  public ClockController(SimulationClock clock) {
+    this.clock = clock;
+  }
+
+  /** Returns the current simulated time and speed. */
+  @GetMapping
+  public Mono<ClockState> getClock() {
+    return Mono.fromSupplier(this::state);
+  }
+
+  /**
+   * Restarts the clock. An omitted start continues from the current simulated time and an omitted
+   * speed keeps the current one.
+   */
+  @PutMapping
+  public Mono<ClockState> putClock(@RequestBody ClockUpdate update) {
+    return Mono.fromSupplier(
+        () -> {
+          if (update.speed() != null) {
+            clock.reset(update.start(), update.speed());
+          } else {
+            clock.restart(update.start());
+          }
+          return state();
+        });
+  }
+
+  private ClockState state() {
+    return new ClockState(clock.instant(), clock.speed());
+  }
+
+  /** Current clock reading. */
+  public record ClockState(Instant now, double speed) {}
+
+  /** Requested clock change; every component is optional. */
+  public record ClockUpdate(Instant start, Double speed) {}
+}
@@ -0,0 +1,33 @@
+package com.energymarket.market.api;
+
+import com.energymarket.market.model.DerivedSeriesRequest;
+import com.energymarket.market.model.DerivedSeriesResult;
+import com.energymarket.market.service.DerivedSeriesService;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/** Reactive REST controller that evaluates client-defined derived series expressions. */
+@RestController
+@RequestMapping("/api/markets")
+public class DerivedSeriesController {
+
+  private final DerivedSeriesService derivedSeriesService;
+
+  public DerivedSeriesController(DerivedSeriesService derivedSeriesService) {
+    this.derivedSeriesService = derivedSeriesService;
+  }
+
+  /**
+   * Evaluates named expressions over the market's recent history, e.g. {@code {"expressions":
+   * {"spread": "price - PJM.price", "premium": "price - rolling_mean(price, 4h)"}}}.
+   */
+  @PostMapping("/{marketCode}/derived")
+  public Mono<DerivedSeriesResult> evaluate(
+      @PathVariable String marketCode, @RequestBody DerivedSeriesRequest request) {
+    return Mono.fromSupplier(() -> derivedSeriesService.evaluate(marketCode, request));
+  }
+}
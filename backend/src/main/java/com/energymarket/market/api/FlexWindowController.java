@@ -0,0 +1,58 @@
+package com.energymarket.market.api;
+
+import com.energymarket.market.model.FlexWindowQuery;
+import com.energymarket.market.model.FlexWindowResult;
+import com.energymarket.market.service.FlexWindowService;
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller that finds the cheapest or cleanest blocks of time for flexible load.
+ */
+@RestController
+@RequestMapping("/api/markets")
+public class FlexWindowController {
+
+  private final FlexWindowService flexWindowService;
+
+  public FlexWindowController(FlexWindowService flexWindowService) {
+    this.flexWindowService = flexWindowService;
+  }
+
+  /**
+   * Returns the best non-overlapping windows of one duration for a market.
+   *
+   * <p>{@code carbonWeight} blends the ranking from cheapest (0) to cleanest (1).
+   */
+  @GetMapping("/{marketCode}/windows")
+  public Mono<FlexWindowResult> getWindows(
+      @PathVariable String marketCode,
+      @RequestParam int durationHours,
+      @RequestParam(required = false) Integer topK,
+      @RequestParam(required = false) Double carbonWeight,
+      @RequestParam(required = false) Integer historyHours,
+      @RequestParam(required = false) Integer forecastHours) {
+    FlexWindowQuery query =
+        new FlexWindowQuery(
+            List.of(marketCode),
+            List.of(durationHours),
+            topK,
+            carbonWeight,
+            historyHours,
+            forecastHours);
+    return Mono.fromSupplier(() -> flexWindowService.findWindows(query).getFirst());
+  }
+
+  /** Answers many markets and durations in one call, sharing one pass per market. */
+  @PostMapping("/windows")
+  public Mono<List<FlexWindowResult>> findWindows(@RequestBody FlexWindowQuery query) {
+    return Mono.fromSupplier(() -> flexWindowService.findWindows(query));
+  }
+}
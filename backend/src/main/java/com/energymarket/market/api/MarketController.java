@@ -1,32 +1,47 @@
 package com.energymarket.market.api;
 
+import com.energymarket.market.cluster.ClusterMembership;
+import com.energymarket.market.generator.FieldSelection;
+import com.energymarket.market.generator.ForecastModel;
 import com.energymarket.market.model.MarketMetadata;
-import com.energymarket.market.model.MarketOverview;
 import com.energymarket.market.model.MarketSnapshot;
+import com.energymarket.market.model.PriceDistribution;
 import com.energymarket.market.service.MarketDataService;
+import com.energymarket.market.telemetry.HandlerTrace;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-/**
- * Reactive REST controller exposing the synthetic energy market intelligence API.
- */
+/** Reactive REST controller exposing the synthetic energy market intelligence API. */
 @RestController
 @RequestMapping("/api/markets")
 @Validated
 public class MarketController {
 
   private final MarketDataService marketDataService;
+  private final ResponseBodyCache responseCache;
+  private final ClusterMembership cluster;
 
-  public MarketController(MarketDataService marketDataService) {
+  public MarketController(
+      MarketDataService marketDataService,
+      ResponseBodyCache responseCache,
+      ClusterMembership cluster) {
     this.marketDataService = marketDataService;
+    this.responseCache = responseCache;
+    this.cluster = cluster;
   }
 
   /** Returns metadata for the available markets. */
@@ -35,29 +50,123 @@ public class MarketController {
     return Mono.fromSupplier(marketDataService::getMarketCatalog);
   }
 
-  /** Returns an overview for all markets to support comparison dashboards. */
+  /**
+   * Returns an overview for all markets to support comparison dashboards.
+   *
+   * <p>{@code fields} optionally restricts the metric columns, e.g. {@code fields=price}. The
+   * serialized body is cached per field selection until the next overview interval.
+   */
   @GetMapping("/overview")
-  public Mono<List<MarketOverview>> getMarketOverview() {
-    return Mono.fromSupplier(marketDataService::getMarketOverview);
+  public Mono<ResponseEntity<DataBuffer>> getMarketOverview(
+      @RequestParam(required = false) String fields, ServerWebExchange exchange) {
+    return Mono.fromSupplier(
+        () ->
+            HandlerTrace.trace(
+                exchange,
+                "overview",
+                null,
+                () -> {
+                  FieldSelection selection = FieldSelection.parse(fields);
+                  ResponseBodyCache.Key key =
+                      new ResponseBodyCache.Key(
+                          "overview", List.of(selection), marketDataService.overviewVersion());
+                  return responseCache.respond(
+                      key, exchange, () -> marketDataService.getMarketOverview(selection));
+                }));
+  }
+
+  /**
+   * Returns price percentiles over the trailing window, merged across the requested markets.
+   *
+   * @param markets comma separated market codes; all markets when omitted
+   */
+  @GetMapping("/distribution")
+  public Mono<PriceDistribution> getPriceDistribution(
+      @RequestParam(required = false) List<String> markets,
+      @RequestParam(defaultValue = "24") @Min(1) @Max(168) int historyHours) {
+    return Mono.fromSupplier(
+        () ->
+            marketDataService.getPriceDistribution(
+                markets == null ? List.of() : markets, historyHours));
   }
 
   /**
    * Returns the detailed snapshot for a specific market.
+   *
+   * <p>{@code fields} optionally restricts the response to a comma separated subset of {@code
+   * price}, {@code demand}, {@code carbon}, {@code renewables}, {@code forecast} and {@code
+   * insights}; omitted parts are not computed. {@code forecastModel} selects the forecaster, {@code
+   * naive} (default) or {@code holt-winters}.
+   *
+   * <p>Polling clients pass the {@code cursor} from the previous response (or a {@code since}
+   * timestamp) to receive only new points plus the refreshed overview, insights and forecast. Full
+   * snapshots are served from the response cache while the market's window and alert log are
+   * unchanged; deltas are always generated. In cluster mode a full snapshot of a market owned by
+   * another node is fetched from that node without holding a worker while it answers. Each call is
+   * recorded as a Flight Recorder event.
+   *
+   * <p>While the node is overloaded, long windows are served at the coarser resolution chosen by
+   * {@link MarketDataService#servedHistoryResolution(int, int)} and cached under it; {@code
+   * sync.resolutionMinutes} reports the resolution served. A snapshot forwarded to the market's
+   * owner asks for that resolution, so the owner's body matches the key it is cached under here. A
+   * cursor from a degraded response keeps its polls cheap while the load lasts and is answered with
+   * a full snapshot at the requested resolution once it has dropped.
    */
   @GetMapping("/{marketCode}/snapshot")
-  public Mono<MarketSnapshot> getMarketSnapshot(
+  public Mono<ResponseEntity<?>> getMarketSnapshot(
       @PathVariable String marketCode,
       @RequestParam(defaultValue = "24") @Min(1) @Max(168) int historyHours,
       @RequestParam(defaultValue = "15") @Min(5) @Max(180) int historyResolutionMinutes,
       @RequestParam(defaultValue = "12") @Min(1) @Max(72) int forecastHours,
-      @RequestParam(defaultValue = "60") @Min(15) @Max(240) int forecastResolutionMinutes) {
-    return Mono.fromSupplier(
-        () ->
-            marketDataService.getMarketSnapshot(
-                marketCode,
-                historyHours,
-                historyResolutionMinutes,
-                forecastHours,
-                forecastResolutionMinutes));
+      @RequestParam(defaultValue = "60") @Min(15) @Max(240) int forecastResolutionMinutes,
+      @RequestParam(required = false) String fields,
+      @RequestParam(required = false) String forecastModel,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Instant since,
+      ServerWebExchange exchange) {
+    return HandlerTrace.<ResponseEntity<?>>traceAsync(
+        exchange,
+        "snapshot",
+        marketCode,
+        () -> {
+          FieldSelection selection = FieldSelection.parse(fields);
+          ForecastModel model = ForecastModel.parse(forecastModel);
+          // A peer forwards the resolution it serves and caches under; its load decides, not ours.
+          int resolution =
+              cluster.forwardedByPeer(exchange.getRequest().getHeaders())
+                  ? historyResolutionMinutes
+                  : marketDataService.servedHistoryResolution(
+                      historyHours, historyResolutionMinutes);
+          Supplier<MarketSnapshot> snapshot =
+              () ->
+                  marketDataService.getMarketSnapshot(
+                      marketCode,
+                      historyHours,
+                      resolution,
+                      forecastHours,
+                      forecastResolutionMinutes,
+                      selection,
+                      model,
+                      cursor,
+                      since);
+          if (cursor != null || since != null) {
+            return Mono.just(ResponseEntity.ok().body(snapshot.get()));
+          }
+          ResponseBodyCache.Key key =
+              new ResponseBodyCache.Key(
+                  "snapshot",
+                  List.of(
+                      marketCode,
+                      historyHours,
+                      resolution,
+                      forecastHours,
+                      forecastResolutionMinutes,
+                      selection,
+                      model),
+                  marketDataService.snapshotVersion(marketCode, resolution));
+          Map<String, Integer> served = Map.of("historyResolutionMinutes", resolution);
+          return responseCache.respond(
+              key, exchange, cluster.route(marketCode, exchange, served, snapshot));
+        });
   }
 }
@@ -0,0 +1,105 @@
+package com.energymarket.market.api;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.model.HedgePosition;
+import com.energymarket.market.model.PortfolioSummary;
+import com.energymarket.market.model.PositionValuation;
+import com.energymarket.market.portfolio.PortfolioBook;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller for the hedge portfolio: position management, per-position
+ * mark-to-market and book aggregates.
+ */
+@RestController
+@RequestMapping("/api/portfolio")
+@Validated
+public class PortfolioController {
+
+  private final PortfolioBook portfolioBook;
+
+  public PortfolioController(PortfolioBook portfolioBook) {
+    this.portfolioBook = portfolioBook;
+  }
+
+  /** Returns P&L and open volume aggregated per market and over the whole book. */
+  @GetMapping
+  public Mono<PortfolioSummary> getSummary() {
+    return Mono.fromSupplier(portfolioBook::summary);
+  }
+
+  /** Returns position valuations ordered by identifier. */
+  @GetMapping("/positions")
+  public Mono<List<PositionValuation>> getPositions(
+      @RequestParam(required = false) String market,
+      @RequestParam(defaultValue = "1000") @Min(1) @Max(10000) int limit) {
+    return Mono.fromSupplier(() -> portfolioBook.valuations(resolveMarket(market), limit));
+  }
+
+  /** Books a batch of positions, replacing those with the same identifiers. */
+  @PostMapping("/positions")
+  public Mono<List<PositionValuation>> postPositions(@RequestBody List<HedgePosition> positions) {
+    return Mono.fromSupplier(() -> portfolioBook.putAll(positions));
+  }
+
+  /** Returns the latest valuation of a position. */
+  @GetMapping("/positions/{positionId}")
+  public Mono<PositionValuation> getPosition(@PathVariable String positionId) {
+    return Mono.fromSupplier(
+        () ->
+            portfolioBook
+                .valuation(positionId)
+                .orElseThrow(
+                    () ->
+                        new ResponseStatusException(
+                            HttpStatus.NOT_FOUND, "Unknown position: " + positionId)));
+  }
+
+  /** Books or replaces a single position. */
+  @PutMapping("/positions/{positionId}")
+  public Mono<PositionValuation> putPosition(
+      @PathVariable String positionId, @RequestBody HedgePosition position) {
+    return Mono.fromSupplier(
+        () -> {
+          if (!positionId.equals(position.id())) {
+            throw new IllegalArgumentException("position id must match the request path");
+          }
+          return portfolioBook.put(position);
+        });
+  }
+
+  /** Removes a position. */
+  @DeleteMapping("/positions/{positionId}")
+  public Mono<Void> deletePosition(@PathVariable String positionId) {
+    return Mono.fromRunnable(
+        () -> {
+          if (!portfolioBook.remove(positionId)) {
+            throw new ResponseStatusException(
+                HttpStatus.NOT_FOUND, "Unknown position: " + positionId);
+          }
+        });
+  }
+
+  private static MarketCode resolveMarket(String market) {
+    if (market == null || market.isBlank()) {
+      return null;
+    }
+    return MarketCode.fromCode(market).orElseThrow(() -> new MarketNotFoundException(market));
+  }
+}
@@ -0,0 +1,59 @@
+package com.energymarket.market.api;
+
+import com.energymarket.market.model.MarketMetric;
+import com.energymarket.market.service.WeeklyProfileService;
+import java.util.List;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/** Reactive REST controller exposing typical-week profiles of a market. */
+@RestController
+@RequestMapping("/api/markets")
+public class ProfileController {
+
+  private final WeeklyProfileService profileService;
+  private final ResponseBodyCache responseCache;
+
+  public ProfileController(WeeklyProfileService profileService, ResponseBodyCache responseCache) {
+    this.profileService = profileService;
+    this.responseCache = responseCache;
+  }
+
+  /**
+   * Returns 7 x 24 matrices of the mean, 10th, 50th and 90th percentile and point count of each
+   * metric by weekday and local hour, over the trailing {@code days}.
+   *
+   * <p>Profiles are served from the response cache until the window moves by one resolution step.
+   *
+   * @param metrics comma separated metric keys; price, demand and renewables when omitted
+   */
+  @GetMapping("/{marketCode}/profile")
+  public Mono<ResponseEntity<DataBuffer>> getWeeklyProfile(
+      @PathVariable String marketCode,
+      @RequestParam(defaultValue = "28") int days,
+      @RequestParam(defaultValue = "15") int resolutionMinutes,
+      @RequestParam(required = false) List<String> metrics,
+      ServerWebExchange exchange) {
+    return Mono.fromSupplier(
+        () -> {
+          List<String> metricKeys = metrics == null ? List.of() : metrics;
+          List<MarketMetric> resolved = WeeklyProfileService.parseMetrics(metricKeys);
+          ResponseBodyCache.Key key =
+              new ResponseBodyCache.Key(
+                  "profile",
+                  List.of(marketCode, days, resolutionMinutes, resolved),
+                  profileService.windowEnd(resolutionMinutes));
+          return responseCache.respond(
+              key,
+              exchange,
+              () -> profileService.getProfile(marketCode, days, resolutionMinutes, metricKeys));
+        });
+  }
+}
@@ -0,0 +1,62 @@
+package com.energymarket.market.api;
+
+import com.energymarket.market.hierarchy.RegionalAggregator;
+import com.energymarket.market.model.AggregateOverview;
+import com.energymarket.market.model.AggregateSeries;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller exposing aggregates of the regional hierarchy: the nation, its regions
+ * and the markets within them.
+ */
+@RestController
+@RequestMapping("/api/regions")
+@Validated
+public class RegionController {
+
+  private final RegionalAggregator aggregator;
+
+  public RegionController(RegionalAggregator aggregator) {
+    this.aggregator = aggregator;
+  }
+
+  /** Returns the latest aggregate of every node, parents before their children. */
+  @GetMapping
+  public Mono<List<AggregateOverview>> getOverviews() {
+    return Mono.fromSupplier(aggregator::overviews);
+  }
+
+  /** Returns the latest aggregate of one node. */
+  @GetMapping("/{nodeId}")
+  public Mono<AggregateOverview> getOverview(@PathVariable String nodeId) {
+    return Mono.fromSupplier(
+        () -> aggregator.overview(nodeId).orElseThrow(() -> unknownNode(nodeId)));
+  }
+
+  /** Returns the aggregate series of one node over the trailing hours. */
+  @GetMapping("/{nodeId}/series")
+  public Mono<AggregateSeries> getSeries(
+      @PathVariable String nodeId, @RequestParam(defaultValue = "24") @Min(1) @Max(168) int hours) {
+    return Mono.fromSupplier(
+        () ->
+            aggregator
+                .series(nodeId, Duration.ofHours(hours))
+                .orElseThrow(() -> unknownNode(nodeId)));
+  }
+
+  private static ResponseStatusException unknownNode(String nodeId) {
+    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown region: " + nodeId);
+  }
+}
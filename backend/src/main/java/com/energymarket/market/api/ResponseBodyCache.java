@@ -0,0 +1,423 @@
+package com.energymarket.market.api;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.energymarket.market.telemetry.RequestTiming;
+import com.energymarket.market.telemetry.StageTimer;
+import com.energymarket.market.telemetry.StageTimer.Stage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Byte-bounded cache of serialized and pre-compressed JSON response bodies.
+ *
+ * <p>Entries are keyed by endpoint, request parameters and the version of the data the body was
+ * generated from, together with the content encoding. On a miss the response object is serialized
+ * once with the application's {@link ObjectMapper}; the gzip and brotli variants are compressed
+ * from the cached identity bytes the first time a client accepts them and cached as entries of
+ * their own, so every encoding of a body is produced once per data version.
+ *
+ * <p>Bodies live in direct Netty buffers. A hit hands the response a retained duplicate sharing the
+ * cached memory, which Netty releases once it has been written; eviction only drops the cache's own
+ * reference, so the memory outlives any write still in flight. Eviction is least recently used and
+ * bounded by the total size of the cached bodies.
+ */
+@Component
+public class ResponseBodyCache {
+
+  /** Size bound used when none is configured. */
+  public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+  private static final int BROTLI_QUALITY = 9;
+
+  private final ObjectMapper objectMapper;
+  private final long maxBytes;
+  private final boolean brotli;
+  private final LinkedHashMap<EntryKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private final AtomicLong sizeBytes = new AtomicLong();
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+  private final Counter serializationSaved;
+  private final Map<ContentEncoding, Counter> compressionSaved =
+      new EnumMap<>(ContentEncoding.class);
+
+  public ResponseBodyCache(
+      ObjectMapper objectMapper,
+      MeterRegistry registry,
+      @Value("${market.response-cache.max-bytes:67108864}") long maxBytes) {
+    if (maxBytes < 1) {
+      throw new IllegalArgumentException("maxBytes must be positive");
+    }
+    this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+    this.maxBytes = maxBytes;
+    this.brotli = Brotli4jLoader.isAvailable();
+    hits = registry.counter("market.response.cache.requests", "result", "hit");
+    misses = registry.counter("market.response.cache.requests", "result", "miss");
+    evictions = registry.counter("market.response.cache.evictions");
+    serializationSaved =
+        Counter.builder("market.response.cache.serialization.saved")
+            .description("Serialized body bytes served from the cache instead of re-encoded")
+            .baseUnit("bytes")
+            .register(registry);
+    for (ContentEncoding encoding : List.of(ContentEncoding.BROTLI, ContentEncoding.GZIP)) {
+      compressionSaved.put(
+          encoding,
+          Counter.builder("market.response.cache.compression.saved")
+              .description("Bytes taken off response bodies by compression")
+              .baseUnit("bytes")
+              .tag("encoding", encoding.token())
+              .register(registry));
+    }
+    Gauge.builder("market.response.cache.size", sizeBytes, AtomicLong::get)
+        .description("Total size of the cached response bodies")
+        .baseUnit("bytes")
+        .register(registry);
+  }
+
+  /**
+   * Builds the JSON response for {@code key}, served from the cache when possible.
+   *
+   * <p>On the Netty server the cached buffer is handed to the response without copying; other
+   * buffer factories, such as those of mock exchanges, receive a copy since they cannot release a
+   * shared buffer.
+   *
+   * @param body supplies the response object on a miss; its exceptions propagate unchanged
+   */
+  public ResponseEntity<DataBuffer> respond(Key key, ServerWebExchange exchange, Supplier<?> body) {
+    Encoded encoded =
+        lookup(key, exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING), body);
+    return response(exchange, encoded);
+  }
+
+  /**
+   * Builds the JSON response for {@code key} from a body that completes asynchronously, such as one
+   * fetched from a cluster peer. {@code body} is only subscribed to on a miss, and the request's
+   * {@link RequestTiming} is bound while its value is cached.
+   *
+   * @param body emits the response object on a miss; its errors propagate unchanged
+   */
+  public Mono<ResponseEntity<DataBuffer>> respond(
+      Key key, ServerWebExchange exchange, Mono<?> body) {
+    String acceptEncoding =
+        exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+    Encoded cached = cached(key, acceptEncoding);
+    if (cached != null) {
+      return Mono.just(response(exchange, cached));
+    }
+    ContentEncoding encoding = ContentEncoding.negotiate(acceptEncoding, brotli);
+    RequestTiming timing = RequestTiming.of(exchange);
+    return body.map(
+        value -> {
+          RequestTiming.Scope scope = timing.enter();
+          try {
+            return response(exchange, fill(key, encoding, () -> value));
+          } finally {
+            scope.close();
+          }
+        });
+  }
+
+  private ResponseEntity<DataBuffer> response(ServerWebExchange exchange, Encoded encoded) {
+    DataBufferFactory factory = exchange.getResponse().bufferFactory();
+    DataBuffer buffer;
+    if (factory instanceof NettyDataBufferFactory netty) {
+      buffer = netty.wrap(encoded.body());
+    } else {
+      try {
+        buffer = factory.wrap(ByteBufUtil.getBytes(encoded.body()));
+      } finally {
+        encoded.body().release();
+      }
+    }
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .contentLength(buffer.readableByteCount())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (encoded.encoding() != ContentEncoding.IDENTITY) {
+      response.header(HttpHeaders.CONTENT_ENCODING, encoded.encoding().token());
+    }
+    return response.body(buffer);
+  }
+
+  /**
+   * Returns the body cached for {@code key} in the preferred encoding the client accepts,
+   * serializing and compressing it on a miss.
+   *
+   * @param acceptEncoding the request's {@code Accept-Encoding} header, or {@code null}
+   * @return the encoded body; the caller owns one reference to its buffer
+   */
+  Encoded lookup(Key key, String acceptEncoding, Supplier<?> body) {
+    Encoded cached = cached(key, acceptEncoding);
+    return cached != null
+        ? cached
+        : fill(key, ContentEncoding.negotiate(acceptEncoding, brotli), body);
+  }
+
+  /** Returns the cached body in the preferred accepted encoding, or {@code null} on a miss. */
+  private Encoded cached(Key key, String acceptEncoding) {
+    Objects.requireNonNull(key, "key");
+    ContentEncoding encoding = ContentEncoding.negotiate(acceptEncoding, brotli);
+    Retained cached = retain(new EntryKey(key, encoding));
+    RequestTiming timing = RequestTiming.current();
+    if (timing != null) {
+      timing.describe(RequestTiming.CACHE, cached != null ? "hit" : "miss");
+    }
+    if (cached == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    serializationSaved.increment(cached.identityBytes());
+    countCompression(encoding, cached.identityBytes(), cached.body());
+    return new Encoded(encoding, cached.body());
+  }
+
+  /** Caches a missed body in {@code encoding}, reusing its cached identity bytes if any. */
+  private Encoded fill(Key key, ContentEncoding encoding, Supplier<?> body) {
+    byte[] json = null;
+    if (encoding != ContentEncoding.IDENTITY) {
+      Retained identity = retain(new EntryKey(key, ContentEncoding.IDENTITY));
+      if (identity != null) {
+        try {
+          json = ByteBufUtil.getBytes(identity.body());
+        } finally {
+          identity.body().release();
+        }
+        serializationSaved.increment(json.length);
+      }
+    }
+    if (json == null) {
+      json = serialize(body.get());
+      if (encoding != ContentEncoding.IDENTITY) {
+        store(new EntryKey(key, ContentEncoding.IDENTITY), json, json.length).release();
+      }
+    }
+    ByteBuf encoded = store(new EntryKey(key, encoding), compress(encoding, json), json.length);
+    countCompression(encoding, json.length, encoded);
+    return new Encoded(encoding, encoded);
+  }
+
+  /** Returns the total size of the cached bodies in bytes. */
+  long sizeBytes() {
+    return sizeBytes.get();
+  }
+
+  /** Returns whether brotli bodies can be produced on this platform. */
+  boolean brotliAvailable() {
+    return brotli;
+  }
+
+  private synchronized Retained retain(EntryKey key) {
+    Entry entry = entries.get(key);
+    return entry == null ? null : new Retained(entry.body.retainedDuplicate(), entry.identityBytes);
+  }
+
+  /**
+   * Caches {@code bytes} under {@code key} unless another request stored them first, evicting least
+   * recently used bodies beyond the size bound. Bodies larger than the bound are returned without
+   * being cached.
+   */
+  private ByteBuf store(EntryKey key, byte[] bytes, int identityBytes) {
+    ByteBuf buffer = Unpooled.directBuffer(bytes.length).writeBytes(bytes);
+    if (bytes.length > maxBytes) {
+      return buffer;
+    }
+    synchronized (this) {
+      Entry existing = entries.get(key);
+      if (existing != null) {
+        buffer.release();
+        return existing.body.retainedDuplicate();
+      }
+      entries.put(key, new Entry(buffer, identityBytes));
+      long size = sizeBytes.addAndGet(bytes.length);
+      Iterator<Entry> eldest = entries.values().iterator();
+      while (size > maxBytes) {
+        Entry evicted = eldest.next();
+        eldest.remove();
+        size = sizeBytes.addAndGet(-evicted.body.readableBytes());
+        evicted.body.release();
+        evictions.increment();
+      }
+      return buffer.retainedDuplicate();
+    }
+  }
+
+  private byte[] serialize(Object value) {
+    if (value instanceof SerializedJson json) {
+      return json.bytes();
+    }
+    StageTimer stage = StageTimer.start(Stage.SERIALIZE, null);
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(value);
+      stage.stop(0);
+      return json;
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize response body", e);
+    }
+  }
+
+  private static byte[] compress(ContentEncoding encoding, byte[] json) {
+    if (encoding == ContentEncoding.IDENTITY) {
+      return json;
+    }
+    StageTimer stage = StageTimer.start(Stage.COMPRESS, null);
+    byte[] compressed = encoding.encode(json);
+    stage.stop(0);
+    return compressed;
+  }
+
+  private void countCompression(ContentEncoding encoding, int identityBytes, ByteBuf encoded) {
+    Counter counter = compressionSaved.get(encoding);
+    if (counter != null) {
+      counter.increment(Math.max(0, identityBytes - encoded.readableBytes()));
+    }
+  }
+
+  /**
+   * An already serialized JSON body, such as one fetched from a cluster peer. It is cached and
+   * compressed as is instead of being serialized again.
+   *
+   * @param bytes UTF-8 encoded JSON
+   */
+  public record SerializedJson(byte[] bytes) {}
+
+  /**
+   * Identifies a response body independently of its encoding.
+   *
+   * @param endpoint name of the endpoint
+   * @param parameters request parameters, compared by value
+   * @param version version of the data the body is generated from, compared by value
+   */
+  public record Key(String endpoint, List<?> parameters, Object version) {
+    public Key {
+      Objects.requireNonNull(endpoint, "endpoint");
+      parameters = List.copyOf(parameters);
+      Objects.requireNonNull(version, "version");
+    }
+  }
+
+  /** Encoded body and the encoding it is in; the holder owns one reference to the buffer. */
+  record Encoded(ContentEncoding encoding, ByteBuf body) {}
+
+  /** Content codings the cache produces, in order of preference. */
+  enum ContentEncoding {
+    BROTLI("br"),
+    GZIP("gzip"),
+    IDENTITY("identity");
+
+    private final String token;
+
+    ContentEncoding(String token) {
+      this.token = token;
+    }
+
+    String token() {
+      return token;
+    }
+
+    /**
+     * Picks the compressed coding with the highest quality value in an {@code Accept-Encoding}
+     * header, preferring brotli on ties; identity when the client accepts neither.
+     */
+    static ContentEncoding negotiate(String acceptEncoding, boolean brotli) {
+      if (acceptEncoding == null || acceptEncoding.isBlank()) {
+        return IDENTITY;
+      }
+      Map<String, Double> qualities = new LinkedHashMap<>();
+      for (String coding : acceptEncoding.split(",")) {
+        String[] parts = coding.split(";");
+        double quality = 1.0;
+        for (int i = 1; i < parts.length; i++) {
+          String parameter = parts[i].trim();
+          if (parameter.startsWith("q=")) {
+            try {
+              quality = Double.parseDouble(parameter.substring(2));
+            } catch (NumberFormatException e) {
+              quality = 0.0;
+            }
+          }
+        }
+        qualities.put(parts[0].trim().toLowerCase(Locale.ROOT), quality);
+      }
+      double wildcard = qualities.getOrDefault("*", 0.0);
+      ContentEncoding chosen = IDENTITY;
+      double best = 0.0;
+      for (ContentEncoding candidate : brotli ? List.of(BROTLI, GZIP) : List.of(GZIP)) {
+        double quality = qualities.getOrDefault(candidate.token, wildcard);
+        if (quality > best) {
+          chosen = candidate;
+          best = quality;
+        }
+      }
+      return chosen;
+    }
+
+    byte[] encode(byte[] json) {
+      try {
+        return switch (this) {
+          case IDENTITY -> json;
+          case GZIP -> gzip(json);
+          case BROTLI ->
+              Encoder.compress(json, new Encoder.Parameters().setQuality(BROTLI_QUALITY));
+        };
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to compress response body", e);
+      }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4 + 64);
+      try (OutputStream out = new BestCompressionGzipStream(bytes)) {
+        out.write(json);
+      }
+      return bytes.toByteArray();
+    }
+  }
+
+  /** Gzip stream at the highest deflate level; bodies are compressed once and served many times. */
+  private static final class BestCompressionGzipStream extends GZIPOutputStream {
+    BestCompressionGzipStream(OutputStream out) throws IOException {
+      super(out);
+      def.setLevel(Deflater.BEST_COMPRESSION);
+    }
+  }
+
+  private record EntryKey(Key key, ContentEncoding encoding) {}
+
+  private record Entry(ByteBuf body, int identityBytes) {}
+
+  private record Retained(ByteBuf body, int identityBytes) {}
+}
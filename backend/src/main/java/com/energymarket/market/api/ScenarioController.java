@@ -0,0 +1,36 @@
+package com.energymarket.market.api;
+
+import com.energymarket.market.model.ScenarioRequest;
+import com.energymarket.market.model.ScenarioResult;
+import com.energymarket.market.service.ScenarioService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/** Reactive REST controller that evaluates what-if grids of market parameter overrides. */
+@RestController
+@RequestMapping("/api/markets")
+public class ScenarioController {
+
+  private final ScenarioService scenarioService;
+
+  public ScenarioController(ScenarioService scenarioService) {
+    this.scenarioService = scenarioService;
+  }
+
+  /**
+   * Streams one result per scenario as newline-delimited JSON, in completion order.
+   *
+   * <p>Each axis varies one market parameter, e.g. {@code {"parameter": "volatility", "operation":
+   * "scale", "values": [1, 2]}}; every combination of axis values is a scenario.
+   */
+  @PostMapping(value = "/{marketCode}/scenarios", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<ScenarioResult> sweep(
+      @PathVariable String marketCode, @RequestBody ScenarioRequest request) {
+    return Flux.defer(() -> scenarioService.sweep(marketCode, request));
+  }
+}
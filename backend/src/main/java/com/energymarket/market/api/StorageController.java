@@ -0,0 +1,29 @@
+package com.energymarket.market.api;
+
+import com.energymarket.market.model.ArbitrageRequest;
+import com.energymarket.market.model.ArbitrageResult;
+import com.energymarket.market.storage.BatteryArbitrageService;
+import java.util.List;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/** Reactive REST controller for battery storage analytics. */
+@RestController
+@RequestMapping("/api/storage")
+public class StorageController {
+
+  private final BatteryArbitrageService arbitrageService;
+
+  public StorageController(BatteryArbitrageService arbitrageService) {
+    this.arbitrageService = arbitrageService;
+  }
+
+  /** Returns the optimal arbitrage schedule and revenue of every battery in the portfolio. */
+  @PostMapping("/arbitrage")
+  public Mono<List<ArbitrageResult>> optimiseArbitrage(@RequestBody ArbitrageRequest request) {
+    return Mono.fromSupplier(() -> arbitrageService.optimise(request));
+  }
+}
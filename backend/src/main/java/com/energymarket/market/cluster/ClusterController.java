@@ -0,0 +1,37 @@
+package com.energymarket.market.cluster;
+
+import com.energymarket.market.cluster.ClusterMembership.ClusterView;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exposes this node's view of the cluster. Peers probe the endpoint to decide which nodes are live.
+ * The view lists the node URLs, so it is only served to requests carrying the cluster's shared
+ * secret; anyone else gets a {@code 404}.
+ */
+@RestController
+@RequestMapping(ClusterController.PATH)
+public class ClusterController {
+
+  static final String PATH = "/api/cluster";
+
+  private final ClusterMembership membership;
+
+  public ClusterController(ClusterMembership membership) {
+    this.membership = membership;
+  }
+
+  /** Returns the configured and live nodes and the owner of every market. */
+  @GetMapping
+  public Mono<ResponseEntity<ClusterView>> getCluster(@RequestHeader HttpHeaders headers) {
+    if (!membership.fromPeer(headers)) {
+      return Mono.just(ResponseEntity.notFound().build());
+    }
+    return Mono.fromSupplier(() -> ResponseEntity.ok(membership.view()));
+  }
+}
@@ -0,0 +1,307 @@
+package com.energymarket.market.cluster;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.api.ResponseBodyCache;
+import com.energymarket.market.telemetry.RequestTiming;
+import com.energymarket.market.telemetry.StageTimer;
+import com.energymarket.market.telemetry.StageTimer.Stage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Cluster mode: assigns every market to one node and routes snapshot generation to it.
+ *
+ * <p>Nodes are configured with their own base URL ({@code market.cluster.self}) and the base URLs
+ * of all nodes ({@code market.cluster.peers}). Each market is owned by one live node, chosen by a
+ * {@link HashRing consistent hash ring} that every node computes identically from the live set. A
+ * node asked for a full snapshot of a market it does not own fetches the serialized body from the
+ * owner and caches it like one it generated, so each snapshot is generated once per data version
+ * across the cluster rather than once per node. Forwarded requests carry {@link #FORWARDED_BY} and
+ * are always served by the receiving node, which keeps nodes with momentarily different views of
+ * the ring from forwarding in circles.
+ *
+ * <p>Peers are probed every {@code market.cluster.probe-interval}. A peer that fails a probe, or
+ * cannot be reached or does not answer in time when a request is forwarded to it, leaves the ring
+ * until it answers a probe again; only the markets it owned move. A peer answering a forwarded
+ * request with an error status, such as a {@code 429} from its admission control, stays on the
+ * ring. Either way the failed forward is served locally. Without peers, or with only itself, the
+ * node runs standalone.
+ *
+ * <p>Nodes authenticate each other with a shared secret ({@code market.cluster.secret}), sent in
+ * {@link #SECRET} on every probe and forwarded request. Only a request carrying it is treated as
+ * coming from a peer, and only such a request may read the cluster view, so a client can neither
+ * learn the node URLs nor pass itself off as a node by naming one in {@link #FORWARDED_BY}.
+ */
+@Component
+public class ClusterMembership {
+
+  /** Request header naming the node that forwarded a request to its market's owner. */
+  public static final String FORWARDED_BY = "X-Market-Forwarded-By";
+
+  /** Request header carrying the cluster's shared secret on requests between nodes. */
+  public static final String SECRET = "X-Market-Cluster-Secret";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClusterMembership.class);
+
+  private final PeerTransport transport;
+  private final String self;
+  private final List<String> peers;
+  private final byte[] secret;
+  private final Duration timeout;
+  private final Counter forwarded;
+  private final Counter forwardFailures;
+  private final Counter rebalances;
+  private final AtomicReference<HashRing> ring = new AtomicReference<>();
+  private final AtomicBoolean probing = new AtomicBoolean();
+
+  @Autowired
+  public ClusterMembership(
+      WebClient.Builder webClients,
+      MeterRegistry registry,
+      @Value("${market.cluster.self:}") String self,
+      @Value("${market.cluster.peers:}") List<String> peers,
+      @Value("${market.cluster.secret:}") String secret,
+      @Value("${market.cluster.timeout:PT1S}") Duration timeout) {
+    this(
+        new WebClientTransport(webClients.build(), secret), registry, self, peers, secret, timeout);
+  }
+
+  ClusterMembership(
+      PeerTransport transport,
+      MeterRegistry registry,
+      String self,
+      List<String> peers,
+      String secret,
+      Duration timeout) {
+    this.transport = transport;
+    this.self = normalize(self);
+    this.peers =
+        peers.stream().map(ClusterMembership::normalize).filter(peer -> !peer.isEmpty()).toList();
+    if (!this.peers.isEmpty() && !this.peers.contains(this.self)) {
+      throw new IllegalArgumentException("market.cluster.peers must include market.cluster.self");
+    }
+    if (this.peers.size() > 1 && secret.isBlank()) {
+      throw new IllegalArgumentException("market.cluster.secret must be set in cluster mode");
+    }
+    this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    if (timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("market.cluster.timeout must be positive");
+    }
+    this.timeout = timeout;
+    this.ring.set(new HashRing(this.peers));
+    this.forwarded = registry.counter("market.cluster.forwarded", "result", "fetched");
+    this.forwardFailures = registry.counter("market.cluster.forwarded", "result", "failed");
+    this.rebalances = registry.counter("market.cluster.rebalances");
+    Gauge.builder("market.cluster.live.peers", ring, current -> current.get().peers().size())
+        .description("Nodes currently on the ownership ring")
+        .register(registry);
+  }
+
+  /** Returns whether this node shares the markets with at least one other node. */
+  public boolean enabled() {
+    return peers.size() > 1;
+  }
+
+  /** Returns whether a request carries the cluster's shared secret, i.e. comes from a node. */
+  public boolean fromPeer(HttpHeaders headers) {
+    String presented = headers.getFirst(SECRET);
+    return enabled()
+        && presented != null
+        && MessageDigest.isEqual(presented.getBytes(StandardCharsets.UTF_8), secret);
+  }
+
+  /**
+   * Returns whether a request was forwarded by another configured node: it carries the shared
+   * secret and names that node in {@link #FORWARDED_BY}.
+   */
+  public boolean forwardedByPeer(HttpHeaders headers) {
+    String node = normalize(headers.getFirst(FORWARDED_BY));
+    return fromPeer(headers) && !node.equals(self) && peers.contains(node);
+  }
+
+  /** Returns the live node owning {@code market} if it is not this node. */
+  public Optional<String> remoteOwner(MarketCode market) {
+    String owner = ring.get().owner(market.code());
+    return owner == null || owner.equals(self) ? Optional.empty() : Optional.of(owner);
+  }
+
+  /**
+   * Routes the generation of a market response to the market's owner.
+   *
+   * <p>A forwarded request does not hold the calling thread while the owner answers; the fetched
+   * body, or the local fallback if the owner fails, is emitted on Reactor's parallel scheduler so
+   * neither runs on an event loop.
+   *
+   * @param marketCode requested market; unknown codes are left to {@code local} to reject
+   * @param query parameters to set on the forwarded request, replacing those of the original one,
+   *     so the owner generates the body this node would have
+   * @param local generates the response on this node
+   * @return {@code local}, evaluated on subscription, if this node owns the market or the request
+   *     was forwarded to it; otherwise the owner's {@link ResponseBodyCache.SerializedJson
+   *     serialized body}, falling back to {@code local} if the owner fails
+   */
+  public Mono<?> route(
+      String marketCode, ServerWebExchange exchange, Map<String, ?> query, Supplier<?> local) {
+    if (!enabled() || forwardedByPeer(exchange.getRequest().getHeaders())) {
+      return Mono.fromSupplier(local);
+    }
+    Optional<MarketCode> market = MarketCode.fromCode(marketCode);
+    Optional<String> owner = market.flatMap(this::remoteOwner);
+    if (owner.isEmpty()) {
+      return Mono.fromSupplier(local);
+    }
+    UriComponentsBuilder builder = UriComponentsBuilder.fromUri(exchange.getRequest().getURI());
+    query.forEach((name, value) -> builder.replaceQueryParam(name, value));
+    UriComponents uri = builder.build(true);
+    String pathAndQuery =
+        uri.getQuery() == null ? uri.getPath() : uri.getPath() + "?" + uri.getQuery();
+    RequestTiming timing = RequestTiming.of(exchange);
+    Mono<?> fallback =
+        Mono.fromSupplier(
+            () -> {
+              RequestTiming.Scope scope = timing.enter();
+              try {
+                return local.get();
+              } finally {
+                scope.close();
+              }
+            });
+    return Mono.defer(
+        () -> {
+          StageTimer stage = StageTimer.start(Stage.FORWARD, market.get());
+          return transport
+              .fetch(owner.get(), pathAndQuery, self, timeout)
+              .doOnTerminate(
+                  () -> {
+                    RequestTiming.Scope scope = timing.enter();
+                    try {
+                      stage.stop(0);
+                    } finally {
+                      scope.close();
+                    }
+                  })
+              .<Object>map(
+                  body -> {
+                    forwarded.increment();
+                    return new ResponseBodyCache.SerializedJson(body);
+                  })
+              .publishOn(Schedulers.parallel())
+              .onErrorResume(
+                  failure -> {
+                    forwardFailures.increment();
+                    LOGGER.warn(
+                        "Forwarding {} to {} failed: {}",
+                        pathAndQuery,
+                        owner.get(),
+                        failure.getMessage());
+                    if (failure instanceof PeerUnreachableException) {
+                      leave(owner.get());
+                    }
+                    return fallback;
+                  });
+        });
+  }
+
+  /**
+   * Probes every other peer concurrently and rebalances the ring if the set of live nodes changed
+   * once all have answered or timed out. The scheduler thread only starts the probes; a round still
+   * waiting for answers when the next one is due is not overlapped.
+   */
+  @Scheduled(fixedDelayString = "${market.cluster.probe-interval:PT2S}")
+  public void probe() {
+    if (!enabled() || !probing.compareAndSet(false, true)) {
+      return;
+    }
+    Flux.fromIterable(peers)
+        .filter(peer -> !peer.equals(self))
+        .flatMap(peer -> transport.probe(peer, timeout).filter(up -> up).map(up -> peer))
+        .collectList()
+        .doFinally(signal -> probing.set(false))
+        .subscribe(
+            answered -> {
+              Set<String> live = new LinkedHashSet<>();
+              for (String peer : peers) {
+                if (peer.equals(self) || answered.contains(peer)) {
+                  live.add(peer);
+                }
+              }
+              rebalance(live);
+            });
+  }
+
+  /** Returns this node's view of the cluster. */
+  public ClusterView view() {
+    HashRing current = ring.get();
+    Map<String, String> owners = new LinkedHashMap<>();
+    for (MarketCode market : MarketCode.values()) {
+      String owner = current.owner(market.code());
+      owners.put(market.code(), owner == null ? self : owner);
+    }
+    return new ClusterView(enabled(), self, peers, current.peers(), owners);
+  }
+
+  private synchronized void leave(String peer) {
+    Set<String> live = new LinkedHashSet<>(ring.get().peers());
+    if (live.remove(peer)) {
+      rebalance(live);
+    }
+  }
+
+  private synchronized void rebalance(Set<String> live) {
+    List<String> current = ring.get().peers();
+    if (live.equals(Set.copyOf(current))) {
+      return;
+    }
+    LOGGER.info("Cluster members changed from {} to {}", current, live);
+    ring.set(new HashRing(live));
+    rebalances.increment();
+  }
+
+  private static String normalize(String url) {
+    String trimmed = url == null ? "" : url.trim();
+    return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+  }
+
+  /**
+   * A node's view of the cluster.
+   *
+   * @param enabled whether cluster mode is active
+   * @param self base URL of this node
+   * @param peers configured nodes
+   * @param live nodes currently on the ownership ring
+   * @param owners owning node of every market code
+   */
+  public record ClusterView(
+      boolean enabled,
+      String self,
+      List<String> peers,
+      List<String> live,
+      Map<String, String> owners) {}
+}
@@ -0,0 +1,61 @@
+package com.energymarket.market.cluster;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring assigning keys to peers.
+ *
+ * <p>Every peer is placed at {@link #VIRTUAL_NODES} points of a 64-bit ring and a key belongs to
+ * the first peer point at or after the key's own hash, wrapping around. When a peer joins it only
+ * takes over keys from its neighbours, and when it leaves only its own keys move, so a membership
+ * change reassigns about {@code 1/n} of the keys instead of reshuffling all of them. Hashes are
+ * derived from SHA-256, so every node computes the same ring from the same peer set.
+ */
+final class HashRing {
+
+  static final int VIRTUAL_NODES = 128;
+
+  private final NavigableMap<Long, String> points = new TreeMap<>();
+  private final List<String> peers;
+
+  HashRing(Collection<String> peers) {
+    this.peers = List.copyOf(peers);
+    for (String peer : this.peers) {
+      for (int i = 0; i < VIRTUAL_NODES; i++) {
+        points.put(hash(peer + "#" + i), peer);
+      }
+    }
+  }
+
+  /** Returns the peer owning {@code key}, or {@code null} if the ring has no peers. */
+  String owner(String key) {
+    if (points.isEmpty()) {
+      return null;
+    }
+    Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+    return (point != null ? point : points.firstEntry()).getValue();
+  }
+
+  /** Returns the peers on the ring. */
+  List<String> peers() {
+    return peers;
+  }
+
+  private static long hash(String value) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+      return ByteBuffer.wrap(digest).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.energymarket.market.cluster;
+
+import java.time.Duration;
+import reactor.core.publisher.Mono;
+
+/** Requests sent by a cluster node to its peers, without blocking the calling thread. */
+interface PeerTransport {
+
+  /** Emits whether {@code peer} answered its cluster endpoint within {@code timeout}. */
+  Mono<Boolean> probe(String peer, Duration timeout);
+
+  /**
+   * Fetches a JSON response body from {@code peer}, marking the request as forwarded by {@code
+   * self} so the peer serves it itself.
+   *
+   * @param pathAndQuery raw path and query of the request to send
+   * @return the body; fails with {@link PeerUnreachableException} if the peer cannot be reached or
+   *     does not answer within {@code timeout}, and with another exception if it answers with an
+   *     error status
+   */
+  Mono<byte[]> fetch(String peer, String pathAndQuery, String self, Duration timeout);
+}
@@ -0,0 +1,11 @@
+package com.energymarket.market.cluster;
+
+/** Thrown when a peer cannot be connected to or does not answer in time. */
+final class PeerUnreachableException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  PeerUnreachableException(String peer, Throwable cause) {
+    super(peer + " is unreachable: " + cause.getMessage(), cause);
+  }
+}
@@ -0,0 +1,54 @@
+package com.energymarket.market.cluster;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link PeerTransport} over HTTP with Spring's reactive {@link WebClient}. Every request carries
+ * the cluster's shared secret in {@link ClusterMembership#SECRET}.
+ */
+final class WebClientTransport implements PeerTransport {
+
+  private final WebClient webClient;
+  private final String secret;
+
+  WebClientTransport(WebClient webClient, String secret) {
+    this.webClient = webClient;
+    this.secret = secret;
+  }
+
+  @Override
+  public Mono<Boolean> probe(String peer, Duration timeout) {
+    return webClient
+        .get()
+        .uri(URI.create(peer + ClusterController.PATH))
+        .header(ClusterMembership.SECRET, secret)
+        .retrieve()
+        .toBodilessEntity()
+        .map(response -> true)
+        .timeout(timeout)
+        .onErrorReturn(false);
+  }
+
+  @Override
+  public Mono<byte[]> fetch(String peer, String pathAndQuery, String self, Duration timeout) {
+    return webClient
+        .get()
+        .uri(URI.create(peer + pathAndQuery))
+        .accept(MediaType.APPLICATION_JSON)
+        .header(ClusterMembership.FORWARDED_BY, self)
+        .header(ClusterMembership.SECRET, secret)
+        .retrieve()
+        .bodyToMono(byte[].class)
+        .timeout(timeout)
+        .onErrorMap(
+            failure ->
+                failure instanceof WebClientRequestException || failure instanceof TimeoutException,
+            failure -> new PeerUnreachableException(peer, failure));
+  }
+}
@@ -0,0 +1,35 @@
+package com.energymarket.market.exception;
+
+import java.time.Duration;
+
+/** Thrown when a client has used up its request budget and must wait before retrying. */
+public class RateLimitExceededException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Duration retryAfter;
+
+  public RateLimitExceededException(long cost, Duration retryAfter) {
+    super(
+        "Request cost of "
+            + cost
+            + " points exceeds the remaining budget; retry after "
+            + retryAfterSeconds(retryAfter)
+            + " s");
+    this.retryAfter = retryAfter;
+  }
+
+  /** Returns how long the client has to wait until the request would be admitted. */
+  public Duration retryAfter() {
+    return retryAfter;
+  }
+
+  /** Returns the wait rounded up to whole seconds, as sent in a {@code Retry-After} header. */
+  public long retryAfterSeconds() {
+    return retryAfterSeconds(retryAfter);
+  }
+
+  private static long retryAfterSeconds(Duration retryAfter) {
+    return Math.max(1, retryAfter.plusNanos(999_999_999).getSeconds());
+  }
+}
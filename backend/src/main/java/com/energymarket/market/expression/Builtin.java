@@ -0,0 +1,49 @@
+package com.energymarket.market.expression;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/** Functions callable from an expression. Windowed functions take a duration as last argument. */
+enum Builtin {
+  ABS("abs", 1, false),
+  SQRT("sqrt", 1, false),
+  LOG("log", 1, false),
+  EXP("exp", 1, false),
+  MIN("min", 2, false),
+  MAX("max", 2, false),
+  LAG("lag", 1, true),
+  ROLLING_SUM("rolling_sum", 1, true),
+  ROLLING_MEAN("rolling_mean", 1, true),
+  ROLLING_MIN("rolling_min", 1, true),
+  ROLLING_MAX("rolling_max", 1, true),
+  ROLLING_STD("rolling_std", 1, true);
+
+  private final String key;
+  private final int arity;
+  private final boolean windowed;
+
+  Builtin(String key, int arity, boolean windowed) {
+    this.key = key;
+    this.arity = arity;
+    this.windowed = windowed;
+  }
+
+  String key() {
+    return key;
+  }
+
+  /** Number of series arguments, excluding the window. */
+  int arity() {
+    return arity;
+  }
+
+  boolean windowed() {
+    return windowed;
+  }
+
+  static Optional<Builtin> fromKey(String value) {
+    String normalized = value.toLowerCase(Locale.US);
+    return Arrays.stream(values()).filter(function -> function.key.equals(normalized)).findFirst();
+  }
+}
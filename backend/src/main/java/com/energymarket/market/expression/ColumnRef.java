@@ -0,0 +1,23 @@
+package com.energymarket.market.expression;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.MarketMetric;
+import java.util.Objects;
+
+/**
+ * A series column read by an expression.
+ *
+ * @param market market the column belongs to, or {@code null} for the market the expression is
+ *     evaluated against
+ */
+public record ColumnRef(MarketCode market, MarketMetric metric) {
+
+  public ColumnRef {
+    Objects.requireNonNull(metric, "metric");
+  }
+
+  /** Returns this reference bound to {@code evaluated} if it names no market of its own. */
+  public ColumnRef resolve(MarketCode evaluated) {
+    return market == null ? new ColumnRef(evaluated, metric) : this;
+  }
+}
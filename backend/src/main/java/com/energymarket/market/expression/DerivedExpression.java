@@ -0,0 +1,112 @@
+package com.energymarket.market.expression;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A derived series expression, parsed and compiled once and evaluable against any window.
+ *
+ * <p>Expressions combine series columns ({@code price}, {@code demand}, {@code carbon}, {@code
+ * renewables}), columns of other markets ({@code ERCOT.price}), numbers, the operators {@code + - *
+ * / ^} and the {@link Builtin functions}, e.g. {@code price - rolling_mean(price, 4h)} or {@code
+ * rolling_sum(price * demand, 24h) / rolling_sum(demand, 24h)}. Instances are immutable and
+ * thread-safe.
+ */
+public final class DerivedExpression {
+
+  private final String source;
+  private final List<ColumnRef> columns;
+  private final Set<Duration> windows;
+  private final Duration lookback;
+  private final ExpressionCompiler.Kernel kernel;
+
+  private DerivedExpression(
+      String source,
+      List<ColumnRef> columns,
+      Set<Duration> windows,
+      Duration lookback,
+      ExpressionCompiler.Kernel kernel) {
+    this.source = source;
+    this.columns = columns;
+    this.windows = windows;
+    this.lookback = lookback;
+    this.kernel = kernel;
+  }
+
+  /**
+   * Parses and compiles an expression.
+   *
+   * @throws IllegalArgumentException if the expression is invalid or reads no column
+   */
+  public static DerivedExpression compile(String source) {
+    Node node = ExpressionCompiler.fold(ExpressionParser.parse(source));
+    ExpressionCompiler compiler = new ExpressionCompiler();
+    ExpressionCompiler.Kernel kernel = compiler.compile(node);
+    if (compiler.columns().isEmpty()) {
+      throw new IllegalArgumentException("expression must reference at least one column");
+    }
+    return new DerivedExpression(
+        source, compiler.columns(), compiler.windows(), ExpressionCompiler.lookback(node), kernel);
+  }
+
+  public String source() {
+    return source;
+  }
+
+  /** Columns to pass to {@link #evaluate}, in order. */
+  public List<ColumnRef> columns() {
+    return columns;
+  }
+
+  /** History the expression reads before a point; earlier points evaluate to {@link Double#NaN}. */
+  public Duration lookback() {
+    return lookback;
+  }
+
+  /**
+   * Evaluates the expression over a window.
+   *
+   * @param columns one array per {@link #columns() column}, all of the same length
+   * @param interval spacing of the points; every window of the expression must be a multiple
+   * @return the derived value of every point, {@link Double#NaN} where a window is not yet full
+   * @throws IllegalArgumentException if a window is not a multiple of the interval
+   */
+  public double[] evaluate(double[][] columns, Duration interval) {
+    requireWindowsAlignedTo(interval);
+    if (columns.length != this.columns.size()) {
+      throw new IllegalArgumentException(
+          "expected " + this.columns.size() + " columns but got " + columns.length);
+    }
+    int length = columns[0].length;
+    for (double[] column : columns) {
+      if (column.length != length) {
+        throw new IllegalArgumentException("columns must have the same length");
+      }
+    }
+    return kernel.evaluate(new ExpressionCompiler.Frame(columns, length, interval.toSeconds()));
+  }
+
+  /**
+   * Checks that every window of the expression is a multiple of {@code interval}.
+   *
+   * @throws IllegalArgumentException otherwise
+   */
+  public void requireWindowsAlignedTo(Duration interval) {
+    Objects.requireNonNull(interval, "interval");
+    for (Duration window : windows) {
+      if (window.toSeconds() % interval.toSeconds() != 0) {
+        throw new IllegalArgumentException(
+            String.format(
+                "window %dm of %s is not a multiple of the %dm resolution",
+                window.toMinutes(), source, interval.toMinutes()));
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return source;
+  }
+}
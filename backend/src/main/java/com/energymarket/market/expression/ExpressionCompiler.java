@@ -0,0 +1,472 @@
+package com.energymarket.market.expression;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compiles a syntax tree into a tree of column kernels.
+ *
+ * <p>Constant subtrees are folded first. Every remaining node becomes a lambda that computes its
+ * whole column in one tight loop over primitive arrays, with the operator chosen at compile time,
+ * so the per-point work is straight-line arithmetic the JIT can unroll and vectorise; operands that
+ * are constants are broadcast as scalars instead of materialised. Rolling functions use running
+ * sums and monotonic deques, so each is O(n) whatever its window. Windows stay in time units until
+ * evaluation, when they are converted to steps of the series resolution.
+ */
+final class ExpressionCompiler {
+
+  /** Computes the column of one node over a frame. Results are fresh arrays or frame columns. */
+  @FunctionalInterface
+  interface Kernel {
+    double[] evaluate(Frame frame);
+  }
+
+  /** Input columns, in {@link #columns()} order, at a fixed resolution. */
+  record Frame(double[][] columns, int length, long stepSeconds) {
+
+    int steps(Duration window) {
+      return Math.toIntExact(window.toSeconds() / stepSeconds);
+    }
+  }
+
+  private final List<ColumnRef> columns = new ArrayList<>();
+  private final Set<Duration> windows = new TreeSet<>();
+
+  /** Distinct columns read by the compiled kernels, in slot order. */
+  List<ColumnRef> columns() {
+    return List.copyOf(columns);
+  }
+
+  /** Distinct windows of the windowed functions. */
+  Set<Duration> windows() {
+    return Set.copyOf(windows);
+  }
+
+  /** History needed before the first evaluated point for every window to be full. */
+  static Duration lookback(Node node) {
+    return switch (node) {
+      case Node.Constant constant -> Duration.ZERO;
+      case Node.Column column -> Duration.ZERO;
+      case Node.Negate negate -> lookback(negate.operand());
+      case Node.Binary binary -> max(lookback(binary.left()), lookback(binary.right()));
+      case Node.Call call -> {
+        Duration inner = Duration.ZERO;
+        for (Node argument : call.arguments()) {
+          inner = max(inner, lookback(argument));
+        }
+        yield call.window() == null ? inner : inner.plus(call.window());
+      }
+    };
+  }
+
+  /** Replaces every subtree that reads no column by its value. */
+  static Node fold(Node node) {
+    return switch (node) {
+      case Node.Constant constant -> constant;
+      case Node.Column column -> column;
+      case Node.Negate negate -> {
+        Node operand = fold(negate.operand());
+        yield operand instanceof Node.Constant constant
+            ? new Node.Constant(-constant.value())
+            : new Node.Negate(operand);
+      }
+      case Node.Binary binary -> {
+        Node left = fold(binary.left());
+        Node right = fold(binary.right());
+        yield left instanceof Node.Constant a && right instanceof Node.Constant b
+            ? new Node.Constant(apply(binary.operator(), a.value(), b.value()))
+            : new Node.Binary(binary.operator(), left, right);
+      }
+      case Node.Call call -> {
+        List<Node> arguments = call.arguments().stream().map(ExpressionCompiler::fold).toList();
+        boolean constant = arguments.stream().allMatch(Node.Constant.class::isInstance);
+        yield constant && !call.function().windowed()
+            ? new Node.Constant(apply(call.function(), arguments))
+            : new Node.Call(call.function(), arguments, call.window());
+      }
+    };
+  }
+
+  Kernel compile(Node node) {
+    return switch (node) {
+      case Node.Constant constant -> fill(constant.value());
+      case Node.Column column -> column(column.ref());
+      case Node.Negate negate -> negate(compile(negate.operand()));
+      case Node.Binary binary -> binary(binary);
+      case Node.Call call -> call(call);
+    };
+  }
+
+  private Kernel column(ColumnRef ref) {
+    int index = columns.indexOf(ref);
+    if (index < 0) {
+      index = columns.size();
+      columns.add(ref);
+    }
+    int slot = index;
+    return frame -> frame.columns()[slot];
+  }
+
+  private static Kernel fill(double value) {
+    return frame -> {
+      double[] out = new double[frame.length()];
+      Arrays.fill(out, value);
+      return out;
+    };
+  }
+
+  private static Kernel negate(Kernel operand) {
+    return frame -> {
+      double[] a = operand.evaluate(frame);
+      double[] out = new double[a.length];
+      for (int i = 0; i < a.length; i++) {
+        out[i] = -a[i];
+      }
+      return out;
+    };
+  }
+
+  private Kernel binary(Node.Binary binary) {
+    char operator = binary.operator();
+    if (binary.right() instanceof Node.Constant constant && operator != '^') {
+      return scalarRight(operator, compile(binary.left()), constant.value());
+    }
+    if (binary.left() instanceof Node.Constant constant && operator != '^') {
+      return scalarLeft(operator, constant.value(), compile(binary.right()));
+    }
+    Kernel left = compile(binary.left());
+    Kernel right = compile(binary.right());
+    return switch (operator) {
+      case '+' ->
+          frame -> {
+            double[] a = left.evaluate(frame);
+            double[] b = right.evaluate(frame);
+            double[] out = new double[a.length];
+            for (int i = 0; i < a.length; i++) {
+              out[i] = a[i] + b[i];
+            }
+            return out;
+          };
+      case '-' ->
+          frame -> {
+            double[] a = left.evaluate(frame);
+            double[] b = right.evaluate(frame);
+            double[] out = new double[a.length];
+            for (int i = 0; i < a.length; i++) {
+              out[i] = a[i] - b[i];
+            }
+            return out;
+          };
+      case '*' ->
+          frame -> {
+            double[] a = left.evaluate(frame);
+            double[] b = right.evaluate(frame);
+            double[] out = new double[a.length];
+            for (int i = 0; i < a.length; i++) {
+              out[i] = a[i] * b[i];
+            }
+            return out;
+          };
+      case '/' ->
+          frame -> {
+            double[] a = left.evaluate(frame);
+            double[] b = right.evaluate(frame);
+            double[] out = new double[a.length];
+            for (int i = 0; i < a.length; i++) {
+              out[i] = a[i] / b[i];
+            }
+            return out;
+          };
+      default ->
+          frame -> {
+            double[] a = left.evaluate(frame);
+            double[] b = right.evaluate(frame);
+            double[] out = new double[a.length];
+            for (int i = 0; i < a.length; i++) {
+              out[i] = Math.pow(a[i], b[i]);
+            }
+            return out;
+          };
+    };
+  }
+
+  private static Kernel scalarRight(char operator, Kernel left, double c) {
+    return switch (operator) {
+      case '+' -> offset(left, c);
+      case '-' -> offset(left, -c);
+      case '*' -> scale(left, c);
+      default ->
+          frame -> {
+            double[] a = left.evaluate(frame);
+            double[] out = new double[a.length];
+            for (int i = 0; i < a.length; i++) {
+              out[i] = a[i] / c;
+            }
+            return out;
+          };
+    };
+  }
+
+  private static Kernel scalarLeft(char operator, double c, Kernel right) {
+    return switch (operator) {
+      case '+' -> offset(right, c);
+      case '*' -> scale(right, c);
+      case '-' ->
+          frame -> {
+            double[] b = right.evaluate(frame);
+            double[] out = new double[b.length];
+            for (int i = 0; i < b.length; i++) {
+              out[i] = c - b[i];
+            }
+            return out;
+          };
+      default ->
+          frame -> {
+            double[] b = right.evaluate(frame);
+            double[] out = new double[b.length];
+            for (int i = 0; i < b.length; i++) {
+              out[i] = c / b[i];
+            }
+            return out;
+          };
+    };
+  }
+
+  private static Kernel offset(Kernel operand, double c) {
+    return frame -> {
+      double[] a = operand.evaluate(frame);
+      double[] out = new double[a.length];
+      for (int i = 0; i < a.length; i++) {
+        out[i] = a[i] + c;
+      }
+      return out;
+    };
+  }
+
+  private static Kernel scale(Kernel operand, double c) {
+    return frame -> {
+      double[] a = operand.evaluate(frame);
+      double[] out = new double[a.length];
+      for (int i = 0; i < a.length; i++) {
+        out[i] = a[i] * c;
+      }
+      return out;
+    };
+  }
+
+  private Kernel call(Node.Call call) {
+    List<Kernel> arguments = call.arguments().stream().map(this::compile).toList();
+    Kernel x = arguments.getFirst();
+    Duration window = call.window();
+    if (window != null) {
+      windows.add(window);
+    }
+    return switch (call.function()) {
+      case ABS ->
+          frame -> {
+            double[] a = x.evaluate(frame);
+            double[] out = new double[a.length];
+            for (int i = 0; i < a.length; i++) {
+              out[i] = Math.abs(a[i]);
+            }
+            return out;
+          };
+      case SQRT ->
+          frame -> {
+            double[] a = x.evaluate(frame);
+            double[] out = new double[a.length];
+            for (int i = 0; i < a.length; i++) {
+              out[i] = Math.sqrt(a[i]);
+            }
+            return out;
+          };
+      case LOG ->
+          frame -> {
+            double[] a = x.evaluate(frame);
+            double[] out = new double[a.length];
+            for (int i = 0; i < a.length; i++) {
+              out[i] = Math.log(a[i]);
+            }
+            return out;
+          };
+      case EXP ->
+          frame -> {
+            double[] a = x.evaluate(frame);
+            double[] out = new double[a.length];
+            for (int i = 0; i < a.length; i++) {
+              out[i] = Math.exp(a[i]);
+            }
+            return out;
+          };
+      case MIN -> extreme(x, arguments.get(1), false);
+      case MAX -> extreme(x, arguments.get(1), true);
+      case LAG -> lag(x, window);
+      case ROLLING_SUM -> rollingSum(x, window, false);
+      case ROLLING_MEAN -> rollingSum(x, window, true);
+      case ROLLING_MIN -> rollingExtreme(x, window, false);
+      case ROLLING_MAX -> rollingExtreme(x, window, true);
+      case ROLLING_STD -> rollingStandardDeviation(x, window);
+    };
+  }
+
+  private static Kernel extreme(Kernel left, Kernel right, boolean maximum) {
+    return frame -> {
+      double[] a = left.evaluate(frame);
+      double[] b = right.evaluate(frame);
+      double[] out = new double[a.length];
+      if (maximum) {
+        for (int i = 0; i < a.length; i++) {
+          out[i] = Math.max(a[i], b[i]);
+        }
+      } else {
+        for (int i = 0; i < a.length; i++) {
+          out[i] = Math.min(a[i], b[i]);
+        }
+      }
+      return out;
+    };
+  }
+
+  private static Kernel lag(Kernel operand, Duration window) {
+    return frame -> {
+      double[] a = operand.evaluate(frame);
+      int steps = Math.min(frame.steps(window), a.length);
+      double[] out = new double[a.length];
+      Arrays.fill(out, 0, steps, Double.NaN);
+      System.arraycopy(a, 0, out, steps, a.length - steps);
+      return out;
+    };
+  }
+
+  /**
+   * Running sum over the window. Non-finite inputs, such as the warm-up of a nested window or the
+   * logarithm of a non-positive value, are kept out of the sum and counted instead, so they only
+   * make the points whose window holds them undefined.
+   */
+  private static Kernel rollingSum(Kernel operand, Duration window, boolean mean) {
+    return frame -> {
+      double[] a = operand.evaluate(frame);
+      int steps = frame.steps(window);
+      double scale = mean ? 1.0 / steps : 1.0;
+      double[] out = new double[a.length];
+      double sum = 0.0;
+      int missing = 0;
+      for (int i = 0; i < a.length; i++) {
+        if (Double.isFinite(a[i])) {
+          sum += a[i];
+        } else {
+          missing++;
+        }
+        if (i >= steps) {
+          if (Double.isFinite(a[i - steps])) {
+            sum -= a[i - steps];
+          } else {
+            missing--;
+          }
+        }
+        out[i] = i + 1 >= steps && missing == 0 ? sum * scale : Double.NaN;
+      }
+      return out;
+    };
+  }
+
+  /** Running standard deviation; non-finite inputs are handled as in {@link #rollingSum}. */
+  private static Kernel rollingStandardDeviation(Kernel operand, Duration window) {
+    return frame -> {
+      double[] a = operand.evaluate(frame);
+      int steps = frame.steps(window);
+      double[] out = new double[a.length];
+      double sum = 0.0;
+      double squares = 0.0;
+      int missing = 0;
+      for (int i = 0; i < a.length; i++) {
+        if (Double.isFinite(a[i])) {
+          sum += a[i];
+          squares += a[i] * a[i];
+        } else {
+          missing++;
+        }
+        if (i >= steps) {
+          double evicted = a[i - steps];
+          if (Double.isFinite(evicted)) {
+            sum -= evicted;
+            squares -= evicted * evicted;
+          } else {
+            missing--;
+          }
+        }
+        double average = sum / steps;
+        double variance = Math.max(0.0, squares / steps - average * average);
+        out[i] = i + 1 >= steps && missing == 0 ? Math.sqrt(variance) : Double.NaN;
+      }
+      return out;
+    };
+  }
+
+  /**
+   * Sliding minimum or maximum over a monotonic deque of indices. Non-finite inputs never enter the
+   * deque, where they would break its ordering, and are counted as in {@link #rollingSum}.
+   */
+  private static Kernel rollingExtreme(Kernel operand, Duration window, boolean maximum) {
+    return frame -> {
+      double[] a = operand.evaluate(frame);
+      int steps = frame.steps(window);
+      double[] out = new double[a.length];
+      int[] deque = new int[a.length];
+      int head = 0;
+      int tail = 0;
+      int missing = 0;
+      for (int i = 0; i < a.length; i++) {
+        double value = a[i];
+        if (Double.isFinite(value)) {
+          while (tail > head
+              && (maximum ? a[deque[tail - 1]] <= value : a[deque[tail - 1]] >= value)) {
+            tail--;
+          }
+          deque[tail++] = i;
+        } else {
+          missing++;
+        }
+        if (i >= steps && !Double.isFinite(a[i - steps])) {
+          missing--;
+        }
+        while (tail > head && deque[head] <= i - steps) {
+          head++;
+        }
+        out[i] = i + 1 >= steps && missing == 0 ? a[deque[head]] : Double.NaN;
+      }
+      return out;
+    };
+  }
+
+  private static double apply(char operator, double a, double b) {
+    return switch (operator) {
+      case '+' -> a + b;
+      case '-' -> a - b;
+      case '*' -> a * b;
+      case '/' -> a / b;
+      default -> Math.pow(a, b);
+    };
+  }
+
+  private static double apply(Builtin function, List<Node> arguments) {
+    double a = ((Node.Constant) arguments.getFirst()).value();
+    return switch (function) {
+      case ABS -> Math.abs(a);
+      case SQRT -> Math.sqrt(a);
+      case LOG -> Math.log(a);
+      case EXP -> Math.exp(a);
+      case MIN -> Math.min(a, ((Node.Constant) arguments.get(1)).value());
+      case MAX -> Math.max(a, ((Node.Constant) arguments.get(1)).value());
+      default -> throw new IllegalStateException("windowed function " + function);
+    };
+  }
+
+  private static Duration max(Duration a, Duration b) {
+    return a.compareTo(b) >= 0 ? a : b;
+  }
+}
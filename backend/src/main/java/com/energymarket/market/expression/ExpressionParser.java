@@ -0,0 +1,268 @@
+package com.energymarket.market.expression;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.MarketMetric;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive-descent parser for derived series expressions.
+ *
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := unary (('*' | '/') unary)*
+ * unary      := ('-' | '+') unary | power
+ * power      := primary ('^' unary)?
+ * primary    := number | column | call | '(' expression ')'
+ * column     := metric | MARKET '.' metric
+ * call       := function '(' expression (',' expression)* (',' duration)? ')'
+ * duration   := integer ('m' | 'h' | 'd')
+ * </pre>
+ *
+ * Metrics are the {@code MarketMetric} keys, functions the {@link Builtin} keys and markets the
+ * {@code MarketCode} codes, all case-insensitive.
+ */
+final class ExpressionParser {
+
+  static final int MAX_LENGTH = 1000;
+  private static final int MAX_DEPTH = 64;
+
+  private final String source;
+  private int position;
+  private int depth;
+
+  private ExpressionParser(String source) {
+    this.source = source;
+  }
+
+  /**
+   * Parses an expression.
+   *
+   * @throws IllegalArgumentException if the expression is malformed, too long or too deeply nested,
+   *     or references an unknown column, market or function
+   */
+  static Node parse(String source) {
+    if (source == null || source.isBlank()) {
+      throw new IllegalArgumentException("expression must not be blank");
+    }
+    if (source.length() > MAX_LENGTH) {
+      throw new IllegalArgumentException(
+          "expression must not exceed " + MAX_LENGTH + " characters");
+    }
+    ExpressionParser parser = new ExpressionParser(source);
+    Node node = parser.expression();
+    parser.skipWhitespace();
+    if (parser.position < source.length()) {
+      throw parser.error("unexpected '" + source.charAt(parser.position) + "'");
+    }
+    return node;
+  }
+
+  private Node expression() {
+    enter();
+    Node node = term();
+    while (true) {
+      if (accept('+')) {
+        node = new Node.Binary('+', node, term());
+      } else if (accept('-')) {
+        node = new Node.Binary('-', node, term());
+      } else {
+        depth--;
+        return node;
+      }
+    }
+  }
+
+  private Node term() {
+    Node node = unary();
+    while (true) {
+      if (accept('*')) {
+        node = new Node.Binary('*', node, unary());
+      } else if (accept('/')) {
+        node = new Node.Binary('/', node, unary());
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node unary() {
+    enter();
+    Node node;
+    if (accept('-')) {
+      node = new Node.Negate(unary());
+    } else if (accept('+')) {
+      node = unary();
+    } else {
+      Node base = primary();
+      node = accept('^') ? new Node.Binary('^', base, unary()) : base;
+    }
+    depth--;
+    return node;
+  }
+
+  private Node primary() {
+    skipWhitespace();
+    if (accept('(')) {
+      Node node = expression();
+      expect(')');
+      return node;
+    }
+    if (position < source.length() && isNumberStart(source.charAt(position))) {
+      int start = position;
+      double value = number();
+      if (position < source.length() && Character.isLetter(source.charAt(position))) {
+        position = start;
+        throw error("durations are only allowed as the window argument of a function");
+      }
+      return new Node.Constant(value);
+    }
+    int start = position;
+    String name = identifier();
+    if (accept('(')) {
+      return call(name, start);
+    }
+    if (accept('.')) {
+      MarketCode market =
+          MarketCode.fromCode(name).orElseThrow(() -> error(start, "unknown market " + name));
+      int metricStart = position;
+      return new Node.Column(new ColumnRef(market, metric(identifier(), metricStart)));
+    }
+    return new Node.Column(new ColumnRef(null, metric(name, start)));
+  }
+
+  private Node call(String name, int start) {
+    Builtin function =
+        Builtin.fromKey(name).orElseThrow(() -> error(start, "unknown function " + name));
+    List<Node> arguments = new ArrayList<>(function.arity());
+    for (int i = 0; i < function.arity(); i++) {
+      if (i > 0) {
+        expect(',');
+      }
+      arguments.add(expression());
+    }
+    Duration window = null;
+    if (function.windowed()) {
+      expect(',');
+      window = duration();
+    }
+    expect(')');
+    return new Node.Call(function, arguments, window);
+  }
+
+  private MarketMetric metric(String name, int start) {
+    return MarketMetric.fromKey(name).orElseThrow(() -> error(start, "unknown column " + name));
+  }
+
+  private String identifier() {
+    skipWhitespace();
+    int start = position;
+    while (position < source.length()
+        && (Character.isLetterOrDigit(source.charAt(position)) || source.charAt(position) == '_')) {
+      position++;
+    }
+    if (start == position || !Character.isLetter(source.charAt(start))) {
+      position = start;
+      throw error(
+          position < source.length()
+              ? "unexpected '" + source.charAt(position) + "'"
+              : "unexpected end of expression");
+    }
+    return source.substring(start, position);
+  }
+
+  private double number() {
+    int start = position;
+    while (position < source.length() && isNumberStart(source.charAt(position))) {
+      position++;
+    }
+    if (position + 1 < source.length()
+        && (source.charAt(position) == 'e' || source.charAt(position) == 'E')) {
+      int exponent = position + 1;
+      if (source.charAt(exponent) == '+' || source.charAt(exponent) == '-') {
+        exponent++;
+      }
+      if (exponent < source.length() && Character.isDigit(source.charAt(exponent))) {
+        position = exponent;
+        while (position < source.length() && Character.isDigit(source.charAt(position))) {
+          position++;
+        }
+      }
+    }
+    try {
+      return Double.parseDouble(source.substring(start, position));
+    } catch (NumberFormatException exception) {
+      throw error(start, "malformed number");
+    }
+  }
+
+  private Duration duration() {
+    skipWhitespace();
+    int start = position;
+    while (position < source.length() && Character.isDigit(source.charAt(position))) {
+      position++;
+    }
+    if (start == position || position == source.length()) {
+      throw error(start, "expected a window such as 30m, 4h or 7d");
+    }
+    long amount;
+    try {
+      amount = Long.parseLong(source.substring(start, position));
+    } catch (NumberFormatException exception) {
+      throw error(start, "window is too long");
+    }
+    Duration window =
+        switch (source.charAt(position)) {
+          case 'm' -> Duration.ofMinutes(amount);
+          case 'h' -> Duration.ofHours(amount);
+          case 'd' -> Duration.ofDays(amount);
+          default -> throw error("expected a window unit of m, h or d");
+        };
+    position++;
+    if (window.isZero()) {
+      throw error(start, "window must be positive");
+    }
+    return window;
+  }
+
+  private void enter() {
+    if (++depth > MAX_DEPTH) {
+      throw error("expression is nested too deeply");
+    }
+  }
+
+  private boolean accept(char expected) {
+    skipWhitespace();
+    if (position < source.length() && source.charAt(position) == expected) {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(char expected) {
+    if (!accept(expected)) {
+      throw error("expected '" + expected + "'");
+    }
+  }
+
+  private void skipWhitespace() {
+    while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+      position++;
+    }
+  }
+
+  private static boolean isNumberStart(char character) {
+    return Character.isDigit(character) || character == '.';
+  }
+
+  private IllegalArgumentException error(String message) {
+    return error(position, message);
+  }
+
+  private IllegalArgumentException error(int at, String message) {
+    return new IllegalArgumentException(
+        "Invalid expression at position " + (at + 1) + ": " + message);
+  }
+}
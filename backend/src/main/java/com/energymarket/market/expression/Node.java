@@ -0,0 +1,25 @@
+package com.energymarket.market.expression;
+
+import java.time.Duration;
+import java.util.List;
+
+/** Syntax tree of a parsed expression. */
+sealed interface Node {
+
+  record Constant(double value) implements Node {}
+
+  record Column(ColumnRef ref) implements Node {}
+
+  record Negate(Node operand) implements Node {}
+
+  /** Arithmetic on two operands; {@code operator} is one of {@code + - * / ^}. */
+  record Binary(char operator, Node left, Node right) implements Node {}
+
+  /** Function call; {@code window} is {@code null} unless the function is windowed. */
+  record Call(Builtin function, List<Node> arguments, Duration window) implements Node {
+
+    public Call {
+      arguments = List.copyOf(arguments);
+    }
+  }
+}
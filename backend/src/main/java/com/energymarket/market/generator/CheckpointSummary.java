@@ -0,0 +1,10 @@
+package com.energymarket.market.generator;
+
+/**
+ * What a generator checkpoint holds.
+ *
+ * @param buckets number of hour bucket sketch pairs
+ * @param forecastStates number of cached per-market forecaster states
+ * @param bytes size of the checkpoint file
+ */
+public record CheckpointSummary(int buckets, int forecastStates, long bytes) {}
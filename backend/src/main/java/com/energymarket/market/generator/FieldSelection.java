@@ -0,0 +1,115 @@
+package com.energymarket.market.generator;
+
+import com.energymarket.market.model.MarketMetric;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Client-requested projection of a snapshot, pushed down into {@link MarketDataGenerator} so that
+ * unrequested columns and sections are never computed.
+ *
+ * <p>Columns that are requested only indirectly, such as price when demand is requested (demand is
+ * coupled to price), are computed but not emitted.
+ *
+ * @param metrics series columns to emit
+ * @param forecast whether to build the forecast
+ * @param insights whether to return window insights
+ */
+public record FieldSelection(Set<MarketMetric> metrics, boolean forecast, boolean insights) {
+
+  /** Selection that computes and emits everything. */
+  public static final FieldSelection ALL =
+      new FieldSelection(EnumSet.allOf(MarketMetric.class), true, true);
+
+  private static final String FORECAST = "forecast";
+  private static final String INSIGHTS = "insights";
+
+  public FieldSelection {
+    EnumSet<MarketMetric> copy = EnumSet.noneOf(MarketMetric.class);
+    copy.addAll(metrics);
+    metrics = Collections.unmodifiableSet(copy);
+  }
+
+  /**
+   * Parses a comma separated field list such as {@code price,forecast}.
+   *
+   * @param fields the raw parameter, or {@code null}/blank for everything
+   * @return the parsed selection
+   * @throws IllegalArgumentException if a field name is unknown
+   */
+  public static FieldSelection parse(String fields) {
+    if (fields == null || fields.isBlank()) {
+      return ALL;
+    }
+    EnumSet<MarketMetric> metrics = EnumSet.noneOf(MarketMetric.class);
+    boolean forecast = false;
+    boolean insights = false;
+    for (String token : fields.split(",")) {
+      String field = token.trim().toLowerCase(Locale.US);
+      if (field.isEmpty()) {
+        continue;
+      }
+      if (FORECAST.equals(field)) {
+        forecast = true;
+      } else if (INSIGHTS.equals(field)) {
+        insights = true;
+      } else {
+        metrics.add(
+            MarketMetric.fromKey(field)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown field: " + field)));
+      }
+    }
+    return new FieldSelection(metrics, forecast, insights);
+  }
+
+  /** Returns whether the column is emitted to the client. */
+  public boolean includes(MarketMetric metric) {
+    return metrics.contains(metric);
+  }
+
+  /** Returns whether any series column is emitted. */
+  public boolean includesSeries() {
+    return !metrics.isEmpty();
+  }
+
+  /**
+   * Returns the columns that must be computed to satisfy this selection, following the generator's
+   * data dependencies: carbon is derived from demand and renewables, demand is coupled to price,
+   * and the forecast extrapolates price.
+   */
+  public Set<MarketMetric> requiredMetrics() {
+    EnumSet<MarketMetric> required = EnumSet.noneOf(MarketMetric.class);
+    required.addAll(metrics);
+    if (required.contains(MarketMetric.CARBON)) {
+      required.add(MarketMetric.DEMAND);
+      required.add(MarketMetric.RENEWABLES);
+    }
+    if (required.contains(MarketMetric.DEMAND) || forecast) {
+      required.add(MarketMetric.PRICE);
+    }
+    return Collections.unmodifiableSet(required);
+  }
+
+  /** Packs the selection into a bit set: one bit per metric, then forecast and insights. */
+  int bits() {
+    int bits = 0;
+    for (MarketMetric metric : metrics) {
+      bits |= 1 << metric.ordinal();
+    }
+    int sections = MarketMetric.values().length;
+    if (forecast) {
+      bits |= 1 << sections;
+    }
+    if (insights) {
+      bits |= 1 << (sections + 1);
+    }
+    return bits;
+  }
+
+  /** Returns whether every required column is also emitted, so no masking pass is needed. */
+  boolean emitsAllRequired() {
+    return metrics.containsAll(requiredMetrics());
+  }
+}
@@ -0,0 +1,212 @@
+package com.energymarket.market.generator;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.BacktestReport;
+import com.energymarket.market.model.ForecastPoint;
+import com.energymarket.market.model.HorizonAccuracy;
+import com.energymarket.market.model.PricePoint;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Replays the snapshot forecast from many past origins and scores it against the generated actuals.
+ *
+ * <p>Each origin is forecast exactly as a snapshot taken at that instant would be, with the default
+ * 24 hour history at 15 minute resolution: the slope over the last eight points and the price
+ * standard deviation of the window. The actual price series of a market is generated once over the
+ * whole span, including the warm-up the model reads before the first origin, and shared by every
+ * origin; prefix sums of price and squared price give each origin's window deviation in constant
+ * time, so the cost is one pass over the span plus the forecasts themselves. Origins are evaluated
+ * in parallel, each worker with its own model instance walking its origins in order as a live
+ * poller would, and their errors and forecast latencies are merged per horizon step.
+ */
+public final class ForecastBacktester {
+
+  static final Duration HISTORY_RANGE = Duration.ofHours(24);
+  static final Duration HISTORY_INTERVAL = Duration.ofMinutes(15);
+  private static final int SLOPE_LOOKBACK_STEPS = 7;
+
+  private final MarketDataGenerator generator;
+
+  public ForecastBacktester(MarketDataGenerator generator) {
+    this.generator = Objects.requireNonNull(generator, "generator");
+  }
+
+  /**
+   * Scores the forecasts issued every {@code originSpacing} from {@code firstOrigin} through {@code
+   * lastOrigin}.
+   *
+   * @param firstOrigin first forecast origin, aligned to 15 minutes
+   * @param lastOrigin last forecast origin; its horizon must already be in the past for the report
+   *     to describe observed prices
+   * @param originSpacing spacing between origins, a multiple of 15 minutes
+   * @param horizon forecast horizon
+   * @param interval forecast resolution, a multiple of 15 minutes that divides the horizon
+   * @param model forecasting model to score
+   */
+  public BacktestReport run(
+      MarketCode market,
+      Instant firstOrigin,
+      Instant lastOrigin,
+      Duration originSpacing,
+      Duration horizon,
+      Duration interval,
+      ForecastModel model) {
+    Objects.requireNonNull(market, "market");
+    Objects.requireNonNull(model, "model");
+    long gridSeconds = HISTORY_INTERVAL.toSeconds();
+    if (firstOrigin.getEpochSecond() % gridSeconds != 0
+        || originSpacing.toSeconds() % gridSeconds != 0
+        || interval.toSeconds() % gridSeconds != 0) {
+      throw new IllegalArgumentException(
+          "origins, origin spacing and forecast resolution must align to 15 minutes");
+    }
+    if (originSpacing.isZero() || interval.isZero() || lastOrigin.isBefore(firstOrigin)) {
+      throw new IllegalArgumentException("origin range and spacing must be positive");
+    }
+    if (horizon.toSeconds() % interval.toSeconds() != 0) {
+      throw new IllegalArgumentException("forecast horizon must be divisible by its resolution");
+    }
+
+    int originStride = Math.toIntExact(originSpacing.toSeconds() / gridSeconds);
+    int stepStride = Math.toIntExact(interval.toSeconds() / gridSeconds);
+    int windowSteps = Math.toIntExact(HISTORY_RANGE.toSeconds() / gridSeconds);
+    int steps = Math.toIntExact(horizon.toSeconds() / interval.toSeconds());
+    long span = Duration.between(firstOrigin, lastOrigin).toSeconds();
+    int origins = Math.toIntExact(span / originSpacing.toSeconds()) + 1;
+
+    Instant windowStart = firstOrigin.minus(HISTORY_RANGE);
+    Instant warmUpStart = model.newForecaster().historyStart(firstOrigin);
+    Instant seriesStart = warmUpStart.isBefore(windowStart) ? warmUpStart : windowStart;
+    int offset =
+        Math.toIntExact(Duration.between(seriesStart, windowStart).toSeconds() / gridSeconds);
+    int seriesLength = offset + windowSteps + (origins - 1) * originStride + steps * stepStride + 1;
+    PricePoint[] series =
+        IntStream.range(0, seriesLength)
+            .parallel()
+            .mapToObj(i -> seriesStart.plusSeconds(gridSeconds * i))
+            .map(timestamp -> generator.generatePoint(market, timestamp))
+            .toArray(PricePoint[]::new);
+    double[] sums = new double[seriesLength + 1];
+    double[] squareSums = new double[seriesLength + 1];
+    for (int i = 0; i < seriesLength; i++) {
+      double price = series[i].priceMwh();
+      sums[i + 1] = sums[i] + price;
+      squareSums[i + 1] = squareSums[i] + price * price;
+    }
+
+    SketchIndex.PointSource history =
+        timestamp -> {
+          long elapsed = timestamp.getEpochSecond() - seriesStart.getEpochSecond();
+          long index = elapsed / gridSeconds;
+          return elapsed >= 0 && elapsed % gridSeconds == 0 && index < seriesLength
+              ? series[(int) index]
+              : generator.generatePoint(market, timestamp);
+        };
+
+    ErrorAccumulator totals =
+        IntStream.range(0, origins)
+            .parallel()
+            .collect(
+                () -> new ErrorAccumulator(steps, model.newForecaster()),
+                (accumulator, origin) -> {
+                  int last = offset + windowSteps + origin * originStride;
+                  int first = last - windowSteps;
+                  int count = windowSteps + 1;
+                  double average = (sums[last + 1] - sums[first]) / count;
+                  double variance = (squareSums[last + 1] - squareSums[first]) / count;
+                  PriceForecaster.Origin forecastOrigin =
+                      new PriceForecaster.Origin(
+                          series[last],
+                          generator.computePriceSlope(
+                              series[last - SLOPE_LOOKBACK_STEPS], series[last]),
+                          Math.sqrt(Math.max(0.0, variance - average * average)),
+                          history);
+                  long started = System.nanoTime();
+                  List<ForecastPoint> forecast =
+                      accumulator.forecaster.forecast(market, forecastOrigin, horizon, interval);
+                  accumulator.forecastNanos += System.nanoTime() - started;
+                  for (int step = 0; step < forecast.size(); step++) {
+                    accumulator.record(
+                        step, forecast.get(step), series[last + (step + 1) * stepStride]);
+                  }
+                },
+                ErrorAccumulator::merge);
+
+    List<HorizonAccuracy> horizons = new ArrayList<>(steps);
+    for (int step = 0; step < steps; step++) {
+      horizons.add(totals.accuracy(step, interval.multipliedBy(step + 1)));
+    }
+    return new BacktestReport(
+        market.code(),
+        model.code(),
+        firstOrigin,
+        firstOrigin.plus(originSpacing.multipliedBy(origins - 1L)),
+        origins,
+        Math.round(totals.forecastNanos / 10.0 / origins) / 100.0,
+        horizons);
+  }
+
+  /** Error sums per horizon step over a subset of origins. */
+  private static final class ErrorAccumulator {
+    private final PriceForecaster forecaster;
+    private final double[] absoluteErrors;
+    private final double[] squaredErrors;
+    private final double[] percentageErrors;
+    private final long[] covered;
+    private final long[] counts;
+    private long forecastNanos;
+
+    ErrorAccumulator(int steps, PriceForecaster forecaster) {
+      this.forecaster = forecaster;
+      absoluteErrors = new double[steps];
+      squaredErrors = new double[steps];
+      percentageErrors = new double[steps];
+      covered = new long[steps];
+      counts = new long[steps];
+    }
+
+    void record(int step, ForecastPoint forecast, PricePoint actual) {
+      double error = forecast.projectedPriceMwh() - actual.priceMwh();
+      absoluteErrors[step] += Math.abs(error);
+      squaredErrors[step] += error * error;
+      percentageErrors[step] += Math.abs(error) / actual.priceMwh();
+      if (actual.priceMwh() >= forecast.lowerBound()
+          && actual.priceMwh() <= forecast.upperBound()) {
+        covered[step]++;
+      }
+      counts[step]++;
+    }
+
+    void merge(ErrorAccumulator other) {
+      forecastNanos += other.forecastNanos;
+      for (int step = 0; step < counts.length; step++) {
+        absoluteErrors[step] += other.absoluteErrors[step];
+        squaredErrors[step] += other.squaredErrors[step];
+        percentageErrors[step] += other.percentageErrors[step];
+        covered[step] += other.covered[step];
+        counts[step] += other.counts[step];
+      }
+    }
+
+    HorizonAccuracy accuracy(int step, Duration lead) {
+      double count = counts[step];
+      return new HorizonAccuracy(
+          step + 1,
+          lead.toMinutes(),
+          round(absoluteErrors[step] / count, 2),
+          round(Math.sqrt(squaredErrors[step] / count), 2),
+          round(percentageErrors[step] / count * 100.0, 2),
+          round(covered[step] / count * 100.0, 1));
+    }
+
+    private static double round(double value, int digits) {
+      double factor = Math.pow(10, digits);
+      return Math.round(value * factor) / factor;
+    }
+  }
+}
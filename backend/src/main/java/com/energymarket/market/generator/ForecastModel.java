@@ -0,0 +1,48 @@
+package com.energymarket.market.generator;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/** Price forecasting models a client can choose between. */
+public enum ForecastModel {
+  /** Last price plus the recent slope and fixed daily and weekly seasonality. */
+  SEASONAL_NAIVE("naive"),
+  /** Triple exponential smoothing with a daily season, fitted incrementally per market. */
+  HOLT_WINTERS("holt-winters");
+
+  private final String code;
+
+  ForecastModel(String code) {
+    this.code = code;
+  }
+
+  /** Returns the identifier used in request parameters. */
+  public String code() {
+    return code;
+  }
+
+  /**
+   * Parses a model identifier such as {@code holt-winters}.
+   *
+   * @param code the raw parameter, or {@code null}/blank for {@link #SEASONAL_NAIVE}
+   * @throws IllegalArgumentException if the model is unknown
+   */
+  public static ForecastModel parse(String code) {
+    if (code == null || code.isBlank()) {
+      return SEASONAL_NAIVE;
+    }
+    String normalized = code.trim().toLowerCase(Locale.US);
+    return Arrays.stream(values())
+        .filter(model -> model.code.equals(normalized))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown forecast model: " + code));
+  }
+
+  /** Creates a forecaster with its own model state. */
+  PriceForecaster newForecaster() {
+    return switch (this) {
+      case SEASONAL_NAIVE -> new SeasonalNaiveForecaster();
+      case HOLT_WINTERS -> new HoltWintersForecaster();
+    };
+  }
+}
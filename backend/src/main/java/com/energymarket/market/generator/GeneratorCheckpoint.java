@@ -0,0 +1,281 @@
+package com.energymarket.market.generator;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.generator.SketchIndex.BucketKey;
+import com.energymarket.market.generator.SketchIndex.WindowSketches;
+import com.energymarket.market.model.PricePoint;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Binary checkpoint of the hot state of a {@link MarketDataGenerator}: the bucket sketches of its
+ * {@link SketchIndex} and the cached state of its forecasters.
+ *
+ * <p>The file starts with a fixed header (magic, format version, generator fingerprint, payload
+ * length and CRC-32 of the payload), followed by one section per forecaster, an index of the
+ * buckets sorted by key with fixed-size entries, and the encoded sketches. Restoring memory-maps
+ * the file, validates the header and checksum and restores the forecaster state; bucket sketches
+ * are only decoded from the mapping when a window first needs them, found by binary search of the
+ * index. The fingerprint covers the model constants and a few probe points of every market, so a
+ * checkpoint written by a build that generates different data is rejected instead of served.
+ */
+final class GeneratorCheckpoint {
+
+  static final int MAGIC = 0x454D4B43;
+  static final int FORMAT_VERSION = 1;
+  private static final int HEADER_BYTES = 24;
+  private static final int INDEX_ENTRY_BYTES = 24;
+  private static final MarketCode[] MARKETS = MarketCode.values();
+  private static final List<Instant> PROBES =
+      List.of(
+          Instant.parse("2024-01-01T00:00:00Z"),
+          Instant.parse("2024-07-01T12:15:00Z"),
+          Instant.parse("2025-03-30T01:45:00Z"));
+  private static final Comparator<BucketKey> KEY_ORDER =
+      Comparator.comparingInt((BucketKey key) -> key.market().ordinal())
+          .thenComparingLong(BucketKey::intervalSeconds)
+          .thenComparingLong(BucketKey::bucketStart);
+
+  private GeneratorCheckpoint() {}
+
+  /**
+   * Hashes everything a checkpoint depends on besides its own contents.
+   *
+   * @param points generates the point of a market at a timestamp
+   */
+  static long fingerprint(BiFunction<MarketCode, Instant, PricePoint> points) {
+    ByteBuffer buffer = ByteBuffer.allocate(256);
+    CRC32 crc = new CRC32();
+    buffer.putInt(FORMAT_VERSION).putLong(SketchIndex.BUCKET.toSeconds());
+    buffer.putDouble(QuantileSketch.RELATIVE_ACCURACY).putInt(QuantileSketch.MAX_BINS);
+    for (double parameter : HoltWintersForecaster.parameters()) {
+      buffer.putDouble(parameter);
+    }
+    crc.update(buffer.flip());
+    for (MarketCode market : MARKETS) {
+      buffer.clear().put(market.code().getBytes(StandardCharsets.US_ASCII));
+      for (Instant probe : PROBES) {
+        PricePoint point = points.apply(market, probe);
+        buffer.putDouble(point.priceMwh()).putDouble(point.demandMw());
+      }
+      crc.update(buffer.flip());
+    }
+    return crc.getValue();
+  }
+
+  /** Writes a checkpoint to a sibling temporary file and moves it over {@code file}. */
+  static CheckpointSummary write(
+      Path file,
+      long fingerprint,
+      SketchIndex sketches,
+      Map<ForecastModel, PriceForecaster> forecasters)
+      throws IOException {
+    ByteArrayOutputStream payload = new ByteArrayOutputStream(1 << 16);
+    DataOutputStream out = new DataOutputStream(payload);
+    int forecastStates = 0;
+    out.writeInt(forecasters.size());
+    for (Map.Entry<ForecastModel, PriceForecaster> entry : forecasters.entrySet()) {
+      ByteArrayOutputStream section = new ByteArrayOutputStream();
+      forecastStates += entry.getValue().checkpoint(new DataOutputStream(section));
+      out.writeInt(entry.getKey().ordinal());
+      out.writeInt(section.size());
+      section.writeTo(out);
+    }
+
+    List<Map.Entry<BucketKey, WindowSketches>> buckets = new ArrayList<>(sketches.checkpoint());
+    buckets.sort(Map.Entry.comparingByKey(KEY_ORDER));
+    ByteArrayOutputStream data = new ByteArrayOutputStream(buckets.size() * 64);
+    DataOutputStream dataOut = new DataOutputStream(data);
+    out.writeInt(buckets.size());
+    for (Map.Entry<BucketKey, WindowSketches> bucket : buckets) {
+      BucketKey key = bucket.getKey();
+      int offset = data.size();
+      bucket.getValue().price().write(dataOut);
+      bucket.getValue().demand().write(dataOut);
+      out.writeInt(key.market().ordinal());
+      out.writeInt(Math.toIntExact(key.intervalSeconds()));
+      out.writeLong(key.bucketStart());
+      out.writeInt(offset);
+      out.writeInt(data.size() - offset);
+    }
+    data.writeTo(out);
+    out.flush();
+
+    byte[] body = payload.toByteArray();
+    CRC32 crc = new CRC32();
+    crc.update(body);
+    ByteBuffer header =
+        ByteBuffer.allocate(HEADER_BYTES)
+            .putInt(MAGIC)
+            .putInt(FORMAT_VERSION)
+            .putLong(fingerprint)
+            .putInt(body.length)
+            .putInt((int) crc.getValue())
+            .flip();
+
+    Path parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        ByteBuffer[] contents = {header, ByteBuffer.wrap(body)};
+        while (contents[1].hasRemaining()) {
+          channel.write(contents);
+        }
+        channel.force(true);
+      }
+      Files.move(
+          temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    return new CheckpointSummary(buckets.size(), forecastStates, HEADER_BYTES + body.length);
+  }
+
+  /**
+   * Maps and validates a checkpoint, restores the forecaster state and attaches the mapped bucket
+   * sketches to {@code sketches}.
+   *
+   * @throws java.nio.file.NoSuchFileException if there is no checkpoint
+   * @throws IOException if the file cannot be read or was not written by a compatible generator
+   */
+  static CheckpointSummary restore(
+      Path file,
+      long fingerprint,
+      SketchIndex sketches,
+      Map<ForecastModel, PriceForecaster> forecasters)
+      throws IOException {
+    ByteBuffer mapped;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+        throw new IOException("Checkpoint " + file + " has an invalid size of " + size + " bytes");
+      }
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+    if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != FORMAT_VERSION) {
+      throw new IOException("Checkpoint " + file + " has an unsupported format");
+    }
+    if (mapped.getLong(8) != fingerprint) {
+      throw new IOException("Checkpoint " + file + " was written by an incompatible generator");
+    }
+    int length = mapped.getInt(16);
+    if (length != mapped.capacity() - HEADER_BYTES) {
+      throw new IOException("Checkpoint " + file + " is truncated");
+    }
+    ByteBuffer payload = mapped.slice(HEADER_BYTES, length);
+    CRC32 crc = new CRC32();
+    crc.update(payload.duplicate());
+    if ((int) crc.getValue() != mapped.getInt(20)) {
+      throw new IOException("Checkpoint " + file + " failed its checksum");
+    }
+
+    try {
+      int forecastStates = 0;
+      ForecastModel[] models = ForecastModel.values();
+      int sections = payload.getInt();
+      for (int i = 0; i < sections; i++) {
+        ForecastModel model = models[payload.getInt()];
+        int sectionLength = payload.getInt();
+        ByteBuffer section = payload.slice(payload.position(), sectionLength);
+        forecastStates += forecasters.get(model).restore(section);
+        payload.position(payload.position() + sectionLength);
+      }
+      MappedBuckets buckets = new MappedBuckets(payload.slice());
+      sketches.restore(buckets);
+      return new CheckpointSummary(buckets.count, forecastStates, mapped.capacity());
+    } catch (RuntimeException exception) {
+      throw new IOException("Checkpoint " + file + " is malformed", exception);
+    }
+  }
+
+  /** Bucket sketches decoded on demand from the index and data regions of a mapped checkpoint. */
+  private static final class MappedBuckets implements SketchIndex.BucketStore {
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int dataStart;
+
+    /** Validates every index entry, so lookups never read outside the data region. */
+    MappedBuckets(ByteBuffer buffer) {
+      this.buffer = buffer;
+      this.count = buffer.getInt(0);
+      if (count < 0 || count > (buffer.capacity() - Integer.BYTES) / INDEX_ENTRY_BYTES) {
+        throw new IllegalArgumentException("Malformed bucket index of " + count + " entries");
+      }
+      this.dataStart = entry(count);
+      int dataLength = buffer.capacity() - dataStart;
+      for (int i = 0; i < count; i++) {
+        int entry = entry(i);
+        int offset = buffer.getInt(entry + 16);
+        int length = buffer.getInt(entry + 20);
+        if (buffer.getInt(entry) < 0
+            || buffer.getInt(entry) >= MARKETS.length
+            || offset < 0
+            || length < 0
+            || offset > dataLength - length) {
+          throw new IllegalArgumentException("Malformed bucket index entry " + i);
+        }
+      }
+    }
+
+    @Override
+    public WindowSketches find(BucketKey key) {
+      int low = 0;
+      int high = count - 1;
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        int order = KEY_ORDER.compare(key(middle), key);
+        if (order < 0) {
+          low = middle + 1;
+        } else if (order > 0) {
+          high = middle - 1;
+        } else {
+          int entry = entry(middle);
+          ByteBuffer sketches =
+              buffer.slice(dataStart + buffer.getInt(entry + 16), buffer.getInt(entry + 20));
+          try {
+            return new WindowSketches(QuantileSketch.read(sketches), QuantileSketch.read(sketches));
+          } catch (RuntimeException exception) {
+            return null;
+          }
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public List<BucketKey> keys() {
+      List<BucketKey> keys = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        keys.add(key(i));
+      }
+      return keys;
+    }
+
+    private BucketKey key(int index) {
+      int entry = entry(index);
+      return new BucketKey(
+          MARKETS[buffer.getInt(entry)], buffer.getInt(entry + 4), buffer.getLong(entry + 8));
+    }
+
+    private static int entry(int index) {
+      return Integer.BYTES + index * INDEX_ENTRY_BYTES;
+    }
+  }
+}
@@ -0,0 +1,250 @@
+package com.energymarket.market.generator;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.ForecastPoint;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Additive Holt-Winters (triple exponential smoothing) over the 15-minute price grid, with a damped
+ * trend and a season of one local day.
+ *
+ * <p>The model state of each market (level, trend, 96 seasonal terms and the smoothed one-step
+ * error variance) is cached and advanced by one O(1) update per new grid point, so a forecast
+ * request only folds in the points since the previous one and projects the state forward. To keep
+ * forecasts a function of the origin alone, the fit for an origin always starts at the week
+ * boundary preceding the origin's own week: the first day initialises the seasonal terms and the
+ * remaining 6 to 13 days are folded in. The cache is restarted from scratch once a week, and an
+ * origin earlier than the cached state is fitted without disturbing it. The cached states can be
+ * checkpointed and restored, which spares a restarted node the refit of up to two weeks of points.
+ */
+final class HoltWintersForecaster implements PriceForecaster {
+
+  static final Duration STEP = Duration.ofMinutes(15);
+  static final int SEASON_STEPS = 96;
+  private static final long STEP_SECONDS = STEP.toSeconds();
+  private static final long FIT_PERIOD_SECONDS = Duration.ofDays(7).toSeconds();
+  private static final double LEVEL_SMOOTHING = 0.3;
+  private static final double TREND_SMOOTHING = 0.02;
+  private static final double SEASONAL_SMOOTHING = 0.2;
+  private static final double TREND_DAMPING = 0.98;
+  private static final double ERROR_SMOOTHING = 0.02;
+
+  private final Map<MarketCode, State> states = new EnumMap<>(MarketCode.class);
+
+  @Override
+  public Instant historyStart(Instant timestamp) {
+    return Instant.ofEpochSecond(fitStart(timestamp.getEpochSecond()));
+  }
+
+  @Override
+  public List<ForecastPoint> forecast(
+      MarketCode market, Origin origin, Duration horizon, Duration interval) {
+    int steps = Math.toIntExact(horizon.toMinutes() / interval.toMinutes());
+    if (steps == 0) {
+      return List.of();
+    }
+    Instant start = origin.last().timestamp();
+    long gridSecond = Math.floorDiv(start.getEpochSecond(), STEP_SECONDS) * STEP_SECONDS;
+    ZoneRules zone = ZoneId.of(market.timezone()).getRules();
+    State state = stateAt(market, gridSecond, zone, origin.history());
+
+    List<ForecastPoint> forecast = new ArrayList<>(steps);
+    double varianceFactor = 1.0;
+    double dampedSteps = 0.0;
+    int accumulated = 1;
+    for (int i = 1; i <= steps; i++) {
+      Instant timestamp = start.plus(interval.multipliedBy(i));
+      double stepsAhead = (timestamp.getEpochSecond() - gridSecond) / (double) STEP_SECONDS;
+      double projected = state.project(stepsAhead, slot(zone, timestamp.getEpochSecond()));
+      // h-step error variance of additive Holt-Winters: sigma^2 (1 + sum_{j<h} c_j^2).
+      for (; accumulated < stepsAhead; accumulated++) {
+        dampedSteps = TREND_DAMPING * (1 + dampedSteps);
+        double weight = LEVEL_SMOOTHING * (1 + TREND_SMOOTHING * dampedSteps);
+        varianceFactor += weight * weight;
+      }
+      double confidence = Math.sqrt(state.errorVariance * varianceFactor);
+      forecast.add(
+          new ForecastPoint(
+              timestamp,
+              round(projected),
+              round(Math.max(MarketDataGenerator.MIN_PRICE, projected - confidence)),
+              round(projected + confidence)));
+    }
+    return List.copyOf(forecast);
+  }
+
+  @Override
+  public int checkpoint(DataOutput out) throws IOException {
+    Map<MarketCode, State> snapshot;
+    synchronized (states) {
+      snapshot = new EnumMap<>(states);
+    }
+    out.writeInt(snapshot.size());
+    for (Map.Entry<MarketCode, State> entry : snapshot.entrySet()) {
+      State state = entry.getValue();
+      out.writeInt(entry.getKey().ordinal());
+      out.writeLong(state.fitStart);
+      out.writeLong(state.epochSecond);
+      out.writeDouble(state.level);
+      out.writeDouble(state.trend);
+      out.writeDouble(state.errorVariance);
+      for (double season : state.seasonal) {
+        out.writeDouble(season);
+      }
+    }
+    return snapshot.size();
+  }
+
+  @Override
+  public int restore(ByteBuffer in) {
+    MarketCode[] markets = MarketCode.values();
+    int count = in.getInt();
+    for (int i = 0; i < count; i++) {
+      int ordinal = in.getInt();
+      if (ordinal < 0 || ordinal >= markets.length) {
+        throw new IllegalArgumentException("Malformed Holt-Winters state for market " + ordinal);
+      }
+      State state = new State(in.getLong(), new double[SEASON_STEPS]);
+      state.epochSecond = in.getLong();
+      state.level = in.getDouble();
+      state.trend = in.getDouble();
+      state.errorVariance = in.getDouble();
+      in.asDoubleBuffer().get(state.seasonal);
+      in.position(in.position() + SEASON_STEPS * Double.BYTES);
+      synchronized (states) {
+        State cached = states.get(markets[ordinal]);
+        if (cached == null || cached.epochSecond < state.epochSecond) {
+          states.put(markets[ordinal], state);
+        }
+      }
+    }
+    return count;
+  }
+
+  private State stateAt(
+      MarketCode market, long epochSecond, ZoneRules zone, SketchIndex.PointSource history) {
+    long fitStart = fitStart(epochSecond);
+    State state = null;
+    synchronized (states) {
+      State cached = states.get(market);
+      if (cached != null && cached.fitStart == fitStart && cached.epochSecond <= epochSecond) {
+        state = cached.copy();
+      }
+    }
+    if (state == null) {
+      state = State.initialise(fitStart, zone, history);
+    }
+    state.advanceTo(epochSecond, zone, history);
+    synchronized (states) {
+      State cached = states.get(market);
+      if (cached == null || cached.epochSecond < state.epochSecond) {
+        states.put(market, state);
+      }
+    }
+    return state;
+  }
+
+  /** Returns the constants that shape the model state, so incompatible checkpoints are detected. */
+  static double[] parameters() {
+    return new double[] {
+      STEP_SECONDS,
+      SEASON_STEPS,
+      FIT_PERIOD_SECONDS,
+      LEVEL_SMOOTHING,
+      TREND_SMOOTHING,
+      SEASONAL_SMOOTHING,
+      TREND_DAMPING,
+      ERROR_SMOOTHING
+    };
+  }
+
+  private static long fitStart(long epochSecond) {
+    return Math.floorDiv(epochSecond, FIT_PERIOD_SECONDS) * FIT_PERIOD_SECONDS - FIT_PERIOD_SECONDS;
+  }
+
+  /** Index of the local quarter hour of the day. */
+  private static int slot(ZoneRules zone, long epochSecond) {
+    long local = epochSecond + zone.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+    return (int) Math.floorMod(Math.floorDiv(local, STEP_SECONDS), (long) SEASON_STEPS);
+  }
+
+  private static double round(double value) {
+    return Math.round(value * 100.0) / 100.0;
+  }
+
+  /** Smoothing state after the grid point at {@link #epochSecond}; mutated only before caching. */
+  private static final class State {
+    private final long fitStart;
+    private final double[] seasonal;
+    private long epochSecond;
+    private double level;
+    private double trend;
+    private double errorVariance;
+
+    private State(long fitStart, double[] seasonal) {
+      this.fitStart = fitStart;
+      this.seasonal = seasonal;
+    }
+
+    /** Seeds level and seasonal terms from the first day after {@code fitStart}. */
+    static State initialise(long fitStart, ZoneRules zone, SketchIndex.PointSource history) {
+      double[] prices = new double[SEASON_STEPS];
+      double sum = 0.0;
+      for (int i = 0; i < SEASON_STEPS; i++) {
+        prices[i] = history.at(Instant.ofEpochSecond(fitStart + i * STEP_SECONDS)).priceMwh();
+        sum += prices[i];
+      }
+      State state = new State(fitStart, new double[SEASON_STEPS]);
+      state.level = sum / SEASON_STEPS;
+      for (int i = 0; i < SEASON_STEPS; i++) {
+        state.seasonal[slot(zone, fitStart + i * STEP_SECONDS)] = prices[i] - state.level;
+      }
+      state.epochSecond = fitStart + (SEASON_STEPS - 1) * STEP_SECONDS;
+      return state;
+    }
+
+    void advanceTo(long target, ZoneRules zone, SketchIndex.PointSource history) {
+      while (epochSecond < target) {
+        epochSecond += STEP_SECONDS;
+        observe(history.at(Instant.ofEpochSecond(epochSecond)).priceMwh(), slot(zone, epochSecond));
+      }
+    }
+
+    private void observe(double price, int slot) {
+      double season = seasonal[slot];
+      double dampedTrend = TREND_DAMPING * trend;
+      double error = price - (level + dampedTrend + season);
+      errorVariance += ERROR_SMOOTHING * (error * error - errorVariance);
+      double nextLevel =
+          LEVEL_SMOOTHING * (price - season) + (1 - LEVEL_SMOOTHING) * (level + dampedTrend);
+      trend = TREND_SMOOTHING * (nextLevel - level) + (1 - TREND_SMOOTHING) * dampedTrend;
+      seasonal[slot] = SEASONAL_SMOOTHING * (price - nextLevel) + (1 - SEASONAL_SMOOTHING) * season;
+      level = nextLevel;
+    }
+
+    double project(double stepsAhead, int slot) {
+      double dampedSteps =
+          TREND_DAMPING * (1 - Math.pow(TREND_DAMPING, stepsAhead)) / (1 - TREND_DAMPING);
+      return level + dampedSteps * trend + seasonal[slot];
+    }
+
+    State copy() {
+      State copy = new State(fitStart, seasonal.clone());
+      copy.epochSecond = epochSecond;
+      copy.level = level;
+      copy.trend = trend;
+      copy.errorVariance = errorVariance;
+      return copy;
+    }
+  }
+}
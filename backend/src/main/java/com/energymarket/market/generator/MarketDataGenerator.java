@@ -3,32 +3,95 @@ package com.energymarket.market.generator;
 import com.energymarket.market.MarketCode;
 import com.energymarket.market.MarketCode.MarketParameters;
 import com.energymarket.market.model.ForecastPoint;
+import com.energymarket.market.model.LoadDurationPoint;
 import com.energymarket.market.model.MarketInsights;
+import com.energymarket.market.model.MarketMetric;
 import com.energymarket.market.model.MarketOverview;
 import com.energymarket.market.model.MarketSnapshot;
 import com.energymarket.market.model.PricePoint;
+import com.energymarket.market.model.SnapshotSync;
+import com.energymarket.market.telemetry.StageTimer;
+import com.energymarket.market.telemetry.StageTimer.Stage;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
-/**
- * Generates deterministic, high-signal synthetic market data suitable for advanced UI demos.
- */
+/** Generates deterministic, high-signal synthetic market data suitable for advanced UI demos. */
 public class MarketDataGenerator {
 
-  private static final double MIN_PRICE = 20.0;
+  static final double MIN_PRICE = 20.0;
   private static final double MIN_DEMAND_FACTOR = 0.5;
   private static final double MIN_RENEWABLE_SHARE = 5.0;
   private static final double MAX_RENEWABLE_SHARE = 95.0;
   private static final double MIN_CARBON_INTENSITY = 80.0;
+  private static final double TREND_CYCLE_DAYS = 28.0;
+  private static final long SECONDS_PER_DAY = 86_400;
+  private static final Set<MarketMetric> ALL_COLUMNS = FieldSelection.ALL.requiredMetrics();
+  private static final Set<MarketMetric> DISTRIBUTION_COLUMNS =
+      EnumSet.of(MarketMetric.PRICE, MarketMetric.DEMAND);
+  private static final Set<MarketMetric> PRICE_COLUMNS = EnumSet.of(MarketMetric.PRICE);
+  private static final int LOAD_DURATION_STEP_PERCENT = 5;
+
+  private final SketchIndex sketches = new SketchIndex();
+  private final Map<ForecastModel, PriceForecaster> forecasters = newForecasters();
+
+  /** Builds a full dashboard snapshot including historical series, forecast and analytics. */
+  public MarketSnapshot generateSnapshot(
+      MarketCode market,
+      Instant now,
+      Duration historyRange,
+      Duration historyInterval,
+      Duration forecastHorizon,
+      Duration forecastInterval) {
+    return generateSnapshot(
+        market,
+        now,
+        historyRange,
+        historyInterval,
+        forecastHorizon,
+        forecastInterval,
+        FieldSelection.ALL);
+  }
+
+  /** Builds a snapshot restricted to the requested fields, forecast with the default model. */
+  public MarketSnapshot generateSnapshot(
+      MarketCode market,
+      Instant now,
+      Duration historyRange,
+      Duration historyInterval,
+      Duration forecastHorizon,
+      Duration forecastInterval,
+      FieldSelection fields) {
+    return generateSnapshot(
+        market,
+        now,
+        historyRange,
+        historyInterval,
+        forecastHorizon,
+        forecastInterval,
+        fields,
+        ForecastModel.SEASONAL_NAIVE);
+  }
 
   /**
-   * Builds a full dashboard snapshot including historical series, forecast and analytics.
+   * Builds a snapshot restricted to the requested fields.
+   *
+   * <p>Unrequested columns are never computed unless another requested field depends on them, and
+   * are reported as {@link Double#NaN}, which serialises as an absent property. The forecast and
+   * insights sections are {@code null} when not requested. The returned {@link SnapshotSync}
+   * carries a cursor for subsequent {@link #generateDelta delta polls}.
+   *
+   * @param forecastModel model used to project prices when the forecast is requested
    */
   public MarketSnapshot generateSnapshot(
       MarketCode market,
@@ -36,35 +99,337 @@ public class MarketDataGenerator {
       Duration historyRange,
       Duration historyInterval,
       Duration forecastHorizon,
-      Duration forecastInterval) {
-    MarketContext context = buildContext(market, now, historyRange, historyInterval);
+      Duration forecastInterval,
+      FieldSelection fields,
+      ForecastModel forecastModel) {
+    MarketContext context =
+        buildContext(market, now, historyRange, historyInterval, fields, fields.insights());
+    List<PricePoint> history = context.history();
     List<ForecastPoint> forecast =
-        buildForecast(
+        fields.forecast()
+            ? buildForecast(
+                forecastModel,
+                market,
+                history.get(Math.max(0, history.size() - 8)),
+                history.getLast(),
+                context.aggregate().priceStandardDeviation(),
+                forecastHorizon,
+                forecastInterval)
+            : null;
+    List<PricePoint> series = fields.includesSeries() ? project(history, fields) : null;
+    SnapshotCursor cursor =
+        new SnapshotCursor(
             market,
-            context.history(),
-            forecastHorizon,
-            forecastInterval,
-            context.insights().priceStandardDeviation());
-    return new MarketSnapshot(context.overview(), context.history(), forecast, context.insights());
+            historyRange,
+            historyInterval,
+            fields,
+            history.getFirst().timestamp(),
+            history.getLast().timestamp(),
+            context.aggregate());
+    return new MarketSnapshot(
+        context.overview(),
+        series,
+        forecast,
+        fields.insights() ? context.insights() : null,
+        new SnapshotSync(
+            cursor.encode(),
+            false,
+            history.getFirst().timestamp(),
+            Math.toIntExact(historyInterval.toMinutes())));
+  }
+
+  /**
+   * Builds the changes since {@code cursor} for a polling client.
+   *
+   * <p>Only the points that entered the window since the cursor are generated and returned, and the
+   * window aggregate carried by the cursor is updated by evicting the points that left it, so the
+   * cost is proportional to the elapsed intervals rather than the window length. Overview, insights
+   * and the forecast are recomputed from the updated aggregate. When the cursor does not match the
+   * request or is too old to bridge, a full snapshot is returned instead.
+   *
+   * @param forecastModel model used to project prices when the forecast is requested
+   * @param cursor cursor from the previous response, or {@code null}
+   */
+  public MarketSnapshot generateDelta(
+      MarketCode market,
+      Instant now,
+      Duration historyRange,
+      Duration historyInterval,
+      Duration forecastHorizon,
+      Duration forecastInterval,
+      FieldSelection fields,
+      ForecastModel forecastModel,
+      SnapshotCursor cursor) {
+    validateDurations(historyRange, historyInterval, "history");
+    Instant start = now.minus(historyRange);
+    if (!canBridge(cursor, market, start, now, historyRange, historyInterval, fields)) {
+      return generateSnapshot(
+          market,
+          now,
+          historyRange,
+          historyInterval,
+          forecastHorizon,
+          forecastInterval,
+          fields,
+          forecastModel);
+    }
+
+    ZoneId zoneId = ZoneId.of(market.timezone());
+    MarketParameters parameters = market.parameters();
+    Set<MarketMetric> columns = fields.requiredMetrics();
+    StageTimer delta = StageTimer.start(Stage.DELTA, market);
+    WindowAggregate aggregate = cursor.aggregate();
+    boolean extremumEvicted = false;
+    int evictedPoints = 0;
+    for (Instant timestamp = cursor.windowStart();
+        timestamp.isBefore(start);
+        timestamp = timestamp.plus(historyInterval)) {
+      PricePoint evicted = buildPoint(market, zoneId, parameters, timestamp, columns);
+      extremumEvicted |= !aggregate.remove(evicted);
+      evictedPoints++;
+    }
+    List<PricePoint> added = new ArrayList<>();
+    for (Instant timestamp = cursor.windowEnd().plus(historyInterval);
+        !timestamp.isAfter(now);
+        timestamp = timestamp.plus(historyInterval)) {
+      PricePoint point = buildPoint(market, zoneId, parameters, timestamp, columns);
+      added.add(point);
+      aggregate.add(point);
+    }
+    delta.stop(evictedPoints + added.size());
+    if (extremumEvicted) {
+      aggregate =
+          aggregate(buildHistoricalSeries(market, now, historyRange, historyInterval, columns));
+    }
+
+    PricePoint first = buildPoint(market, zoneId, parameters, start, columns);
+    PricePoint last =
+        added.isEmpty() ? buildPoint(market, zoneId, parameters, now, columns) : added.getLast();
+    SketchIndex.WindowSketches distribution =
+        fields.insights() ? sketchWindow(market, start, now, historyInterval, null) : null;
+    MarketInsights insights = buildInsights(market, first, last, aggregate, distribution, fields);
+    MarketOverview overview = buildOverview(market, first, last, insights, fields);
+    List<ForecastPoint> forecast = null;
+    if (fields.forecast()) {
+      Instant lookback = now.minus(historyInterval.multipliedBy(7));
+      PricePoint slopeStart =
+          lookback.isAfter(start)
+              ? buildPoint(market, zoneId, parameters, lookback, columns)
+              : first;
+      forecast =
+          buildForecast(
+              forecastModel,
+              market,
+              slopeStart,
+              last,
+              aggregate.priceStandardDeviation(),
+              forecastHorizon,
+              forecastInterval);
+    }
+
+    SnapshotCursor next =
+        new SnapshotCursor(
+            market, historyRange, historyInterval, fields, start, last.timestamp(), aggregate);
+    return new MarketSnapshot(
+        overview,
+        fields.includesSeries() ? project(added, fields) : null,
+        forecast,
+        fields.insights() ? insights : null,
+        new SnapshotSync(next.encode(), true, start, Math.toIntExact(historyInterval.toMinutes())));
+  }
+
+  /**
+   * Returns a sketch of the market's price distribution over the window ending at {@code now}.
+   *
+   * <p>The sketch is assembled from cached hourly bucket sketches and is independent of the caller,
+   * so sketches of several markets can be merged into a regional distribution.
+   */
+  public QuantileSketch priceDistribution(
+      MarketCode market, Instant now, Duration historyRange, Duration historyInterval) {
+    Objects.requireNonNull(market, "market");
+    validateDurations(historyRange, historyInterval, "history");
+    return sketchWindow(market, now.minus(historyRange), now, historyInterval, null).price();
+  }
+
+  /**
+   * Precomputes the parameter-independent terms of the window ending at {@code now}, so that many
+   * parameter sets can be evaluated over it without repeating the calendar arithmetic.
+   */
+  public ScenarioBasis scenarioBasis(
+      MarketCode market, Instant now, Duration historyRange, Duration historyInterval) {
+    Objects.requireNonNull(market, "market");
+    validateDurations(historyRange, historyInterval, "history");
+    int steps = Math.toIntExact(historyRange.toMinutes() / historyInterval.toMinutes());
+    ZoneId zoneId = ZoneId.of(market.timezone());
+    Instant start = now.minus(historyRange);
+    List<TimeTerms> terms = new ArrayList<>(steps + 1);
+    for (int i = 0; i <= steps; i++) {
+      terms.add(timeTerms(market, zoneId, start.plus(historyInterval.multipliedBy(i))));
+    }
+    return new ScenarioBasis(market, terms);
+  }
+
+  /** Generates the window of {@code basis} as the market would behave under {@code parameters}. */
+  public List<PricePoint> scenarioSeries(ScenarioBasis basis, MarketParameters parameters) {
+    Objects.requireNonNull(parameters, "parameters");
+    List<PricePoint> series = new ArrayList<>(basis.size());
+    for (TimeTerms terms : basis.terms()) {
+      series.add(buildPoint(terms, parameters, ALL_COLUMNS));
+    }
+    return List.copyOf(series);
+  }
+
+  /**
+   * Summarises a generated series with the insights a snapshot reports. The distribution is
+   * sketched from the series itself, since the cached bucket sketches describe the market's own
+   * parameters.
+   */
+  public MarketInsights scenarioInsights(MarketCode market, List<PricePoint> series) {
+    SketchIndex.WindowSketches distribution =
+        new SketchIndex.WindowSketches(new QuantileSketch(), new QuantileSketch());
+    series.forEach(distribution::add);
+    return buildInsights(
+        market,
+        series.getFirst(),
+        series.getLast(),
+        aggregate(series),
+        distribution,
+        FieldSelection.ALL);
   }
 
   /** Returns a top-level overview for quick market comparisons. */
   public MarketOverview generateOverview(
       MarketCode market, Instant now, Duration historyRange, Duration historyInterval) {
-    return buildContext(market, now, historyRange, historyInterval).overview();
+    return generateOverview(market, now, historyRange, historyInterval, FieldSelection.ALL);
+  }
+
+  /** Returns an overview whose metric columns are restricted to the requested fields. */
+  public MarketOverview generateOverview(
+      MarketCode market,
+      Instant now,
+      Duration historyRange,
+      Duration historyInterval,
+      FieldSelection fields) {
+    return buildContext(market, now, historyRange, historyInterval, fields, false).overview();
+  }
+
+  /**
+   * Generates the point a market reports at {@code timestamp}.
+   *
+   * <p>Every generated value depends only on the market and the timestamp, so a tick, a history
+   * window and a delta poll all agree on the point for a given instant.
+   */
+  public PricePoint generatePoint(MarketCode market, Instant timestamp) {
+    Objects.requireNonNull(market, "market");
+    Objects.requireNonNull(timestamp, "timestamp");
+    return buildPoint(
+        market, ZoneId.of(market.timezone()), market.parameters(), timestamp, ALL_COLUMNS);
+  }
+
+  /**
+   * Generates the point at {@code timestamp} given the market's UTC offset at that instant, for
+   * callers that already track the offset.
+   */
+  PricePoint generatePoint(MarketCode market, Instant timestamp, int offsetSeconds) {
+    return buildPoint(
+        timeTerms(market, timestamp, offsetSeconds), market.parameters(), ALL_COLUMNS);
+  }
+
+  /**
+   * Writes the cached bucket sketches and forecaster state to {@code file}, replacing any previous
+   * checkpoint atomically.
+   */
+  public CheckpointSummary writeCheckpoint(Path file) throws IOException {
+    return GeneratorCheckpoint.write(file, checkpointFingerprint(), sketches, forecasters);
+  }
+
+  /**
+   * Warms the caches from a checkpoint written by {@link #writeCheckpoint}. The file is
+   * memory-mapped and validated; bucket sketches are decoded from it as windows first need them.
+   *
+   * @throws java.nio.file.NoSuchFileException if there is no checkpoint
+   * @throws IOException if the file cannot be read or was not written by a generator producing the
+   *     same data
+   */
+  public CheckpointSummary restoreCheckpoint(Path file) throws IOException {
+    return GeneratorCheckpoint.restore(file, checkpointFingerprint(), sketches, forecasters);
+  }
+
+  /**
+   * Generates the raw series of the window ending at {@code now}. Only the requested columns and
+   * those they depend on are computed; the others are {@link Double#NaN}.
+   */
+  public List<PricePoint> generateSeries(
+      MarketCode market,
+      Instant now,
+      Duration historyRange,
+      Duration historyInterval,
+      Set<MarketMetric> columns) {
+    Objects.requireNonNull(market, "market");
+    return buildHistoricalSeries(
+        market,
+        now,
+        historyRange,
+        historyInterval,
+        new FieldSelection(columns, false, false).requiredMetrics());
+  }
+
+  private boolean canBridge(
+      SnapshotCursor cursor,
+      MarketCode market,
+      Instant start,
+      Instant now,
+      Duration range,
+      Duration interval,
+      FieldSelection fields) {
+    if (cursor == null || !cursor.matches(market, range, interval, fields)) {
+      return false;
+    }
+    Instant end = cursor.windowEnd();
+    if (end.isAfter(now) || end.isBefore(start)) {
+      return false;
+    }
+    long intervalSeconds = interval.toSeconds();
+    return Duration.between(end, now).toSeconds() % intervalSeconds == 0
+        && Duration.between(cursor.windowStart(), end).equals(range);
   }
 
   private MarketContext buildContext(
-      MarketCode market, Instant now, Duration historyRange, Duration historyInterval) {
-    List<PricePoint> history = buildHistoricalSeries(market, now, historyRange, historyInterval);
-    MarketInsights insights = buildInsights(market, history);
-    MarketOverview overview = buildOverview(market, history, insights);
-    return new MarketContext(overview, history, insights);
+      MarketCode market,
+      Instant now,
+      Duration historyRange,
+      Duration historyInterval,
+      FieldSelection fields,
+      boolean withDistribution) {
+    Set<MarketMetric> columns = fields.requiredMetrics();
+    List<PricePoint> history =
+        buildHistoricalSeries(market, now, historyRange, historyInterval, columns);
+    WindowAggregate aggregate = aggregate(history);
+    SketchIndex.WindowSketches distribution =
+        withDistribution
+            ? sketchWindow(
+                market,
+                history.getFirst().timestamp(),
+                now,
+                historyInterval,
+                columns.containsAll(DISTRIBUTION_COLUMNS) ? history : null)
+            : null;
+    MarketInsights insights =
+        buildInsights(
+            market, history.getFirst(), history.getLast(), aggregate, distribution, fields);
+    MarketOverview overview =
+        buildOverview(market, history.getFirst(), history.getLast(), insights, fields);
+    return new MarketContext(overview, history, insights, aggregate);
   }
 
   private List<PricePoint> buildHistoricalSeries(
-      MarketCode market, Instant now, Duration range, Duration interval) {
+      MarketCode market,
+      Instant now,
+      Duration range,
+      Duration interval,
+      Set<MarketMetric> columns) {
     validateDurations(range, interval, "history");
+    StageTimer stage = StageTimer.start(Stage.HISTORY, market);
     long rangeMinutes = range.toMinutes();
     long intervalMinutes = interval.toMinutes();
     int steps = Math.toIntExact(rangeMinutes / intervalMinutes);
@@ -76,193 +441,231 @@ public class MarketDataGenerator {
 
     for (int i = 0; i <= steps; i++) {
       Instant timestamp = start.plus(interval.multipliedBy(i));
-      ZonedDateTime zoned = timestamp.atZone(zoneId);
-      double minutesOfDay = zoned.getHour() * 60.0 + zoned.getMinute();
-      double dayProgress = minutesOfDay / (24.0 * 60.0);
-      double weekProgress =
-          ((double) (zoned.getDayOfWeek().getValue() - 1) + dayProgress) / 7.0;
-      double hoursFromStart = (intervalMinutes * i) / 60.0;
-      double noise = computeNoise(timestamp, market.ordinal());
-
-      double price =
-          computePrice(parameters, hoursFromStart, dayProgress, weekProgress, noise);
-      double demand =
-          computeDemand(parameters, hoursFromStart, dayProgress, weekProgress, price, noise);
-      double renewables =
-          computeRenewables(parameters, hoursFromStart, dayProgress, weekProgress, noise);
-      double carbon = computeCarbon(parameters, demand, renewables);
-
-      series.add(
-          new PricePoint(
-              timestamp,
-              round(price, 2),
-              round(demand, 0),
-              round(carbon, 1),
-              round(renewables, 1)));
+      series.add(buildPoint(market, zoneId, parameters, timestamp, columns));
     }
 
     series.sort(Comparator.comparing(PricePoint::timestamp));
+    stage.stop(series.size());
     return List.copyOf(series);
   }
 
-  private MarketInsights buildInsights(MarketCode market, List<PricePoint> history) {
-    Objects.requireNonNull(market, "market");
-    Objects.requireNonNull(history, "history");
-    if (history.isEmpty()) {
-      throw new IllegalArgumentException("history must contain at least one point");
-    }
-
-    PricePoint first = history.getFirst();
-    PricePoint last = history.getLast();
+  private PricePoint buildPoint(
+      MarketCode market,
+      ZoneId zoneId,
+      MarketParameters parameters,
+      Instant timestamp,
+      Set<MarketMetric> columns) {
+    return buildPoint(timeTerms(market, zoneId, timestamp), parameters, columns);
+  }
 
-    double priceSum = 0.0;
-    double priceSquareSum = 0.0;
-    double minPrice = Double.MAX_VALUE;
-    double maxPrice = Double.MIN_VALUE;
-    double demandSum = 0.0;
-    double peakDemand = Double.MIN_VALUE;
-    double renewableSum = 0.0;
+  /** Computes the parameter-independent terms of a market's point at {@code timestamp}. */
+  private TimeTerms timeTerms(MarketCode market, ZoneId zoneId, Instant timestamp) {
+    return timeTerms(market, timestamp, zoneId.getRules().getOffset(timestamp).getTotalSeconds());
+  }
 
-    for (PricePoint point : history) {
-      double price = point.priceMwh();
-      priceSum += price;
-      priceSquareSum += price * price;
-      minPrice = Math.min(minPrice, price);
-      maxPrice = Math.max(maxPrice, price);
+  /**
+   * Computes the terms of a point from the market's UTC offset at {@code timestamp}, which callers
+   * walking a long window can track across zone transitions instead of resolving every instant.
+   */
+  private TimeTerms timeTerms(MarketCode market, Instant timestamp, int offsetSeconds) {
+    long localSeconds = timestamp.getEpochSecond() + offsetSeconds;
+    double minutesOfDay = Math.floorMod(localSeconds, SECONDS_PER_DAY) / 60;
+    double dayProgress = minutesOfDay / (24.0 * 60.0);
+    // 1970-01-01 was a Thursday, three days after the Monday that starts the week.
+    long dayOfWeek = Math.floorMod(Math.floorDiv(localSeconds, SECONDS_PER_DAY) + 3, 7L);
+    double weekProgress = (dayOfWeek + dayProgress) / 7.0;
+    double epochHours = timestamp.getEpochSecond() / 3600.0;
+    double noise = computeNoise(timestamp, market.ordinal());
+    return new TimeTerms(timestamp, dayProgress, weekProgress, epochHours, noise);
+  }
 
-      double demand = point.demandMw();
-      demandSum += demand;
-      peakDemand = Math.max(peakDemand, demand);
+  private PricePoint buildPoint(
+      TimeTerms terms, MarketParameters parameters, Set<MarketMetric> columns) {
+    Instant timestamp = terms.timestamp();
+    double dayProgress = terms.dayProgress();
+    double weekProgress = terms.weekProgress();
+    double epochHours = terms.epochHours();
+    double noise = terms.noise();
+
+    double price =
+        columns.contains(MarketMetric.PRICE)
+            ? computePrice(parameters, epochHours, dayProgress, weekProgress, noise)
+            : Double.NaN;
+    double demand =
+        columns.contains(MarketMetric.DEMAND)
+            ? computeDemand(parameters, epochHours, dayProgress, weekProgress, price, noise)
+            : Double.NaN;
+    double renewables =
+        columns.contains(MarketMetric.RENEWABLES)
+            ? computeRenewables(parameters, epochHours, dayProgress, weekProgress, noise)
+            : Double.NaN;
+    double carbon =
+        columns.contains(MarketMetric.CARBON)
+            ? computeCarbon(parameters, demand, renewables)
+            : Double.NaN;
+
+    return new PricePoint(
+        timestamp, round(price, 2), round(demand, 0), round(carbon, 1), round(renewables, 1));
+  }
 
-      renewableSum += point.renewablesShare();
+  /** Masks columns that were computed only as dependencies of the requested ones. */
+  private List<PricePoint> project(List<PricePoint> history, FieldSelection fields) {
+    if (fields.emitsAllRequired()) {
+      return history;
     }
-
-    int count = history.size();
-    double averagePrice = priceSum / count;
-    double variance = Math.max(0.0, priceSquareSum / count - averagePrice * averagePrice);
-    double priceStdDev = Math.sqrt(variance);
-    double averageDemand = demandSum / count;
-    double averageRenewables = renewableSum / count;
-    double hoursBetween =
-        Math.max(
-            1.0,
-            Duration.between(first.timestamp(), last.timestamp()).toMinutes() / 60.0);
-    double carbonTrend =
-        (last.carbonIntensity() - first.carbonIntensity()) / hoursBetween;
-
-    List<String> alerts = new ArrayList<>();
-    if (last.priceMwh() > averagePrice + (1.5 * priceStdDev)) {
-      double spikePercent =
-          ((last.priceMwh() - averagePrice) / averagePrice) * 100.0;
-      alerts.add(String.format("Price spike detected: +%.1f%% vs average", spikePercent));
+    List<PricePoint> projected = new ArrayList<>(history.size());
+    for (PricePoint point : history) {
+      projected.add(
+          new PricePoint(
+              point.timestamp(),
+              fields.includes(MarketMetric.PRICE) ? point.priceMwh() : Double.NaN,
+              fields.includes(MarketMetric.DEMAND) ? point.demandMw() : Double.NaN,
+              fields.includes(MarketMetric.CARBON) ? point.carbonIntensity() : Double.NaN,
+              fields.includes(MarketMetric.RENEWABLES) ? point.renewablesShare() : Double.NaN));
     }
-    if (last.demandMw() > peakDemand * 0.98) {
-      alerts.add("Demand is approaching the observed peak load");
+    return List.copyOf(projected);
+  }
+
+  private WindowAggregate aggregate(List<PricePoint> history) {
+    Objects.requireNonNull(history, "history");
+    if (history.isEmpty()) {
+      throw new IllegalArgumentException("history must contain at least one point");
     }
-    if (last.renewablesShare() < averageRenewables - 8.0) {
-      alerts.add("Renewable output is significantly below typical levels");
+    WindowAggregate aggregate = new WindowAggregate();
+    for (PricePoint point : history) {
+      aggregate.add(point);
     }
-    if (carbonTrend > 1.0) {
-      alerts.add("Carbon intensity trending upward");
+    return aggregate;
+  }
+
+  /**
+   * Assembles the price and demand sketches of a window from the cached bucket sketches.
+   *
+   * @param history materialised window points carrying price and demand, or {@code null} to
+   *     generate any point that is not cached
+   */
+  private SketchIndex.WindowSketches sketchWindow(
+      MarketCode market, Instant start, Instant end, Duration interval, List<PricePoint> history) {
+    ZoneId zoneId = ZoneId.of(market.timezone());
+    MarketParameters parameters = market.parameters();
+    long intervalSeconds = interval.toSeconds();
+    SketchIndex.PointSource source =
+        history != null
+            ? timestamp ->
+                history.get(
+                    Math.toIntExact(
+                        Duration.between(start, timestamp).toSeconds() / intervalSeconds))
+            : timestamp -> buildPoint(market, zoneId, parameters, timestamp, DISTRIBUTION_COLUMNS);
+    StageTimer stage = StageTimer.start(Stage.DISTRIBUTION, market);
+    SketchIndex.WindowSketches window = sketches.window(market, start, end, interval, source);
+    stage.stop((int) window.price().count());
+    return window;
+  }
+
+  private List<LoadDurationPoint> buildLoadDurationCurve(QuantileSketch demand) {
+    List<LoadDurationPoint> curve = new ArrayList<>();
+    for (int percent = 0; percent <= 100; percent += LOAD_DURATION_STEP_PERCENT) {
+      curve.add(new LoadDurationPoint(percent, round(demand.quantile(1.0 - percent / 100.0), 0)));
     }
+    return List.copyOf(curve);
+  }
+
+  private MarketInsights buildInsights(
+      MarketCode market,
+      PricePoint first,
+      PricePoint last,
+      WindowAggregate aggregate,
+      SketchIndex.WindowSketches distribution,
+      FieldSelection fields) {
+    Objects.requireNonNull(market, "market");
+    StageTimer stage = StageTimer.start(Stage.INSIGHTS, market);
+    boolean withPrice = fields.includes(MarketMetric.PRICE) || fields.forecast();
+    boolean withDemand = fields.includes(MarketMetric.DEMAND);
+    boolean withRenewables = fields.includes(MarketMetric.RENEWABLES);
 
-    return new MarketInsights(
-        first.timestamp(),
-        last.timestamp(),
-        round(averagePrice, 2),
-        round(priceStdDev, 2),
-        round(minPrice, 2),
-        round(maxPrice, 2),
-        round(averageDemand, 0),
-        round(peakDemand, 0),
-        round(averageRenewables, 1),
-        round(carbonTrend, 2),
-        alerts);
+    double hoursBetween =
+        Math.max(1.0, Duration.between(first.timestamp(), last.timestamp()).toMinutes() / 60.0);
+    double carbonTrend = (last.carbonIntensity() - first.carbonIntensity()) / hoursBetween;
+    QuantileSketch prices = withPrice && distribution != null ? distribution.price() : null;
+
+    MarketInsights insights =
+        new MarketInsights(
+            first.timestamp(),
+            last.timestamp(),
+            withPrice ? round(aggregate.averagePrice(), 2) : Double.NaN,
+            withPrice ? round(aggregate.priceStandardDeviation(), 2) : Double.NaN,
+            withPrice ? round(aggregate.minPrice, 2) : Double.NaN,
+            withPrice ? round(aggregate.maxPrice, 2) : Double.NaN,
+            prices != null ? round(prices.quantile(0.05), 2) : Double.NaN,
+            prices != null ? round(prices.quantile(0.50), 2) : Double.NaN,
+            prices != null ? round(prices.quantile(0.95), 2) : Double.NaN,
+            prices != null ? round(prices.quantile(0.99), 2) : Double.NaN,
+            withDemand ? round(aggregate.averageDemand(), 0) : Double.NaN,
+            withDemand ? round(aggregate.peakDemand, 0) : Double.NaN,
+            withRenewables ? round(aggregate.averageRenewables(), 1) : Double.NaN,
+            fields.includes(MarketMetric.CARBON) ? round(carbonTrend, 2) : Double.NaN,
+            withDemand && distribution != null
+                ? buildLoadDurationCurve(distribution.demand())
+                : null,
+            List.of());
+    stage.stop(distribution == null ? 0 : (int) distribution.price().count());
+    return insights;
   }
 
   private MarketOverview buildOverview(
-      MarketCode market, List<PricePoint> history, MarketInsights insights) {
-    PricePoint first = history.getFirst();
-    PricePoint last = history.getLast();
+      MarketCode market,
+      PricePoint first,
+      PricePoint last,
+      MarketInsights insights,
+      FieldSelection fields) {
     double priceDelta = last.priceMwh() - first.priceMwh();
-    double changePercent =
-        first.priceMwh() == 0.0 ? 0.0 : (priceDelta / first.priceMwh()) * 100.0;
+    double changePercent = first.priceMwh() == 0.0 ? 0.0 : (priceDelta / first.priceMwh()) * 100.0;
+    boolean withPrice = fields.includes(MarketMetric.PRICE);
 
     return new MarketOverview(
         market.code(),
-        market.name(),
+        market.displayName(),
         market.region(),
         market.timezone(),
         market.description(),
-        round(last.priceMwh(), 2),
-        round(changePercent, 2),
-        insights.averagePrice(),
-        round(last.demandMw(), 0),
-        round(last.renewablesShare(), 1),
-        round(last.carbonIntensity(), 1),
+        withPrice ? round(last.priceMwh(), 2) : Double.NaN,
+        withPrice ? round(changePercent, 2) : Double.NaN,
+        withPrice ? insights.averagePrice() : Double.NaN,
+        fields.includes(MarketMetric.DEMAND) ? round(last.demandMw(), 0) : Double.NaN,
+        fields.includes(MarketMetric.RENEWABLES) ? round(last.renewablesShare(), 1) : Double.NaN,
+        fields.includes(MarketMetric.CARBON) ? round(last.carbonIntensity(), 1) : Double.NaN,
         round(market.parameters().basePrice(), 2),
         last.timestamp());
   }
 
   private List<ForecastPoint> buildForecast(
+      ForecastModel model,
       MarketCode market,
-      List<PricePoint> history,
+      PricePoint slopeStart,
+      PricePoint last,
+      double priceStdDev,
       Duration horizon,
-      Duration interval,
-      double priceStdDev) {
+      Duration interval) {
     validateDurations(horizon, interval, "forecast");
-    long horizonMinutes = horizon.toMinutes();
-    long intervalMinutes = interval.toMinutes();
-    int steps = Math.toIntExact(horizonMinutes / intervalMinutes);
-    if (steps == 0) {
-      return List.of();
-    }
-
-    PricePoint last = history.getLast();
-    Instant start = last.timestamp();
-    double slopePerHour = computePriceSlope(history);
-    MarketParameters parameters = market.parameters();
+    StageTimer stage = StageTimer.start(Stage.FORECAST, market);
     ZoneId zoneId = ZoneId.of(market.timezone());
-    double baseVolatility = priceStdDev <= 0.0 ? parameters.volatility() : priceStdDev;
-
-    List<ForecastPoint> forecast = new ArrayList<>(steps);
-    for (int i = 1; i <= steps; i++) {
-      Instant timestamp = start.plus(interval.multipliedBy(i));
-      ZonedDateTime zoned = timestamp.atZone(zoneId);
-      double minutesOfDay = zoned.getHour() * 60.0 + zoned.getMinute();
-      double dayProgress = minutesOfDay / (24.0 * 60.0);
-      double weekProgress =
-          ((double) (zoned.getDayOfWeek().getValue() - 1) + dayProgress) / 7.0;
-      double hoursAhead = (intervalMinutes * i) / 60.0;
-
-      double baseline = last.priceMwh() + slopePerHour * hoursAhead;
-      double seasonalDaily = parameters.dailySwing() * 0.35 * Math.sin(2 * Math.PI * dayProgress);
-      double seasonalWeekly =
-          parameters.weeklySwing() * 0.2 * Math.sin(2 * Math.PI * weekProgress);
-      double projected = baseline + seasonalDaily + seasonalWeekly;
-
-      double confidence = Math.max(parameters.volatility(), baseVolatility) * Math.sqrt(i);
-      double lower = Math.max(MIN_PRICE, projected - confidence);
-      double upper = projected + confidence;
-
-      forecast.add(
-          new ForecastPoint(
-              timestamp,
-              round(projected, 2),
-              round(lower, 2),
-              round(upper, 2)));
-    }
-
-    return List.copyOf(forecast);
+    MarketParameters parameters = market.parameters();
+    PriceForecaster.Origin origin =
+        new PriceForecaster.Origin(
+            last,
+            computePriceSlope(slopeStart, last),
+            priceStdDev,
+            timestamp -> buildPoint(market, zoneId, parameters, timestamp, PRICE_COLUMNS));
+    List<ForecastPoint> forecast =
+        forecasters.get(model).forecast(market, origin, horizon, interval);
+    stage.stop(forecast.size());
+    return forecast;
   }
 
-  private double computePriceSlope(List<PricePoint> history) {
-    if (history.size() < 2) {
+  double computePriceSlope(PricePoint start, PricePoint end) {
+    if (!end.timestamp().isAfter(start.timestamp())) {
       return 0.0;
     }
-    int lookback = Math.max(0, history.size() - 8);
-    PricePoint start = history.get(lookback);
-    PricePoint end = history.getLast();
     double hours =
         Math.max(1.0, Duration.between(start.timestamp(), end.timestamp()).toMinutes() / 60.0);
     return (end.priceMwh() - start.priceMwh()) / hours;
@@ -270,13 +673,17 @@ public class MarketDataGenerator {
 
   private double computePrice(
       MarketParameters parameters,
-      double hoursFromStart,
+      double epochHours,
       double dayProgress,
       double weekProgress,
       double noise) {
     double daily = parameters.dailySwing() * Math.sin(2 * Math.PI * dayProgress);
     double weekly = parameters.weeklySwing() * Math.sin(2 * Math.PI * weekProgress);
-    double structural = parameters.trendSlope() * (hoursFromStart / 24.0);
+    // Slow drift whose steepest slope equals trendSlope per day, anchored to absolute time.
+    double structural =
+        parameters.trendSlope()
+            * (TREND_CYCLE_DAYS / (2 * Math.PI))
+            * Math.sin(2 * Math.PI * epochHours / (24.0 * TREND_CYCLE_DAYS));
     double stochastic = noise * parameters.volatility();
     double value = parameters.basePrice() + daily + weekly + structural + stochastic;
     return Math.max(MIN_PRICE, value);
@@ -284,40 +691,39 @@ public class MarketDataGenerator {
 
   private double computeDemand(
       MarketParameters parameters,
-      double hoursFromStart,
+      double epochHours,
       double dayProgress,
       double weekProgress,
       double price,
       double noise) {
     double diurnal =
-        parameters.demandSwing()
-            * (1.1 - Math.cos(2 * Math.PI * dayProgress - Math.PI / 6));
+        parameters.demandSwing() * (1.1 - Math.cos(2 * Math.PI * dayProgress - Math.PI / 6));
     double weekly = parameters.demandSwing() * 0.25 * Math.sin(2 * Math.PI * weekProgress);
     double priceCoupling = (price - parameters.basePrice()) * 35.0;
-    double shortNoise = 180.0 * Math.sin(hoursFromStart / 4.5 + noise);
+    double shortNoise = 180.0 * Math.sin(epochHours / 4.5 + noise);
     double demand = parameters.demandBase() + diurnal + weekly + priceCoupling + shortNoise;
     return Math.max(parameters.demandBase() * MIN_DEMAND_FACTOR, demand);
   }
 
   private double computeRenewables(
       MarketParameters parameters,
-      double hoursFromStart,
+      double epochHours,
       double dayProgress,
       double weekProgress,
       double noise) {
     double solarShape =
         parameters.renewableSwing() * Math.max(0.0, Math.sin(Math.PI * dayProgress));
     double windShape = parameters.renewableSwing() * 0.35 * Math.sin(2 * Math.PI * weekProgress);
-    double intraDayVariance = 2.5 * Math.sin(hoursFromStart / 3.5 + noise);
-    double renewables =
-        parameters.renewableBase() + solarShape + windShape + intraDayVariance;
+    double intraDayVariance = 2.5 * Math.sin(epochHours / 3.5 + noise);
+    double renewables = parameters.renewableBase() + solarShape + windShape + intraDayVariance;
     return clamp(renewables, MIN_RENEWABLE_SHARE, MAX_RENEWABLE_SHARE);
   }
 
   private double computeCarbon(MarketParameters parameters, double demand, double renewablesShare) {
     double renewableFactor = 1.0 - (renewablesShare / 100.0);
     double loadInfluence = 0.04 * (demand - parameters.demandBase());
-    double carbon = parameters.carbonBase() + parameters.carbonSwing() * renewableFactor + loadInfluence;
+    double carbon =
+        parameters.carbonBase() + parameters.carbonSwing() * renewableFactor + loadInfluence;
     return Math.max(MIN_CARBON_INTENSITY, carbon);
   }
 
@@ -327,6 +733,18 @@ public class MarketDataGenerator {
     return Math.sin(seed) + 0.4 * Math.cos(seed * 1.7);
   }
 
+  private long checkpointFingerprint() {
+    return GeneratorCheckpoint.fingerprint(this::generatePoint);
+  }
+
+  private static Map<ForecastModel, PriceForecaster> newForecasters() {
+    Map<ForecastModel, PriceForecaster> forecasters = new EnumMap<>(ForecastModel.class);
+    for (ForecastModel model : ForecastModel.values()) {
+      forecasters.put(model, model.newForecaster());
+    }
+    return forecasters;
+  }
+
   private void validateDurations(Duration range, Duration interval, String label) {
     if (range.isZero() || range.isNegative()) {
       throw new IllegalArgumentException(label + " range must be positive");
@@ -346,10 +764,24 @@ public class MarketDataGenerator {
   }
 
   private double round(double value, int digits) {
+    if (Double.isNaN(value)) {
+      return value;
+    }
     double factor = Math.pow(10, digits);
     return Math.round(value * factor) / factor;
   }
 
+  /** Calendar, time and noise terms of a point; they depend only on the market and timestamp. */
+  record TimeTerms(
+      Instant timestamp,
+      double dayProgress,
+      double weekProgress,
+      double epochHours,
+      double noise) {}
+
   private record MarketContext(
-      MarketOverview overview, List<PricePoint> history, MarketInsights insights) {}
+      MarketOverview overview,
+      List<PricePoint> history,
+      MarketInsights insights,
+      WindowAggregate aggregate) {}
 }
@@ -0,0 +1,62 @@
+package com.energymarket.market.generator;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.ForecastPoint;
+import com.energymarket.market.model.PricePoint;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/** Projects the price of a market forward from a forecast origin. */
+interface PriceForecaster {
+
+  /**
+   * Returns one point per {@code interval} up to {@code horizon} after the origin.
+   *
+   * @param horizon forecast horizon, divisible by {@code interval}
+   */
+  List<ForecastPoint> forecast(
+      MarketCode market, Origin origin, Duration horizon, Duration interval);
+
+  /**
+   * Returns the earliest point the forecaster reads through {@link Origin#history()} for an origin
+   * at {@code timestamp}.
+   */
+  default Instant historyStart(Instant timestamp) {
+    return timestamp;
+  }
+
+  /**
+   * Writes the cached model state in the form read by {@link #restore}. Stateless forecasters write
+   * nothing.
+   *
+   * @return the number of market states written
+   */
+  default int checkpoint(DataOutput out) throws IOException {
+    return 0;
+  }
+
+  /**
+   * Resumes from model state written by {@link #checkpoint}, keeping any newer cached state.
+   *
+   * @param in the encoded state, positioned at its start and limited to its end
+   * @return the number of market states restored
+   */
+  default int restore(ByteBuffer in) {
+    return 0;
+  }
+
+  /**
+   * What is known at the forecast origin.
+   *
+   * @param last newest point of the history window
+   * @param slopePerHour recent price slope of the window
+   * @param priceStdDev price standard deviation of the window
+   * @param history generates the market's price at any past timestamp
+   */
+  record Origin(
+      PricePoint last, double slopePerHour, double priceStdDev, SketchIndex.PointSource history) {}
+}
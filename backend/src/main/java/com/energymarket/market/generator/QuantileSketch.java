@@ -0,0 +1,198 @@
+package com.energymarket.market.generator;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Mergeable quantile sketch with a relative-error guarantee over positive values.
+ *
+ * <p>Values are counted in logarithmic bins of ratio {@code gamma = (1 + alpha) / (1 - alpha)}, so
+ * every quantile estimate lies within a relative error of {@link #RELATIVE_ACCURACY alpha} (1%) of
+ * the exact sample at that rank. Merging two sketches adds their bin counts and is exact: the merge
+ * of per-bucket sketches equals the sketch of the combined points. Memory is bounded by {@link
+ * #MAX_BINS} counters; when values span more bins than that, the lowest bins are collapsed, which
+ * only degrades accuracy for the lowest quantiles of distributions spanning more than eight orders
+ * of magnitude. Zero and negative values are counted at zero and {@code NaN} values are ignored.
+ */
+public final class QuantileSketch {
+
+  /** Relative accuracy of every quantile estimate. */
+  public static final double RELATIVE_ACCURACY = 0.01;
+
+  /** Upper bound on the number of bin counters kept by one sketch. */
+  public static final int MAX_BINS = 1024;
+
+  private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+  private static final double LOG_GAMMA = Math.log(GAMMA);
+
+  private long[] bins = new long[0];
+  private int offset;
+  private long zeroCount;
+  private long count;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  /** Records one value. */
+  public void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+    if (value <= 0.0) {
+      zeroCount++;
+      return;
+    }
+    int index = (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    ensureCapacity(index, index);
+    bins[Math.max(0, index - offset)]++;
+  }
+
+  /** Adds every value recorded by {@code other} to this sketch. */
+  public void merge(QuantileSketch other) {
+    if (other.count == 0) {
+      return;
+    }
+    count += other.count;
+    zeroCount += other.zeroCount;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+    if (other.bins.length == 0) {
+      return;
+    }
+    ensureCapacity(other.offset, other.offset + other.bins.length - 1);
+    for (int i = 0; i < other.bins.length; i++) {
+      bins[Math.max(0, other.offset + i - offset)] += other.bins[i];
+    }
+  }
+
+  /**
+   * Estimates the value at quantile {@code q}. The extremes {@code 0} and {@code 1} are exact.
+   *
+   * @param q quantile in {@code [0, 1]}
+   * @return the estimate, or {@code NaN} if the sketch is empty
+   */
+  public double quantile(double q) {
+    if (!(q >= 0.0 && q <= 1.0)) {
+      throw new IllegalArgumentException("quantile must be between 0 and 1");
+    }
+    if (count == 0) {
+      return Double.NaN;
+    }
+    if (q == 0.0 || q == 1.0) {
+      return q == 0.0 ? min : max;
+    }
+    double rank = q * (count - 1);
+    if (rank < zeroCount) {
+      return Math.max(min, Math.min(max, 0.0));
+    }
+    long seen = zeroCount;
+    for (int i = 0; i < bins.length; i++) {
+      seen += bins[i];
+      if (seen > rank) {
+        double estimate = 2 * Math.pow(GAMMA, offset + i) / (GAMMA + 1);
+        return Math.max(min, Math.min(max, estimate));
+      }
+    }
+    return max;
+  }
+
+  /** Returns the number of recorded values. */
+  public long count() {
+    return count;
+  }
+
+  /** Returns an independent copy of this sketch. */
+  public QuantileSketch copy() {
+    QuantileSketch copy = new QuantileSketch();
+    copy.bins = bins.clone();
+    copy.offset = offset;
+    copy.zeroCount = zeroCount;
+    copy.count = count;
+    copy.min = min;
+    copy.max = max;
+    return copy;
+  }
+
+  /**
+   * Appends the sketch to {@code out} in the compact form read by {@link #read}. Counts are written
+   * as variable-length integers, so the sparse bins of a small bucket take a byte each.
+   */
+  void write(DataOutput out) throws IOException {
+    writeVarLong(out, count);
+    writeVarLong(out, zeroCount);
+    out.writeDouble(min);
+    out.writeDouble(max);
+    out.writeInt(offset);
+    out.writeShort(bins.length);
+    for (long bin : bins) {
+      writeVarLong(out, bin);
+    }
+  }
+
+  /**
+   * Reads a sketch written by {@link #write} from the current position of {@code in}.
+   *
+   * @throws IllegalArgumentException if the encoded sketch is malformed
+   */
+  static QuantileSketch read(ByteBuffer in) {
+    QuantileSketch sketch = new QuantileSketch();
+    sketch.count = readVarLong(in);
+    sketch.zeroCount = readVarLong(in);
+    sketch.min = in.getDouble();
+    sketch.max = in.getDouble();
+    sketch.offset = in.getInt();
+    int length = in.getShort();
+    if (length < 0 || length > MAX_BINS) {
+      throw new IllegalArgumentException("Malformed sketch with " + length + " bins");
+    }
+    sketch.bins = new long[length];
+    for (int i = 0; i < length; i++) {
+      sketch.bins[i] = readVarLong(in);
+    }
+    return sketch;
+  }
+
+  private static void writeVarLong(DataOutput out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  private static long readVarLong(ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      byte next = in.get();
+      value |= (long) (next & 0x7F) << shift;
+      if (next >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed variable-length count");
+  }
+
+  /** Grows the bin array to cover {@code [low, high]}, collapsing the lowest bins if needed. */
+  private void ensureCapacity(int low, int high) {
+    if (bins.length == 0) {
+      offset = Math.max(low, high - MAX_BINS + 1);
+      bins = new long[high - offset + 1];
+      return;
+    }
+    int currentHigh = offset + bins.length - 1;
+    if (low >= offset && high <= currentHigh) {
+      return;
+    }
+    int newHigh = Math.max(high, currentHigh);
+    int newLow = Math.max(Math.min(low, offset), newHigh - MAX_BINS + 1);
+    long[] grown = new long[newHigh - newLow + 1];
+    for (int i = 0; i < bins.length; i++) {
+      grown[Math.max(0, offset + i - newLow)] += bins[i];
+    }
+    bins = grown;
+    offset = newLow;
+  }
+}
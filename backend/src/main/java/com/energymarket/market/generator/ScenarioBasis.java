@@ -0,0 +1,36 @@
+package com.energymarket.market.generator;
+
+import com.energymarket.market.MarketCode;
+import java.util.List;
+
+/**
+ * Parameter-independent terms of every point in a market's history window.
+ *
+ * <p>Calendar position, trend cycle and noise depend only on the market and timestamp, so they are
+ * computed once per window and shared by every set of {@link MarketCode.MarketParameters} evaluated
+ * over it with {@link MarketDataGenerator#scenarioSeries}.
+ */
+public final class ScenarioBasis {
+
+  private final MarketCode market;
+  private final List<MarketDataGenerator.TimeTerms> terms;
+
+  ScenarioBasis(MarketCode market, List<MarketDataGenerator.TimeTerms> terms) {
+    this.market = market;
+    this.terms = List.copyOf(terms);
+  }
+
+  /** Returns the market whose window this basis describes. */
+  public MarketCode market() {
+    return market;
+  }
+
+  /** Returns the number of points in the window. */
+  public int size() {
+    return terms.size();
+  }
+
+  List<MarketDataGenerator.TimeTerms> terms() {
+    return terms;
+  }
+}
@@ -0,0 +1,61 @@
+package com.energymarket.market.generator;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.MarketCode.MarketParameters;
+import com.energymarket.market.model.ForecastPoint;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extends the last price along the recent slope and adds the market's nominal daily and weekly
+ * seasonality. Nothing is fitted, so the forecaster is stateless.
+ */
+final class SeasonalNaiveForecaster implements PriceForecaster {
+
+  @Override
+  public List<ForecastPoint> forecast(
+      MarketCode market, Origin origin, Duration horizon, Duration interval) {
+    long intervalMinutes = interval.toMinutes();
+    int steps = Math.toIntExact(horizon.toMinutes() / intervalMinutes);
+    if (steps == 0) {
+      return List.of();
+    }
+
+    Instant start = origin.last().timestamp();
+    MarketParameters parameters = market.parameters();
+    ZoneId zoneId = ZoneId.of(market.timezone());
+    double baseVolatility =
+        origin.priceStdDev() <= 0.0 ? parameters.volatility() : origin.priceStdDev();
+
+    List<ForecastPoint> forecast = new ArrayList<>(steps);
+    for (int i = 1; i <= steps; i++) {
+      Instant timestamp = start.plus(interval.multipliedBy(i));
+      ZonedDateTime zoned = timestamp.atZone(zoneId);
+      double minutesOfDay = zoned.getHour() * 60.0 + zoned.getMinute();
+      double dayProgress = minutesOfDay / (24.0 * 60.0);
+      double weekProgress = ((double) (zoned.getDayOfWeek().getValue() - 1) + dayProgress) / 7.0;
+      double hoursAhead = (intervalMinutes * i) / 60.0;
+
+      double baseline = origin.last().priceMwh() + origin.slopePerHour() * hoursAhead;
+      double seasonalDaily = parameters.dailySwing() * 0.35 * Math.sin(2 * Math.PI * dayProgress);
+      double seasonalWeekly = parameters.weeklySwing() * 0.2 * Math.sin(2 * Math.PI * weekProgress);
+      double projected = baseline + seasonalDaily + seasonalWeekly;
+
+      double confidence = Math.max(parameters.volatility(), baseVolatility) * Math.sqrt(i);
+      double lower = Math.max(MarketDataGenerator.MIN_PRICE, projected - confidence);
+      double upper = projected + confidence;
+
+      forecast.add(new ForecastPoint(timestamp, round(projected), round(lower), round(upper)));
+    }
+
+    return List.copyOf(forecast);
+  }
+
+  private static double round(double value) {
+    return Math.round(value * 100.0) / 100.0;
+  }
+}
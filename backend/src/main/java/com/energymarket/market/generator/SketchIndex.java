@@ -0,0 +1,158 @@
+package com.energymarket.market.generator;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.PricePoint;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-bucket price and demand sketches from which window distributions are assembled.
+ *
+ * <p>Generated values depend only on the market and timestamp, so the sketch of an hour bucket
+ * never changes once built. A window is served by merging the cached sketches of the buckets it
+ * fully covers and adding the few points at its ragged edges, instead of sorting the raw window.
+ * The cache is bounded to {@link #MAX_CACHED_BUCKETS} buckets with least-recently-used eviction;
+ * each bucket holds two sketches of at most {@link QuantileSketch#MAX_BINS} counters. Buckets
+ * restored from a checkpoint are consulted on a cache miss before the bucket is rebuilt.
+ */
+final class SketchIndex {
+
+  static final Duration BUCKET = Duration.ofHours(1);
+  static final int MAX_CACHED_BUCKETS = 20_000;
+
+  private final Map<BucketKey, WindowSketches> buckets =
+      new LinkedHashMap<>(256, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BucketKey, WindowSketches> eldest) {
+          return size() > MAX_CACHED_BUCKETS;
+        }
+      };
+
+  private volatile BucketStore restored;
+
+  /**
+   * Returns fresh sketches of every grid point in {@code [start, end]}.
+   *
+   * @param source generates the point of the market at a timestamp; it must populate price and
+   *     demand
+   */
+  WindowSketches window(
+      MarketCode market, Instant start, Instant end, Duration interval, PointSource source) {
+    long intervalSeconds = interval.toSeconds();
+    long bucketSeconds = BUCKET.toSeconds();
+    boolean bucketed =
+        bucketSeconds % intervalSeconds == 0 && start.getEpochSecond() % intervalSeconds == 0;
+    long last = end.getEpochSecond();
+
+    WindowSketches window = new WindowSketches(new QuantileSketch(), new QuantileSketch());
+    long epochSecond = start.getEpochSecond();
+    while (epochSecond <= last) {
+      if (bucketed
+          && epochSecond % bucketSeconds == 0
+          && epochSecond + bucketSeconds - intervalSeconds <= last) {
+        window.merge(bucket(market, epochSecond, intervalSeconds, source));
+        epochSecond += bucketSeconds;
+      } else {
+        window.add(source.at(Instant.ofEpochSecond(epochSecond)));
+        epochSecond += intervalSeconds;
+      }
+    }
+    return window;
+  }
+
+  private WindowSketches bucket(
+      MarketCode market, long bucketStart, long intervalSeconds, PointSource source) {
+    BucketKey key = new BucketKey(market, intervalSeconds, bucketStart);
+    synchronized (buckets) {
+      WindowSketches cached = buckets.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    BucketStore store = restored;
+    WindowSketches built = store == null ? null : store.find(key);
+    if (built == null) {
+      built = new WindowSketches(new QuantileSketch(), new QuantileSketch());
+      long bucketEnd = bucketStart + BUCKET.toSeconds();
+      for (long second = bucketStart; second < bucketEnd; second += intervalSeconds) {
+        built.add(source.at(Instant.ofEpochSecond(second)));
+      }
+    }
+    synchronized (buckets) {
+      buckets.put(key, built);
+    }
+    return built;
+  }
+
+  /**
+   * Returns up to {@link #MAX_CACHED_BUCKETS} buckets to checkpoint, most recently used first: the
+   * cached buckets followed by restored buckets that have not been used since.
+   */
+  List<Map.Entry<BucketKey, WindowSketches>> checkpoint() {
+    List<Map.Entry<BucketKey, WindowSketches>> checkpoint = new ArrayList<>();
+    synchronized (buckets) {
+      buckets.forEach((key, sketches) -> checkpoint.add(Map.entry(key, sketches)));
+    }
+    Collections.reverse(checkpoint);
+    BucketStore store = restored;
+    if (store != null) {
+      Set<BucketKey> cached = new HashSet<>();
+      checkpoint.forEach(entry -> cached.add(entry.getKey()));
+      for (BucketKey key : store.keys()) {
+        if (checkpoint.size() >= MAX_CACHED_BUCKETS) {
+          break;
+        }
+        if (!cached.contains(key)) {
+          checkpoint.add(Map.entry(key, store.find(key)));
+        }
+      }
+    }
+    return checkpoint;
+  }
+
+  /** Serves cache misses from {@code store} before rebuilding a bucket. */
+  void restore(BucketStore store) {
+    restored = store;
+  }
+
+  /** Supplies the generated point for a timestamp. */
+  @FunctionalInterface
+  interface PointSource {
+    PricePoint at(Instant timestamp);
+  }
+
+  /** Price and demand sketches over a set of points. */
+  record WindowSketches(QuantileSketch price, QuantileSketch demand) {
+
+    void add(PricePoint point) {
+      price.add(point.priceMwh());
+      demand.add(point.demandMw());
+    }
+
+    void merge(WindowSketches other) {
+      price.merge(other.price);
+      demand.merge(other.demand);
+    }
+  }
+
+  /** Read-only bucket sketches, such as those of a checkpoint. */
+  interface BucketStore {
+
+    /** Returns fresh sketches of the bucket, or {@code null} if the store does not hold it. */
+    WindowSketches find(BucketKey key);
+
+    /** Returns the keys of every bucket in the store. */
+    List<BucketKey> keys();
+  }
+
+  record BucketKey(MarketCode market, long intervalSeconds, long bucketStart) {}
+}
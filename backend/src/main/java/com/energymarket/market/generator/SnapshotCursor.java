@@ -0,0 +1,190 @@
+package com.energymarket.market.generator;
+
+import com.energymarket.market.MarketCode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.zip.CRC32;
+
+/**
+ * Opaque delta-sync cursor handed to polling clients.
+ *
+ * <p>A cursor pins the request shape (market, history window, resolution and fields), the window
+ * the client already holds and the running window aggregate, so that the next poll only generates
+ * the points that entered and left the window since. It is serialised as a checksummed, URL-safe
+ * Base64 string. The CRC32 only catches accidental corruption: the cursor is not signed, so a
+ * client can forge one. A forged aggregate only skews the insights of the response to that client's
+ * own request, and the work a cursor can cause is bounded by the history window it must match.
+ */
+public final class SnapshotCursor {
+
+  private static final byte VERSION = 1;
+  private static final int PAYLOAD_BYTES = 115;
+
+  private final MarketCode market;
+  private final long rangeMinutes;
+  private final long intervalMinutes;
+  private final int fieldBits;
+  private final Instant windowStart;
+  private final Instant windowEnd;
+  private final WindowAggregate aggregate;
+
+  SnapshotCursor(
+      MarketCode market,
+      Duration range,
+      Duration interval,
+      FieldSelection fields,
+      Instant windowStart,
+      Instant windowEnd,
+      WindowAggregate aggregate) {
+    this(
+        market,
+        range.toMinutes(),
+        interval.toMinutes(),
+        fields.bits(),
+        windowStart,
+        windowEnd,
+        aggregate);
+  }
+
+  private SnapshotCursor(
+      MarketCode market,
+      long rangeMinutes,
+      long intervalMinutes,
+      int fieldBits,
+      Instant windowStart,
+      Instant windowEnd,
+      WindowAggregate aggregate) {
+    this.market = market;
+    this.rangeMinutes = rangeMinutes;
+    this.intervalMinutes = intervalMinutes;
+    this.fieldBits = fieldBits;
+    this.windowStart = windowStart;
+    this.windowEnd = windowEnd;
+    this.aggregate = aggregate;
+  }
+
+  /** Returns the timestamp of the newest point the client holds. */
+  public Instant windowEnd() {
+    return windowEnd;
+  }
+
+  Instant windowStart() {
+    return windowStart;
+  }
+
+  /** Returns a private copy of the aggregate so the cursor itself stays immutable. */
+  WindowAggregate aggregate() {
+    return aggregate.copy();
+  }
+
+  /** Returns whether the cursor was issued for exactly this request shape. */
+  boolean matches(MarketCode candidate, Duration range, Duration interval, FieldSelection fields) {
+    return market == candidate
+        && rangeMinutes == range.toMinutes()
+        && intervalMinutes == interval.toMinutes()
+        && fieldBits == fields.bits();
+  }
+
+  /** Serialises the cursor to its opaque string form. */
+  public String encode() {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(PAYLOAD_BYTES);
+    try (DataOutputStream out = new DataOutputStream(buffer)) {
+      out.writeByte(VERSION);
+      out.writeByte(market.ordinal());
+      out.writeInt(Math.toIntExact(rangeMinutes));
+      out.writeInt(Math.toIntExact(intervalMinutes));
+      out.writeByte(fieldBits);
+      out.writeLong(windowStart.getEpochSecond());
+      out.writeLong(windowEnd.getEpochSecond());
+      out.writeLong(aggregate.count);
+      out.writeDouble(aggregate.priceSum);
+      out.writeDouble(aggregate.priceSquareSum);
+      out.writeDouble(aggregate.demandSum);
+      out.writeDouble(aggregate.renewableSum);
+      out.writeDouble(aggregate.minPrice);
+      out.writeLong(aggregate.minPriceEpochSecond);
+      out.writeDouble(aggregate.maxPrice);
+      out.writeLong(aggregate.maxPriceEpochSecond);
+      out.writeDouble(aggregate.peakDemand);
+      out.writeLong(aggregate.peakDemandEpochSecond);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    byte[] payload = buffer.toByteArray();
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    byte[] framed = new byte[payload.length + Integer.BYTES];
+    System.arraycopy(payload, 0, framed, 0, payload.length);
+    int checksum = (int) crc.getValue();
+    for (int i = 0; i < Integer.BYTES; i++) {
+      framed[payload.length + i] = (byte) (checksum >>> (24 - 8 * i));
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(framed);
+  }
+
+  /**
+   * Parses a cursor previously produced by {@link #encode()}.
+   *
+   * @throws IllegalArgumentException if the cursor is malformed or its checksum does not match
+   */
+  public static SnapshotCursor decode(String value) {
+    byte[] framed;
+    try {
+      framed = Base64.getUrlDecoder().decode(value);
+    } catch (IllegalArgumentException exception) {
+      throw new IllegalArgumentException("cursor is not valid", exception);
+    }
+    if (framed.length <= Integer.BYTES) {
+      throw new IllegalArgumentException("cursor is not valid");
+    }
+    int payloadLength = framed.length - Integer.BYTES;
+    CRC32 crc = new CRC32();
+    crc.update(framed, 0, payloadLength);
+    int expected = 0;
+    for (int i = 0; i < Integer.BYTES; i++) {
+      expected = (expected << 8) | (framed[payloadLength + i] & 0xFF);
+    }
+    if ((int) crc.getValue() != expected) {
+      throw new IllegalArgumentException("cursor is not valid");
+    }
+    try (DataInputStream in =
+        new DataInputStream(new ByteArrayInputStream(framed, 0, payloadLength))) {
+      if (in.readByte() != VERSION) {
+        throw new IllegalArgumentException("cursor version is not supported");
+      }
+      int marketOrdinal = in.readUnsignedByte();
+      if (marketOrdinal >= MarketCode.values().length) {
+        throw new IllegalArgumentException("cursor is not valid");
+      }
+      MarketCode market = MarketCode.values()[marketOrdinal];
+      long rangeMinutes = in.readInt();
+      long intervalMinutes = in.readInt();
+      int fieldBits = in.readUnsignedByte();
+      Instant windowStart = Instant.ofEpochSecond(in.readLong());
+      Instant windowEnd = Instant.ofEpochSecond(in.readLong());
+      WindowAggregate aggregate = new WindowAggregate();
+      aggregate.count = in.readLong();
+      aggregate.priceSum = in.readDouble();
+      aggregate.priceSquareSum = in.readDouble();
+      aggregate.demandSum = in.readDouble();
+      aggregate.renewableSum = in.readDouble();
+      aggregate.minPrice = in.readDouble();
+      aggregate.minPriceEpochSecond = in.readLong();
+      aggregate.maxPrice = in.readDouble();
+      aggregate.maxPriceEpochSecond = in.readLong();
+      aggregate.peakDemand = in.readDouble();
+      aggregate.peakDemandEpochSecond = in.readLong();
+      return new SnapshotCursor(
+          market, rangeMinutes, intervalMinutes, fieldBits, windowStart, windowEnd, aggregate);
+    } catch (IOException exception) {
+      throw new IllegalArgumentException("cursor is not valid", exception);
+    }
+  }
+}
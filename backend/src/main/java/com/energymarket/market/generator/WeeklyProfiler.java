@@ -0,0 +1,186 @@
+package com.energymarket.market.generator;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.MarketMetric;
+import com.energymarket.market.model.PricePoint;
+import com.energymarket.market.model.ProfileCell;
+import com.energymarket.market.model.ProfileMatrix;
+import com.energymarket.market.model.WeeklyProfile;
+import com.energymarket.market.telemetry.StageTimer;
+import com.energymarket.market.telemetry.StageTimer.Stage;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Aggregates a long window of generated points into hour-of-day by day-of-week profiles.
+ *
+ * <p>The window is split into chunks of {@link #CHUNK_POINTS} points that are reduced in parallel.
+ * Each worker accumulates into flat primitive arrays indexed by metric and local hour of the week,
+ * plus one quantile sketch per cell, and workers are merged once at the end, so no point is
+ * materialised beyond the worker that generated it. Points are bucketed, and generated, with the
+ * market's offset from UTC at that instant: a chunk looks its offset up once and then only switches
+ * at the zone's next transition, which keeps the local hour exact across daylight saving changes
+ * without resolving the zone for every timestamp.
+ */
+public final class WeeklyProfiler {
+
+  static final int CHUNK_POINTS = 4096;
+  private static final int HOURS_PER_DAY = 24;
+  private static final int CELLS = 7 * HOURS_PER_DAY;
+  private static final long SECONDS_PER_DAY = 86_400;
+  // 1970-01-01 was a Thursday, three days after the Monday that starts a profile week.
+  private static final long EPOCH_DAY_OF_WEEK = 3;
+
+  private final MarketDataGenerator generator;
+
+  public WeeklyProfiler(MarketDataGenerator generator) {
+    this.generator = Objects.requireNonNull(generator, "generator");
+  }
+
+  /**
+   * Profiles the points of {@code market} from {@code start}, inclusive, to {@code end}, exclusive.
+   *
+   * @param interval spacing of the points; must divide an hour so that every point of an hour falls
+   *     into the same cell
+   * @param metrics metrics to profile, in response order
+   */
+  public WeeklyProfile profile(
+      MarketCode market,
+      Instant start,
+      Instant end,
+      Duration interval,
+      List<MarketMetric> metrics) {
+    Objects.requireNonNull(market, "market");
+    if (metrics.isEmpty()) {
+      throw new IllegalArgumentException("at least one metric must be profiled");
+    }
+    long step = interval.toSeconds();
+    if (step <= 0 || Duration.ofHours(1).toSeconds() % step != 0) {
+      throw new IllegalArgumentException("profile resolution must divide an hour");
+    }
+    if (!end.isAfter(start) || Duration.between(start, end).toSeconds() % step != 0) {
+      throw new IllegalArgumentException("profile window must be a positive number of intervals");
+    }
+    StageTimer stage = StageTimer.start(Stage.PROFILE, market);
+    int points = Math.toIntExact(Duration.between(start, end).toSeconds() / step);
+    int chunks = (points + CHUNK_POINTS - 1) / CHUNK_POINTS;
+    ZoneRules rules = ZoneId.of(market.timezone()).getRules();
+    MarketMetric[] columns = metrics.toArray(MarketMetric[]::new);
+    long startSecond = start.getEpochSecond();
+
+    Accumulator totals =
+        IntStream.range(0, chunks)
+            .parallel()
+            .collect(
+                () -> new Accumulator(columns),
+                (accumulator, chunk) -> {
+                  int first = chunk * CHUNK_POINTS;
+                  int last = Math.min(points, first + CHUNK_POINTS);
+                  long epochSecond = startSecond + first * step;
+                  Instant instant = Instant.ofEpochSecond(epochSecond);
+                  int offset = rules.getOffset(instant).getTotalSeconds();
+                  ZoneOffsetTransition next = rules.nextTransition(instant);
+                  for (int i = first; i < last; i++, epochSecond += step) {
+                    while (next != null && epochSecond >= next.toEpochSecond()) {
+                      offset = next.getOffsetAfter().getTotalSeconds();
+                      next = rules.nextTransition(next.getInstant());
+                    }
+                    long local = epochSecond + offset;
+                    int day =
+                        (int)
+                            Math.floorMod(
+                                Math.floorDiv(local, SECONDS_PER_DAY) + EPOCH_DAY_OF_WEEK, 7L);
+                    int hour = (int) (Math.floorMod(local, SECONDS_PER_DAY) / 3600);
+                    accumulator.add(
+                        day * HOURS_PER_DAY + hour,
+                        generator.generatePoint(
+                            market, Instant.ofEpochSecond(epochSecond), offset));
+                  }
+                },
+                Accumulator::merge);
+
+    List<ProfileMatrix> matrices = new ArrayList<>(columns.length);
+    for (int metric = 0; metric < columns.length; metric++) {
+      List<List<ProfileCell>> days = new ArrayList<>(7);
+      for (int day = 0; day < 7; day++) {
+        List<ProfileCell> hours = new ArrayList<>(HOURS_PER_DAY);
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+          hours.add(totals.cell(metric, day * HOURS_PER_DAY + hour));
+        }
+        days.add(hours);
+      }
+      matrices.add(new ProfileMatrix(columns[metric].key(), days));
+    }
+    stage.stop(points);
+    return new WeeklyProfile(
+        market.code(),
+        market.timezone(),
+        start,
+        end,
+        Math.toIntExact(interval.toMinutes()),
+        points,
+        matrices);
+  }
+
+  /** Per-cell sums and sketches of every profiled metric over a subset of chunks. */
+  private static final class Accumulator {
+    private final MarketMetric[] metrics;
+    private final long[] counts = new long[CELLS];
+    private final double[] sums;
+    private final QuantileSketch[] sketches;
+
+    Accumulator(MarketMetric[] metrics) {
+      this.metrics = metrics;
+      sums = new double[metrics.length * CELLS];
+      sketches = new QuantileSketch[metrics.length * CELLS];
+      for (int i = 0; i < sketches.length; i++) {
+        sketches[i] = new QuantileSketch();
+      }
+    }
+
+    void add(int cell, PricePoint point) {
+      counts[cell]++;
+      for (int metric = 0; metric < metrics.length; metric++) {
+        double value = metrics[metric].extract(point);
+        sums[metric * CELLS + cell] += value;
+        sketches[metric * CELLS + cell].add(value);
+      }
+    }
+
+    void merge(Accumulator other) {
+      for (int cell = 0; cell < CELLS; cell++) {
+        counts[cell] += other.counts[cell];
+      }
+      for (int i = 0; i < sums.length; i++) {
+        sums[i] += other.sums[i];
+        sketches[i].merge(other.sketches[i]);
+      }
+    }
+
+    ProfileCell cell(int metric, int cell) {
+      long count = counts[cell];
+      QuantileSketch sketch = sketches[metric * CELLS + cell];
+      return new ProfileCell(
+          count,
+          count == 0 ? Double.NaN : round(sums[metric * CELLS + cell] / count, 2),
+          round(sketch.quantile(0.10), 2),
+          round(sketch.quantile(0.50), 2),
+          round(sketch.quantile(0.90), 2));
+    }
+
+    private static double round(double value, int digits) {
+      if (Double.isNaN(value)) {
+        return value;
+      }
+      double factor = Math.pow(10, digits);
+      return Math.round(value * factor) / factor;
+    }
+  }
+}
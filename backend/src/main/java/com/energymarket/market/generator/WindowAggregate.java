@@ -0,0 +1,99 @@
+package com.energymarket.market.generator;
+
+import com.energymarket.market.model.PricePoint;
+
+/**
+ * Running sums and extrema over a sliding history window.
+ *
+ * <p>Adding or evicting a point is O(1). Extrema are tracked together with the timestamp of their
+ * most recent occurrence; evicting that exact point invalidates the extremum and the caller must
+ * rebuild the aggregate from the window, which happens at most once per extremum lifetime.
+ */
+final class WindowAggregate {
+
+  long count;
+  double priceSum;
+  double priceSquareSum;
+  double demandSum;
+  double renewableSum;
+  double minPrice = Double.POSITIVE_INFINITY;
+  long minPriceEpochSecond = Long.MIN_VALUE;
+  double maxPrice = Double.NEGATIVE_INFINITY;
+  long maxPriceEpochSecond = Long.MIN_VALUE;
+  double peakDemand = Double.NEGATIVE_INFINITY;
+  long peakDemandEpochSecond = Long.MIN_VALUE;
+
+  void add(PricePoint point) {
+    long epochSecond = point.timestamp().getEpochSecond();
+    double price = point.priceMwh();
+    double demand = point.demandMw();
+    count++;
+    priceSum += price;
+    priceSquareSum += price * price;
+    demandSum += demand;
+    renewableSum += point.renewablesShare();
+    if (price <= minPrice) {
+      minPrice = price;
+      minPriceEpochSecond = epochSecond;
+    }
+    if (price >= maxPrice) {
+      maxPrice = price;
+      maxPriceEpochSecond = epochSecond;
+    }
+    if (demand >= peakDemand) {
+      peakDemand = demand;
+      peakDemandEpochSecond = epochSecond;
+    }
+  }
+
+  /**
+   * Evicts the oldest point of the window.
+   *
+   * @return {@code false} if the point carried a tracked extremum, invalidating the aggregate
+   */
+  boolean remove(PricePoint point) {
+    long epochSecond = point.timestamp().getEpochSecond();
+    double price = point.priceMwh();
+    count--;
+    priceSum -= price;
+    priceSquareSum -= price * price;
+    demandSum -= point.demandMw();
+    renewableSum -= point.renewablesShare();
+    return epochSecond != minPriceEpochSecond
+        && epochSecond != maxPriceEpochSecond
+        && epochSecond != peakDemandEpochSecond;
+  }
+
+  double averagePrice() {
+    return priceSum / count;
+  }
+
+  double priceStandardDeviation() {
+    double average = averagePrice();
+    return Math.sqrt(Math.max(0.0, priceSquareSum / count - average * average));
+  }
+
+  double averageDemand() {
+    return demandSum / count;
+  }
+
+  double averageRenewables() {
+    return renewableSum / count;
+  }
+
+  WindowAggregate copy() {
+    WindowAggregate copy = new WindowAggregate();
+    copy.count = count;
+    copy.priceSum = priceSum;
+    copy.priceSquareSum = priceSquareSum;
+    copy.demandSum = demandSum;
+    copy.renewableSum = renewableSum;
+    copy.minPrice = minPrice;
+    copy.minPriceEpochSecond = minPriceEpochSecond;
+    copy.maxPrice = maxPrice;
+    copy.maxPriceEpochSecond = maxPriceEpochSecond;
+    copy.peakDemand = peakDemand;
+    copy.peakDemandEpochSecond = peakDemandEpochSecond;
+    return copy;
+  }
+}
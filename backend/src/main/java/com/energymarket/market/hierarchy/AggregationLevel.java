@@ -0,0 +1,24 @@
+package com.energymarket.market.hierarchy;
+
+import java.util.Locale;
+
+/** Levels of the aggregation hierarchy, from the finest to the coarsest. */
+public enum AggregationLevel {
+  NODE,
+  HUB,
+  ISO,
+  REGION,
+  NATIONAL;
+
+  private final String key = name().toLowerCase(Locale.ROOT);
+
+  /** Returns the name of the level in API responses. */
+  public String key() {
+    return key;
+  }
+
+  @Override
+  public String toString() {
+    return key;
+  }
+}
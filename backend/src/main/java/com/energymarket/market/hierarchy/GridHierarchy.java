@@ -0,0 +1,166 @@
+package com.energymarket.market.hierarchy;
+
+import com.energymarket.market.MarketCode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tree of aggregation nodes whose leaves are markets.
+ *
+ * <p>Nodes are numbered in definition order, which puts every parent before its children, and each
+ * node records its parent's number, so walking from a market to the root touches only its
+ * ancestors. Identifiers are case-insensitive.
+ */
+final class GridHierarchy {
+
+  private final List<Node> nodes;
+  private final Map<String, Integer> indexById;
+  private final Map<MarketCode, Integer> leaves;
+
+  private GridHierarchy(
+      List<Node> nodes, Map<String, Integer> indexById, Map<MarketCode, Integer> leaves) {
+    this.nodes = nodes;
+    this.indexById = indexById;
+    this.leaves = leaves;
+  }
+
+  /**
+   * Returns the hierarchy of the built-in markets. Each market is the reference hub of its own ISO,
+   * so markets sit at the ISO level under three regions and one national root.
+   */
+  static GridHierarchy standard() {
+    return new Builder()
+        .node("US", "United States", AggregationLevel.NATIONAL, null)
+        .node("WEST", "Western US", AggregationLevel.REGION, "US")
+        .node("CENTRAL", "Central US", AggregationLevel.REGION, "US")
+        .node("EAST", "Eastern US", AggregationLevel.REGION, "US")
+        .market(MarketCode.CAISO, AggregationLevel.ISO, "WEST")
+        .market(MarketCode.ERCOT, AggregationLevel.ISO, "CENTRAL")
+        .market(MarketCode.MISO, AggregationLevel.ISO, "CENTRAL")
+        .market(MarketCode.NEISO, AggregationLevel.ISO, "EAST")
+        .market(MarketCode.PJM, AggregationLevel.ISO, "EAST")
+        .build();
+  }
+
+  int size() {
+    return nodes.size();
+  }
+
+  Node node(int index) {
+    return nodes.get(index);
+  }
+
+  /** Returns the number of the node with identifier {@code id}. */
+  Optional<Integer> index(String id) {
+    return id == null
+        ? Optional.empty()
+        : Optional.ofNullable(indexById.get(id.trim().toUpperCase(Locale.ROOT)));
+  }
+
+  /** Returns the number of the leaf of {@code market}, or {@code -1} if it is not in the tree. */
+  int leaf(MarketCode market) {
+    return leaves.getOrDefault(market, -1);
+  }
+
+  /**
+   * One node of the tree.
+   *
+   * @param parent number of the parent node, or {@code -1} for a root
+   * @param market market of a leaf, or {@code null} for an aggregate
+   * @param markets number of markets under the node, including a leaf's own
+   */
+  record Node(
+      String id,
+      String name,
+      AggregationLevel level,
+      int parent,
+      MarketCode market,
+      List<String> children,
+      int markets) {}
+
+  /** Defines a hierarchy top-down: every parent must be defined before its children. */
+  static final class Builder {
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<AggregationLevel> levels = new ArrayList<>();
+    private final List<Integer> parents = new ArrayList<>();
+    private final List<MarketCode> markets = new ArrayList<>();
+    private final Map<String, Integer> indexById = new HashMap<>();
+
+    Builder node(String id, String name, AggregationLevel level, String parentId) {
+      return add(id, name, level, parentId, null);
+    }
+
+    Builder market(MarketCode market, AggregationLevel level, String parentId) {
+      return add(market.code(), market.displayName(), level, parentId, market);
+    }
+
+    private Builder add(
+        String id, String name, AggregationLevel level, String parentId, MarketCode market) {
+      String key = id.trim().toUpperCase(Locale.ROOT);
+      if (indexById.containsKey(key)) {
+        throw new IllegalArgumentException("duplicate hierarchy node " + id);
+      }
+      int parent = -1;
+      if (parentId != null) {
+        Integer index = indexById.get(parentId.trim().toUpperCase(Locale.ROOT));
+        if (index == null || markets.get(index) != null) {
+          throw new IllegalArgumentException("unknown aggregate parent " + parentId + " of " + id);
+        }
+        if (levels.get(index).compareTo(level) <= 0) {
+          throw new IllegalArgumentException(
+              "parent " + parentId + " must be at a coarser level than " + id);
+        }
+        parent = index;
+      }
+      indexById.put(key, ids.size());
+      ids.add(key);
+      names.add(name);
+      levels.add(level);
+      parents.add(parent);
+      markets.add(market);
+      return this;
+    }
+
+    GridHierarchy build() {
+      int size = ids.size();
+      int[] counts = new int[size];
+      List<List<String>> children = new ArrayList<>(size);
+      Map<MarketCode, Integer> leaves = new EnumMap<>(MarketCode.class);
+      for (int index = 0; index < size; index++) {
+        children.add(new ArrayList<>());
+        if (parents.get(index) >= 0) {
+          children.get(parents.get(index)).add(ids.get(index));
+        }
+        if (markets.get(index) != null) {
+          leaves.put(markets.get(index), index);
+          for (int node = index; node >= 0; node = parents.get(node)) {
+            counts[node]++;
+          }
+        }
+      }
+      List<Node> nodes = new ArrayList<>(size);
+      for (int index = 0; index < size; index++) {
+        if (counts[index] == 0) {
+          throw new IllegalArgumentException(
+              "hierarchy node " + ids.get(index) + " has no markets");
+        }
+        nodes.add(
+            new Node(
+                ids.get(index),
+                names.get(index),
+                levels.get(index),
+                parents.get(index),
+                markets.get(index),
+                List.copyOf(children.get(index)),
+                counts[index]));
+      }
+      return new GridHierarchy(List.copyOf(nodes), Map.copyOf(indexById), leaves);
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package com.energymarket.market.hierarchy;
+
+import com.energymarket.market.model.AggregateOverview;
+import com.energymarket.market.model.AggregateSeries;
+import com.energymarket.market.model.PricePoint;
+import com.energymarket.market.tick.MarketTick;
+import com.energymarket.market.tick.MarketTickListener;
+import com.energymarket.market.tick.MarketTickPublisher;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rolls market ticks up the regional hierarchy as they are published.
+ *
+ * <p>Every node keeps a ring of {@link #RETENTION} worth of tick intervals holding the running sums
+ * of demand and of demand-weighted price, renewables share and carbon intensity, plus the number of
+ * markets that contributed. A tick adds its market's terms to the interval of the market's leaf and
+ * each of its ancestors, so the cost of a tick is the depth of the tree whatever the number of
+ * markets, and no aggregate is ever recomputed from its children. An interval is complete once
+ * every market under the node has contributed; overviews and series read complete intervals only. A
+ * tick older than the latest interval, as after a rewound simulation clock, clears the sums. The
+ * aggregator asks the publisher to replay its whole {@link #RETENTION}, so the sums are rebuilt for
+ * every hour a series can request both at startup and after a rewind.
+ */
+@Component
+public class RegionalAggregator implements MarketTickListener {
+
+  /** Aggregate history kept per node. */
+  public static final Duration RETENTION = Duration.ofDays(7);
+
+  private static final long STEP_SECONDS = MarketTickPublisher.TICK_INTERVAL.toSeconds();
+  private static final long CHANGE_INTERVALS = Duration.ofHours(24).toSeconds() / STEP_SECONDS;
+  private static final long NONE = Long.MIN_VALUE;
+
+  private final GridHierarchy hierarchy;
+  private final int capacity;
+  private final long[] slotIntervals;
+  private final int[] contributors;
+  private final double[] demand;
+  private final double[] weightedPrice;
+  private final double[] weightedRenewables;
+  private final double[] weightedCarbon;
+  private final long[] latestComplete;
+  private final long[] lastLeafInterval;
+  private long latestInterval = NONE;
+
+  public RegionalAggregator() {
+    this(GridHierarchy.standard());
+  }
+
+  RegionalAggregator(GridHierarchy hierarchy) {
+    this.hierarchy = Objects.requireNonNull(hierarchy, "hierarchy");
+    this.capacity = Math.toIntExact(RETENTION.toSeconds() / STEP_SECONDS);
+    int slots = hierarchy.size() * capacity;
+    slotIntervals = new long[slots];
+    contributors = new int[slots];
+    demand = new double[slots];
+    weightedPrice = new double[slots];
+    weightedRenewables = new double[slots];
+    weightedCarbon = new double[slots];
+    latestComplete = new long[hierarchy.size()];
+    lastLeafInterval = new long[hierarchy.size()];
+    clear();
+  }
+
+  @Override
+  public Duration history() {
+    return RETENTION;
+  }
+
+  @Override
+  public synchronized void onTick(MarketTick tick) {
+    int leaf = hierarchy.leaf(tick.market());
+    if (leaf < 0) {
+      return;
+    }
+    PricePoint point = tick.point();
+    long interval = Math.floorDiv(point.timestamp().getEpochSecond(), STEP_SECONDS);
+    if (interval < latestInterval) {
+      clear();
+    }
+    if (interval <= lastLeafInterval[leaf]) {
+      return;
+    }
+    latestInterval = interval;
+    lastLeafInterval[leaf] = interval;
+    double load = point.demandMw();
+    for (int node = leaf; node >= 0; node = hierarchy.node(node).parent()) {
+      int slot = slot(node, interval);
+      if (slotIntervals[slot] != interval) {
+        slotIntervals[slot] = interval;
+        contributors[slot] = 0;
+        demand[slot] = 0.0;
+        weightedPrice[slot] = 0.0;
+        weightedRenewables[slot] = 0.0;
+        weightedCarbon[slot] = 0.0;
+      }
+      contributors[slot]++;
+      demand[slot] += load;
+      weightedPrice[slot] += point.priceMwh() * load;
+      weightedRenewables[slot] += point.renewablesShare() * load;
+      weightedCarbon[slot] += point.carbonIntensity() * load;
+      if (contributors[slot] == hierarchy.node(node).markets() && interval > latestComplete[node]) {
+        latestComplete[node] = interval;
+      }
+    }
+  }
+
+  /** Returns the overview of every node, parents before their children. */
+  public synchronized List<AggregateOverview> overviews() {
+    List<AggregateOverview> overviews = new ArrayList<>(hierarchy.size());
+    for (int node = 0; node < hierarchy.size(); node++) {
+      overviews.add(overview(node));
+    }
+    return overviews;
+  }
+
+  /** Returns the overview of the node with identifier {@code id}, if there is one. */
+  public synchronized Optional<AggregateOverview> overview(String id) {
+    return hierarchy.index(id).map(this::overview);
+  }
+
+  /**
+   * Returns the complete intervals of a node over {@code range} up to its latest complete one.
+   *
+   * @param range length of the series, at most {@link #RETENTION}
+   */
+  public synchronized Optional<AggregateSeries> series(String id, Duration range) {
+    if (range.isNegative() || range.compareTo(RETENTION) > 0) {
+      throw new IllegalArgumentException(
+          "range must be between 0 and " + RETENTION.toHours() + " hours");
+    }
+    return hierarchy
+        .index(id)
+        .map(
+            node -> {
+              List<PricePoint> points = new ArrayList<>();
+              long last = latestComplete[node];
+              if (last != NONE) {
+                long first = Math.max(last - range.toSeconds() / STEP_SECONDS, last - capacity + 1);
+                for (long interval = first; interval <= last; interval++) {
+                  int slot = slot(node, interval);
+                  if (isComplete(node, slot, interval)) {
+                    points.add(point(slot, interval));
+                  }
+                }
+              }
+              GridHierarchy.Node definition = hierarchy.node(node);
+              return new AggregateSeries(definition.id(), definition.level().key(), points);
+            });
+  }
+
+  private AggregateOverview overview(int node) {
+    GridHierarchy.Node definition = hierarchy.node(node);
+    long last = latestComplete[node];
+    PricePoint latest = last == NONE ? null : point(slot(node, last), last);
+    double changePercent = Double.NaN;
+    if (latest != null) {
+      long earliest = Math.max(last - CHANGE_INTERVALS, last - capacity + 1);
+      for (long interval = earliest; interval < last; interval++) {
+        int slot = slot(node, interval);
+        if (isComplete(node, slot, interval)) {
+          double previous = weightedPrice[slot] / demand[slot];
+          changePercent = round((latest.priceMwh() - previous) / previous * 100.0, 2);
+          break;
+        }
+      }
+    }
+    return new AggregateOverview(
+        definition.id(),
+        definition.name(),
+        definition.level().key(),
+        definition.parent() < 0 ? null : hierarchy.node(definition.parent()).id(),
+        definition.children(),
+        definition.markets(),
+        latest == null ? null : latest.timestamp(),
+        latest == null ? Double.NaN : latest.priceMwh(),
+        changePercent,
+        latest == null ? Double.NaN : latest.demandMw(),
+        latest == null ? Double.NaN : latest.renewablesShare(),
+        latest == null ? Double.NaN : latest.carbonIntensity());
+  }
+
+  private PricePoint point(int slot, long interval) {
+    double load = demand[slot];
+    return new PricePoint(
+        Instant.ofEpochSecond(interval * STEP_SECONDS),
+        round(weightedPrice[slot] / load, 2),
+        round(load, 0),
+        round(weightedCarbon[slot] / load, 1),
+        round(weightedRenewables[slot] / load, 1));
+  }
+
+  private boolean isComplete(int node, int slot, long interval) {
+    return slotIntervals[slot] == interval
+        && contributors[slot] == hierarchy.node(node).markets()
+        && demand[slot] > 0.0;
+  }
+
+  private int slot(int node, long interval) {
+    return node * capacity + (int) Math.floorMod(interval, (long) capacity);
+  }
+
+  private void clear() {
+    Arrays.fill(slotIntervals, NONE);
+    Arrays.fill(latestComplete, NONE);
+    Arrays.fill(lastLeafInterval, NONE);
+    latestInterval = NONE;
+  }
+
+  private static double round(double value, int digits) {
+    double factor = Math.pow(10, digits);
+    return Math.round(value * factor) / factor;
+  }
+}
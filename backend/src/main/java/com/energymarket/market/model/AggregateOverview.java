@@ -0,0 +1,40 @@
+package com.energymarket.market.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Latest aggregate of the markets under one node of the regional hierarchy.
+ *
+ * <p>Prices, renewables share and carbon intensity are weighted by each market's demand in the
+ * interval and demand is summed. Values are absent until every market under the node has ticked.
+ *
+ * @param parentId identifier of the parent node, absent for the root
+ * @param children identifiers of the child nodes, empty for a market
+ * @param markets number of markets under the node
+ * @param priceChangePercent change of the weighted price over the previous 24 hours, or since the
+ *     earliest retained interval
+ */
+@JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UnsetValueFilter.class)
+public record AggregateOverview(
+    String id,
+    String name,
+    String level,
+    String parentId,
+    List<String> children,
+    int markets,
+    Instant timestamp,
+    double priceMwh,
+    double priceChangePercent,
+    double demandMw,
+    double renewablesShare,
+    double carbonIntensity) {
+
+  public AggregateOverview {
+    Objects.requireNonNull(id, "id");
+    Objects.requireNonNull(level, "level");
+    children = List.copyOf(children);
+  }
+}
@@ -0,0 +1,18 @@
+package com.energymarket.market.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Aggregate interval series of one node of the regional hierarchy, oldest first. Each point holds
+ * the demand-weighted price, renewables share and carbon intensity and the summed demand of the
+ * node's markets.
+ */
+public record AggregateSeries(String id, String level, List<PricePoint> points) {
+
+  public AggregateSeries {
+    Objects.requireNonNull(id, "id");
+    Objects.requireNonNull(level, "level");
+    points = List.copyOf(points);
+  }
+}
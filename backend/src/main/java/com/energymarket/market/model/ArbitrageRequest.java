@@ -0,0 +1,25 @@
+package com.energymarket.market.model;
+
+import java.util.List;
+
+/**
+ * Portfolio of batteries to schedule against the forecast. The horizon defaults to 24 hours at
+ * 60-minute resolution and the state of charge is discretised into 51 levels.
+ */
+public record ArbitrageRequest(
+    List<BatterySpec> batteries,
+    Integer forecastHours,
+    Integer resolutionMinutes,
+    Integer socLevels) {
+
+  public static final int DEFAULT_FORECAST_HOURS = 24;
+  public static final int DEFAULT_RESOLUTION_MINUTES = 60;
+  public static final int DEFAULT_SOC_LEVELS = 51;
+
+  public ArbitrageRequest {
+    batteries = batteries == null ? List.of() : List.copyOf(batteries);
+    forecastHours = forecastHours == null ? DEFAULT_FORECAST_HOURS : forecastHours;
+    resolutionMinutes = resolutionMinutes == null ? DEFAULT_RESOLUTION_MINUTES : resolutionMinutes;
+    socLevels = socLevels == null ? DEFAULT_SOC_LEVELS : socLevels;
+  }
+}
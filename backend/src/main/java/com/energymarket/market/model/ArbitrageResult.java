@@ -0,0 +1,22 @@
+package com.energymarket.market.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Optimal schedule and revenue of one battery. The schedule follows the projected prices; the
+ * revenue is also reported when re-optimised against the lower and upper forecast envelopes.
+ */
+public record ArbitrageResult(
+    String batteryId,
+    String marketCode,
+    double expectedRevenue,
+    double lowPriceRevenue,
+    double highPriceRevenue,
+    List<BatteryDispatch> schedule) {
+
+  public ArbitrageResult {
+    Objects.requireNonNull(marketCode, "marketCode");
+    schedule = List.copyOf(schedule);
+  }
+}
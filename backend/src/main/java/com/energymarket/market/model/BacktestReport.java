@@ -0,0 +1,30 @@
+package com.energymarket.market.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Accuracy of the price forecast of one market, replayed from many past origins.
+ *
+ * @param forecastModel identifier of the scored forecasting model
+ * @param averageForecastMicros mean wall-clock time to produce one forecast, including any model
+ *     state update
+ */
+public record BacktestReport(
+    String marketCode,
+    String forecastModel,
+    Instant firstOrigin,
+    Instant lastOrigin,
+    int origins,
+    double averageForecastMicros,
+    List<HorizonAccuracy> horizons) {
+
+  public BacktestReport {
+    Objects.requireNonNull(marketCode, "marketCode");
+    Objects.requireNonNull(forecastModel, "forecastModel");
+    Objects.requireNonNull(firstOrigin, "firstOrigin");
+    Objects.requireNonNull(lastOrigin, "lastOrigin");
+    horizons = List.copyOf(horizons);
+  }
+}
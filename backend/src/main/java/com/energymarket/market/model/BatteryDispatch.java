@@ -0,0 +1,16 @@
+package com.energymarket.market.model;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * One interval of a battery schedule. {@code gridMw} is positive while charging and negative while
+ * discharging; {@code stateOfChargeMwh} is the stored energy at the end of the interval.
+ */
+public record BatteryDispatch(
+    Instant timestamp, double priceMwh, double gridMw, double stateOfChargeMwh) {
+
+  public BatteryDispatch {
+    Objects.requireNonNull(timestamp, "timestamp");
+  }
+}
@@ -0,0 +1,28 @@
+package com.energymarket.market.model;
+
+/**
+ * Battery asset to optimise. State-of-charge bounds default to 10-90% and the initial state of
+ * charge to 50%; the schedule must end at least as full as it started.
+ *
+ * @param roundTripEfficiency fraction of charged energy that can be discharged, in {@code (0, 1]}
+ */
+public record BatterySpec(
+    String id,
+    String market,
+    double capacityMwh,
+    double powerMw,
+    double roundTripEfficiency,
+    Double minSocPercent,
+    Double maxSocPercent,
+    Double initialSocPercent) {
+
+  public static final double DEFAULT_MIN_SOC_PERCENT = 10.0;
+  public static final double DEFAULT_MAX_SOC_PERCENT = 90.0;
+  public static final double DEFAULT_INITIAL_SOC_PERCENT = 50.0;
+
+  public BatterySpec {
+    minSocPercent = minSocPercent == null ? DEFAULT_MIN_SOC_PERCENT : minSocPercent;
+    maxSocPercent = maxSocPercent == null ? DEFAULT_MAX_SOC_PERCENT : maxSocPercent;
+    initialSocPercent = initialSocPercent == null ? DEFAULT_INITIAL_SOC_PERCENT : initialSocPercent;
+  }
+}
@@ -0,0 +1,15 @@
+package com.energymarket.market.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Values of one derived expression, aligned with the timestamps of its {@link DerivedSeriesResult}.
+ * Values that are not finite, such as a division by zero, are {@code null}.
+ */
+public record DerivedSeries(String name, String expression, List<Double> values) {
+
+  public DerivedSeries {
+    values = Collections.unmodifiableList(values);
+  }
+}
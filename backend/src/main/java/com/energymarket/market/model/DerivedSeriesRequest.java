@@ -0,0 +1,25 @@
+package com.energymarket.market.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Named expressions to evaluate over a market's recent history, e.g. {@code {"spread": "price -
+ * PJM.price"}}. The window defaults to 24 hours at 15-minute resolution.
+ */
+public record DerivedSeriesRequest(
+    Map<String, String> expressions, Integer historyHours, Integer resolutionMinutes) {
+
+  public static final int DEFAULT_HISTORY_HOURS = 24;
+  public static final int DEFAULT_RESOLUTION_MINUTES = 15;
+
+  public DerivedSeriesRequest {
+    expressions =
+        expressions == null
+            ? Map.of()
+            : Collections.unmodifiableMap(new LinkedHashMap<>(expressions));
+    historyHours = historyHours == null ? DEFAULT_HISTORY_HOURS : historyHours;
+    resolutionMinutes = resolutionMinutes == null ? DEFAULT_RESOLUTION_MINUTES : resolutionMinutes;
+  }
+}
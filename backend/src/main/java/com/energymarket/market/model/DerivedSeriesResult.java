@@ -0,0 +1,14 @@
+package com.energymarket.market.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Derived series evaluated over a common window of a market. */
+public record DerivedSeriesResult(
+    String marketCode, List<Instant> timestamps, List<DerivedSeries> series) {
+
+  public DerivedSeriesResult {
+    timestamps = List.copyOf(timestamps);
+    series = List.copyOf(series);
+  }
+}
@@ -0,0 +1,26 @@
+package com.energymarket.market.model;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Contiguous block of time ranked for running flexible load.
+ *
+ * <p>{@code score} is the weighted blend of the block's average price and carbon intensity, each
+ * relative to its mean over the searched series, so {@code 1.0} is an average block and lower is
+ * better. {@code includesForecast} is set when part of the block lies in the forecast horizon.
+ */
+public record FlexWindow(
+    Instant start,
+    Instant end,
+    double averagePrice,
+    double peakPrice,
+    double averageCarbonIntensity,
+    double score,
+    boolean includesForecast) {
+
+  public FlexWindow {
+    Objects.requireNonNull(start, "start");
+    Objects.requireNonNull(end, "end");
+  }
+}
@@ -0,0 +1,38 @@
+package com.energymarket.market.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Batched flexible-load window query. Omitted values take their defaults: every market, the top 3
+ * windows, price-only ranking ({@code carbonWeight} 0), 24 hours of history and 24 hours of
+ * forecast. Lists keep {@code null} entries so that the service can reject them as bad input.
+ *
+ * @param carbonWeight weight of carbon intensity in the ranking, from 0 (cheapest) to 1 (cleanest)
+ */
+public record FlexWindowQuery(
+    List<String> markets,
+    List<Integer> durationsHours,
+    Integer topK,
+    Double carbonWeight,
+    Integer historyHours,
+    Integer forecastHours) {
+
+  public static final int DEFAULT_TOP_K = 3;
+  public static final int DEFAULT_HISTORY_HOURS = 24;
+  public static final int DEFAULT_FORECAST_HOURS = 24;
+
+  public FlexWindowQuery {
+    markets = copy(markets);
+    durationsHours = copy(durationsHours);
+    topK = topK == null ? DEFAULT_TOP_K : topK;
+    carbonWeight = carbonWeight == null ? 0.0 : carbonWeight;
+    historyHours = historyHours == null ? DEFAULT_HISTORY_HOURS : historyHours;
+    forecastHours = forecastHours == null ? DEFAULT_FORECAST_HOURS : forecastHours;
+  }
+
+  private static <T> List<T> copy(List<T> values) {
+    return values == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(values));
+  }
+}
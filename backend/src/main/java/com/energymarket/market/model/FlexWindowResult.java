@@ -0,0 +1,13 @@
+package com.energymarket.market.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/** Best non-overlapping windows of one duration for one market, best first. */
+public record FlexWindowResult(String marketCode, int durationHours, List<FlexWindow> windows) {
+
+  public FlexWindowResult {
+    Objects.requireNonNull(marketCode, "marketCode");
+    windows = List.copyOf(windows);
+  }
+}
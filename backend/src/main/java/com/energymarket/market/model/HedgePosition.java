@@ -0,0 +1,20 @@
+package com.energymarket.market.model;
+
+import java.time.Instant;
+
+/**
+ * Block hedge of a flat volume over a delivery window. The volume is spread evenly over the
+ * 15-minute intervals of the window.
+ *
+ * @param volumeMwh total volume of the block; positive when bought, negative when sold
+ * @param strikePriceMwh contracted price per MWh
+ * @param deliveryStart first delivered instant, aligned to 15 minutes
+ * @param deliveryEnd end of delivery (exclusive), aligned to 15 minutes
+ */
+public record HedgePosition(
+    String id,
+    String market,
+    double volumeMwh,
+    double strikePriceMwh,
+    Instant deliveryStart,
+    Instant deliveryEnd) {}
@@ -0,0 +1,19 @@
+package com.energymarket.market.model;
+
+/**
+ * Forecast accuracy at one horizon step across all backtest origins.
+ *
+ * @param step horizon step, starting at 1
+ * @param leadMinutes time between the forecast origin and the projected point
+ * @param mae mean absolute error in price units
+ * @param rmse root mean squared error in price units
+ * @param mapePercent mean absolute percentage error
+ * @param bandCoveragePercent share of actual prices that fell inside the forecast band
+ */
+public record HorizonAccuracy(
+    int step,
+    long leadMinutes,
+    double mae,
+    double rmse,
+    double mapePercent,
+    double bandCoveragePercent) {}
@@ -0,0 +1,7 @@
+package com.energymarket.market.model;
+
+/**
+ * Point on a load-duration curve: demand was at or above {@code demandMw} for {@code
+ * exceedancePercent} of the window.
+ */
+public record LoadDurationPoint(double exceedancePercent, double demandMw) {}
@@ -0,0 +1,23 @@
+package com.energymarket.market.model;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/** Alert raised by the streaming rule engine when a market tick breaches a rule. */
+public record MarketAlert(
+    long sequence,
+    String marketCode,
+    String ruleId,
+    MarketMetric metric,
+    Instant timestamp,
+    double value,
+    String message) {
+
+  public MarketAlert {
+    Objects.requireNonNull(marketCode, "marketCode");
+    Objects.requireNonNull(ruleId, "ruleId");
+    Objects.requireNonNull(metric, "metric");
+    Objects.requireNonNull(timestamp, "timestamp");
+    Objects.requireNonNull(message, "message");
+  }
+}
@@ -0,0 +1,23 @@
+package com.energymarket.market.model;
+
+import java.time.Instant;
+
+/**
+ * Aggregated valuation and open volume of the positions held in one market.
+ *
+ * @param grossOpenMwh sum of the absolute open volumes of the positions
+ * @param lastRevaluedPositions positions revalued by the most recent tick of the market
+ * @param lastRevaluationMillis time spent revaluing them
+ */
+public record MarketExposure(
+    String marketCode,
+    Instant valuedAt,
+    int positions,
+    double markToMarket,
+    double lowMarkToMarket,
+    double highMarkToMarket,
+    double deliveredMwh,
+    double netOpenMwh,
+    double grossOpenMwh,
+    int lastRevaluedPositions,
+    double lastRevaluationMillis) {}
@@ -1,12 +1,17 @@
 package com.energymarket.market.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * Statistical insights summarising market behaviour over a time window.
+ *
+ * <p>Price percentiles and the demand load-duration curve are estimated from quantile sketches with
+ * a relative error of at most 1%.
  */
+@JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UnsetValueFilter.class)
 public record MarketInsights(
     Instant windowStart,
     Instant windowEnd,
@@ -14,15 +19,42 @@ public record MarketInsights(
     double priceStandardDeviation,
     double minPrice,
     double maxPrice,
+    double priceP5,
+    double priceP50,
+    double priceP95,
+    double priceP99,
     double averageDemand,
     double peakDemand,
     double averageRenewablesShare,
     double carbonIntensityTrendPerHour,
+    List<LoadDurationPoint> loadDurationCurve,
     List<String> alerts) {
 
   public MarketInsights {
     Objects.requireNonNull(windowStart, "windowStart");
     Objects.requireNonNull(windowEnd, "windowEnd");
+    loadDurationCurve = loadDurationCurve == null ? null : List.copyOf(loadDurationCurve);
     alerts = List.copyOf(alerts);
   }
+
+  /** Returns a copy of these insights carrying the given alert messages. */
+  public MarketInsights withAlerts(List<String> newAlerts) {
+    return new MarketInsights(
+        windowStart,
+        windowEnd,
+        averagePrice,
+        priceStandardDeviation,
+        minPrice,
+        maxPrice,
+        priceP5,
+        priceP50,
+        priceP95,
+        priceP99,
+        averageDemand,
+        peakDemand,
+        averageRenewablesShare,
+        carbonIntensityTrendPerHour,
+        loadDurationCurve,
+        newAlerts);
+  }
 }
@@ -0,0 +1,57 @@
+package com.energymarket.market.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/** Enumeration of the numeric columns carried by every {@link PricePoint}. */
+public enum MarketMetric {
+  PRICE("price"),
+  DEMAND("demand"),
+  CARBON("carbon"),
+  RENEWABLES("renewables");
+
+  private final String key;
+
+  MarketMetric(String key) {
+    this.key = key;
+  }
+
+  public String key() {
+    return key;
+  }
+
+  /**
+   * Reads the value of this metric from a historical point.
+   *
+   * @param point the point to read
+   * @return the metric value
+   */
+  public double extract(PricePoint point) {
+    return switch (this) {
+      case PRICE -> point.priceMwh();
+      case DEMAND -> point.demandMw();
+      case CARBON -> point.carbonIntensity();
+      case RENEWABLES -> point.renewablesShare();
+    };
+  }
+
+  /**
+   * Converts a textual metric key to the enum instance in a case-insensitive manner.
+   *
+   * @param value the value to parse
+   * @return the matching metric, or empty if the value is unknown
+   */
+  public static Optional<MarketMetric> fromKey(String value) {
+    if (value == null) {
+      return Optional.empty();
+    }
+    final String normalized = value.trim().toLowerCase(Locale.US);
+    return Arrays.stream(values()).filter(metric -> metric.key.equals(normalized)).findFirst();
+  }
+
+  @Override
+  public String toString() {
+    return key;
+  }
+}
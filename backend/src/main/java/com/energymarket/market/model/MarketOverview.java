@@ -1,11 +1,11 @@
 package com.energymarket.market.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.Instant;
 import java.util.Objects;
 
-/**
- * High-level snapshot of market health used by dashboards and list views.
- */
+/** High-level snapshot of market health used by dashboards and list views. */
+@JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UnsetValueFilter.class)
 public record MarketOverview(
     String code,
     String name,
@@ -1,21 +1,39 @@
 package com.energymarket.market.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * Composite response bundling the key datasets required by the dashboard.
+ *
+ * <p>The series, forecast and insights are {@code null} when the client projected them away. When
+ * {@link SnapshotSync#delta()} is set the series only contains points the client does not have.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record MarketSnapshot(
     MarketOverview overview,
     List<PricePoint> priceSeries,
     List<ForecastPoint> forecast,
-    MarketInsights insights) {
+    MarketInsights insights,
+    SnapshotSync sync) {
 
   public MarketSnapshot {
     Objects.requireNonNull(overview, "overview");
-    Objects.requireNonNull(insights, "insights");
-    priceSeries = List.copyOf(priceSeries);
-    forecast = List.copyOf(forecast);
+    priceSeries = priceSeries == null ? null : List.copyOf(priceSeries);
+    forecast = forecast == null ? null : List.copyOf(forecast);
+  }
+
+  public MarketSnapshot(
+      MarketOverview overview,
+      List<PricePoint> priceSeries,
+      List<ForecastPoint> forecast,
+      MarketInsights insights) {
+    this(overview, priceSeries, forecast, insights, null);
+  }
+
+  /** Returns a copy of this snapshot with different insights. */
+  public MarketSnapshot withInsights(MarketInsights newInsights) {
+    return new MarketSnapshot(overview, priceSeries, forecast, newInsights, sync);
   }
 }
@@ -0,0 +1,18 @@
+package com.energymarket.market.model;
+
+import java.util.List;
+
+/**
+ * One dimension of a scenario grid: the values a market parameter takes across scenarios.
+ *
+ * @param parameter name of a {@code MarketParameters} component, e.g. {@code renewableBase}
+ * @param operation how each value applies to the market's own parameter: {@code set} (default)
+ *     replaces it, {@code add} offsets it and {@code scale} multiplies it
+ */
+public record ParameterAxis(String parameter, String operation, List<Double> values) {
+
+  public ParameterAxis {
+    operation = operation == null ? "set" : operation;
+    values = values == null ? List.of() : List.copyOf(values);
+  }
+}
@@ -0,0 +1,18 @@
+package com.energymarket.market.model;
+
+import java.util.List;
+
+/** Book-wide profit and loss and open volume, with the breakdown per market. */
+public record PortfolioSummary(
+    int positions,
+    double markToMarket,
+    double lowMarkToMarket,
+    double highMarkToMarket,
+    double netOpenMwh,
+    double grossOpenMwh,
+    List<MarketExposure> markets) {
+
+  public PortfolioSummary {
+    markets = List.copyOf(markets);
+  }
+}
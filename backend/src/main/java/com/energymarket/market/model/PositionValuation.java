@@ -0,0 +1,30 @@
+package com.energymarket.market.model;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Mark-to-market of one hedge position. Delivered intervals are valued at realised prices, the
+ * intervals within the forecast horizon at the projected price and beyond it at the market's
+ * reference price; the low and high values replace the projection with the adverse and favourable
+ * forecast envelope.
+ *
+ * @param valuedAt latest realised interval of the market at the time of valuation
+ * @param deliveredMwh signed volume of the intervals up to and including {@code valuedAt}
+ * @param openMwh signed volume still to be delivered
+ */
+public record PositionValuation(
+    String positionId,
+    String marketCode,
+    Instant valuedAt,
+    double markToMarket,
+    double lowMarkToMarket,
+    double highMarkToMarket,
+    double deliveredMwh,
+    double openMwh) {
+
+  public PositionValuation {
+    Objects.requireNonNull(positionId, "positionId");
+    Objects.requireNonNull(marketCode, "marketCode");
+  }
+}
@@ -0,0 +1,28 @@
+package com.energymarket.market.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Price percentiles over a window for one or more markets, merged from per-market quantile sketches
+ * with a relative error of at most 1%.
+ */
+public record PriceDistribution(
+    List<String> markets,
+    Instant windowStart,
+    Instant windowEnd,
+    long samples,
+    double minPrice,
+    double p5,
+    double p50,
+    double p95,
+    double p99,
+    double maxPrice) {
+
+  public PriceDistribution {
+    markets = List.copyOf(markets);
+    Objects.requireNonNull(windowStart, "windowStart");
+    Objects.requireNonNull(windowEnd, "windowEnd");
+  }
+}
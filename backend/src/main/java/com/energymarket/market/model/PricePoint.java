@@ -1,11 +1,11 @@
 package com.energymarket.market.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.Instant;
 import java.util.Objects;
 
-/**
- * Represents a single historical measurement of the market.
- */
+/** Represents a single historical measurement of the market. */
+@JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UnsetValueFilter.class)
 public record PricePoint(
     Instant timestamp,
     double priceMwh,
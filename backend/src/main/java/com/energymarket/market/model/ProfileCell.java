@@ -0,0 +1,16 @@
+package com.energymarket.market.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Statistics of one metric over the points falling into one local hour of one weekday.
+ *
+ * @param count number of points in the cell; hours skipped or repeated by daylight saving
+ *     transitions have fewer or more points than the others
+ * @param mean mean value, omitted for an empty cell like the percentiles
+ * @param p10 10th percentile, within the 1% relative error of the quantile sketch
+ * @param p50 median
+ * @param p90 90th percentile
+ */
+@JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UnsetValueFilter.class)
+public record ProfileCell(long count, double mean, double p10, double p50, double p90) {}
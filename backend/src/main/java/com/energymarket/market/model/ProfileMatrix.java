@@ -0,0 +1,16 @@
+package com.energymarket.market.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Typical-week profile of one metric: one row per weekday, Monday first, and one cell per local
+ * hour of that day.
+ */
+public record ProfileMatrix(String metric, List<List<ProfileCell>> days) {
+
+  public ProfileMatrix {
+    Objects.requireNonNull(metric, "metric");
+    days = days.stream().map(List::copyOf).toList();
+  }
+}
@@ -0,0 +1,25 @@
+package com.energymarket.market.model;
+
+import java.util.List;
+
+/**
+ * Grid of market parameter overrides to evaluate. Every combination of axis values is one scenario;
+ * without axes the single scenario is the market as configured. The window defaults to 24 hours at
+ * 15-minute resolution and series are omitted unless requested.
+ */
+public record ScenarioRequest(
+    List<ParameterAxis> axes,
+    Integer historyHours,
+    Integer resolutionMinutes,
+    Boolean includeSeries) {
+
+  public static final int DEFAULT_HISTORY_HOURS = 24;
+  public static final int DEFAULT_RESOLUTION_MINUTES = 15;
+
+  public ScenarioRequest {
+    axes = axes == null ? List.of() : List.copyOf(axes);
+    historyHours = historyHours == null ? DEFAULT_HISTORY_HOURS : historyHours;
+    resolutionMinutes = resolutionMinutes == null ? DEFAULT_RESOLUTION_MINUTES : resolutionMinutes;
+    includeSeries = includeSeries != null && includeSeries;
+  }
+}
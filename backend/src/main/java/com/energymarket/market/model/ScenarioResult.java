@@ -0,0 +1,27 @@
+package com.energymarket.market.model;
+
+import com.energymarket.market.MarketCode.MarketParameters;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Outcome of one what-if scenario.
+ *
+ * @param scenario position of the scenario in the grid, with the last axis varying fastest
+ * @param parameters effective market parameters of the scenario
+ * @param priceSeries generated window, or {@code null} unless requested
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ScenarioResult(
+    int scenario,
+    MarketParameters parameters,
+    MarketInsights insights,
+    List<PricePoint> priceSeries) {
+
+  public ScenarioResult {
+    Objects.requireNonNull(parameters, "parameters");
+    Objects.requireNonNull(insights, "insights");
+    priceSeries = priceSeries == null ? null : List.copyOf(priceSeries);
+  }
+}
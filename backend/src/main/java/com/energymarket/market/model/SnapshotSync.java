@@ -0,0 +1,21 @@
+package com.energymarket.market.model;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Delta-sync metadata attached to snapshot responses.
+ *
+ * @param cursor opaque cursor to send on the next poll
+ * @param delta {@code true} when the series only holds points newer than the client's cursor
+ * @param windowStart oldest timestamp of the current window; clients drop older points
+ * @param resolutionMinutes spacing of the series points, coarser than requested while the server is
+ *     overloaded
+ */
+public record SnapshotSync(
+    String cursor, boolean delta, Instant windowStart, int resolutionMinutes) {
+
+  public SnapshotSync {
+    Objects.requireNonNull(windowStart, "windowStart");
+  }
+}
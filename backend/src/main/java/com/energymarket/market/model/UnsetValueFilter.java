@@ -0,0 +1,21 @@
+package com.energymarket.market.model;
+
+/**
+ * Jackson value filter that omits numeric columns left as {@link Double#NaN}, and optional sections
+ * left {@code null}, because the client did not request them.
+ *
+ * <p>Used via {@code @JsonInclude(value = CUSTOM, valueFilter = UnsetValueFilter.class)}: Jackson
+ * excludes a property whenever {@link #equals(Object)} returns {@code true} for its value.
+ */
+public final class UnsetValueFilter {
+
+  @Override
+  public boolean equals(Object value) {
+    return value == null || value instanceof Double number && number.isNaN();
+  }
+
+  @Override
+  public int hashCode() {
+    return 0;
+  }
+}
@@ -0,0 +1,31 @@
+package com.energymarket.market.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hour-of-day by day-of-week profiles of a market over a long window, bucketed in the market's
+ * local time.
+ *
+ * @param windowStart first point of the window, inclusive
+ * @param windowEnd end of the window, exclusive
+ * @param samples number of points aggregated into every metric
+ */
+public record WeeklyProfile(
+    String marketCode,
+    String timezone,
+    Instant windowStart,
+    Instant windowEnd,
+    int resolutionMinutes,
+    long samples,
+    List<ProfileMatrix> metrics) {
+
+  public WeeklyProfile {
+    Objects.requireNonNull(marketCode, "marketCode");
+    Objects.requireNonNull(timezone, "timezone");
+    Objects.requireNonNull(windowStart, "windowStart");
+    Objects.requireNonNull(windowEnd, "windowEnd");
+    metrics = List.copyOf(metrics);
+  }
+}
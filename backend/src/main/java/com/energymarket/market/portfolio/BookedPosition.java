@@ -0,0 +1,99 @@
+package com.energymarket.market.portfolio;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.HedgePosition;
+import com.energymarket.market.model.PositionValuation;
+import java.time.Instant;
+
+/** A validated position with its latest valuation; guarded by the owning book. */
+final class BookedPosition {
+
+  private final HedgePosition position;
+  private final MarketCode market;
+  private final long start;
+  private final long end;
+  private final int intervals;
+  private final double mwhPerInterval;
+  private double markToMarket;
+  private double lowMarkToMarket;
+  private double highMarkToMarket;
+  private double deliveredMwh;
+  private double openMwh;
+
+  BookedPosition(HedgePosition position, MarketCode market) {
+    this.position = position;
+    this.market = market;
+    this.start = position.deliveryStart().getEpochSecond();
+    this.end = position.deliveryEnd().getEpochSecond();
+    this.intervals = Math.toIntExact((end - start) / PriceCurve.STEP_SECONDS);
+    this.mwhPerInterval = position.volumeMwh() / intervals;
+  }
+
+  String id() {
+    return position.id();
+  }
+
+  MarketCode market() {
+    return market;
+  }
+
+  long start() {
+    return start;
+  }
+
+  long end() {
+    return end;
+  }
+
+  double markToMarket() {
+    return markToMarket;
+  }
+
+  double lowMarkToMarket() {
+    return lowMarkToMarket;
+  }
+
+  double highMarkToMarket() {
+    return highMarkToMarket;
+  }
+
+  double deliveredMwh() {
+    return deliveredMwh;
+  }
+
+  double openMwh() {
+    return openMwh;
+  }
+
+  /** Revalues the position against the curve in O(1). */
+  void revalue(PriceCurve curve) {
+    int delivered = curve.realisedIntervals(start, end);
+    double fixed = curve.realisedSum(start, end) + curve.referenceSum(start, end);
+    double cost = intervals * position.strikePriceMwh();
+    double lower = mwhPerInterval * (fixed + curve.lowerSum(start, end) - cost);
+    double upper = mwhPerInterval * (fixed + curve.upperSum(start, end) - cost);
+    markToMarket = mwhPerInterval * (fixed + curve.projectedSum(start, end) - cost);
+    lowMarkToMarket = Math.min(lower, upper);
+    highMarkToMarket = Math.max(lower, upper);
+    deliveredMwh = mwhPerInterval * delivered;
+    openMwh = mwhPerInterval * (intervals - delivered);
+  }
+
+  /** Returns the cached valuation, which holds as of any later tick that did not revalue it. */
+  PositionValuation valuation(Instant valuedAt) {
+    return new PositionValuation(
+        position.id(),
+        market.code(),
+        valuedAt,
+        round(markToMarket, 2),
+        round(lowMarkToMarket, 2),
+        round(highMarkToMarket, 2),
+        round(deliveredMwh, 3),
+        round(openMwh, 3));
+  }
+
+  static double round(double value, int digits) {
+    double factor = Math.pow(10, digits);
+    return Math.round(value * factor) / factor;
+  }
+}
@@ -0,0 +1,102 @@
+package com.energymarket.market.portfolio;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Static index of half-open intervals answering overlap queries in O(log n + k).
+ *
+ * <p>Items are sorted by start and covered by an implicit segment tree holding the maximum end of
+ * each node's range. A query binary-searches the last item starting before the query end, then
+ * descends only into nodes whose maximum end lies after the query start, so subtrees that ended
+ * before the query are skipped whole. The index is immutable; owners rebuild it after a batch of
+ * changes.
+ */
+final class IntervalIndex<T> {
+
+  private final List<T> items;
+  private final long[] starts;
+  private final long[] maxEnds;
+
+  private IntervalIndex(List<T> items, long[] starts, long[] maxEnds) {
+    this.items = items;
+    this.starts = starts;
+    this.maxEnds = maxEnds;
+  }
+
+  static <T> IntervalIndex<T> build(
+      Collection<T> values, ToLongFunction<T> start, ToLongFunction<T> end) {
+    List<T> items = new ArrayList<>(values);
+    items.sort(Comparator.comparingLong(start));
+    int size = items.size();
+    long[] starts = new long[size];
+    long[] ends = new long[size];
+    for (int i = 0; i < size; i++) {
+      starts[i] = start.applyAsLong(items.get(i));
+      ends[i] = end.applyAsLong(items.get(i));
+    }
+    long[] maxEnds = new long[Math.max(1, 4 * size)];
+    if (size > 0) {
+      fill(maxEnds, ends, 1, 0, size);
+    }
+    return new IntervalIndex<>(items, starts, maxEnds);
+  }
+
+  int size() {
+    return items.size();
+  }
+
+  /**
+   * Passes every item whose interval overlaps {@code [from, to)} to {@code action}.
+   *
+   * @return the number of items passed
+   */
+  int forEachOverlapping(long from, long to, Consumer<? super T> action) {
+    int limit = firstStartingAtOrAfter(to);
+    return limit == 0 ? 0 : visit(1, 0, items.size(), limit, from, action);
+  }
+
+  private int visit(int node, int low, int high, int limit, long from, Consumer<? super T> action) {
+    if (low >= limit || maxEnds[node] <= from) {
+      return 0;
+    }
+    if (high - low == 1) {
+      action.accept(items.get(low));
+      return 1;
+    }
+    int middle = (low + high) >>> 1;
+    return visit(2 * node, low, middle, limit, from, action)
+        + visit(2 * node + 1, middle, high, limit, from, action);
+  }
+
+  private int firstStartingAtOrAfter(long value) {
+    int low = 0;
+    int high = starts.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (starts[middle] < value) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static long fill(long[] maxEnds, long[] ends, int node, int low, int high) {
+    if (high - low == 1) {
+      maxEnds[node] = ends[low];
+    } else {
+      int middle = (low + high) >>> 1;
+      maxEnds[node] =
+          Math.max(
+              fill(maxEnds, ends, 2 * node, low, middle),
+              fill(maxEnds, ends, 2 * node + 1, middle, high));
+    }
+    return maxEnds[node];
+  }
+}
@@ -0,0 +1,311 @@
+package com.energymarket.market.portfolio;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.HedgePosition;
+import com.energymarket.market.model.MarketExposure;
+import com.energymarket.market.model.PortfolioSummary;
+import com.energymarket.market.model.PositionValuation;
+import com.energymarket.market.tick.MarketTick;
+import com.energymarket.market.tick.MarketTickListener;
+import com.energymarket.market.tick.MarketTickPublisher;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Book of block hedges, marked to market on every tick.
+ *
+ * <p>Each market keeps a {@link PriceCurve} of realised, forecast and reference prices with prefix
+ * sums, so one position is revalued in O(1) whatever its delivery length. A tick only changes the
+ * prices from the interval after the previous tick to the end of the refreshed forecast horizon,
+ * and an {@link IntervalIndex} over delivery windows yields just the positions overlapping that
+ * range; positions fully delivered or beyond the horizon keep their valuation. The index is rebuilt
+ * lazily on the first tick after positions change. A tick that is not newer than the previous one,
+ * as after a rewound simulation clock, revalues every position of its market. Aggregates are summed
+ * from the cached valuations on request.
+ */
+@Component
+public class PortfolioBook implements MarketTickListener {
+
+  static final int MAX_POSITIONS = 200_000;
+  static final Duration MAX_DELIVERY = Duration.ofDays(366);
+  static final Duration MAX_HISTORY = Duration.ofDays(366);
+
+  private final Clock clock;
+  private final MarketDataGenerator generator;
+  private final Map<String, BookedPosition> positions = new HashMap<>();
+  private final Map<MarketCode, MarketBook> books = new EnumMap<>(MarketCode.class);
+
+  public PortfolioBook(Clock clock, MarketDataGenerator generator) {
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.generator = Objects.requireNonNull(generator, "generator");
+    for (MarketCode market : MarketCode.values()) {
+      books.put(market, new MarketBook(market, generator));
+    }
+  }
+
+  /**
+   * Adds a position, replacing any existing position with the same identifier, and values it.
+   *
+   * @throws IllegalArgumentException if the position is invalid or the book is full
+   * @throws MarketNotFoundException if the position references an unknown market
+   */
+  public synchronized PositionValuation put(HedgePosition position) {
+    return putAll(List.of(position)).getFirst();
+  }
+
+  /**
+   * Adds or replaces a batch of positions. The batch is validated as a whole before any position is
+   * booked.
+   *
+   * @return the valuation of every position, in request order
+   */
+  public synchronized List<PositionValuation> putAll(List<HedgePosition> batch) {
+    Map<String, BookedPosition> validated = new LinkedHashMap<>();
+    for (HedgePosition position : batch) {
+      BookedPosition booked = validate(position);
+      validated.put(booked.id(), booked);
+    }
+    long added = validated.keySet().stream().filter(id -> !positions.containsKey(id)).count();
+    if (positions.size() + added > MAX_POSITIONS) {
+      throw new IllegalArgumentException(
+          "the portfolio is limited to " + MAX_POSITIONS + " positions");
+    }
+    Instant now = MarketTickPublisher.align(clock.instant());
+    Map<MarketCode, Long> earliestStarts = new EnumMap<>(MarketCode.class);
+    for (BookedPosition booked : validated.values()) {
+      earliestStarts.merge(booked.market(), booked.start(), Math::min);
+    }
+    earliestStarts.forEach((market, start) -> books.get(market).curve(now).extendBack(start));
+    for (BookedPosition booked : validated.values()) {
+      BookedPosition replaced = positions.put(booked.id(), booked);
+      if (replaced != null) {
+        books.get(replaced.market()).remove(replaced);
+      }
+      MarketBook book = books.get(booked.market());
+      book.add(booked);
+      booked.revalue(book.curve(now));
+    }
+    List<PositionValuation> valuations = new ArrayList<>(batch.size());
+    for (HedgePosition position : batch) {
+      valuations.add(valuation(positions.get(position.id())));
+    }
+    return valuations;
+  }
+
+  /**
+   * Removes a position.
+   *
+   * @return {@code true} if the position existed
+   */
+  public synchronized boolean remove(String positionId) {
+    BookedPosition removed = positions.remove(positionId);
+    if (removed == null) {
+      return false;
+    }
+    books.get(removed.market()).remove(removed);
+    return true;
+  }
+
+  /** Returns the latest valuation of a position. */
+  public synchronized Optional<PositionValuation> valuation(String positionId) {
+    return Optional.ofNullable(positions.get(positionId)).map(this::valuation);
+  }
+
+  /**
+   * Returns position valuations ordered by identifier.
+   *
+   * @param market market to filter on, or {@code null} for every market
+   * @param limit maximum number of valuations
+   */
+  public synchronized List<PositionValuation> valuations(MarketCode market, int limit) {
+    return positions.values().stream()
+        .filter(position -> market == null || position.market() == market)
+        .sorted(Comparator.comparing(BookedPosition::id))
+        .limit(limit)
+        .map(this::valuation)
+        .toList();
+  }
+
+  /** Sums the cached valuations per market and over the whole book. */
+  public synchronized PortfolioSummary summary() {
+    List<MarketExposure> exposures = new ArrayList<>();
+    double markToMarket = 0.0;
+    double low = 0.0;
+    double high = 0.0;
+    double netOpen = 0.0;
+    double grossOpen = 0.0;
+    for (MarketBook book : books.values()) {
+      MarketExposure exposure = book.exposure();
+      if (exposure.positions() == 0) {
+        continue;
+      }
+      exposures.add(exposure);
+      markToMarket += exposure.markToMarket();
+      low += exposure.lowMarkToMarket();
+      high += exposure.highMarkToMarket();
+      netOpen += exposure.netOpenMwh();
+      grossOpen += exposure.grossOpenMwh();
+    }
+    return new PortfolioSummary(
+        positions.size(),
+        BookedPosition.round(markToMarket, 2),
+        BookedPosition.round(low, 2),
+        BookedPosition.round(high, 2),
+        BookedPosition.round(netOpen, 3),
+        BookedPosition.round(grossOpen, 3),
+        exposures);
+  }
+
+  @Override
+  public synchronized void onTick(MarketTick tick) {
+    books.get(tick.market()).onTick(tick);
+  }
+
+  private PositionValuation valuation(BookedPosition position) {
+    return position.valuation(books.get(position.market()).valuedAt());
+  }
+
+  private BookedPosition validate(HedgePosition position) {
+    Objects.requireNonNull(position, "position");
+    if (position.id() == null || position.id().isBlank()) {
+      throw new IllegalArgumentException("position id is required");
+    }
+    if (position.market() == null || position.market().isBlank()) {
+      throw new IllegalArgumentException("position market is required");
+    }
+    MarketCode market =
+        MarketCode.fromCode(position.market())
+            .orElseThrow(() -> new MarketNotFoundException(position.market()));
+    if (!Double.isFinite(position.volumeMwh()) || position.volumeMwh() == 0.0) {
+      throw new IllegalArgumentException("volumeMwh must be finite and non-zero");
+    }
+    if (!Double.isFinite(position.strikePriceMwh())) {
+      throw new IllegalArgumentException("strikePriceMwh must be finite");
+    }
+    Instant start = position.deliveryStart();
+    Instant end = position.deliveryEnd();
+    if (start == null || end == null || !end.isAfter(start)) {
+      throw new IllegalArgumentException("deliveryEnd must be after deliveryStart");
+    }
+    if (start.getNano() != 0
+        || end.getNano() != 0
+        || start.getEpochSecond() % PriceCurve.STEP_SECONDS != 0
+        || end.getEpochSecond() % PriceCurve.STEP_SECONDS != 0) {
+      throw new IllegalArgumentException("delivery window must align to 15 minutes");
+    }
+    if (Duration.between(start, end).compareTo(MAX_DELIVERY) > 0) {
+      throw new IllegalArgumentException(
+          "delivery window must not exceed " + MAX_DELIVERY.toDays() + " days");
+    }
+    if (start.isBefore(MarketTickPublisher.align(clock.instant()).minus(MAX_HISTORY))) {
+      throw new IllegalArgumentException(
+          "deliveryStart must be within " + MAX_HISTORY.toDays() + " days of the current time");
+    }
+    return new BookedPosition(position, market);
+  }
+
+  /** Positions, price curve and delivery index of one market. */
+  private static final class MarketBook {
+    private final MarketCode market;
+    private final MarketDataGenerator generator;
+    private final Map<String, BookedPosition> positions = new HashMap<>();
+    private PriceCurve curve;
+    private IntervalIndex<BookedPosition> index;
+    private int lastRevalued;
+    private long lastRevaluationNanos;
+
+    MarketBook(MarketCode market, MarketDataGenerator generator) {
+      this.market = market;
+      this.generator = generator;
+    }
+
+    void add(BookedPosition position) {
+      positions.put(position.id(), position);
+      index = null;
+    }
+
+    void remove(BookedPosition position) {
+      positions.remove(position.id());
+      index = null;
+    }
+
+    /** Returns the curve, building it at {@code now} while no tick has been seen. */
+    PriceCurve curve(Instant now) {
+      if (curve == null) {
+        double price = generator.generatePoint(market, now).priceMwh();
+        curve = new PriceCurve(market, generator, now.getEpochSecond(), price);
+      }
+      return curve;
+    }
+
+    void onTick(MarketTick tick) {
+      if (positions.isEmpty()) {
+        curve = null;
+        return;
+      }
+      long started = System.nanoTime();
+      long timestamp = tick.point().timestamp().getEpochSecond();
+      long changedFrom = curve.latest() + PriceCurve.STEP_SECONDS;
+      curve.moveTo(timestamp, tick.point().priceMwh());
+      if (timestamp < changedFrom) {
+        positions.values().forEach(position -> position.revalue(curve));
+        lastRevalued = positions.size();
+      } else {
+        if (index == null) {
+          index =
+              IntervalIndex.build(positions.values(), BookedPosition::start, BookedPosition::end);
+        }
+        lastRevalued =
+            index.forEachOverlapping(
+                changedFrom, curve.forecastEnd(), position -> position.revalue(curve));
+      }
+      lastRevaluationNanos = System.nanoTime() - started;
+    }
+
+    Instant valuedAt() {
+      return curve == null ? null : Instant.ofEpochSecond(curve.latest());
+    }
+
+    MarketExposure exposure() {
+      double markToMarket = 0.0;
+      double low = 0.0;
+      double high = 0.0;
+      double delivered = 0.0;
+      double netOpen = 0.0;
+      double grossOpen = 0.0;
+      for (BookedPosition position : positions.values()) {
+        markToMarket += position.markToMarket();
+        low += position.lowMarkToMarket();
+        high += position.highMarkToMarket();
+        delivered += position.deliveredMwh();
+        netOpen += position.openMwh();
+        grossOpen += Math.abs(position.openMwh());
+      }
+      return new MarketExposure(
+          market.code(),
+          valuedAt(),
+          positions.size(),
+          BookedPosition.round(markToMarket, 2),
+          BookedPosition.round(low, 2),
+          BookedPosition.round(high, 2),
+          BookedPosition.round(delivered, 3),
+          BookedPosition.round(netOpen, 3),
+          BookedPosition.round(grossOpen, 3),
+          lastRevalued,
+          BookedPosition.round(lastRevaluationNanos / 1e6, 3));
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package com.energymarket.market.portfolio;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.generator.FieldSelection;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.ForecastPoint;
+import com.energymarket.market.tick.MarketTickPublisher;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Price path of one market as seen from its latest tick: realised prices up to and including the
+ * tick, the forecast envelope over the horizon after it and the market's reference price beyond.
+ *
+ * <p>Every segment is kept as prefix sums over the 15-minute grid, so the price sum of any delivery
+ * window costs O(1). Realised sums start at an anchor no later than the earliest delivery start
+ * that reads them and grow by one interval per tick. Generated prices depend only on time, so a
+ * rewound clock merely truncates them. Not thread-safe; guarded by the owning book.
+ */
+final class PriceCurve {
+
+  static final long STEP_SECONDS = MarketTickPublisher.TICK_INTERVAL.toSeconds();
+  static final Duration FORECAST_HORIZON = Duration.ofHours(72);
+  private static final Duration HISTORY_RANGE = Duration.ofHours(24);
+  private static final Duration INTERVAL = MarketTickPublisher.TICK_INTERVAL;
+  private static final FieldSelection FORECAST_ONLY = FieldSelection.parse("forecast");
+
+  private final MarketCode market;
+  private final MarketDataGenerator generator;
+  private final double referencePrice;
+  private long anchor;
+  private long latest;
+  private double[] realisedSums = new double[1024];
+  private int realisedCount;
+  private double[] projectedSums;
+  private double[] lowerSums;
+  private double[] upperSums;
+
+  PriceCurve(MarketCode market, MarketDataGenerator generator, long timestamp, double price) {
+    this.market = market;
+    this.generator = generator;
+    this.referencePrice = market.parameters().basePrice();
+    anchor = timestamp;
+    latest = timestamp;
+    appendRealised(price);
+    reforecast();
+  }
+
+  /** Start of the latest realised interval, in epoch seconds. */
+  long latest() {
+    return latest;
+  }
+
+  /** End of the forecast horizon, in epoch seconds. */
+  long forecastEnd() {
+    return latest + STEP_SECONDS * projectedSums.length;
+  }
+
+  /**
+   * Moves the curve to a new tick and refreshes the forecast from it. Intervals skipped since the
+   * previous tick are generated; a tick that is not newer truncates the realised prices.
+   */
+  void moveTo(long timestamp, double price) {
+    if (timestamp > latest) {
+      for (long skipped = latest + STEP_SECONDS; skipped < timestamp; skipped += STEP_SECONDS) {
+        appendRealised(priceAt(skipped));
+      }
+      appendRealised(price);
+    } else {
+      extendBack(timestamp);
+      realisedCount = Math.toIntExact((timestamp - anchor) / STEP_SECONDS) + 1;
+    }
+    latest = timestamp;
+    reforecast();
+  }
+
+  /** Makes sure realised prices are available from {@code timestamp} on. */
+  void extendBack(long timestamp) {
+    if (timestamp >= anchor) {
+      return;
+    }
+    int added = Math.toIntExact((anchor - timestamp) / STEP_SECONDS);
+    double[] sums = new double[Math.max(realisedSums.length, added + realisedCount + 1)];
+    for (int i = 0; i < added; i++) {
+      sums[i + 1] = sums[i] + priceAt(timestamp + i * STEP_SECONDS);
+    }
+    for (int i = 1; i <= realisedCount; i++) {
+      sums[added + i] = sums[added] + realisedSums[i];
+    }
+    realisedSums = sums;
+    realisedCount += added;
+    anchor = timestamp;
+  }
+
+  /** Number of realised intervals starting in {@code [from, to)}. */
+  int realisedIntervals(long from, long to) {
+    return intervals(Math.max(from, anchor), Math.min(to, latest + STEP_SECONDS));
+  }
+
+  double realisedSum(long from, long to) {
+    return sum(realisedSums, anchor, from, Math.min(to, latest + STEP_SECONDS));
+  }
+
+  double projectedSum(long from, long to) {
+    return forecastSum(projectedSums, from, to);
+  }
+
+  double lowerSum(long from, long to) {
+    return forecastSum(lowerSums, from, to);
+  }
+
+  double upperSum(long from, long to) {
+    return forecastSum(upperSums, from, to);
+  }
+
+  /** Reference price sum over the intervals of {@code [from, to)} beyond the forecast horizon. */
+  double referenceSum(long from, long to) {
+    return referencePrice * intervals(Math.max(from, forecastEnd()), to);
+  }
+
+  private double forecastSum(double[] sums, long from, long to) {
+    long start = latest + STEP_SECONDS;
+    return sum(sums, start, Math.max(from, start), Math.min(to, forecastEnd()));
+  }
+
+  private static double sum(double[] sums, long origin, long from, long to) {
+    if (to <= from) {
+      return 0.0;
+    }
+    int first = Math.toIntExact((Math.max(from, origin) - origin) / STEP_SECONDS);
+    int last = Math.toIntExact((to - origin) / STEP_SECONDS);
+    return first >= last ? 0.0 : sums[last] - sums[first];
+  }
+
+  private static int intervals(long from, long to) {
+    return to <= from ? 0 : Math.toIntExact((to - from) / STEP_SECONDS);
+  }
+
+  private void appendRealised(double price) {
+    if (realisedCount + 1 >= realisedSums.length) {
+      realisedSums = Arrays.copyOf(realisedSums, realisedSums.length * 2);
+    }
+    realisedSums[realisedCount + 1] = realisedSums[realisedCount] + price;
+    realisedCount++;
+  }
+
+  private void reforecast() {
+    List<ForecastPoint> forecast =
+        generator
+            .generateSnapshot(
+                market,
+                Instant.ofEpochSecond(latest),
+                HISTORY_RANGE,
+                INTERVAL,
+                FORECAST_HORIZON,
+                INTERVAL,
+                FORECAST_ONLY)
+            .forecast();
+    projectedSums = new double[forecast.size() + 1];
+    lowerSums = new double[forecast.size() + 1];
+    upperSums = new double[forecast.size() + 1];
+    for (int i = 0; i < forecast.size(); i++) {
+      ForecastPoint point = forecast.get(i);
+      projectedSums[i + 1] = projectedSums[i] + point.projectedPriceMwh();
+      lowerSums[i + 1] = lowerSums[i] + point.lowerBound();
+      upperSums[i + 1] = upperSums[i] + point.upperBound();
+    }
+  }
+
+  private double priceAt(long timestamp) {
+    return generator.generatePoint(market, Instant.ofEpochSecond(timestamp)).priceMwh();
+  }
+}
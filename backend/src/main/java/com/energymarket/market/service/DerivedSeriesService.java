@@ -0,0 +1,177 @@
+package com.energymarket.market.service;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.expression.ColumnRef;
+import com.energymarket.market.expression.DerivedExpression;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.DerivedSeries;
+import com.energymarket.market.model.DerivedSeriesRequest;
+import com.energymarket.market.model.DerivedSeriesResult;
+import com.energymarket.market.model.MarketMetric;
+import com.energymarket.market.model.PricePoint;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.springframework.stereotype.Service;
+
+/**
+ * Evaluates client-defined derived series such as {@code price * carbon}, {@code price -
+ * rolling_mean(price, 4h)} or {@code price - PJM.price} over a market's recent history.
+ *
+ * <p>Expressions are compiled once into column kernels and kept in a least-recently-used cache
+ * keyed by their text, so repeated requests skip parsing and compilation. A request generates the
+ * window of every referenced market once, extended backwards by the longest lookback of its
+ * expressions so that rolling windows are full from the first returned point, with only the
+ * referenced columns computed; each column is then extracted once into a primitive array shared by
+ * every expression that reads it.
+ */
+@Service
+public class DerivedSeriesService {
+
+  static final int MAX_EXPRESSIONS = 16;
+  static final int MAX_CACHED_EXPRESSIONS = 512;
+  static final Duration MAX_LOOKBACK = Duration.ofDays(7);
+
+  private final Clock clock;
+  private final MarketDataGenerator generator;
+  private final Map<String, DerivedExpression> compiled =
+      new LinkedHashMap<>(64, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DerivedExpression> eldest) {
+          return size() > MAX_CACHED_EXPRESSIONS;
+        }
+      };
+
+  public DerivedSeriesService(Clock clock, MarketDataGenerator generator) {
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.generator = Objects.requireNonNull(generator, "generator");
+  }
+
+  /**
+   * Evaluates every expression of the request over the market's window ending now.
+   *
+   * @throws IllegalArgumentException if the request or an expression is invalid
+   * @throws MarketNotFoundException if the market is unknown
+   */
+  public DerivedSeriesResult evaluate(String marketCode, DerivedSeriesRequest request) {
+    MarketCode market =
+        MarketCode.fromCode(marketCode).orElseThrow(() -> new MarketNotFoundException(marketCode));
+    Map<String, String> expressions = request.expressions();
+    if (expressions.isEmpty() || expressions.size() > MAX_EXPRESSIONS) {
+      throw new IllegalArgumentException(
+          "expressions must name between 1 and " + MAX_EXPRESSIONS + " expressions");
+    }
+    requireRange(request.historyHours(), 1, 168, "historyHours");
+    requireRange(request.resolutionMinutes(), 5, 180, "resolutionMinutes");
+    if (request.historyHours() * 60 % request.resolutionMinutes() != 0) {
+      throw new IllegalArgumentException("historyHours must be divisible by resolutionMinutes");
+    }
+    Duration interval = Duration.ofMinutes(request.resolutionMinutes());
+
+    Map<String, DerivedExpression> parsed = new LinkedHashMap<>();
+    Duration lookback = Duration.ZERO;
+    Map<MarketCode, Set<MarketMetric>> required = new EnumMap<>(MarketCode.class);
+    for (Map.Entry<String, String> entry : expressions.entrySet()) {
+      if (entry.getKey() == null || entry.getKey().isBlank()) {
+        throw new IllegalArgumentException("expression names must not be blank");
+      }
+      DerivedExpression expression = compile(entry.getValue());
+      expression.requireWindowsAlignedTo(interval);
+      parsed.put(entry.getKey(), expression);
+      if (expression.lookback().compareTo(lookback) > 0) {
+        lookback = expression.lookback();
+      }
+      for (ColumnRef column : expression.columns()) {
+        ColumnRef resolved = column.resolve(market);
+        required
+            .computeIfAbsent(resolved.market(), key -> EnumSet.noneOf(MarketMetric.class))
+            .add(resolved.metric());
+      }
+    }
+    if (lookback.compareTo(MAX_LOOKBACK) > 0) {
+      throw new IllegalArgumentException(
+          "expression windows must not look back more than " + MAX_LOOKBACK.toDays() + " days");
+    }
+
+    Instant now = MarketDataService.alignToInterval(clock.instant(), interval);
+    long intervalSeconds = interval.toSeconds();
+    int offset = Math.toIntExact((lookback.toSeconds() + intervalSeconds - 1) / intervalSeconds);
+    Duration range = Duration.ofHours(request.historyHours()).plus(interval.multipliedBy(offset));
+    Map<MarketCode, List<PricePoint>> windows = new EnumMap<>(MarketCode.class);
+    required.forEach(
+        (source, metrics) ->
+            windows.put(source, generator.generateSeries(source, now, range, interval, metrics)));
+
+    Map<ColumnRef, double[]> columns = new HashMap<>();
+    List<DerivedSeries> series = new ArrayList<>(parsed.size());
+    for (Map.Entry<String, DerivedExpression> entry : parsed.entrySet()) {
+      DerivedExpression expression = entry.getValue();
+      double[][] inputs = new double[expression.columns().size()][];
+      for (int i = 0; i < inputs.length; i++) {
+        ColumnRef column = expression.columns().get(i).resolve(market);
+        inputs[i] = columns.computeIfAbsent(column, key -> extract(windows.get(key.market()), key));
+      }
+      double[] values = expression.evaluate(inputs, interval);
+      List<Double> emitted = new ArrayList<>(values.length - offset);
+      for (int i = offset; i < values.length; i++) {
+        emitted.add(Double.isFinite(values[i]) ? round(values[i]) : null);
+      }
+      series.add(new DerivedSeries(entry.getKey(), expression.source(), emitted));
+    }
+
+    List<PricePoint> window = windows.values().iterator().next();
+    List<Instant> timestamps =
+        window.subList(offset, window.size()).stream().map(PricePoint::timestamp).toList();
+    return new DerivedSeriesResult(market.code(), timestamps, series);
+  }
+
+  private DerivedExpression compile(String source) {
+    if (source == null) {
+      throw new IllegalArgumentException("expression must not be blank");
+    }
+    String key = source.strip();
+    synchronized (compiled) {
+      DerivedExpression cached = compiled.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    DerivedExpression expression = DerivedExpression.compile(key);
+    synchronized (compiled) {
+      compiled.put(key, expression);
+    }
+    return expression;
+  }
+
+  private static double[] extract(List<PricePoint> window, ColumnRef column) {
+    double[] values = new double[window.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = column.metric().extract(window.get(i));
+    }
+    return values;
+  }
+
+  /** Rounds to four decimals; values too large to scale into a long are left as they are. */
+  private static double round(double value) {
+    return Math.abs(value) < 1e14 ? Math.round(value * 10_000.0) / 10_000.0 : value;
+  }
+
+  private static void requireRange(int value, int minInclusive, int maxInclusive, String field) {
+    if (value < minInclusive || value > maxInclusive) {
+      throw new IllegalArgumentException(
+          field + " must be between " + minInclusive + " and " + maxInclusive);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.energymarket.market.service;
+
+import com.energymarket.market.model.FlexWindow;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ranks contiguous blocks of an evenly spaced price and carbon series for scheduling flexible load.
+ *
+ * <p>Prefix sums are built once per series and shared by every block length queried against it.
+ * Each length is then a single O(n) sweep: block averages are prefix differences and the peak price
+ * of every block comes from a monotonic deque. Picking the top blocks sorts the n candidates once.
+ */
+final class FlexWindowFinder {
+
+  private final Instant start;
+  private final Duration interval;
+  private final int firstForecastIndex;
+  private final double[] prices;
+  private final double[] priceSums;
+  private final double[] carbonSums;
+  private final double meanPrice;
+  private final double meanCarbon;
+
+  /**
+   * @param start timestamp of the first sample
+   * @param interval spacing between samples; each sample stands for the interval it starts
+   * @param prices price per sample
+   * @param carbon carbon intensity per sample
+   * @param firstForecastIndex index of the first projected sample
+   */
+  FlexWindowFinder(
+      Instant start, Duration interval, double[] prices, double[] carbon, int firstForecastIndex) {
+    if (prices.length != carbon.length || prices.length == 0) {
+      throw new IllegalArgumentException("series must be non-empty and of equal length");
+    }
+    this.start = start;
+    this.interval = interval;
+    this.firstForecastIndex = firstForecastIndex;
+    this.prices = prices.clone();
+    this.priceSums = prefixSums(prices);
+    this.carbonSums = prefixSums(carbon);
+    this.meanPrice = priceSums[prices.length] / prices.length;
+    this.meanCarbon = carbonSums[prices.length] / prices.length;
+  }
+
+  /** Returns the number of samples in the series. */
+  int size() {
+    return prices.length;
+  }
+
+  /**
+   * Returns the best non-overlapping blocks of {@code width} samples, best first.
+   *
+   * @param carbonWeight weight of carbon intensity in the score, from 0 to 1
+   */
+  List<FlexWindow> find(int width, double carbonWeight, int topK) {
+    int candidates = prices.length - width + 1;
+    if (width <= 0 || candidates <= 0) {
+      return List.of();
+    }
+    double[] scores = new double[candidates];
+    double[] peaks = new double[candidates];
+    int[] deque = new int[prices.length];
+    int head = 0;
+    int tail = 0;
+    for (int i = 0; i < prices.length; i++) {
+      while (tail > head && prices[deque[tail - 1]] <= prices[i]) {
+        tail--;
+      }
+      deque[tail++] = i;
+      if (deque[head] <= i - width) {
+        head++;
+      }
+      int first = i - width + 1;
+      if (first >= 0) {
+        peaks[first] = prices[deque[head]];
+        scores[first] =
+            (1.0 - carbonWeight) * average(priceSums, first, width) / meanPrice
+                + carbonWeight * average(carbonSums, first, width) / meanCarbon;
+      }
+    }
+
+    Integer[] order = new Integer[candidates];
+    Arrays.setAll(order, index -> index);
+    Arrays.sort(order, Comparator.comparingDouble(index -> scores[index]));
+    List<Integer> picked = new ArrayList<>(topK);
+    for (int candidate : order) {
+      if (picked.size() == topK) {
+        break;
+      }
+      if (picked.stream().allMatch(other -> Math.abs(other - candidate) >= width)) {
+        picked.add(candidate);
+      }
+    }
+    return picked.stream()
+        .map(first -> toWindow(first, width, peaks[first], scores[first]))
+        .toList();
+  }
+
+  private FlexWindow toWindow(int first, int width, double peak, double score) {
+    Instant windowStart = start.plus(interval.multipliedBy(first));
+    return new FlexWindow(
+        windowStart,
+        windowStart.plus(interval.multipliedBy(width)),
+        round(average(priceSums, first, width), 2),
+        round(peak, 2),
+        round(average(carbonSums, first, width), 1),
+        round(score, 4),
+        first + width > firstForecastIndex);
+  }
+
+  private static double[] prefixSums(double[] values) {
+    double[] sums = new double[values.length + 1];
+    for (int i = 0; i < values.length; i++) {
+      sums[i + 1] = sums[i] + values[i];
+    }
+    return sums;
+  }
+
+  private static double average(double[] sums, int first, int width) {
+    return (sums[first + width] - sums[first]) / width;
+  }
+
+  private static double round(double value, int digits) {
+    double factor = Math.pow(10, digits);
+    return Math.round(value * factor) / factor;
+  }
+}
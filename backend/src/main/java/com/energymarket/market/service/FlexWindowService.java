@@ -0,0 +1,133 @@
+package com.energymarket.market.service;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.FieldSelection;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.FlexWindowQuery;
+import com.energymarket.market.model.FlexWindowResult;
+import com.energymarket.market.model.ForecastPoint;
+import com.energymarket.market.model.MarketSnapshot;
+import com.energymarket.market.model.PricePoint;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.stereotype.Service;
+
+/**
+ * Finds the cheapest and cleanest blocks of time for flexible load across recent history and the
+ * forecast horizon.
+ *
+ * <p>For each market the history and forecast are joined into one 15-minute series and indexed
+ * once; every requested duration is then answered from that shared index. The forecast only
+ * projects prices, so carbon intensity over the horizon uses the value observed 24 hours earlier (a
+ * seasonal naive projection), which is why at least 24 hours of history are required.
+ */
+@Service
+public class FlexWindowService {
+
+  private static final Duration SERIES_INTERVAL = Duration.ofMinutes(15);
+  private static final int STEPS_PER_HOUR = 4;
+  private static final int STEPS_PER_DAY = 24 * STEPS_PER_HOUR;
+  private static final FieldSelection SERIES_FIELDS = FieldSelection.parse("price,carbon,forecast");
+  private static final int MAX_DURATION_HOURS = 24;
+  private static final int MAX_DURATIONS = 12;
+  private static final int MAX_TOP_K = 20;
+
+  private final Clock clock;
+  private final MarketDataGenerator generator;
+
+  public FlexWindowService(Clock clock, MarketDataGenerator generator) {
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.generator = Objects.requireNonNull(generator, "generator");
+  }
+
+  /**
+   * Answers a batched query: the best windows for every combination of market and duration.
+   *
+   * @return one result per market and duration, in request order
+   */
+  public List<FlexWindowResult> findWindows(FlexWindowQuery query) {
+    if (query.durationsHours().isEmpty() || query.durationsHours().size() > MAX_DURATIONS) {
+      throw new IllegalArgumentException(
+          "durationsHours must list between 1 and " + MAX_DURATIONS + " durations");
+    }
+    if (query.durationsHours().stream().anyMatch(Objects::isNull)
+        || query.markets().stream().anyMatch(Objects::isNull)) {
+      throw new IllegalArgumentException("markets and durationsHours must not contain null");
+    }
+    for (int durationHours : query.durationsHours()) {
+      requireRange(durationHours, 1, MAX_DURATION_HOURS, "durationsHours");
+    }
+    requireRange(query.topK(), 1, MAX_TOP_K, "topK");
+    requireRange(query.historyHours(), 24, 168, "historyHours");
+    requireRange(query.forecastHours(), 1, 72, "forecastHours");
+    double carbonWeight = query.carbonWeight();
+    if (!(carbonWeight >= 0.0 && carbonWeight <= 1.0)) {
+      throw new IllegalArgumentException("carbonWeight must be between 0 and 1");
+    }
+    List<MarketCode> markets =
+        query.markets().isEmpty()
+            ? List.of(MarketCode.values())
+            : query.markets().stream()
+                .map(
+                    code ->
+                        MarketCode.fromCode(code)
+                            .orElseThrow(() -> new MarketNotFoundException(code)))
+                .distinct()
+                .toList();
+
+    Instant now = MarketDataService.alignToInterval(clock.instant(), SERIES_INTERVAL);
+    List<FlexWindowResult> results = new ArrayList<>();
+    for (MarketCode market : markets) {
+      FlexWindowFinder finder =
+          buildFinder(market, now, query.historyHours(), query.forecastHours());
+      for (int durationHours : query.durationsHours()) {
+        results.add(
+            new FlexWindowResult(
+                market.code(),
+                durationHours,
+                finder.find(durationHours * STEPS_PER_HOUR, carbonWeight, query.topK())));
+      }
+    }
+    return results;
+  }
+
+  private FlexWindowFinder buildFinder(
+      MarketCode market, Instant now, int historyHours, int forecastHours) {
+    MarketSnapshot snapshot =
+        generator.generateSnapshot(
+            market,
+            now,
+            Duration.ofHours(historyHours),
+            SERIES_INTERVAL,
+            Duration.ofHours(forecastHours),
+            SERIES_INTERVAL,
+            SERIES_FIELDS);
+    List<PricePoint> history = snapshot.priceSeries();
+    List<ForecastPoint> forecast = snapshot.forecast();
+    int size = history.size() + forecast.size();
+    double[] prices = new double[size];
+    double[] carbon = new double[size];
+    for (int i = 0; i < history.size(); i++) {
+      prices[i] = history.get(i).priceMwh();
+      carbon[i] = history.get(i).carbonIntensity();
+    }
+    for (int i = history.size(); i < size; i++) {
+      prices[i] = forecast.get(i - history.size()).projectedPriceMwh();
+      carbon[i] = carbon[i - STEPS_PER_DAY];
+    }
+    return new FlexWindowFinder(
+        history.getFirst().timestamp(), SERIES_INTERVAL, prices, carbon, history.size());
+  }
+
+  private static void requireRange(int value, int minInclusive, int maxInclusive, String field) {
+    if (value < minInclusive || value > maxInclusive) {
+      throw new IllegalArgumentException(
+          field + " must be between " + minInclusive + " and " + maxInclusive);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package com.energymarket.market.service;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.ForecastBacktester;
+import com.energymarket.market.generator.ForecastModel;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.BacktestReport;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.stereotype.Service;
+
+/**
+ * Measures how well the snapshot price forecast would have performed over a trailing period.
+ *
+ * <p>The last origin is placed one horizon before now, so every scored point has already been
+ * observed, and earlier origins step back from it at the requested spacing.
+ */
+@Service
+public class ForecastBacktestService {
+
+  private static final Duration ORIGIN_GRID = Duration.ofMinutes(15);
+  private static final long MAX_SCORED_POINTS = 2_000_000;
+
+  private final Clock clock;
+  private final ForecastBacktester backtester;
+
+  public ForecastBacktestService(Clock clock, MarketDataGenerator generator) {
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.backtester = new ForecastBacktester(generator);
+  }
+
+  /**
+   * Backtests the forecast of each market.
+   *
+   * @param marketCodes markets to score; all markets when empty
+   * @param days length of the period covered by forecast origins
+   * @param originSpacingMinutes spacing between forecast origins, a multiple of 15
+   * @param forecastHours forecast horizon
+   * @param forecastResolutionMinutes forecast resolution, a multiple of 15
+   * @param model forecasting model to score
+   * @return one report per market, in request order
+   */
+  public List<BacktestReport> backtest(
+      List<String> marketCodes,
+      int days,
+      int originSpacingMinutes,
+      int forecastHours,
+      int forecastResolutionMinutes,
+      ForecastModel model) {
+    requireRange(days, 1, 365, "days");
+    requireRange(originSpacingMinutes, 15, 1440, "originSpacingMinutes");
+    requireRange(forecastHours, 1, 72, "forecastHours");
+    requireRange(forecastResolutionMinutes, 15, 240, "forecastResolutionMinutes");
+    if (originSpacingMinutes % 15 != 0 || forecastResolutionMinutes % 15 != 0) {
+      throw new IllegalArgumentException(
+          "originSpacingMinutes and forecastResolutionMinutes must be multiples of 15");
+    }
+    if (forecastHours * 60 % forecastResolutionMinutes != 0) {
+      throw new IllegalArgumentException(
+          "forecastHours must be divisible by forecastResolutionMinutes");
+    }
+    long origins = days * 1440L / originSpacingMinutes;
+    if (origins * (forecastHours * 60L / forecastResolutionMinutes) > MAX_SCORED_POINTS) {
+      throw new IllegalArgumentException(
+          "backtest would score more than " + MAX_SCORED_POINTS + " points per market");
+    }
+    List<MarketCode> markets =
+        marketCodes.isEmpty()
+            ? List.of(MarketCode.values())
+            : marketCodes.stream()
+                .map(
+                    code ->
+                        MarketCode.fromCode(code)
+                            .orElseThrow(() -> new MarketNotFoundException(code)))
+                .distinct()
+                .toList();
+
+    Duration horizon = Duration.ofHours(forecastHours);
+    Duration spacing = Duration.ofMinutes(originSpacingMinutes);
+    Instant lastOrigin =
+        MarketDataService.alignToInterval(clock.instant(), ORIGIN_GRID).minus(horizon);
+    Instant firstOrigin = lastOrigin.minus(spacing.multipliedBy(origins - 1));
+    return markets.stream()
+        .map(
+            market ->
+                backtester.run(
+                    market,
+                    firstOrigin,
+                    lastOrigin,
+                    spacing,
+                    horizon,
+                    Duration.ofMinutes(forecastResolutionMinutes),
+                    model))
+        .toList();
+  }
+
+  private static void requireRange(int value, int minInclusive, int maxInclusive, String field) {
+    if (value < minInclusive || value > maxInclusive) {
+      throw new IllegalArgumentException(
+          field + " must be between " + minInclusive + " and " + maxInclusive);
+    }
+  }
+}
@@ -1,11 +1,25 @@
 package com.energymarket.market.service;
 
 import com.energymarket.market.MarketCode;
+import com.energymarket.market.admission.LoadMonitor;
+import com.energymarket.market.alert.AlertLog;
 import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.CheckpointSummary;
+import com.energymarket.market.generator.FieldSelection;
+import com.energymarket.market.generator.ForecastModel;
 import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.generator.QuantileSketch;
+import com.energymarket.market.generator.SnapshotCursor;
+import com.energymarket.market.model.MarketAlert;
+import com.energymarket.market.model.MarketInsights;
 import com.energymarket.market.model.MarketMetadata;
 import com.energymarket.market.model.MarketOverview;
 import com.energymarket.market.model.MarketSnapshot;
+import com.energymarket.market.model.PriceDistribution;
+import com.energymarket.market.model.PricePoint;
+import com.energymarket.market.model.SnapshotSync;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -13,33 +27,64 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-/**
- * Application service orchestrating synthetic data generation for API consumers.
- */
+/** Application service orchestrating synthetic data generation for API consumers. */
 @Service
 public class MarketDataService {
 
   private static final Duration OVERVIEW_HISTORY_RANGE = Duration.ofHours(24);
   private static final Duration OVERVIEW_HISTORY_INTERVAL = Duration.ofMinutes(15);
+  private static final int MAX_INSIGHT_ALERTS = 5;
+  private static final int[] DEGRADED_RESOLUTIONS = {10, 15, 20, 30, 60, 120, 180};
+
+  static final int DEFAULT_MAX_HISTORY_POINTS_UNDER_LOAD = 288;
 
   private final Clock clock;
   private final MarketDataGenerator generator;
+  private final AlertLog alertLog;
+  private final BooleanSupplier overloaded;
+  private final int maxHistoryPointsUnderLoad;
 
-  public MarketDataService(Clock clock) {
-    this(clock, new MarketDataGenerator());
+  @Autowired
+  public MarketDataService(
+      Clock clock,
+      MarketDataGenerator generator,
+      AlertLog alertLog,
+      LoadMonitor loadMonitor,
+      @Value("${market.overload.max-history-points:288}") int maxHistoryPointsUnderLoad) {
+    this(clock, generator, alertLog, loadMonitor::overloaded, maxHistoryPointsUnderLoad);
   }
 
   MarketDataService(Clock clock, MarketDataGenerator generator) {
+    this(clock, generator, new AlertLog(AlertLog.DEFAULT_CAPACITY_PER_MARKET));
+  }
+
+  MarketDataService(Clock clock, MarketDataGenerator generator, AlertLog alertLog) {
+    this(clock, generator, alertLog, () -> false, DEFAULT_MAX_HISTORY_POINTS_UNDER_LOAD);
+  }
+
+  MarketDataService(
+      Clock clock,
+      MarketDataGenerator generator,
+      AlertLog alertLog,
+      BooleanSupplier overloaded,
+      int maxHistoryPointsUnderLoad) {
+    if (maxHistoryPointsUnderLoad < 1) {
+      throw new IllegalArgumentException("market.overload.max-history-points must be positive");
+    }
     this.clock = Objects.requireNonNull(clock, "clock");
     this.generator = Objects.requireNonNull(generator, "generator");
+    this.alertLog = Objects.requireNonNull(alertLog, "alertLog");
+    this.overloaded = Objects.requireNonNull(overloaded, "overloaded");
+    this.maxHistoryPointsUnderLoad = maxHistoryPointsUnderLoad;
   }
 
-  /**
-   * Returns metadata for the supported markets.
-   */
+  /** Returns metadata for the supported markets. */
   public List<MarketMetadata> getMarketCatalog() {
     return Arrays.stream(MarketCode.values())
         .map(MarketCode::toMetadata)
@@ -47,17 +92,35 @@ public class MarketDataService {
         .collect(Collectors.toList());
   }
 
+  /** Returns high-level overviews for every market. */
+  public List<MarketOverview> getMarketOverview() {
+    return getMarketOverview(FieldSelection.ALL);
+  }
+
   /**
-   * Returns high-level overviews for every market.
+   * Returns high-level overviews for every market, computing only the requested metric columns.
+   *
+   * @param fields projection parsed from the client request; forecast and insights are ignored
    */
-  public List<MarketOverview> getMarketOverview() {
-    Instant now = clock.instant();
+  public List<MarketOverview> getMarketOverview(FieldSelection fields) {
+    Instant now = alignToInterval(clock.instant(), OVERVIEW_HISTORY_INTERVAL);
     return Arrays.stream(MarketCode.values())
-        .map(code -> generator.generateOverview(code, now, OVERVIEW_HISTORY_RANGE, OVERVIEW_HISTORY_INTERVAL))
+        .map(
+            code ->
+                generator.generateOverview(
+                    code, now, OVERVIEW_HISTORY_RANGE, OVERVIEW_HISTORY_INTERVAL, fields))
         .sorted((left, right) -> left.name().compareToIgnoreCase(right.name()))
         .collect(Collectors.toList());
   }
 
+  /**
+   * Returns the version of the data behind {@link #getMarketOverview(FieldSelection)}. Overviews
+   * requested with the same fields under an equal version are identical.
+   */
+  public DataVersion overviewVersion() {
+    return new DataVersion(alignToInterval(clock.instant(), OVERVIEW_HISTORY_INTERVAL), 0L);
+  }
+
   /**
    * Builds a detailed market snapshot used by the dashboard.
    *
@@ -74,31 +137,275 @@ public class MarketDataService {
       int historyResolutionMinutes,
       int forecastHours,
       int forecastResolutionMinutes) {
+    return getMarketSnapshot(
+        marketCode,
+        historyHours,
+        historyResolutionMinutes,
+        forecastHours,
+        forecastResolutionMinutes,
+        FieldSelection.ALL);
+  }
+
+  /**
+   * Builds a market snapshot restricted to the requested fields.
+   *
+   * @param fields projection parsed from the client request
+   * @see #getMarketSnapshot(String, int, int, int, int)
+   */
+  public MarketSnapshot getMarketSnapshot(
+      String marketCode,
+      int historyHours,
+      int historyResolutionMinutes,
+      int forecastHours,
+      int forecastResolutionMinutes,
+      FieldSelection fields) {
+    return getMarketSnapshot(
+        marketCode,
+        historyHours,
+        historyResolutionMinutes,
+        forecastHours,
+        forecastResolutionMinutes,
+        fields,
+        ForecastModel.SEASONAL_NAIVE,
+        null,
+        null);
+  }
+
+  /**
+   * Builds a market snapshot, or only its changes when the client supplies sync state.
+   *
+   * <p>History windows are aligned to the resolution grid so consecutive polls share timestamps.
+   * With a {@code cursor} from a previous response only the new points are generated and returned;
+   * with a plain {@code since} timestamp only the new points are returned but the window is
+   * regenerated. Overview, insights and forecast are always current.
+   *
+   * @param forecastModel model used to project prices
+   * @param cursor opaque cursor from the previous response, or {@code null}
+   * @param since timestamp of the newest point the client holds, or {@code null}
+   * @see #getMarketSnapshot(String, int, int, int, int)
+   */
+  public MarketSnapshot getMarketSnapshot(
+      String marketCode,
+      int historyHours,
+      int historyResolutionMinutes,
+      int forecastHours,
+      int forecastResolutionMinutes,
+      FieldSelection fields,
+      ForecastModel forecastModel,
+      String cursor,
+      Instant since) {
+    if (cursor != null && since != null) {
+      throw new IllegalArgumentException("Specify either cursor or since, not both");
+    }
     MarketCode market =
-        MarketCode.fromCode(marketCode)
-            .orElseThrow(() -> new MarketNotFoundException(marketCode));
+        MarketCode.fromCode(marketCode).orElseThrow(() -> new MarketNotFoundException(marketCode));
 
     Duration historyRange = toDurationHours(historyHours, 1, 168, "historyHours");
-    Duration historyInterval = toDurationMinutes(historyResolutionMinutes, 5, 180, "historyResolutionMinutes");
+    Duration historyInterval =
+        toDurationMinutes(historyResolutionMinutes, 5, 180, "historyResolutionMinutes");
     ensureDivisible(historyRange, historyInterval, "history range", "history interval");
 
     Duration forecastRange = toDurationHours(forecastHours, 1, 72, "forecastHours");
-    Duration forecastInterval = toDurationMinutes(forecastResolutionMinutes, 15, 240, "forecastResolutionMinutes");
+    Duration forecastInterval =
+        toDurationMinutes(forecastResolutionMinutes, 15, 240, "forecastResolutionMinutes");
     ensureDivisible(forecastRange, forecastInterval, "forecast range", "forecast interval");
 
-    Instant now = clock.instant();
-    return generator.generateSnapshot(market, now, historyRange, historyInterval, forecastRange, forecastInterval);
+    Instant now = alignToInterval(clock.instant(), historyInterval);
+    MarketSnapshot snapshot =
+        cursor != null
+            ? generator.generateDelta(
+                market,
+                now,
+                historyRange,
+                historyInterval,
+                forecastRange,
+                forecastInterval,
+                fields,
+                forecastModel,
+                SnapshotCursor.decode(cursor))
+            : generator.generateSnapshot(
+                market,
+                now,
+                historyRange,
+                historyInterval,
+                forecastRange,
+                forecastInterval,
+                fields,
+                forecastModel);
+    if (since != null) {
+      snapshot = onlyPointsAfter(snapshot, since);
+    }
+    return withLoggedAlerts(market, snapshot);
+  }
+
+  /**
+   * Returns the history resolution a snapshot requested at {@code historyResolutionMinutes} is
+   * served at under the current load.
+   *
+   * <p>While the node is overloaded, a window of more points than the configured maximum is
+   * coarsened to the finest resolution among 10, 15, 20, 30, 60, 120 and 180 minutes that is a
+   * multiple of the requested one, divides the window and brings it within the maximum, or to the
+   * coarsest such resolution if none does. The served points are therefore a subset of the
+   * requested grid. Otherwise, including once the load has dropped, the requested resolution is
+   * served. Every snapshot reports its resolution in {@link SnapshotSync#resolutionMinutes()}.
+   *
+   * @param historyHours number of hours of history (1-168)
+   * @param historyResolutionMinutes requested resolution of the history in minutes (5-180)
+   */
+  public int servedHistoryResolution(int historyHours, int historyResolutionMinutes) {
+    Duration historyRange = toDurationHours(historyHours, 1, 168, "historyHours");
+    Duration historyInterval =
+        toDurationMinutes(historyResolutionMinutes, 5, 180, "historyResolutionMinutes");
+    ensureDivisible(historyRange, historyInterval, "history range", "history interval");
+    long rangeMinutes = historyRange.toMinutes();
+    if (rangeMinutes / historyResolutionMinutes <= maxHistoryPointsUnderLoad
+        || !overloaded.getAsBoolean()) {
+      return historyResolutionMinutes;
+    }
+    int served = historyResolutionMinutes;
+    for (int candidate : DEGRADED_RESOLUTIONS) {
+      if (candidate > served
+          && candidate % historyResolutionMinutes == 0
+          && rangeMinutes % candidate == 0) {
+        served = candidate;
+        if (rangeMinutes / candidate <= maxHistoryPointsUnderLoad) {
+          break;
+        }
+      }
+    }
+    return served;
+  }
+
+  /**
+   * Returns the version of the data behind a full snapshot of a market: the instant its window ends
+   * at and the revision of the market's alert log. Snapshots requested with the same parameters and
+   * no sync state under an equal version are identical; a snapshot generated after this call is
+   * never older than the version returned.
+   *
+   * @param historyResolutionMinutes resolution of the history in minutes (5-180)
+   */
+  public DataVersion snapshotVersion(String marketCode, int historyResolutionMinutes) {
+    MarketCode market =
+        MarketCode.fromCode(marketCode).orElseThrow(() -> new MarketNotFoundException(marketCode));
+    Duration historyInterval =
+        toDurationMinutes(historyResolutionMinutes, 5, 180, "historyResolutionMinutes");
+    return new DataVersion(
+        alignToInterval(clock.instant(), historyInterval), alertLog.revision(market));
+  }
+
+  /**
+   * Returns the price distribution of one or more markets over the trailing window.
+   *
+   * <p>Each market contributes a quantile sketch assembled from cached hourly buckets; the sketches
+   * are merged, so the result covers every point of every market without sorting raw points.
+   *
+   * @param marketCodes markets to include; empty for every market
+   * @param historyHours length of the window in hours (1-168)
+   */
+  public PriceDistribution getPriceDistribution(List<String> marketCodes, int historyHours) {
+    Duration historyRange = toDurationHours(historyHours, 1, 168, "historyHours");
+    List<MarketCode> markets =
+        marketCodes.isEmpty()
+            ? List.of(MarketCode.values())
+            : marketCodes.stream()
+                .map(
+                    code ->
+                        MarketCode.fromCode(code)
+                            .orElseThrow(() -> new MarketNotFoundException(code)))
+                .distinct()
+                .toList();
+
+    Instant now = alignToInterval(clock.instant(), OVERVIEW_HISTORY_INTERVAL);
+    QuantileSketch merged = new QuantileSketch();
+    for (MarketCode market : markets) {
+      merged.merge(
+          generator.priceDistribution(market, now, historyRange, OVERVIEW_HISTORY_INTERVAL));
+    }
+    return new PriceDistribution(
+        markets.stream().map(MarketCode::code).toList(),
+        now.minus(historyRange),
+        now,
+        merged.count(),
+        roundPrice(merged.quantile(0.0)),
+        roundPrice(merged.quantile(0.05)),
+        roundPrice(merged.quantile(0.50)),
+        roundPrice(merged.quantile(0.95)),
+        roundPrice(merged.quantile(0.99)),
+        roundPrice(merged.quantile(1.0)));
+  }
+
+  /** Writes the generator's cached bucket sketches and forecaster state to {@code file}. */
+  public CheckpointSummary writeCheckpoint(Path file) throws IOException {
+    return generator.writeCheckpoint(file);
+  }
+
+  /**
+   * Warms the generator's caches from a checkpoint written by {@link #writeCheckpoint(Path)}.
+   *
+   * @throws java.nio.file.NoSuchFileException if there is no checkpoint
+   * @throws IOException if the checkpoint cannot be read or does not match the generator
+   */
+  public CheckpointSummary restoreCheckpoint(Path file) throws IOException {
+    return generator.restoreCheckpoint(file);
+  }
+
+  private static double roundPrice(double value) {
+    return Math.round(value * 100.0) / 100.0;
+  }
+
+  private MarketSnapshot onlyPointsAfter(MarketSnapshot snapshot, Instant since) {
+    List<PricePoint> series =
+        snapshot.priceSeries() == null
+            ? null
+            : snapshot.priceSeries().stream()
+                .filter(point -> point.timestamp().isAfter(since))
+                .toList();
+    SnapshotSync sync = snapshot.sync();
+    return new MarketSnapshot(
+        snapshot.overview(),
+        series,
+        snapshot.forecast(),
+        snapshot.insights(),
+        new SnapshotSync(sync.cursor(), true, sync.windowStart(), sync.resolutionMinutes()));
+  }
+
+  /**
+   * Inputs a generated response depends on besides its request parameters.
+   *
+   * @param asOf aligned generation instant
+   * @param alertRevision revision of the alert log the response reads, {@code 0} if none
+   */
+  public record DataVersion(Instant asOf, long alertRevision) {}
+
+  static Instant alignToInterval(Instant instant, Duration interval) {
+    long intervalSeconds = interval.toSeconds();
+    return Instant.ofEpochSecond(
+        Math.floorDiv(instant.getEpochSecond(), intervalSeconds) * intervalSeconds);
+  }
+
+  /**
+   * Attaches the alerts the streaming rule engine fired within the snapshot window, newest first.
+   */
+  private MarketSnapshot withLoggedAlerts(MarketCode market, MarketSnapshot snapshot) {
+    MarketInsights insights = snapshot.insights();
+    if (insights == null) {
+      return snapshot;
+    }
+    List<String> alerts =
+        alertLog
+            .query(market, insights.windowStart(), insights.windowEnd(), Integer.MAX_VALUE)
+            .stream()
+            .map(MarketAlert::message)
+            .limit(MAX_INSIGHT_ALERTS)
+            .toList();
+    return snapshot.withInsights(insights.withAlerts(alerts));
   }
 
   private Duration toDurationHours(int value, int minInclusive, int maxInclusive, String field) {
     if (value < minInclusive || value > maxInclusive) {
       throw new IllegalArgumentException(
           String.format(
-              Locale.US,
-              "%s must be between %d and %d hours",
-              field,
-              minInclusive,
-              maxInclusive));
+              Locale.US, "%s must be between %d and %d hours", field, minInclusive, maxInclusive));
     }
     return Duration.ofHours(value);
   }
@@ -116,9 +423,11 @@ public class MarketDataService {
     return Duration.ofMinutes(value);
   }
 
-  private void ensureDivisible(Duration range, Duration interval, String rangeName, String intervalName) {
+  private void ensureDivisible(
+      Duration range, Duration interval, String rangeName, String intervalName) {
     if (range.toMinutes() % interval.toMinutes() != 0) {
-      throw new IllegalArgumentException(rangeName + " must be evenly divisible by " + intervalName);
+      throw new IllegalArgumentException(
+          rangeName + " must be evenly divisible by " + intervalName);
     }
   }
 }
@@ -0,0 +1,136 @@
+package com.energymarket.market.service;
+
+import com.energymarket.market.MarketCode.MarketParameters;
+import com.energymarket.market.model.ParameterAxis;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cartesian grid of market parameter overrides, addressed by scenario index so that scenarios can
+ * be produced independently and in any order.
+ */
+final class ScenarioGrid {
+
+  private static final List<String> PARAMETERS =
+      Arrays.stream(MarketParameters.class.getRecordComponents())
+          .map(RecordComponent::getName)
+          .toList();
+
+  private final double[] base;
+  private final int[] components;
+  private final Operation[] operations;
+  private final double[][] values;
+  private final int size;
+
+  /**
+   * @throws IllegalArgumentException if an axis names an unknown parameter or operation, repeats a
+   *     parameter, has no values or a non-finite value, or the grid exceeds {@code maxScenarios}
+   */
+  ScenarioGrid(MarketParameters parameters, List<ParameterAxis> axes, int maxScenarios) {
+    base = toArray(parameters);
+    components = new int[axes.size()];
+    operations = new Operation[axes.size()];
+    values = new double[axes.size()][];
+    long scenarios = 1;
+    for (int i = 0; i < axes.size(); i++) {
+      ParameterAxis axis = axes.get(i);
+      components[i] = PARAMETERS.indexOf(axis.parameter());
+      if (components[i] < 0) {
+        throw new IllegalArgumentException("Unknown market parameter: " + axis.parameter());
+      }
+      for (int j = 0; j < i; j++) {
+        if (components[j] == components[i]) {
+          throw new IllegalArgumentException("Parameter listed twice: " + axis.parameter());
+        }
+      }
+      operations[i] = Operation.parse(axis.operation());
+      if (axis.values().isEmpty()) {
+        throw new IllegalArgumentException("Axis " + axis.parameter() + " has no values");
+      }
+      values[i] = new double[axis.values().size()];
+      for (int j = 0; j < values[i].length; j++) {
+        Double value = axis.values().get(j);
+        if (value == null || !Double.isFinite(value)) {
+          throw new IllegalArgumentException(
+              "Axis " + axis.parameter() + " has a non-finite value");
+        }
+        values[i][j] = value;
+      }
+      scenarios *= values[i].length;
+      if (scenarios > maxScenarios) {
+        throw new IllegalArgumentException("Scenario grid exceeds " + maxScenarios + " scenarios");
+      }
+    }
+    size = (int) scenarios;
+  }
+
+  /** Returns the number of scenarios in the grid. */
+  int size() {
+    return size;
+  }
+
+  /** Returns the parameters of scenario {@code index}; the last axis varies fastest. */
+  MarketParameters scenario(int index) {
+    double[] scenario = base.clone();
+    int remainder = index;
+    for (int i = components.length - 1; i >= 0; i--) {
+      double value = values[i][remainder % values[i].length];
+      remainder /= values[i].length;
+      scenario[components[i]] = operations[i].apply(base[components[i]], value);
+    }
+    return fromArray(scenario);
+  }
+
+  private static double[] toArray(MarketParameters parameters) {
+    return new double[] {
+      parameters.basePrice(),
+      parameters.dailySwing(),
+      parameters.weeklySwing(),
+      parameters.volatility(),
+      parameters.trendSlope(),
+      parameters.demandBase(),
+      parameters.demandSwing(),
+      parameters.carbonBase(),
+      parameters.carbonSwing(),
+      parameters.renewableBase(),
+      parameters.renewableSwing()
+    };
+  }
+
+  private static MarketParameters fromArray(double[] values) {
+    return new MarketParameters(
+        values[0],
+        values[1],
+        values[2],
+        values[3],
+        values[4],
+        values[5],
+        values[6],
+        values[7],
+        values[8],
+        values[9],
+        values[10]);
+  }
+
+  private enum Operation {
+    SET,
+    ADD,
+    SCALE;
+
+    static Operation parse(String operation) {
+      return Arrays.stream(values())
+          .filter(candidate -> candidate.name().equalsIgnoreCase(operation.trim()))
+          .findFirst()
+          .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + operation));
+    }
+
+    double apply(double current, double value) {
+      return switch (this) {
+        case SET -> value;
+        case ADD -> current + value;
+        case SCALE -> current * value;
+      };
+    }
+  }
+}
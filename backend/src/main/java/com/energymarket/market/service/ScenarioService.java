@@ -0,0 +1,104 @@
+package com.energymarket.market.service;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.MarketCode.MarketParameters;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.generator.ScenarioBasis;
+import com.energymarket.market.model.PricePoint;
+import com.energymarket.market.model.ScenarioRequest;
+import com.energymarket.market.model.ScenarioResult;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Evaluates what-if grids of market parameter overrides over a market's recent history window.
+ *
+ * <p>The calendar and noise terms of the window are computed once and shared by every scenario,
+ * which then only evaluates the parameter-dependent formulas. Scenarios run concurrently on the
+ * parallel scheduler, at most one per core, and are emitted as each one finishes, so results arrive
+ * out of grid order and carry their grid index. Each request is bounded to {@link #MAX_SCENARIOS}
+ * scenarios and {@link #MAX_POINT_EVALUATIONS} generated points.
+ */
+@Service
+public class ScenarioService {
+
+  static final int MAX_SCENARIOS = 10_000;
+  static final long MAX_POINT_EVALUATIONS = 5_000_000;
+
+  private final Clock clock;
+  private final MarketDataGenerator generator;
+  private final Scheduler scheduler;
+
+  @Autowired
+  public ScenarioService(Clock clock, MarketDataGenerator generator) {
+    this(clock, generator, Schedulers.parallel());
+  }
+
+  ScenarioService(Clock clock, MarketDataGenerator generator, Scheduler scheduler) {
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.generator = Objects.requireNonNull(generator, "generator");
+    this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+  }
+
+  /**
+   * Streams the outcome of every scenario in the request's grid, in completion order.
+   *
+   * @throws IllegalArgumentException if the request is invalid or exceeds the compute budget
+   * @throws MarketNotFoundException if the market is unknown
+   */
+  public Flux<ScenarioResult> sweep(String marketCode, ScenarioRequest request) {
+    MarketCode market =
+        MarketCode.fromCode(marketCode).orElseThrow(() -> new MarketNotFoundException(marketCode));
+    requireRange(request.historyHours(), 1, 168, "historyHours");
+    requireRange(request.resolutionMinutes(), 5, 180, "resolutionMinutes");
+    if (request.historyHours() * 60 % request.resolutionMinutes() != 0) {
+      throw new IllegalArgumentException("historyHours must be divisible by resolutionMinutes");
+    }
+    ScenarioGrid grid = new ScenarioGrid(market.parameters(), request.axes(), MAX_SCENARIOS);
+    long points = request.historyHours() * 60L / request.resolutionMinutes() + 1;
+    if (grid.size() * points > MAX_POINT_EVALUATIONS) {
+      throw new IllegalArgumentException(
+          "Scenario sweep would generate more than " + MAX_POINT_EVALUATIONS + " points");
+    }
+
+    Duration interval = Duration.ofMinutes(request.resolutionMinutes());
+    Instant now = MarketDataService.alignToInterval(clock.instant(), interval);
+    ScenarioBasis basis =
+        generator.scenarioBasis(market, now, Duration.ofHours(request.historyHours()), interval);
+    boolean includeSeries = request.includeSeries();
+    return Flux.range(0, grid.size())
+        .flatMap(
+            index ->
+                Mono.fromCallable(() -> evaluate(basis, grid, index, includeSeries))
+                    .subscribeOn(scheduler),
+            Runtime.getRuntime().availableProcessors());
+  }
+
+  private ScenarioResult evaluate(
+      ScenarioBasis basis, ScenarioGrid grid, int index, boolean includeSeries) {
+    MarketParameters parameters = grid.scenario(index);
+    List<PricePoint> series = generator.scenarioSeries(basis, parameters);
+    return new ScenarioResult(
+        index,
+        parameters,
+        generator.scenarioInsights(basis.market(), series),
+        includeSeries ? series : null);
+  }
+
+  private static void requireRange(int value, int minInclusive, int maxInclusive, String field) {
+    if (value < minInclusive || value > maxInclusive) {
+      throw new IllegalArgumentException(
+          field + " must be between " + minInclusive + " and " + maxInclusive);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.energymarket.market.service;
+
+import com.energymarket.market.generator.CheckpointSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the snapshot generator's caches warm across restarts.
+ *
+ * <p>Before the application serves requests the checkpoint at {@code market.checkpoint.path} is
+ * memory-mapped and validated, so hour bucket sketches and Holt-Winters states computed by the
+ * previous process are reused instead of regenerated. The checkpoint is rewritten every {@code
+ * market.checkpoint.interval} and on shutdown. A missing, corrupt or incompatible checkpoint only
+ * means a cold start. The restore duration is reported as {@code market.checkpoint.restore}, tagged
+ * with its outcome ({@code warm}, {@code cold} or {@code rejected}).
+ */
+@Component
+public class WarmStartCheckpoint {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WarmStartCheckpoint.class);
+
+  private final MarketDataService marketData;
+  private final MeterRegistry registry;
+  private final Path file;
+  private final Timer writes;
+  private final Counter failures;
+  private final AtomicInteger restoredBuckets = new AtomicInteger();
+
+  public WarmStartCheckpoint(
+      MarketDataService marketData,
+      MeterRegistry registry,
+      @Value("${market.checkpoint.path:${java.io.tmpdir}/energy-market/market-state.ckpt}")
+          String path) {
+    this.marketData = Objects.requireNonNull(marketData, "marketData");
+    this.registry = Objects.requireNonNull(registry, "registry");
+    this.file = path.isBlank() ? null : Path.of(path);
+    this.writes =
+        Timer.builder("market.checkpoint.write")
+            .description("Time to write the warm-start checkpoint")
+            .register(registry);
+    this.failures = registry.counter("market.checkpoint.write.failures");
+    Gauge.builder("market.checkpoint.restored.buckets", restoredBuckets, AtomicInteger::get)
+        .description("Bucket sketches available from the checkpoint restored at startup")
+        .register(registry);
+  }
+
+  /** Returns whether checkpointing is enabled, i.e. {@code market.checkpoint.path} is not blank. */
+  public boolean enabled() {
+    return file != null;
+  }
+
+  /**
+   * Warms the generator from the checkpoint, if there is a valid one.
+   *
+   * @return what was restored, or {@code null} after a cold start
+   */
+  public CheckpointSummary restore() {
+    if (file == null) {
+      return null;
+    }
+    long start = System.nanoTime();
+    CheckpointSummary summary = null;
+    String outcome;
+    try {
+      summary = marketData.restoreCheckpoint(file);
+      restoredBuckets.set(summary.buckets());
+      outcome = "warm";
+    } catch (NoSuchFileException exception) {
+      outcome = "cold";
+    } catch (IOException exception) {
+      LOGGER.warn("Starting cold: {}", exception.getMessage());
+      outcome = "rejected";
+    }
+    long elapsed = System.nanoTime() - start;
+    Timer.builder("market.checkpoint.restore")
+        .description("Time to map and validate the warm-start checkpoint at startup")
+        .tag("outcome", outcome)
+        .register(registry)
+        .record(elapsed, TimeUnit.NANOSECONDS);
+    if (summary != null) {
+      LOGGER.info(
+          "Restored {} bucket sketches and {} forecast states from {} in {} ms",
+          summary.buckets(),
+          summary.forecastStates(),
+          file,
+          TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+    return summary;
+  }
+
+  /**
+   * Writes the current generator state to the checkpoint.
+   *
+   * @return what was written, or {@code null} if checkpointing is disabled or the write failed
+   */
+  @Scheduled(
+      initialDelayString = "${market.checkpoint.interval:PT5M}",
+      fixedDelayString = "${market.checkpoint.interval:PT5M}")
+  public synchronized CheckpointSummary checkpoint() {
+    if (file == null) {
+      return null;
+    }
+    long start = System.nanoTime();
+    try {
+      CheckpointSummary summary = marketData.writeCheckpoint(file);
+      writes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return summary;
+    } catch (IOException exception) {
+      failures.increment();
+      LOGGER.warn("Failed to write checkpoint {}", file, exception);
+      return null;
+    }
+  }
+
+  @PostConstruct
+  void start() {
+    restore();
+  }
+
+  @PreDestroy
+  void close() {
+    checkpoint();
+  }
+}
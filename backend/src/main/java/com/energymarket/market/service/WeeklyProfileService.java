@@ -0,0 +1,84 @@
+package com.energymarket.market.service;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.generator.WeeklyProfiler;
+import com.energymarket.market.model.MarketMetric;
+import com.energymarket.market.model.WeeklyProfile;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.stereotype.Service;
+
+/**
+ * Builds typical-week profiles of a market over a trailing window of whole days.
+ *
+ * <p>The window ends at the last interval boundary before now, exclusive, so a window of whole
+ * weeks holds the same number of points in every hour of the week apart from daylight saving
+ * transitions.
+ */
+@Service
+public class WeeklyProfileService {
+
+  /** Metrics profiled when the request names none. */
+  public static final List<MarketMetric> DEFAULT_METRICS =
+      List.of(MarketMetric.PRICE, MarketMetric.DEMAND, MarketMetric.RENEWABLES);
+
+  private final Clock clock;
+  private final WeeklyProfiler profiler;
+
+  public WeeklyProfileService(Clock clock, MarketDataGenerator generator) {
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.profiler = new WeeklyProfiler(generator);
+  }
+
+  /**
+   * Profiles one market.
+   *
+   * @param days length of the window (7-365)
+   * @param resolutionMinutes spacing of the profiled points (5-60), a divisor of 60
+   * @param metricKeys metric keys to profile; {@link #DEFAULT_METRICS} when empty
+   */
+  public WeeklyProfile getProfile(
+      String marketCode, int days, int resolutionMinutes, List<String> metricKeys) {
+    MarketCode market =
+        MarketCode.fromCode(marketCode).orElseThrow(() -> new MarketNotFoundException(marketCode));
+    if (days < 7 || days > 365) {
+      throw new IllegalArgumentException("days must be between 7 and 365");
+    }
+    Duration interval = Duration.ofMinutes(resolutionMinutes);
+    Instant end = windowEnd(resolutionMinutes);
+    return profiler.profile(
+        market, end.minus(Duration.ofDays(days)), end, interval, parseMetrics(metricKeys));
+  }
+
+  /**
+   * Returns the exclusive end of the current profile window. Profiles with the same parameters and
+   * window end are identical, so the end can version cached responses.
+   */
+  public Instant windowEnd(int resolutionMinutes) {
+    if (resolutionMinutes < 5 || resolutionMinutes > 60 || 60 % resolutionMinutes != 0) {
+      throw new IllegalArgumentException(
+          "resolutionMinutes must be a divisor of 60 between 5 and 60");
+    }
+    return MarketDataService.alignToInterval(
+        clock.instant(), Duration.ofMinutes(resolutionMinutes));
+  }
+
+  /** Resolves metric keys in request order, without duplicates. */
+  public static List<MarketMetric> parseMetrics(List<String> metricKeys) {
+    if (metricKeys.isEmpty()) {
+      return DEFAULT_METRICS;
+    }
+    return metricKeys.stream()
+        .map(
+            key ->
+                MarketMetric.fromKey(key)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown metric: " + key)))
+        .distinct()
+        .toList();
+  }
+}
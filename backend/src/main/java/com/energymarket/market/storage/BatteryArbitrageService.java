@@ -0,0 +1,277 @@
+package com.energymarket.market.storage;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.FieldSelection;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.ArbitrageRequest;
+import com.energymarket.market.model.ArbitrageResult;
+import com.energymarket.market.model.BatteryDispatch;
+import com.energymarket.market.model.BatterySpec;
+import com.energymarket.market.model.ForecastPoint;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Optimises battery charge/discharge schedules against the price forecast of each battery's market.
+ *
+ * <p>The forecast of every market in the request is generated once. Each battery is then solved
+ * against three price paths: the projected prices, the lower envelope and the upper envelope. All
+ * solves run in parallel on a dedicated fork/join pool and share pooled dynamic-programming tables,
+ * so portfolios of hundreds of assets are answered in a single pass.
+ */
+@Service
+public class BatteryArbitrageService {
+
+  private static final Duration HISTORY_RANGE = Duration.ofHours(24);
+  private static final Duration HISTORY_INTERVAL = Duration.ofMinutes(15);
+  private static final FieldSelection FORECAST_ONLY = FieldSelection.parse("forecast");
+  private static final int MAX_BATTERIES = 1000;
+  private static final int EXPECTED = 0;
+  private static final int LOW = 1;
+  private static final int HIGH = 2;
+  private static final int SCENARIOS = 3;
+  private static final int SOLVES_PER_TASK = 8;
+
+  private final Clock clock;
+  private final MarketDataGenerator generator;
+  private final ForkJoinPool pool;
+  private final DispatchOptimizer optimizer = new DispatchOptimizer();
+
+  @Autowired
+  public BatteryArbitrageService(Clock clock, MarketDataGenerator generator) {
+    this(clock, generator, new ForkJoinPool());
+  }
+
+  BatteryArbitrageService(Clock clock, MarketDataGenerator generator, ForkJoinPool pool) {
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.generator = Objects.requireNonNull(generator, "generator");
+    this.pool = Objects.requireNonNull(pool, "pool");
+  }
+
+  /**
+   * Returns the optimal schedule and scenario revenues of every battery, in request order.
+   *
+   * @throws IllegalArgumentException if the request or a battery specification is invalid
+   * @throws MarketNotFoundException if a battery references an unknown market
+   */
+  public List<ArbitrageResult> optimise(ArbitrageRequest request) {
+    List<BatterySpec> batteries = request.batteries();
+    if (batteries.isEmpty() || batteries.size() > MAX_BATTERIES) {
+      throw new IllegalArgumentException(
+          "batteries must list between 1 and " + MAX_BATTERIES + " assets");
+    }
+    requireRange(request.forecastHours(), 1, 72, "forecastHours");
+    requireRange(request.resolutionMinutes(), 15, 240, "resolutionMinutes");
+    requireRange(request.socLevels(), 11, 201, "socLevels");
+    Duration horizon = Duration.ofHours(request.forecastHours());
+    Duration resolution = Duration.ofMinutes(request.resolutionMinutes());
+    if (horizon.toMinutes() % resolution.toMinutes() != 0) {
+      throw new IllegalArgumentException("forecastHours must be divisible by resolutionMinutes");
+    }
+
+    MarketCode[] markets = new MarketCode[batteries.size()];
+    for (int i = 0; i < markets.length; i++) {
+      BatterySpec battery = batteries.get(i);
+      validate(battery);
+      markets[i] =
+          MarketCode.fromCode(battery.market())
+              .orElseThrow(() -> new MarketNotFoundException(battery.market()));
+    }
+
+    Instant now = align(clock.instant(), HISTORY_INTERVAL);
+    Map<MarketCode, List<ForecastPoint>> forecasts = new EnumMap<>(MarketCode.class);
+    Map<MarketCode, double[][]> prices = new EnumMap<>(MarketCode.class);
+    for (MarketCode market : markets) {
+      if (!forecasts.containsKey(market)) {
+        List<ForecastPoint> forecast =
+            generator
+                .generateSnapshot(
+                    market,
+                    now,
+                    HISTORY_RANGE,
+                    HISTORY_INTERVAL,
+                    horizon,
+                    resolution,
+                    FORECAST_ONLY)
+                .forecast();
+        forecasts.put(market, forecast);
+        prices.put(market, scenarioPrices(forecast));
+      }
+    }
+
+    double stepHours = resolution.toMinutes() / 60.0;
+    int steps = Math.toIntExact(horizon.toMinutes() / resolution.toMinutes());
+    Solve[] solves = new Solve[batteries.size() * SCENARIOS];
+    for (int i = 0; i < batteries.size(); i++) {
+      BatterySpec battery = batteries.get(i);
+      DispatchOptimizer.Levels levels = DispatchOptimizer.Levels.of(battery, request.socLevels());
+      double[][] marketPrices = prices.get(markets[i]);
+      for (int scenario = 0; scenario < SCENARIOS; scenario++) {
+        solves[i * SCENARIOS + scenario] =
+            new Solve(
+                battery,
+                marketPrices[scenario],
+                stepHours,
+                levels,
+                scenario == EXPECTED ? new int[steps] : null);
+      }
+    }
+    pool.invoke(new SolveTask(optimizer, solves, 0, solves.length));
+
+    List<ArbitrageResult> results = new ArrayList<>(batteries.size());
+    for (int i = 0; i < batteries.size(); i++) {
+      Solve expected = solves[i * SCENARIOS + EXPECTED];
+      results.add(
+          new ArbitrageResult(
+              batteries.get(i).id(),
+              markets[i].code(),
+              round(expected.revenue),
+              round(solves[i * SCENARIOS + LOW].revenue),
+              round(solves[i * SCENARIOS + HIGH].revenue),
+              schedule(expected, forecasts.get(markets[i]))));
+    }
+    return results;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdown();
+  }
+
+  private static double[][] scenarioPrices(List<ForecastPoint> forecast) {
+    double[][] prices = new double[SCENARIOS][forecast.size()];
+    for (int step = 0; step < forecast.size(); step++) {
+      ForecastPoint point = forecast.get(step);
+      prices[EXPECTED][step] = point.projectedPriceMwh();
+      prices[LOW][step] = point.lowerBound();
+      prices[HIGH][step] = point.upperBound();
+    }
+    return prices;
+  }
+
+  private static List<BatteryDispatch> schedule(Solve solve, List<ForecastPoint> forecast) {
+    double efficiency = Math.sqrt(solve.battery.roundTripEfficiency());
+    List<BatteryDispatch> schedule = new ArrayList<>(forecast.size());
+    int previous = solve.levels.initial();
+    for (int step = 0; step < forecast.size(); step++) {
+      int level = solve.path[step];
+      double storedMwh = (level - previous) * solve.levels.energyPerLevel();
+      double gridMwh = storedMwh > 0 ? storedMwh / efficiency : storedMwh * efficiency;
+      ForecastPoint point = forecast.get(step);
+      schedule.add(
+          new BatteryDispatch(
+              point.timestamp(),
+              point.projectedPriceMwh(),
+              Math.round(gridMwh / solve.stepHours * 1000.0) / 1000.0,
+              Math.round(solve.levels.energyAt(level) * 1000.0) / 1000.0));
+      previous = level;
+    }
+    return schedule;
+  }
+
+  private static void validate(BatterySpec battery) {
+    Objects.requireNonNull(battery, "battery");
+    if (battery.market() == null || battery.market().isBlank()) {
+      throw new IllegalArgumentException("battery market is required");
+    }
+    if (!(battery.capacityMwh() > 0.0) || !(battery.powerMw() > 0.0)) {
+      throw new IllegalArgumentException("battery capacity and power must be positive");
+    }
+    if (!(battery.roundTripEfficiency() > 0.0 && battery.roundTripEfficiency() <= 1.0)) {
+      throw new IllegalArgumentException("roundTripEfficiency must be in (0, 1]");
+    }
+    double min = battery.minSocPercent();
+    double max = battery.maxSocPercent();
+    double initial = battery.initialSocPercent();
+    if (!(min >= 0.0 && min < max && max <= 100.0 && initial >= min && initial <= max)) {
+      throw new IllegalArgumentException(
+          "state of charge bounds must satisfy 0 <= min <= initial <= max <= 100 and min < max");
+    }
+  }
+
+  private static void requireRange(int value, int minInclusive, int maxInclusive, String field) {
+    if (value < minInclusive || value > maxInclusive) {
+      throw new IllegalArgumentException(
+          field + " must be between " + minInclusive + " and " + maxInclusive);
+    }
+  }
+
+  private static Instant align(Instant instant, Duration interval) {
+    long intervalSeconds = interval.toSeconds();
+    return Instant.ofEpochSecond(
+        Math.floorDiv(instant.getEpochSecond(), intervalSeconds) * intervalSeconds);
+  }
+
+  private static double round(double value) {
+    return Math.round(value * 100.0) / 100.0;
+  }
+
+  /** One battery against one price path; written by exactly one task. */
+  private static final class Solve {
+    private final BatterySpec battery;
+    private final double[] prices;
+    private final double stepHours;
+    private final DispatchOptimizer.Levels levels;
+    private final int[] path;
+    private double revenue;
+
+    Solve(
+        BatterySpec battery,
+        double[] prices,
+        double stepHours,
+        DispatchOptimizer.Levels levels,
+        int[] path) {
+      this.battery = battery;
+      this.prices = prices;
+      this.stepHours = stepHours;
+      this.levels = levels;
+      this.path = path;
+    }
+  }
+
+  /** Splits the solves in halves until a task holds at most {@link #SOLVES_PER_TASK}. */
+  private static final class SolveTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient DispatchOptimizer optimizer;
+    private final transient Solve[] solves;
+    private final int from;
+    private final int to;
+
+    SolveTask(DispatchOptimizer optimizer, Solve[] solves, int from, int to) {
+      this.optimizer = optimizer;
+      this.solves = solves;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= SOLVES_PER_TASK) {
+        for (int i = from; i < to; i++) {
+          Solve solve = solves[i];
+          solve.revenue =
+              optimizer.solve(
+                  solve.battery, solve.prices, solve.stepHours, solve.levels, solve.path);
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new SolveTask(optimizer, solves, from, middle),
+          new SolveTask(optimizer, solves, middle, to));
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package com.energymarket.market.storage;
+
+import com.energymarket.market.model.BatterySpec;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Dynamic program for the revenue-maximising charge/discharge schedule of one battery against a
+ * price path.
+ *
+ * <p>The usable state of charge is discretised into evenly spaced levels. Working backwards over
+ * the horizon, the value of each level is the best of staying idle or moving to any level reachable
+ * at rated power, plus the value of that level one step later. Round-trip losses are split evenly
+ * between charging and discharging, and the rated power bounds the flow at the grid connection: a
+ * step stores at most {@code power * sqrt(efficiency)} and releases at most {@code power /
+ * sqrt(efficiency)} of stored energy per hour. The schedule must end at or above its initial level,
+ * so the optimiser cannot profit by simply emptying the battery.
+ *
+ * <p>Because the cash flow of a move is linear in the number of levels moved, the best charging
+ * target of level {@code j} maximises {@code V[k] - k * chargeCost} over the window {@code (j, j +
+ * maxCharge]}, and likewise for discharging. Both are sliding-window maxima, found with a monotonic
+ * deque, so a solve costs O(steps * levels) regardless of the battery's power. The two rolling
+ * value rows, the deque and the policy table are pooled and reused across solves.
+ */
+final class DispatchOptimizer {
+
+  private final ConcurrentLinkedQueue<Tables> pool = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Solves the schedule of {@code battery} against {@code prices}.
+   *
+   * @param path receives the state-of-charge level at the end of every step, or {@code null} when
+   *     only the revenue is needed
+   * @return the optimal revenue
+   */
+  double solve(BatterySpec battery, double[] prices, double stepHours, Levels levels, int[] path) {
+    int steps = prices.length;
+    int count = levels.count();
+    Tables tables = acquire(steps, count);
+    try {
+      double[] next = tables.next;
+      double[] current = tables.current;
+      int[] policy = tables.policy;
+      int[] deque = tables.deque;
+      int initial = levels.initial();
+      double efficiency = Math.sqrt(battery.roundTripEfficiency());
+      int maxCharge = levels.maxStep(battery.powerMw() * stepHours * efficiency);
+      int maxDischarge = levels.maxStep(battery.powerMw() * stepHours / efficiency);
+      // Without a reachable charging move the battery could never return to its initial level.
+      if (maxCharge == 0) {
+        if (path != null) {
+          Arrays.fill(path, 0, steps, initial);
+        }
+        return 0.0;
+      }
+
+      for (int level = 0; level < count; level++) {
+        next[level] = level >= initial ? 0.0 : Double.NEGATIVE_INFINITY;
+      }
+      for (int step = steps - 1; step >= 0; step--) {
+        double chargeCost = prices[step] * levels.energyPerLevel() / efficiency;
+        double dischargeGain = prices[step] * levels.energyPerLevel() * efficiency;
+        int row = step * count;
+        for (int level = 0; level < count; level++) {
+          current[level] = next[level];
+          policy[row + level] = level;
+        }
+        // Charging: for each level, the best target above it within reach.
+        int head = 0;
+        int tail = 0;
+        for (int level = count - 2; level >= 0; level--) {
+          int candidate = level + 1;
+          double score = next[candidate] - candidate * chargeCost;
+          while (tail > head && next[deque[tail - 1]] - deque[tail - 1] * chargeCost <= score) {
+            tail--;
+          }
+          deque[tail++] = candidate;
+          if (deque[head] > level + maxCharge) {
+            head++;
+          }
+          int target = deque[head];
+          double value = next[target] - (target - level) * chargeCost;
+          if (value > current[level]) {
+            current[level] = value;
+            policy[row + level] = target;
+          }
+        }
+        // Discharging: for each level, the best target below it within reach.
+        head = 0;
+        tail = 0;
+        for (int level = 1; level < count; level++) {
+          int candidate = level - 1;
+          double score = next[candidate] - candidate * dischargeGain;
+          while (tail > head && next[deque[tail - 1]] - deque[tail - 1] * dischargeGain <= score) {
+            tail--;
+          }
+          deque[tail++] = candidate;
+          if (deque[head] < level - maxDischarge) {
+            head++;
+          }
+          int target = deque[head];
+          double value = next[target] + (level - target) * dischargeGain;
+          if (value > current[level]) {
+            current[level] = value;
+            policy[row + level] = target;
+          }
+        }
+        double[] swap = next;
+        next = current;
+        current = swap;
+      }
+
+      if (path != null) {
+        int level = initial;
+        for (int step = 0; step < steps; step++) {
+          level = policy[step * count + level];
+          path[step] = level;
+        }
+      }
+      return next[initial];
+    } finally {
+      pool.offer(tables);
+    }
+  }
+
+  private Tables acquire(int steps, int levels) {
+    Tables tables = pool.poll();
+    if (tables == null) {
+      tables = new Tables();
+    }
+    tables.ensureCapacity(steps, levels);
+    return tables;
+  }
+
+  /** Discretisation of a battery's usable energy range. */
+  record Levels(double minEnergyMwh, double energyPerLevel, int count, int initial) {
+
+    static Levels of(BatterySpec battery, int count) {
+      double minEnergy = battery.capacityMwh() * battery.minSocPercent() / 100.0;
+      double maxEnergy = battery.capacityMwh() * battery.maxSocPercent() / 100.0;
+      double energyPerLevel = (maxEnergy - minEnergy) / (count - 1);
+      double initialEnergy = battery.capacityMwh() * battery.initialSocPercent() / 100.0;
+      int initial = (int) Math.round((initialEnergy - minEnergy) / energyPerLevel);
+      return new Levels(
+          minEnergy, energyPerLevel, count, Math.max(0, Math.min(count - 1, initial)));
+    }
+
+    /** Returns the number of levels {@code energyPerStep} of stored energy spans. */
+    int maxStep(double energyPerStep) {
+      return (int) Math.min(count - 1, Math.floor(energyPerStep / energyPerLevel + 1e-9));
+    }
+
+    double energyAt(int level) {
+      return minEnergyMwh + level * energyPerLevel;
+    }
+  }
+
+  private static final class Tables {
+    private double[] current = new double[0];
+    private double[] next = new double[0];
+    private int[] policy = new int[0];
+    private int[] deque = new int[0];
+
+    void ensureCapacity(int steps, int levels) {
+      if (current.length < levels) {
+        current = new double[levels];
+        next = new double[levels];
+        deque = new int[levels];
+      }
+      if (policy.length < steps * levels) {
+        policy = new int[steps * levels];
+      }
+    }
+  }
+}
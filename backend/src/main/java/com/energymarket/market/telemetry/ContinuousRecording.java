@@ -0,0 +1,79 @@
+package com.energymarket.market.telemetry;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Continuous Flight Recorder recording of the JVM and the application's own events.
+ *
+ * <p>The recording uses the JDK's {@code default} settings, designed for always-on use at about one
+ * percent overhead, plus every {@link GenerationStageEvent} and {@link MarketRequestEvent}. Data
+ * older than {@code market.jfr.max-age} or beyond {@code market.jfr.max-size} is discarded, so the
+ * recording always holds the recent past and can be dumped when a slow request is reported.
+ */
+@Component
+public class ContinuousRecording {
+
+  private final Recording recording;
+
+  public ContinuousRecording(
+      @Value("${market.jfr.enabled:true}") boolean enabled,
+      @Value("${market.jfr.max-age:PT30M}") Duration maxAge,
+      @Value("${market.jfr.max-size:67108864}") long maxSize) {
+    if (!enabled) {
+      recording = null;
+      return;
+    }
+    if (maxAge.isNegative() || maxAge.isZero() || maxSize < 1) {
+      throw new IllegalArgumentException("market.jfr.max-age and max-size must be positive");
+    }
+    try {
+      recording = new Recording(Configuration.getConfiguration("default"));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read the default recording settings", e);
+    } catch (ParseException e) {
+      throw new IllegalStateException("Invalid default recording settings", e);
+    }
+    recording.setName("energy-market");
+    recording.setToDisk(true);
+    recording.setMaxAge(maxAge);
+    recording.setMaxSize(maxSize);
+    recording.enable(GenerationStageEvent.class).withoutThreshold();
+    recording.enable(MarketRequestEvent.class).withoutThreshold();
+    recording.start();
+  }
+
+  /** Returns whether the recording is running. */
+  public boolean enabled() {
+    return recording != null;
+  }
+
+  /**
+   * Writes the data currently held by the recording to {@code target}, leaving it running.
+   *
+   * @throws IllegalStateException if the recording is disabled
+   */
+  public void dump(Path target) throws IOException {
+    if (recording == null) {
+      throw new IllegalStateException("Continuous recording is disabled");
+    }
+    Files.deleteIfExists(target);
+    recording.dump(target);
+  }
+
+  @PreDestroy
+  void close() {
+    if (recording != null) {
+      recording.close();
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.energymarket.market.telemetry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint that dumps the {@link ContinuousRecording} on demand as a {@code .jfr} file,
+ * ready to open in JDK Mission Control or {@code jfr print}.
+ *
+ * <p>Exposed as {@code /actuator/flightrecording} once included in {@code
+ * management.endpoints.web.exposure.include}. Responds with 503 while the recording is disabled.
+ */
+@Component
+@WebEndpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+  private final ContinuousRecording recording;
+
+  public FlightRecordingEndpoint(ContinuousRecording recording) {
+    this.recording = recording;
+  }
+
+  /** Returns the recorded data of the recent past. */
+  @ReadOperation(produces = "application/octet-stream")
+  public WebEndpointResponse<Resource> dump() throws IOException {
+    if (!recording.enabled()) {
+      return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+    }
+    Path file = Files.createTempFile("energy-market-", ".jfr");
+    try {
+      recording.dump(file);
+      return new WebEndpointResponse<>(new ByteArrayResource(Files.readAllBytes(file)));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.energymarket.market.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight Recorder event for one timed stage of building a market response. */
+@Name("com.energymarket.GenerationStage")
+@Label("Generation Stage")
+@Category({"Energy Market", "Generation"})
+@Description("Duration and size of one stage of building a market response")
+@StackTrace(false)
+final class GenerationStageEvent extends jdk.jfr.Event {
+
+  @Label("Stage")
+  String stage;
+
+  @Label("Market")
+  String market;
+
+  @Label("Points")
+  @Description("Number of points the stage generated, sketched or projected")
+  int points;
+}
@@ -0,0 +1,91 @@
+package com.energymarket.market.telemetry;
+
+import java.util.function.Supplier;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Traces market API handler invocations.
+ *
+ * <p>While the handler runs, the request's {@link RequestTiming} is bound to its thread. Afterwards
+ * a {@link MarketRequestEvent} is committed with the handler duration, the request parameters, the
+ * points generated on the way and the response cache outcome.
+ */
+public final class HandlerTrace {
+
+  private HandlerTrace() {}
+
+  /**
+   * Runs a handler under tracing and returns its result; exceptions propagate unchanged.
+   *
+   * @param endpoint name of the endpoint
+   * @param market requested market code, or {@code null} for cross-market endpoints
+   */
+  public static <T> T trace(
+      ServerWebExchange exchange, String endpoint, String market, Supplier<T> handler) {
+    RequestTiming timing = RequestTiming.of(exchange);
+    MarketRequestEvent event = new MarketRequestEvent();
+    RequestTiming.Scope scope = timing.enter();
+    event.begin();
+    try {
+      return handler.get();
+    } finally {
+      event.end();
+      scope.close();
+      commit(event, exchange, endpoint, market, timing);
+    }
+  }
+
+  /**
+   * Traces a handler whose response may complete on another thread, such as one fetched from a
+   * cluster peer. The timing is bound while the handler runs and its response is subscribed to, so
+   * work done synchronously on subscription is attributed to the request, and the event lasts until
+   * the response terminates. Exceptions thrown by the handler are emitted as errors.
+   *
+   * @param endpoint name of the endpoint
+   * @param market requested market code, or {@code null} for cross-market endpoints
+   */
+  public static <T> Mono<T> traceAsync(
+      ServerWebExchange exchange,
+      String endpoint,
+      String market,
+      Supplier<? extends Mono<? extends T>> handler) {
+    return Mono.defer(
+        () -> {
+          RequestTiming timing = RequestTiming.of(exchange);
+          MarketRequestEvent event = new MarketRequestEvent();
+          event.begin();
+          Mono<T> response =
+              Mono.from(
+                  subscriber -> {
+                    RequestTiming.Scope scope = timing.enter();
+                    try {
+                      Mono.<T>defer(handler).subscribe(subscriber);
+                    } finally {
+                      scope.close();
+                    }
+                  });
+          return response.doFinally(
+              signal -> {
+                event.end();
+                commit(event, exchange, endpoint, market, timing);
+              });
+        });
+  }
+
+  private static void commit(
+      MarketRequestEvent event,
+      ServerWebExchange exchange,
+      String endpoint,
+      String market,
+      RequestTiming timing) {
+    if (event.shouldCommit()) {
+      event.endpoint = endpoint;
+      event.market = market;
+      event.parameters = exchange.getRequest().getURI().getRawQuery();
+      event.points = timing.points();
+      event.cache = timing.description(RequestTiming.CACHE);
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.energymarket.market.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight Recorder event for one market API handler invocation. */
+@Name("com.energymarket.MarketRequest")
+@Label("Market Request")
+@Category({"Energy Market", "API"})
+@Description("Handler duration, parameters and generated points of a market API request")
+@StackTrace(false)
+final class MarketRequestEvent extends jdk.jfr.Event {
+
+  @Label("Endpoint")
+  String endpoint;
+
+  @Label("Market")
+  String market;
+
+  @Label("Parameters")
+  String parameters;
+
+  @Label("Points")
+  @Description("Number of points generated while handling the request")
+  int points;
+
+  @Label("Cache")
+  @Description("Response cache outcome: hit, miss, or empty when the cache was not consulted")
+  String cache;
+}
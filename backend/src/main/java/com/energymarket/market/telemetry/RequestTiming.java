@@ -0,0 +1,125 @@
+package com.energymarket.market.telemetry;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Server-side cost breakdown of one request, reported in its {@code Server-Timing} header.
+ *
+ * <p>{@link ServerTimingFilter} creates the timing when the request arrives. The handler binds it
+ * to its thread with {@link #enter()}, so stages timed deeper in the call chain add to it without
+ * it being passed down; durations of stages with the same name are summed. The time from arrival to
+ * the first {@code enter()} is reported as {@code scheduling}.
+ */
+public final class RequestTiming {
+
+  /** Exchange attribute holding the timing of a request. */
+  public static final String ATTRIBUTE = RequestTiming.class.getName();
+
+  /** Metric described with the response cache outcome, {@code hit} or {@code miss}. */
+  public static final String CACHE = "cache";
+
+  private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+  private static final String SCHEDULING = "scheduling";
+  private static final String TOTAL = "total";
+
+  private final long startNanos;
+  private final Map<String, Long> durations = new LinkedHashMap<>();
+  private final Map<String, String> descriptions = new LinkedHashMap<>();
+  private boolean entered;
+  private int points;
+
+  /**
+   * Creates a timing for a request that arrived at {@code startNanos}.
+   *
+   * @param startNanos arrival time on the {@link System#nanoTime()} scale
+   */
+  public RequestTiming(long startNanos) {
+    this.startNanos = startNanos;
+  }
+
+  /** Returns the timing attached to {@code exchange}, or a detached one if there is none. */
+  public static RequestTiming of(ServerWebExchange exchange) {
+    RequestTiming timing = exchange.getAttribute(ATTRIBUTE);
+    return timing != null ? timing : new RequestTiming(System.nanoTime());
+  }
+
+  /** Returns the timing bound to the current thread, or {@code null}. */
+  public static RequestTiming current() {
+    return CURRENT.get();
+  }
+
+  /** Binds this timing to the current thread until the returned scope is closed. */
+  public Scope enter() {
+    synchronized (this) {
+      if (!entered) {
+        entered = true;
+        durations.put(SCHEDULING, System.nanoTime() - startNanos);
+      }
+    }
+    RequestTiming previous = CURRENT.get();
+    CURRENT.set(this);
+    return () -> {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    };
+  }
+
+  /** Adds the duration and points of one stage. */
+  public synchronized void record(String metric, long nanos, int points) {
+    durations.merge(metric, nanos, Long::sum);
+    this.points += points;
+  }
+
+  /** Attaches a description, such as a cache outcome, to a metric. */
+  public synchronized void describe(String metric, String description) {
+    descriptions.put(metric, description);
+  }
+
+  /** Returns the description attached to a metric, or {@code null}. */
+  public synchronized String description(String metric) {
+    return descriptions.get(metric);
+  }
+
+  /** Returns the number of points recorded by the stages so far. */
+  public synchronized int points() {
+    return points;
+  }
+
+  /**
+   * Formats the {@code Server-Timing} header value: one entry per stage in the order the stages
+   * first ran, the described metrics, and the total time since arrival.
+   *
+   * @param nowNanos current time on the {@link System#nanoTime()} scale
+   */
+  public synchronized String header(long nowNanos) {
+    StringBuilder header = new StringBuilder();
+    durations.forEach(
+        (metric, nanos) -> append(header, metric).append(";dur=").append(millis(nanos)));
+    descriptions.forEach(
+        (metric, description) ->
+            append(header, metric).append(";desc=\"").append(description).append('"'));
+    append(header, TOTAL).append(";dur=").append(millis(nowNanos - startNanos));
+    return header.toString();
+  }
+
+  private static StringBuilder append(StringBuilder header, String metric) {
+    return (header.isEmpty() ? header : header.append(", ")).append(metric);
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.US, "%.2f", nanos / 1_000_000.0);
+  }
+
+  /** Binding of a timing to a thread; closing it restores the previous binding. */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
@@ -0,0 +1,38 @@
+package com.energymarket.market.telemetry;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Attaches a {@link RequestTiming} to every request and reports it in a {@code Server-Timing}
+ * response header, so browser developer tools show the server-side breakdown of each request.
+ *
+ * <p>The header is written just before the response commits; stages that run after that, such as
+ * writing a streamed body, are not included. The filter runs first, so time spent queued for a
+ * worker by {@code AdmissionFilter} is part of the reported {@code scheduling}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter implements WebFilter {
+
+  /** Response header carrying the breakdown. */
+  public static final String SERVER_TIMING = "Server-Timing";
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    RequestTiming timing = new RequestTiming(System.nanoTime());
+    exchange.getAttributes().put(RequestTiming.ATTRIBUTE, timing);
+    ServerHttpResponse response = exchange.getResponse();
+    response.beforeCommit(
+        () ->
+            Mono.fromRunnable(
+                () -> response.getHeaders().set(SERVER_TIMING, timing.header(System.nanoTime()))));
+    return chain.filter(exchange);
+  }
+}
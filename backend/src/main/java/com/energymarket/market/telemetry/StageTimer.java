@@ -0,0 +1,75 @@
+package com.energymarket.market.telemetry;
+
+import com.energymarket.market.MarketCode;
+import java.util.Locale;
+
+/**
+ * Times one stage of building a market response.
+ *
+ * <p>Stopping the timer commits a {@link GenerationStageEvent} when Flight Recorder is recording
+ * the event and adds the duration to the {@link RequestTiming} bound to the current thread, if any.
+ * Both are skipped cheaply otherwise, so stages can be timed unconditionally.
+ */
+public final class StageTimer {
+
+  /** Stages reported in events and in the {@code Server-Timing} header. */
+  public enum Stage {
+    HISTORY,
+    DELTA,
+    DISTRIBUTION,
+    PROFILE,
+    INSIGHTS,
+    FORECAST,
+    FORWARD,
+    SERIALIZE,
+    COMPRESS;
+
+    private final String metric = name().toLowerCase(Locale.ROOT);
+
+    /** Returns the {@code Server-Timing} metric name of the stage. */
+    public String metric() {
+      return metric;
+    }
+  }
+
+  private final GenerationStageEvent event = new GenerationStageEvent();
+  private final Stage stage;
+  private final MarketCode market;
+  private final long startNanos;
+
+  private StageTimer(Stage stage, MarketCode market) {
+    this.stage = stage;
+    this.market = market;
+    event.begin();
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Starts timing a stage.
+   *
+   * @param market market the stage works on, or {@code null} when it is not market specific
+   */
+  public static StageTimer start(Stage stage, MarketCode market) {
+    return new StageTimer(stage, market);
+  }
+
+  /**
+   * Stops the timer and reports the stage.
+   *
+   * @param points number of points the stage generated, sketched or projected
+   */
+  public void stop(int points) {
+    long elapsed = System.nanoTime() - startNanos;
+    event.end();
+    if (event.shouldCommit()) {
+      event.stage = stage.metric();
+      event.market = market == null ? null : market.code();
+      event.points = points;
+      event.commit();
+    }
+    RequestTiming timing = RequestTiming.current();
+    if (timing != null) {
+      timing.record(stage.metric(), elapsed, points);
+    }
+  }
+}
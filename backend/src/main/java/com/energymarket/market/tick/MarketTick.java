@@ -0,0 +1,20 @@
+package com.energymarket.market.tick;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.PricePoint;
+import java.util.Objects;
+
+/**
+ * A newly published interval for a single market.
+ *
+ * @param market the market the point belongs to
+ * @param point the freshly generated point
+ * @param replay {@code true} when the tick is part of the warm-up backfill rather than live
+ */
+public record MarketTick(MarketCode market, PricePoint point, boolean replay) {
+
+  public MarketTick {
+    Objects.requireNonNull(market, "market");
+    Objects.requireNonNull(point, "point");
+  }
+}
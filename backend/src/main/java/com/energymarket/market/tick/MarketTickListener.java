@@ -0,0 +1,23 @@
+package com.energymarket.market.tick;
+
+import java.time.Duration;
+
+/**
+ * Callback invoked synchronously by {@link MarketTickPublisher} for every published tick.
+ *
+ * <p>Listeners run on the publishing thread and must therefore do bounded, incremental work.
+ */
+@FunctionalInterface
+public interface MarketTickListener {
+
+  void onTick(MarketTick tick);
+
+  /**
+   * Returns how much history the listener needs replayed when the publisher starts over. The
+   * publisher replays the longer of this and its own warm-up, and hands each listener only the
+   * replayed ticks within its own window.
+   */
+  default Duration history() {
+    return Duration.ZERO;
+  }
+}
@@ -0,0 +1,139 @@
+package com.energymarket.market.tick;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.PricePoint;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Publishes one {@link MarketTick} per market for every elapsed tick interval.
+ *
+ * <p>Ticks are aligned to the {@link #TICK_INTERVAL} grid of the injected clock. On the first
+ * advance the publisher replays a configurable warm-up window so that stateful listeners start with
+ * meaningful history; afterwards each advance only emits the intervals that elapsed since the
+ * previous one. A listener asking for more {@link MarketTickListener#history() history}, such as
+ * the regional aggregator's week, gets a replay that long while the others still only see the
+ * warm-up. If the clock is moved back behind the last published tick, as a simulation clock may be,
+ * the publisher starts over with a fresh replay.
+ */
+@Component
+public class MarketTickPublisher {
+
+  /** Spacing between consecutive ticks of a market. */
+  public static final Duration TICK_INTERVAL = Duration.ofMinutes(15);
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MarketTickPublisher.class);
+
+  private final Clock clock;
+  private final MarketDataGenerator generator;
+  private final List<MarketTickListener> listeners;
+  private final Duration[] windows;
+  private final Duration replayWindow;
+  private final Sinks.Many<MarketTick> sink = Sinks.many().multicast().directBestEffort();
+  private Instant lastPublished;
+
+  public MarketTickPublisher(
+      Clock clock,
+      MarketDataGenerator generator,
+      List<MarketTickListener> listeners,
+      @Value("${market.ticks.warmup:PT24H}") Duration warmup) {
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.generator = Objects.requireNonNull(generator, "generator");
+    this.listeners = List.copyOf(listeners);
+    Objects.requireNonNull(warmup, "warmup");
+    this.windows = new Duration[this.listeners.size()];
+    Duration longest = warmup;
+    for (int i = 0; i < windows.length; i++) {
+      Duration history = this.listeners.get(i).history();
+      windows[i] = history.compareTo(warmup) > 0 ? history : warmup;
+      longest = windows[i].compareTo(longest) > 0 ? windows[i] : longest;
+    }
+    this.replayWindow = longest;
+  }
+
+  /**
+   * Publishes every tick that has elapsed on the clock since the previous invocation.
+   *
+   * @return the number of tick intervals published
+   */
+  @Scheduled(fixedDelayString = "${market.ticks.poll-interval:PT5S}")
+  public synchronized int advance() {
+    Instant aligned = align(clock.instant());
+    Instant earliest = aligned.minus(replayWindow);
+    if (lastPublished != null && lastPublished.isAfter(aligned)) {
+      LOGGER.info("Clock moved back from {} to {}; replaying history", lastPublished, aligned);
+      lastPublished = null;
+    }
+    boolean restart = lastPublished == null || lastPublished.isBefore(earliest);
+    Instant next = restart ? earliest : lastPublished.plus(TICK_INTERVAL);
+    // Only a fresh start replays history; every interval elapsed since the last advance is live.
+    Instant live = restart ? aligned : next;
+
+    Instant[] firstReplayed = new Instant[windows.length];
+    for (int i = 0; i < windows.length; i++) {
+      firstReplayed[i] = aligned.minus(windows[i]);
+    }
+    int published = 0;
+    for (Instant timestamp = next;
+        !timestamp.isAfter(aligned);
+        timestamp = timestamp.plus(TICK_INTERVAL)) {
+      boolean replay = timestamp.isBefore(live);
+      for (MarketCode market : MarketCode.values()) {
+        PricePoint point = generator.generatePoint(market, timestamp);
+        publish(new MarketTick(market, point, replay), firstReplayed);
+      }
+      lastPublished = timestamp;
+      published++;
+    }
+    return published;
+  }
+
+  /** Streams live ticks as they are published. */
+  public Flux<MarketTick> ticks() {
+    return sink.asFlux();
+  }
+
+  /** Returns the timestamp of the most recently published tick, or {@code null} before start. */
+  public synchronized Instant lastPublished() {
+    return lastPublished;
+  }
+
+  /** Aligns an instant down to the tick grid. */
+  public static Instant align(Instant instant) {
+    long intervalSeconds = TICK_INTERVAL.toSeconds();
+    long intervals = Math.floorDiv(instant.getEpochSecond(), intervalSeconds);
+    return Instant.ofEpochSecond(intervals * intervalSeconds);
+  }
+
+  private void publish(MarketTick tick, Instant[] firstReplayed) {
+    for (int i = 0; i < listeners.size(); i++) {
+      MarketTickListener listener = listeners.get(i);
+      if (tick.replay() && tick.point().timestamp().isBefore(firstReplayed[i])) {
+        continue;
+      }
+      try {
+        listener.onTick(tick);
+      } catch (RuntimeException exception) {
+        LOGGER.warn(
+            "Tick listener {} failed for {}",
+            listener.getClass().getSimpleName(),
+            tick.market(),
+            exception);
+      }
+    }
+    if (!tick.replay()) {
+      sink.tryEmitNext(tick);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.energymarket.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class SimulationClockTest {
+
+  private final MutableClock wall = new MutableClock(Instant.parse("2025-01-15T12:00:00Z"));
+
+  @Test
+  void shouldTrackSourceClockByDefault() {
+    SimulationClock clock = new SimulationClock(wall, null, 1.0);
+
+    wall.advance(Duration.ofSeconds(90));
+
+    assertThat(clock.instant()).isEqualTo(Instant.parse("2025-01-15T12:01:30Z"));
+  }
+
+  @Test
+  void shouldRunFromStartAtMultipliedSpeed() {
+    SimulationClock clock = new SimulationClock(wall, Instant.parse("2024-07-01T00:00:00Z"), 60.0);
+
+    wall.advance(Duration.ofSeconds(15));
+
+    assertThat(clock.instant()).isEqualTo(Instant.parse("2024-07-01T00:15:00Z"));
+  }
+
+  @Test
+  void shouldContinueFromCurrentSimulatedTimeWhenSpeedChanges() {
+    SimulationClock clock = new SimulationClock(wall, Instant.parse("2024-07-01T00:00:00Z"), 60.0);
+    wall.advance(Duration.ofSeconds(10));
+
+    clock.reset(null, 1000.0);
+    wall.advance(Duration.ofSeconds(9));
+
+    assertThat(clock.instant()).isEqualTo(Instant.parse("2024-07-01T02:40:00Z"));
+    assertThat(clock.speed()).isEqualTo(1000.0);
+  }
+
+  @Test
+  void shouldKeepTheCurrentSpeedWhenRestartingFromANewStart() {
+    SimulationClock clock = new SimulationClock(wall, null, 60.0);
+
+    clock.restart(Instant.parse("2024-07-01T00:00:00Z"));
+    wall.advance(Duration.ofSeconds(30));
+
+    assertThat(clock.instant()).isEqualTo(Instant.parse("2024-07-01T00:30:00Z"));
+    assertThat(clock.speed()).isEqualTo(60.0);
+  }
+
+  @Test
+  void shouldShareTimelineWithZonedCopies() {
+    SimulationClock clock = new SimulationClock(wall, Instant.parse("2024-07-01T00:00:00Z"), 0.0);
+    Clock zoned = clock.withZone(ZoneId.of("America/Chicago"));
+
+    clock.reset(Instant.parse("2024-08-01T00:00:00Z"), 0.0);
+
+    assertThat(zoned.instant()).isEqualTo(Instant.parse("2024-08-01T00:00:00Z"));
+  }
+
+  @Test
+  void shouldRejectInvalidSpeed() {
+    SimulationClock clock = new SimulationClock(wall, null, 1.0);
+
+    assertThatThrownBy(() -> clock.reset(null, -1.0)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> clock.reset(null, Double.NaN))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(clock.speed()).isEqualTo(1.0);
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant instant;
+
+    MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -0,0 +1,289 @@
+package com.energymarket.market.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.alert.AlertLog;
+import com.energymarket.market.api.ApiExceptionHandler;
+import com.energymarket.market.api.MarketController;
+import com.energymarket.market.api.ResponseBodyCache;
+import com.energymarket.market.cluster.ClusterMembership;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.service.MarketDataService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+class AdmissionFilterTest {
+
+  private static final String WEEK_SNAPSHOT =
+      "/PJM/snapshot?historyHours=168&historyResolutionMinutes=5";
+  private static final String SELF = "http://node-a:8080";
+  private static final String PEER = "http://node-b:8080";
+  private static final String SECRET = "cluster-secret";
+
+  private SimpleMeterRegistry registry;
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setUp() {
+    Clock clock = Clock.fixed(Instant.parse("2025-01-15T12:00:00Z"), ZoneOffset.UTC);
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    registry = new SimpleMeterRegistry();
+    MarketController controller =
+        new MarketController(
+            new MarketDataService(
+                clock,
+                new MarketDataGenerator(),
+                new AlertLog(AlertLog.DEFAULT_CAPACITY_PER_MARKET),
+                new LoadMonitor(
+                    new SimpleMeterRegistry(),
+                    Duration.ofMillis(250),
+                    0.85,
+                    Duration.ofSeconds(30)),
+                288),
+            new ResponseBodyCache(objectMapper, registry, ResponseBodyCache.DEFAULT_MAX_BYTES),
+            new ClusterMembership(
+                WebClient.builder(), registry, "", List.of(), "", Duration.ofSeconds(1)));
+    ApiExceptionHandler errors = new ApiExceptionHandler();
+    ClusterMembership cluster =
+        new ClusterMembership(
+            WebClient.builder(),
+            new SimpleMeterRegistry(),
+            SELF,
+            List.of(SELF, PEER),
+            SECRET,
+            Duration.ofSeconds(1));
+    // A frozen clock never refills the bucket: one week-long snapshot fits, a second does not.
+    AdmissionFilter filter =
+        new AdmissionFilter(errors, objectMapper, registry, cluster, 1_000, 3_000, () -> 0L);
+    this.webTestClient =
+        WebTestClient.bindToController(controller)
+            .controllerAdvice(errors)
+            .webFilter(filter)
+            .configureClient()
+            .baseUrl("/api/markets")
+            .build();
+  }
+
+  @Test
+  void shouldRejectRequestsBeyondTheClientBudgetWithProblemDetails() {
+    webTestClient.get().uri(WEEK_SNAPSHOT).exchange().expectStatus().isOk();
+
+    webTestClient
+        .get()
+        .uri(WEEK_SNAPSHOT)
+        .exchange()
+        .expectStatus()
+        .isEqualTo(429)
+        .expectHeader()
+        .contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON)
+        .expectHeader()
+        .valueEquals(HttpHeaders.RETRY_AFTER, "2")
+        .expectBody()
+        .jsonPath("$.title")
+        .isEqualTo("Rate limit exceeded")
+        .jsonPath("$.retryAfterSeconds")
+        .isEqualTo(2)
+        .jsonPath("$.instance")
+        .isEqualTo("/api/markets/PJM/snapshot");
+
+    // The remaining budget still covers cheap calls.
+    webTestClient.get().uri("/catalog").exchange().expectStatus().isOk();
+    assertThat(
+            registry.get("market.admission.requests").tag("outcome", "rejected").counter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void shouldChargeRequestsForwardedByAPeerToASeparateBudget() {
+    webTestClient.get().uri(WEEK_SNAPSHOT).exchange().expectStatus().isOk();
+
+    webTestClient
+        .get()
+        .uri(WEEK_SNAPSHOT)
+        .header(ClusterMembership.FORWARDED_BY, PEER)
+        .header(ClusterMembership.SECRET, SECRET)
+        .exchange()
+        .expectStatus()
+        .isOk();
+    webTestClient
+        .get()
+        .uri(WEEK_SNAPSHOT)
+        .header(ClusterMembership.FORWARDED_BY, "http://elsewhere:8080")
+        .header(ClusterMembership.SECRET, SECRET)
+        .exchange()
+        .expectStatus()
+        .isEqualTo(429);
+    webTestClient
+        .get()
+        .uri(WEEK_SNAPSHOT)
+        .header(ClusterMembership.FORWARDED_BY, PEER)
+        .exchange()
+        .expectStatus()
+        .isEqualTo(429);
+  }
+
+  @Test
+  void shouldEstimateCostFromSnapshotParameters() {
+    assertThat(RequestCost.estimate("/api/markets/catalog", Map.of())).isEqualTo(RequestCost.BASE);
+    assertThat(RequestCost.estimate("/api/markets/PJM/snapshot", Map.of()))
+        .isEqualTo(RequestCost.BASE + 96 + 12);
+    assertThat(
+            RequestCost.estimate(
+                "/api/markets/PJM/snapshot",
+                Map.of("historyHours", List.of("168"), "historyResolutionMinutes", List.of("5"))))
+        .isEqualTo(RequestCost.BASE + 2016 + 12);
+    assertThat(
+            RequestCost.estimate(
+                "/api/markets/PJM/snapshot",
+                Map.of("historyHours", List.of("168"), "cursor", List.of("abc"))))
+        .isEqualTo(RequestCost.BASE + 12);
+    assertThat(
+            RequestCost.estimate(
+                "/api/markets/PJM/snapshot", Map.of("historyHours", List.of("100000"))))
+        .isEqualTo(RequestCost.BASE + 672 + 12);
+    assertThat(
+            RequestCost.estimate(
+                "/api/markets/PJM/profile",
+                Map.of("days", List.of("364"), "resolutionMinutes", List.of("5"))))
+        .isEqualTo(RequestCost.BASE + 104_832 / 4);
+  }
+
+  @Test
+  void shouldEstimateCostOfOtherEndpoints() {
+    int markets = MarketCode.values().length;
+
+    assertThat(RequestCost.estimate("/api/cluster", Map.of())).isEqualTo(RequestCost.DEFAULT);
+    assertThat(RequestCost.estimate("/api/markets/alerts", Map.of()))
+        .isEqualTo(RequestCost.DEFAULT);
+    assertThat(RequestCost.estimate("/api/markets/PJM/derived", Map.of()))
+        .isEqualTo(RequestCost.DEFAULT);
+    assertThat(RequestCost.estimate("/api/markets/overview", Map.of()))
+        .isEqualTo(RequestCost.BASE + markets * 96L);
+    assertThat(RequestCost.estimate("/api/markets/distribution", Map.of()))
+        .isEqualTo(RequestCost.BASE + markets * 4L * 24);
+    assertThat(
+            RequestCost.estimate(
+                "/api/markets/distribution",
+                Map.of("markets", List.of("PJM,ERCOT"), "historyHours", List.of("soon"))))
+        .isEqualTo(RequestCost.BASE + 2 * 4L * 24);
+    assertThat(RequestCost.estimate("/api/markets/PJM/snapshot", Map.of("historyHours", List.of())))
+        .isEqualTo(RequestCost.BASE + 96 + 12);
+  }
+
+  @Test
+  void shouldOnlyTrustForwardedAddressesFromConfiguredProxies() {
+    ClientAddressResolver clients = new ClientAddressResolver(List.of("10.0.0.0/8"));
+
+    assertThat(clients.resolve(request("203.0.113.9", "X-Forwarded-For", "198.51.100.7")))
+        .isEqualTo("203.0.113.9");
+    assertThat(
+            clients.resolve(
+                request("10.1.2.3", "X-Forwarded-For", "192.0.2.1, 198.51.100.7, 10.9.9.9")))
+        .isEqualTo("198.51.100.7");
+    assertThat(
+            clients.resolve(
+                request("10.1.2.3", "Forwarded", "for=\"[2001:db8::1]:4711\";proto=https")))
+        .isEqualTo("2001:db8:0:0:0:0:0:1");
+    assertThat(clients.resolve(request("10.1.2.3", "X-Forwarded-For", "10.2.2.2")))
+        .isEqualTo("10.2.2.2");
+    assertThat(clients.resolve(request("10.1.2.3", "Forwarded", "for=_hidden, for=10.4.4.4")))
+        .isEqualTo("_hidden");
+    assertThat(clients.resolve(request("10.1.2.3", "Forwarded", "for=198.51.100.7:8080;by=x")))
+        .isEqualTo("198.51.100.7");
+    assertThat(clients.resolve(request("10.1.2.3", "X-Forwarded-For", " "))).isEqualTo("10.1.2.3");
+    assertThat(clients.resolve(MockServerHttpRequest.get("/api/markets/catalog").build()))
+        .isEqualTo(ClientAddressResolver.UNKNOWN_CLIENT);
+  }
+
+  @Test
+  void shouldMatchTrustedProxyRangesBitByBit() {
+    ClientAddressResolver clients =
+        new ClientAddressResolver(List.of(" ", "192.0.2.16/28", "2001:db8::/32"));
+
+    assertThat(clients.resolve(request("192.0.2.31", "X-Forwarded-For", "198.51.100.7")))
+        .isEqualTo("198.51.100.7");
+    assertThat(clients.resolve(request("192.0.2.32", "X-Forwarded-For", "198.51.100.7")))
+        .isEqualTo("192.0.2.32");
+    assertThat(clients.resolve(request("192.0.3.16", "X-Forwarded-For", "198.51.100.7")))
+        .isEqualTo("192.0.3.16");
+    assertThat(clients.resolve(request("2001:db8::5", "X-Forwarded-For", "198.51.100.7")))
+        .isEqualTo("198.51.100.7");
+    assertThatThrownBy(() -> new ClientAddressResolver(List.of("proxy.internal")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("not an IP address");
+    assertThatThrownBy(() -> new ClientAddressResolver(List.of("10.0.0.0/33")))
+        .hasMessageContaining("invalid trusted proxy range");
+    assertThatThrownBy(() -> new ClientAddressResolver(List.of("10.0.0.0/eight")))
+        .hasMessageContaining("invalid trusted proxy range");
+  }
+
+  @Test
+  void shouldRunCheapRequestsAheadOfAnotherClientsBacklog() throws InterruptedException {
+    FairScheduler scheduler = new FairScheduler(1, delay -> {});
+    try {
+      CountDownLatch busy = new CountDownLatch(1);
+      CountDownLatch done = new CountDownLatch(6);
+      List<String> order = Collections.synchronizedList(new ArrayList<>());
+      scheduler.forRequest("other", 1).execute(() -> awaitQuietly(busy));
+      for (int i = 0; i < 5; i++) {
+        String name = "snapshot-" + i;
+        scheduler
+            .forRequest("flood", 2_000)
+            .execute(
+                () -> {
+                  order.add(name);
+                  done.countDown();
+                });
+      }
+      scheduler
+          .forRequest("dashboard", RequestCost.BASE)
+          .execute(
+              () -> {
+                order.add("overview");
+                done.countDown();
+              });
+      busy.countDown();
+
+      assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(order.indexOf("overview")).isLessThanOrEqualTo(1);
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  private static MockServerHttpRequest request(String remote, String header, String value) {
+    return MockServerHttpRequest.get("/api/markets/catalog")
+        .remoteAddress(new InetSocketAddress(remote, 443))
+        .header(header, value)
+        .build();
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
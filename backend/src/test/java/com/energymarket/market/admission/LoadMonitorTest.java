@@ -0,0 +1,91 @@
+package com.energymarket.market.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoadMonitorTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private double cpuLoad;
+  private SimpleMeterRegistry registry;
+  private LoadMonitor monitor;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    monitor =
+        new LoadMonitor(
+            registry,
+            Duration.ofMillis(100),
+            0.8,
+            Duration.ofSeconds(5),
+            () -> cpuLoad,
+            nanoTime::get);
+  }
+
+  @Test
+  void shouldHoldTheOverloadForAWhileAfterTheCpuDrops() {
+    cpuLoad = 0.95;
+    monitor.sample();
+    assertThat(monitor.overloaded()).isTrue();
+    assertThat(registry.get("market.overload.active").gauge().value()).isEqualTo(1.0);
+
+    cpuLoad = 0.2;
+    advanceAndSample(4);
+    assertThat(monitor.overloaded()).isTrue();
+
+    advanceAndSample(1);
+    assertThat(monitor.overloaded()).isFalse();
+    assertThat(registry.get("market.overload.entered").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void shouldTrackQueueDelaysAndForgetThemWhenIdle() {
+    for (int task = 0; task < 20; task++) {
+      monitor.recordQueueDelay(TimeUnit.MILLISECONDS.toNanos(400));
+    }
+    monitor.sample();
+    assertThat(monitor.overloaded()).isTrue();
+    assertThat(monitor.queueDelayNanos()).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(300));
+
+    // Idle periods halve the estimate, which falls below the threshold after two of them.
+    advanceAndSample(3);
+    assertThat(monitor.queueDelayNanos()).isLessThan(TimeUnit.MILLISECONDS.toNanos(100));
+    assertThat(monitor.overloaded()).isTrue();
+
+    advanceAndSample(5);
+    assertThat(monitor.overloaded()).isFalse();
+  }
+
+  @Test
+  void shouldRejectInvalidThresholds() {
+    assertThatThrownBy(
+            () ->
+                new LoadMonitor(
+                    registry, Duration.ZERO, 0.8, Duration.ZERO, () -> 0.0, nanoTime::get))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("queue-delay");
+    assertThatThrownBy(
+            () ->
+                new LoadMonitor(
+                    registry, Duration.ofSeconds(1), 1.5, Duration.ZERO, () -> 0.0, nanoTime::get))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("market.overload.cpu");
+  }
+
+  private void advanceAndSample(int seconds) {
+    for (int second = 0; second < seconds; second++) {
+      nanoTime.addAndGet(SECOND);
+      monitor.sample();
+    }
+  }
+}
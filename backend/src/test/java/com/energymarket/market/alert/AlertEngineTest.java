@@ -0,0 +1,164 @@
+package com.energymarket.market.alert;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.alert.AlertRule.Direction;
+import com.energymarket.market.model.MarketAlert;
+import com.energymarket.market.model.MarketMetric;
+import com.energymarket.market.model.PricePoint;
+import com.energymarket.market.tick.MarketTick;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+class AlertEngineTest {
+
+  private static final Instant START = Instant.parse("2025-01-15T00:00:00Z");
+
+  private AlertLog alertLog;
+  private AlertEngine engine;
+
+  @BeforeEach
+  void setUp() {
+    alertLog = new AlertLog(AlertLog.DEFAULT_CAPACITY_PER_MARKET);
+    engine = new AlertEngine(alertLog, List.of());
+  }
+
+  @Test
+  void shouldFireThresholdRuleOnRisingEdgeOnly() {
+    engine.register(
+        new ThresholdRule(
+            "price-cap",
+            MarketCode.ERCOT,
+            MarketMetric.PRICE,
+            Direction.ABOVE,
+            100.0,
+            "Price %.0f"));
+
+    tick(MarketCode.ERCOT, 0, 90.0);
+    tick(MarketCode.ERCOT, 1, 120.0);
+    tick(MarketCode.ERCOT, 2, 130.0);
+    tick(MarketCode.ERCOT, 3, 80.0);
+    tick(MarketCode.ERCOT, 4, 110.0);
+    tick(MarketCode.PJM, 4, 500.0);
+
+    List<MarketAlert> alerts = alertLog.query(MarketCode.ERCOT, START, at(10), 10);
+    assertThat(alerts).extracting(MarketAlert::message).containsExactly("Price 110", "Price 120");
+    assertThat(alertLog.query(MarketCode.PJM, START, at(10), 10)).isEmpty();
+  }
+
+  @Test
+  void shouldDetectEwmaSpikeAfterWarmup() {
+    engine.register(
+        new EwmaZScoreRule(
+            "spike", null, MarketMetric.PRICE, Direction.ABOVE, 0.1, 2.0, 10, "Spike %2$+.0f%%"));
+
+    for (int i = 0; i < 20; i++) {
+      tick(MarketCode.MISO, i, 50.0 + (i % 2));
+    }
+    tick(MarketCode.MISO, 20, 80.0);
+
+    List<MarketAlert> alerts = alertLog.query(MarketCode.MISO, START, at(30), 10);
+    assertThat(alerts).hasSize(1);
+    assertThat(alerts.getFirst().timestamp()).isEqualTo(at(20));
+    assertThat(alerts.getFirst().message()).startsWith("Spike +");
+  }
+
+  @Test
+  void shouldDetectRisingRateOfChange() {
+    engine.register(
+        new RateOfChangeRule(
+            "carbon", null, MarketMetric.CARBON, Direction.ABOVE, 0.5, 1.0, "Rising %2$.1f/h"));
+
+    for (int i = 0; i < 4; i++) {
+      engine.onTick(new MarketTick(MarketCode.CAISO, point(i, 50.0, 300.0), false));
+    }
+    for (int i = 4; i < 8; i++) {
+      engine.onTick(new MarketTick(MarketCode.CAISO, point(i, 50.0, 300.0 + (i - 3) * 2.0), false));
+    }
+
+    assertThat(alertLog.query(MarketCode.CAISO, START, at(10), 10))
+        .singleElement()
+        .extracting(MarketAlert::ruleId)
+        .isEqualTo("carbon");
+  }
+
+  @Test
+  void shouldStopEvaluatingRemovedRules() {
+    engine.register(
+        new ThresholdRule("low", null, MarketMetric.PRICE, Direction.BELOW, 10.0, "Low"));
+    assertThat(engine.remove("low")).isTrue();
+    assertThat(engine.remove("low")).isFalse();
+
+    tick(MarketCode.NEISO, 0, 5.0);
+
+    assertThat(alertLog.size(MarketCode.NEISO)).isZero();
+    assertThat(engine.rules()).isEmpty();
+  }
+
+  @Test
+  void shouldPushLiveAlertsButNotReplayedOnes() {
+    engine.register(
+        new ThresholdRule("cap", null, MarketMetric.PRICE, Direction.ABOVE, 100.0, "Cap"));
+
+    StepVerifier.create(engine.stream(MarketCode.PJM).take(1))
+        .then(() -> engine.onTick(new MarketTick(MarketCode.PJM, point(0, 150.0, 300.0), true)))
+        .then(() -> tick(MarketCode.PJM, 1, 50.0))
+        .then(() -> tick(MarketCode.PJM, 2, 150.0))
+        .assertNext(alert -> assertThat(alert.timestamp()).isEqualTo(at(2)))
+        .verifyComplete();
+    assertThat(alertLog.size(MarketCode.PJM)).isEqualTo(2);
+  }
+
+  @Test
+  void shouldNotDuplicateAlertsReplayedAfterARewind() {
+    engine.register(
+        new ThresholdRule("cap", null, MarketMetric.PRICE, Direction.ABOVE, 100.0, "Cap"));
+    for (int pass = 0; pass < 2; pass++) {
+      for (int i = 0; i < 6; i++) {
+        engine.onTick(
+            new MarketTick(MarketCode.PJM, point(i, i % 2 == 0 ? 150.0 : 50.0, 300.0), pass > 0));
+      }
+    }
+
+    assertThat(alertLog.size(MarketCode.PJM)).isEqualTo(3);
+    assertThat(alertLog.query(MarketCode.PJM, START, at(4), 10))
+        .extracting(MarketAlert::timestamp)
+        .containsExactly(at(4), at(2), at(0));
+  }
+
+  @Test
+  void shouldEvictOldestAlertsBeyondCapacity() {
+    AlertLog bounded = new AlertLog(2);
+    AlertEngine boundedEngine =
+        new AlertEngine(
+            bounded,
+            List.of(
+                new ThresholdRule("cap", null, MarketMetric.PRICE, Direction.ABOVE, 100.0, "Cap")));
+
+    for (int i = 0; i < 10; i++) {
+      boundedEngine.onTick(
+          new MarketTick(MarketCode.ERCOT, point(i, i % 2 == 0 ? 150.0 : 50.0, 300.0), false));
+    }
+
+    assertThat(bounded.size(MarketCode.ERCOT)).isEqualTo(2);
+    assertThat(bounded.query(MarketCode.ERCOT, START, at(20), 10))
+        .extracting(MarketAlert::timestamp)
+        .containsExactly(at(8), at(6));
+  }
+
+  private void tick(MarketCode market, int index, double price) {
+    engine.onTick(new MarketTick(market, point(index, price, 300.0), false));
+  }
+
+  private static PricePoint point(int index, double price, double carbon) {
+    return new PricePoint(at(index), price, 30000.0, carbon, 40.0);
+  }
+
+  private static Instant at(int index) {
+    return START.plusSeconds(index * 900L);
+  }
+}
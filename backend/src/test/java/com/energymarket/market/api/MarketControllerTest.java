@@ -2,16 +2,29 @@ package com.energymarket.market.api;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.energymarket.market.admission.LoadMonitor;
+import com.energymarket.market.alert.AlertLog;
+import com.energymarket.market.cluster.ClusterMembership;
 import com.energymarket.market.generator.MarketDataGenerator;
 import com.energymarket.market.model.MarketMetadata;
 import com.energymarket.market.service.MarketDataService;
+import com.energymarket.market.telemetry.ServerTimingFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
 
 class MarketControllerTest {
 
@@ -20,11 +33,32 @@ class MarketControllerTest {
   @BeforeEach
   void setUp() {
     Clock clock = Clock.fixed(Instant.parse("2025-01-15T12:00:00Z"), ZoneOffset.UTC);
-    MarketDataService service = new MarketDataService(clock, new MarketDataGenerator());
-    MarketController controller = new MarketController(service);
+    MarketDataService service =
+        new MarketDataService(
+            clock,
+            new MarketDataGenerator(),
+            new AlertLog(AlertLog.DEFAULT_CAPACITY_PER_MARKET),
+            new LoadMonitor(
+                new SimpleMeterRegistry(), Duration.ofMillis(250), 0.85, Duration.ofSeconds(30)),
+            288);
+    ResponseBodyCache cache =
+        new ResponseBodyCache(
+            Jackson2ObjectMapperBuilder.json().build(),
+            new SimpleMeterRegistry(),
+            ResponseBodyCache.DEFAULT_MAX_BYTES);
+    ClusterMembership standalone =
+        new ClusterMembership(
+            WebClient.builder(),
+            new SimpleMeterRegistry(),
+            "",
+            List.of(),
+            "",
+            Duration.ofSeconds(1));
+    MarketController controller = new MarketController(service, cache, standalone);
     this.webTestClient =
         WebTestClient.bindToController(controller)
             .controllerAdvice(new ApiExceptionHandler())
+            .webFilter(new ServerTimingFilter())
             .configureClient()
             .baseUrl("/api/markets")
             .build();
@@ -77,6 +111,97 @@ class MarketControllerTest {
         .isArray();
   }
 
+  @Test
+  void shouldOmitUnrequestedFields() {
+    webTestClient
+        .get()
+        .uri(uriBuilder -> uriBuilder.path("/PJM/snapshot").queryParam("fields", "price").build())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.priceSeries[0].priceMwh")
+        .isNumber()
+        .jsonPath("$.priceSeries[0].demandMw")
+        .doesNotExist()
+        .jsonPath("$.forecast")
+        .doesNotExist()
+        .jsonPath("$.insights")
+        .doesNotExist();
+  }
+
+  @Test
+  void shouldServeGzipVariantOfCachedSnapshot() throws IOException {
+    byte[] identity =
+        webTestClient
+            .get()
+            .uri("/PJM/snapshot")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist(HttpHeaders.CONTENT_ENCODING)
+            .expectBody(byte[].class)
+            .returnResult()
+            .getResponseBody();
+    byte[] gzip =
+        webTestClient
+            .get()
+            .uri("/PJM/snapshot")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+            .expectHeader()
+            .valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .expectBody(byte[].class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(gzip.length).isLessThan(identity.length);
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+      assertThat(in.readAllBytes()).isEqualTo(identity);
+    }
+  }
+
+  @Test
+  void shouldReportServerTimingBreakdown() {
+    webTestClient
+        .get()
+        .uri("/ERCOT/snapshot")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .value(
+            ServerTimingFilter.SERVER_TIMING,
+            timing ->
+                assertThat(timing)
+                    .contains("history;dur=", "forecast;dur=", "serialize;dur=")
+                    .contains("cache;desc=\"miss\"")
+                    .containsPattern("total;dur=\\d+\\.\\d\\d$"));
+    webTestClient
+        .get()
+        .uri("/ERCOT/snapshot")
+        .exchange()
+        .expectHeader()
+        .value(
+            ServerTimingFilter.SERVER_TIMING,
+            timing -> assertThat(timing).contains("cache;desc=\"hit\"").doesNotContain("history"));
+  }
+
+  @Test
+  void shouldRejectUnknownField() {
+    webTestClient
+        .get()
+        .uri(uriBuilder -> uriBuilder.path("/overview").queryParam("fields", "volume").build())
+        .exchange()
+        .expectStatus()
+        .isBadRequest();
+  }
+
   @Test
   void shouldReturnNotFoundForUnknownMarket() {
     webTestClient
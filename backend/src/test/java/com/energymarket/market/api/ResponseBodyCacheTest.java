@@ -0,0 +1,153 @@
+package com.energymarket.market.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.energymarket.market.api.ResponseBodyCache.ContentEncoding;
+import com.energymarket.market.api.ResponseBodyCache.Encoded;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class ResponseBodyCacheTest {
+
+  private static final Instant BUCKET = Instant.parse("2025-01-15T12:00:00Z");
+
+  private SimpleMeterRegistry registry;
+  private AtomicInteger generated;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    generated = new AtomicInteger();
+  }
+
+  @Test
+  void shouldServeRepeatedRequestsFromOneSerialization() {
+    ResponseBodyCache cache = cache(ResponseBodyCache.DEFAULT_MAX_BYTES);
+    ResponseBodyCache.Key key = key("PJM", BUCKET);
+
+    byte[] first = bytes(cache.lookup(key, null, body("PJM")));
+    byte[] second = bytes(cache.lookup(key, null, body("PJM")));
+
+    assertThat(second).isEqualTo(first);
+    assertThat(new String(first)).isEqualTo("{\"market\":\"PJM\",\"prices\":[1,2,3]}");
+    assertThat(generated).hasValue(1);
+    assertThat(counter("market.response.cache.requests", "result", "hit")).isEqualTo(1.0);
+    assertThat(registry.get("market.response.cache.serialization.saved").counter().count())
+        .isEqualTo(first.length);
+
+    cache.lookup(key("PJM", BUCKET.plusSeconds(900)), null, body("PJM")).body().release();
+    assertThat(generated).hasValue(2);
+  }
+
+  @Test
+  void shouldCompressGzipVariantFromCachedIdentityBody() throws IOException {
+    ResponseBodyCache cache = cache(ResponseBodyCache.DEFAULT_MAX_BYTES);
+    ResponseBodyCache.Key key = key("ERCOT", BUCKET);
+
+    byte[] identity = bytes(cache.lookup(key, "identity", body("ERCOT")));
+    Encoded gzip = cache.lookup(key, "gzip, deflate", body("ERCOT"));
+    Encoded cachedGzip = cache.lookup(key, "deflate, gzip;q=0.8", body("ERCOT"));
+
+    assertThat(gzip.encoding()).isEqualTo(ContentEncoding.GZIP);
+    assertThat(cachedGzip.encoding()).isEqualTo(ContentEncoding.GZIP);
+    byte[] compressed = bytes(gzip);
+    assertThat(bytes(cachedGzip)).isEqualTo(compressed);
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      assertThat(in.readAllBytes()).isEqualTo(identity);
+    }
+    assertThat(generated).hasValue(1);
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedBodiesBeyondByteBound() throws IOException {
+    int bodyBytes =
+        Jackson2ObjectMapperBuilder.json()
+            .build()
+            .writeValueAsBytes(new Body("A", List.of(1, 2, 3)))
+            .length;
+    ResponseBodyCache cache = cache(bodyBytes * 2L);
+
+    Encoded first = cache.lookup(key("A", BUCKET), null, body("A"));
+    cache.lookup(key("B", BUCKET), null, body("B")).body().release();
+    cache.lookup(key("A", BUCKET), null, body("A")).body().release();
+    cache.lookup(key("C", BUCKET), null, body("C")).body().release();
+
+    assertThat(cache.sizeBytes()).isEqualTo(bodyBytes * 2L);
+    assertThat(registry.get("market.response.cache.evictions").counter().count()).isEqualTo(1.0);
+    generated.set(0);
+    cache.lookup(key("A", BUCKET), null, body("A")).body().release();
+    assertThat(generated).hasValue(0);
+    cache.lookup(key("B", BUCKET), null, body("B")).body().release();
+    assertThat(generated).hasValue(1);
+
+    // An in-flight body stays readable after its entry is evicted.
+    cache.lookup(key("D", BUCKET), null, body("D")).body().release();
+    cache.lookup(key("E", BUCKET), null, body("E")).body().release();
+    assertThat(new String(bytes(first))).contains("\"A\"");
+  }
+
+  @Test
+  void shouldServeOversizedBodiesWithoutCachingThem() {
+    ResponseBodyCache cache = cache(8);
+
+    Encoded body = cache.lookup(key("PJM", BUCKET), null, body("PJM"));
+
+    assertThat(body.body().refCnt()).isEqualTo(1);
+    assertThat(bytes(body)).isNotEmpty();
+    assertThat(cache.sizeBytes()).isZero();
+  }
+
+  @Test
+  void shouldNegotiatePreferredAcceptedEncoding() {
+    assertThat(ContentEncoding.negotiate(null, true)).isEqualTo(ContentEncoding.IDENTITY);
+    assertThat(ContentEncoding.negotiate("gzip, br", true)).isEqualTo(ContentEncoding.BROTLI);
+    assertThat(ContentEncoding.negotiate("gzip, br", false)).isEqualTo(ContentEncoding.GZIP);
+    assertThat(ContentEncoding.negotiate("br;q=0.5, gzip", true)).isEqualTo(ContentEncoding.GZIP);
+    assertThat(ContentEncoding.negotiate("*", true)).isEqualTo(ContentEncoding.BROTLI);
+    assertThat(ContentEncoding.negotiate("*, br;q=0", true)).isEqualTo(ContentEncoding.GZIP);
+    assertThat(ContentEncoding.negotiate("gzip;q=0, deflate", true))
+        .isEqualTo(ContentEncoding.IDENTITY);
+  }
+
+  private ResponseBodyCache cache(long maxBytes) {
+    return new ResponseBodyCache(Jackson2ObjectMapperBuilder.json().build(), registry, maxBytes);
+  }
+
+  private static ResponseBodyCache.Key key(String market, Instant bucket) {
+    return new ResponseBodyCache.Key("test", List.of(market), bucket);
+  }
+
+  private Supplier<Body> body(String market) {
+    return () -> {
+      generated.incrementAndGet();
+      return new Body(market, List.of(1, 2, 3));
+    };
+  }
+
+  private double counter(String name, String tag, String value) {
+    return registry.get(name).tag(tag, value).counter().count();
+  }
+
+  record Body(String market, List<Integer> prices) {}
+
+  /** Reads and releases the caller's reference to an encoded body. */
+  private static byte[] bytes(Encoded encoded) {
+    ByteBuf body = encoded.body();
+    try {
+      return ByteBufUtil.getBytes(body);
+    } finally {
+      body.release();
+    }
+  }
+}
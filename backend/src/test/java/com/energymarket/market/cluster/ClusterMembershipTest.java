@@ -0,0 +1,290 @@
+package com.energymarket.market.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.api.ResponseBodyCache.SerializedJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ClusterMembershipTest {
+
+  private static final String A = "http://node-a:8080";
+  private static final String B = "http://node-b:8080";
+  private static final String C = "http://node-c:8080";
+  private static final String SECRET = "cluster-secret";
+  private static final Supplier<Object> LOCAL = () -> "local";
+
+  private FakeTransport transport;
+  private SimpleMeterRegistry registry;
+  private ClusterMembership membership;
+
+  @BeforeEach
+  void setUp() {
+    transport = new FakeTransport();
+    registry = new SimpleMeterRegistry();
+    membership =
+        new ClusterMembership(
+            transport, registry, A, List.of(A, B + "/", C), SECRET, Duration.ofSeconds(1));
+  }
+
+  @Test
+  void shouldOnlyMoveTheMarketsOfADepartedPeer() {
+    HashRing all = new HashRing(List.of(A, B, C));
+    HashRing withoutB = new HashRing(List.of(A, C));
+
+    for (MarketCode market : MarketCode.values()) {
+      String owner = all.owner(market.code());
+      if (!owner.equals(B)) {
+        assertThat(withoutB.owner(market.code())).isEqualTo(owner);
+      }
+    }
+    for (int i = 0; i < 1_000; i++) {
+      String key = "key-" + i;
+      assertThat(new HashRing(List.of(C, A, B)).owner(key)).isEqualTo(all.owner(key));
+    }
+  }
+
+  @Test
+  void shouldFetchSnapshotsOfRemoteMarketsFromTheirOwnerAtTheServedResolution() {
+    MarketCode remote = remoteMarket();
+    String owner = membership.remoteOwner(remote).orElseThrow();
+
+    Object body =
+        membership
+            .route(
+                remote.code(),
+                exchange(remote, null),
+                Map.of("historyResolutionMinutes", 60),
+                LOCAL)
+            .block();
+
+    assertThat(body).isInstanceOf(SerializedJson.class);
+    assertThat(new String(((SerializedJson) body).bytes(), StandardCharsets.UTF_8))
+        .isEqualTo("{\"from\":\"" + owner + "\"}");
+    assertThat(transport.fetched)
+        .containsExactly(
+            owner
+                + " /api/markets/"
+                + remote.code()
+                + "/snapshot?historyHours=48&historyResolutionMinutes=60");
+    assertThat(registry.get("market.cluster.forwarded").tag("result", "fetched").counter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void shouldServeOwnedAndForwardedRequestsLocally() {
+    MarketCode remote = remoteMarket();
+    for (MarketCode market : MarketCode.values()) {
+      if (membership.remoteOwner(market).isEmpty()) {
+        assertThat(membership.route(market.code(), exchange(market, null), Map.of(), LOCAL).block())
+            .isEqualTo("local");
+      }
+    }
+
+    assertThat(membership.route(remote.code(), exchange(remote, B), Map.of(), LOCAL).block())
+        .isEqualTo("local");
+    assertThat(membership.route("XYZ", exchange(remote, null), Map.of(), LOCAL).block())
+        .isEqualTo("local");
+    assertThat(transport.fetched).isEmpty();
+  }
+
+  @Test
+  void shouldForwardRequestsNamingAPeerWithoutTheSecret() {
+    MarketCode remote = remoteMarket();
+    MockServerWebExchange spoofed =
+        MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/markets/{code}/snapshot", remote.code())
+                .header(ClusterMembership.FORWARDED_BY, B));
+
+    assertThat(membership.route(remote.code(), spoofed, Map.of(), LOCAL).block())
+        .isInstanceOf(SerializedJson.class);
+    assertThat(transport.fetched).hasSize(1);
+  }
+
+  @Test
+  void shouldFallBackLocallyAndRebalanceWhenTheOwnerFails() {
+    MarketCode remote = remoteMarket();
+    String owner = membership.remoteOwner(remote).orElseThrow();
+    transport.down.add(owner);
+
+    assertThat(membership.route(remote.code(), exchange(remote, null), Map.of(), LOCAL).block())
+        .isEqualTo("local");
+    assertThat(membership.view().live()).doesNotContain(owner).contains(A);
+    assertThat(membership.view().owners()).doesNotContainValue(owner);
+    assertThat(registry.get("market.cluster.rebalances").counter().count()).isEqualTo(1.0);
+
+    transport.down.clear();
+    membership.probe();
+
+    assertThat(membership.view().live()).containsExactlyInAnyOrder(A, B, C);
+    assertThat(membership.remoteOwner(remote)).contains(owner);
+    assertThat(registry.get("market.cluster.live.peers").gauge().value()).isEqualTo(3.0);
+  }
+
+  @Test
+  void shouldProbeWithoutWaitingForAnswersOrOverlappingRounds() {
+    Sinks.One<Boolean> answer = Sinks.one();
+    transport.pendingProbe = answer.asMono();
+
+    membership.probe();
+    membership.probe();
+
+    assertThat(transport.probes).isEqualTo(2);
+    assertThat(membership.view().live()).containsExactlyInAnyOrder(A, B, C);
+
+    answer.tryEmitValue(false);
+
+    assertThat(membership.view().live()).containsExactly(A);
+    transport.pendingProbe = null;
+    membership.probe();
+    assertThat(transport.probes).isEqualTo(4);
+    assertThat(membership.view().live()).containsExactlyInAnyOrder(A, B, C);
+  }
+
+  @Test
+  void shouldKeepAnOwnerAnsweringWithAnErrorStatusOnTheRing() {
+    MarketCode remote = remoteMarket();
+    String owner = membership.remoteOwner(remote).orElseThrow();
+    transport.rejecting.add(owner);
+
+    assertThat(membership.route(remote.code(), exchange(remote, null), Map.of(), LOCAL).block())
+        .isEqualTo("local");
+    assertThat(membership.remoteOwner(remote)).contains(owner);
+    assertThat(registry.get("market.cluster.forwarded").tag("result", "failed").counter().count())
+        .isEqualTo(1.0);
+    assertThat(registry.get("market.cluster.rebalances").counter().count()).isZero();
+  }
+
+  @Test
+  void shouldOnlyRecogniseRequestsForwardedByOtherConfiguredNodes() {
+    assertThat(membership.forwardedByPeer(forwardedBy(B + "/"))).isTrue();
+    assertThat(membership.forwardedByPeer(forwardedBy("http://elsewhere:8080"))).isFalse();
+    assertThat(membership.forwardedByPeer(forwardedBy(A))).isFalse();
+    assertThat(membership.forwardedByPeer(new HttpHeaders())).isFalse();
+
+    HttpHeaders guessed = forwardedBy(B);
+    guessed.set(ClusterMembership.SECRET, "guess");
+    HttpHeaders unsigned = forwardedBy(B);
+    unsigned.remove(ClusterMembership.SECRET);
+    assertThat(membership.forwardedByPeer(guessed)).isFalse();
+    assertThat(membership.forwardedByPeer(unsigned)).isFalse();
+    assertThat(membership.fromPeer(guessed)).isFalse();
+    assertThat(membership.fromPeer(forwardedBy(A))).isTrue();
+  }
+
+  @Test
+  void shouldOnlyShowTheClusterViewToPeers() {
+    WebTestClient client =
+        WebTestClient.bindToController(new ClusterController(membership)).build();
+
+    client.get().uri("/api/cluster").exchange().expectStatus().isNotFound();
+    client
+        .get()
+        .uri("/api/cluster")
+        .header(ClusterMembership.SECRET, SECRET)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.peers.length()")
+        .isEqualTo(3);
+  }
+
+  @Test
+  void shouldRunStandaloneWithoutPeers() {
+    ClusterMembership standalone =
+        new ClusterMembership(transport, registry, "", List.of(), "", Duration.ofSeconds(1));
+
+    assertThat(standalone.enabled()).isFalse();
+    assertThat(standalone.route("PJM", exchange(MarketCode.PJM, null), Map.of(), LOCAL).block())
+        .isEqualTo("local");
+    assertThat(standalone.forwardedByPeer(forwardedBy(B))).isFalse();
+    assertThat(standalone.view().owners()).containsEntry("PJM", "");
+    assertThatThrownBy(
+            () ->
+                new ClusterMembership(transport, registry, A, List.of(B, C), SECRET, Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () ->
+                new ClusterMembership(
+                    transport, registry, A, List.of(A, B), " ", Duration.ofSeconds(1)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("market.cluster.secret");
+  }
+
+  private MarketCode remoteMarket() {
+    for (MarketCode market : MarketCode.values()) {
+      if (membership.remoteOwner(market).isPresent()) {
+        return market;
+      }
+    }
+    throw new AssertionError("Every market hashed to " + A);
+  }
+
+  private static MockServerWebExchange exchange(MarketCode market, String forwardedBy) {
+    MockServerHttpRequest.BaseBuilder<?> request =
+        MockServerHttpRequest.get(
+            "/api/markets/{code}/snapshot?historyHours=48&historyResolutionMinutes=15",
+            market.code());
+    if (forwardedBy != null) {
+      request.headers(forwardedBy(forwardedBy));
+    }
+    return MockServerWebExchange.from(request);
+  }
+
+  private static HttpHeaders forwardedBy(String node) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(ClusterMembership.FORWARDED_BY, node);
+    headers.set(ClusterMembership.SECRET, SECRET);
+    return headers;
+  }
+
+  private static final class FakeTransport implements PeerTransport {
+
+    private final Set<String> down = new HashSet<>();
+    private final Set<String> rejecting = new HashSet<>();
+    private final List<String> fetched = new ArrayList<>();
+    private Mono<Boolean> pendingProbe;
+    private int probes;
+
+    @Override
+    public Mono<Boolean> probe(String peer, Duration timeout) {
+      probes++;
+      return pendingProbe != null ? pendingProbe : Mono.just(!down.contains(peer));
+    }
+
+    @Override
+    public Mono<byte[]> fetch(String peer, String pathAndQuery, String self, Duration timeout) {
+      if (down.contains(peer)) {
+        return Mono.error(new PeerUnreachableException(peer, new ConnectException("refused")));
+      }
+      if (rejecting.contains(peer)) {
+        return Mono.error(
+            WebClientResponseException.create(
+                HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests", null, null, null));
+      }
+      fetched.add(peer + " " + pathAndQuery);
+      return Mono.just(("{\"from\":\"" + peer + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
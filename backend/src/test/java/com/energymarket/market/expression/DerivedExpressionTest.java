@@ -0,0 +1,192 @@
+package com.energymarket.market.expression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.MarketMetric;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleBinaryOperator;
+import org.junit.jupiter.api.Test;
+
+class DerivedExpressionTest {
+
+  private static final Duration STEP = Duration.ofMinutes(15);
+  private static final double[] PRICES = {40, 55, 35, 60, 42, 48, 70, 30, 51, 45};
+  private static final double[] DEMAND = {900, 950, 1000, 1100, 1050, 980, 1200, 870, 940, 1010};
+
+  @Test
+  void shouldApplyOperatorPrecedenceAndFoldConstants() {
+    DerivedExpression expression = DerivedExpression.compile("-2^2 + price * (3 - 1) / 4");
+
+    double[] values = expression.evaluate(new double[][] {PRICES}, STEP);
+
+    assertThat(expression.columns()).containsExactly(new ColumnRef(null, MarketMetric.PRICE));
+    for (int i = 0; i < PRICES.length; i++) {
+      assertThat(values[i]).isCloseTo(-4 + PRICES[i] / 2, within(1e-9));
+    }
+  }
+
+  @Test
+  void shouldMatchElementWiseArithmeticForEveryOperatorAndFunction() {
+    Map<String, DoubleBinaryOperator> cases = new LinkedHashMap<>();
+    cases.put("price + demand", (p, d) -> p + d);
+    cases.put("price - demand", (p, d) -> p - d);
+    cases.put("demand / price", (p, d) -> d / p);
+    cases.put("price ^ 0.5 * demand", (p, d) -> Math.pow(p, 0.5) * d);
+    cases.put("price + 2", (p, d) -> p + 2);
+    cases.put("price - 2", (p, d) -> p - 2);
+    cases.put("price * 2", (p, d) -> p * 2);
+    cases.put("price / 2", (p, d) -> p / 2);
+    cases.put("2 + price", (p, d) -> 2 + p);
+    cases.put("100 - price", (p, d) -> 100 - p);
+    cases.put("2 * price", (p, d) -> 2 * p);
+    cases.put("100 / price", (p, d) -> 100 / p);
+    cases.put("-price", (p, d) -> -p);
+    cases.put("abs(50 - price)", (p, d) -> Math.abs(50 - p));
+    cases.put("sqrt(price)", (p, d) -> Math.sqrt(p));
+    cases.put("exp(price / 100)", (p, d) -> Math.exp(p / 100));
+    cases.put("min(price, demand / 20)", (p, d) -> Math.min(p, d / 20));
+    cases.put("max(price, 50)", (p, d) -> Math.max(p, 50));
+    cases.put("1.5e1 * price + 2E-1", (p, d) -> 15 * p + 0.2);
+    cases.put(
+        "price + abs(-2) + sqrt(4) + log(1) + exp(0) + min(1, 2) + max(1, 2) + 3 * 2 - 8 / 4",
+        (p, d) -> p + 12);
+
+    cases.forEach(
+        (source, expected) -> {
+          DerivedExpression expression = DerivedExpression.compile(source);
+          double[][] columns =
+              expression.columns().stream()
+                  .map(column -> column.metric() == MarketMetric.PRICE ? PRICES : DEMAND)
+                  .toArray(double[][]::new);
+
+          double[] values = expression.evaluate(columns, STEP);
+
+          for (int i = 0; i < PRICES.length; i++) {
+            assertThat(values[i])
+                .as(source)
+                .isCloseTo(expected.applyAsDouble(PRICES[i], DEMAND[i]), within(1e-9));
+          }
+        });
+  }
+
+  @Test
+  void shouldEvaluateRollingWindowsAgainstBruteForce() {
+    DerivedExpression expression =
+        DerivedExpression.compile(
+            "rolling_sum(price * demand, 1h) / rolling_sum(demand, 1h)"
+                + " + rolling_max(price, 1h) - rolling_min(price, 1h)"
+                + " + rolling_std(price, 1h) - lag(price, 30m)");
+
+    double[] values = expression.evaluate(new double[][] {PRICES, DEMAND}, STEP);
+
+    assertThat(expression.lookback()).isEqualTo(Duration.ofHours(1));
+    assertThat(values[2]).isNaN();
+    for (int i = 3; i < PRICES.length; i++) {
+      double weighted = 0.0;
+      double demand = 0.0;
+      double max = Double.NEGATIVE_INFINITY;
+      double min = Double.POSITIVE_INFINITY;
+      double sum = 0.0;
+      double squares = 0.0;
+      for (int j = i - 3; j <= i; j++) {
+        weighted += PRICES[j] * DEMAND[j];
+        demand += DEMAND[j];
+        max = Math.max(max, PRICES[j]);
+        min = Math.min(min, PRICES[j]);
+        sum += PRICES[j];
+        squares += PRICES[j] * PRICES[j];
+      }
+      double mean = sum / 4;
+      double expected =
+          weighted / demand + max - min + Math.sqrt(squares / 4 - mean * mean) - PRICES[i - 2];
+      assertThat(values[i]).isCloseTo(expected, within(1e-9));
+    }
+  }
+
+  @Test
+  void shouldDefineNestedWindowsOnceTheirInnerWindowsAreFull() {
+    DerivedExpression lagged = DerivedExpression.compile("rolling_sum(lag(price, 30m), 30m)");
+    DerivedExpression smoothed =
+        DerivedExpression.compile("rolling_mean(rolling_mean(price, 30m), 30m)");
+    DerivedExpression logged = DerivedExpression.compile("rolling_max(log(price - 40), 30m)");
+
+    double[] sums = lagged.evaluate(new double[][] {PRICES}, STEP);
+    double[] means = smoothed.evaluate(new double[][] {PRICES}, STEP);
+    double[] logs = logged.evaluate(new double[][] {PRICES}, STEP);
+
+    assertThat(smoothed.lookback()).isEqualTo(Duration.ofHours(1));
+    assertThat(sums[2]).isNaN();
+    assertThat(means[1]).isNaN();
+    for (int i = 3; i < PRICES.length; i++) {
+      assertThat(sums[i]).isCloseTo(PRICES[i - 3] + PRICES[i - 2], within(1e-9));
+    }
+    for (int i = 2; i < PRICES.length; i++) {
+      double expected = (PRICES[i - 2] + 2 * PRICES[i - 1] + PRICES[i]) / 4;
+      assertThat(means[i]).isCloseTo(expected, within(1e-9));
+    }
+    // Price 35 at index 2 has no logarithm, which leaves only the windows holding it undefined.
+    assertThat(logs[2]).isNaN();
+    assertThat(logs[3]).isNaN();
+    assertThat(logs[5]).isCloseTo(Math.log(8), within(1e-9));
+    assertThat(logs[9]).isCloseTo(Math.log(11), within(1e-9));
+  }
+
+  @Test
+  void shouldResolveColumnsOfOtherMarkets() {
+    DerivedExpression expression = DerivedExpression.compile("price - pjm.price + PJM.price");
+
+    assertThat(expression.columns())
+        .containsExactly(
+            new ColumnRef(null, MarketMetric.PRICE),
+            new ColumnRef(MarketCode.PJM, MarketMetric.PRICE));
+    assertThat(expression.columns().get(0).resolve(MarketCode.ERCOT).market())
+        .isEqualTo(MarketCode.ERCOT);
+  }
+
+  @Test
+  void shouldRejectMalformedExpressions() {
+    assertThatThrownBy(() -> DerivedExpression.compile("price +"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("position 8");
+    assertThatThrownBy(() -> DerivedExpression.compile("median(price)"))
+        .hasMessageContaining("unknown function median");
+    assertThatThrownBy(() -> DerivedExpression.compile("XYZ.price"))
+        .hasMessageContaining("unknown market XYZ");
+    assertThatThrownBy(() -> DerivedExpression.compile("price * 4h"))
+        .hasMessageContaining("durations are only allowed");
+    assertThatThrownBy(() -> DerivedExpression.compile("rolling_mean(price)"))
+        .hasMessageContaining("expected ','");
+    assertThatThrownBy(() -> DerivedExpression.compile(" "))
+        .hasMessageContaining("must not be blank");
+    assertThatThrownBy(() -> DerivedExpression.compile("price".repeat(201)))
+        .hasMessageContaining("must not exceed");
+    assertThatThrownBy(() -> DerivedExpression.compile("price)"))
+        .hasMessageContaining("unexpected ')'");
+    assertThatThrownBy(() -> DerivedExpression.compile("price * 1.2.3"))
+        .hasMessageContaining("malformed number");
+    assertThatThrownBy(() -> DerivedExpression.compile("pjm.volume"))
+        .hasMessageContaining("unknown column volume");
+    assertThatThrownBy(() -> DerivedExpression.compile("lag(price, 30"))
+        .hasMessageContaining("expected a window such as");
+    assertThatThrownBy(() -> DerivedExpression.compile("lag(price, 30s)"))
+        .hasMessageContaining("expected a window unit");
+    assertThatThrownBy(() -> DerivedExpression.compile("lag(price, 0h)"))
+        .hasMessageContaining("window must be positive");
+    assertThatThrownBy(() -> DerivedExpression.compile("lag(price, 99999999999999999999d)"))
+        .hasMessageContaining("window is too long");
+    assertThatThrownBy(() -> DerivedExpression.compile("2 * 21"))
+        .hasMessageContaining("at least one column");
+    assertThatThrownBy(() -> DerivedExpression.compile("(".repeat(100) + "price" + ")".repeat(100)))
+        .hasMessageContaining("nested too deeply");
+    assertThatThrownBy(
+            () ->
+                DerivedExpression.compile("rolling_mean(price, 1h)")
+                    .evaluate(new double[][] {PRICES}, Duration.ofMinutes(45)))
+        .hasMessageContaining("not a multiple");
+  }
+}
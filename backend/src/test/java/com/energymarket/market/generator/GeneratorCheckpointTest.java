@@ -0,0 +1,79 @@
+package com.energymarket.market.generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.MarketSnapshot;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GeneratorCheckpointTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-15T12:00:00Z");
+
+  @TempDir Path directory;
+
+  @Test
+  void shouldServeTheSameSnapshotsFromARestoredCheckpoint() throws IOException {
+    Path file = directory.resolve("state.ckpt");
+    MarketDataGenerator cold = new MarketDataGenerator();
+    MarketSnapshot expected = snapshot(cold, MarketCode.PJM);
+    snapshot(cold, MarketCode.ERCOT);
+
+    CheckpointSummary written = cold.writeCheckpoint(file);
+    MarketDataGenerator warm = new MarketDataGenerator();
+    CheckpointSummary restored = warm.restoreCheckpoint(file);
+
+    assertThat(written.buckets()).isEqualTo(2 * 48);
+    assertThat(written.forecastStates()).isEqualTo(2);
+    assertThat(restored).isEqualTo(written);
+    assertThat(written.bytes()).isEqualTo(Files.size(file));
+    assertThat(snapshot(warm, MarketCode.PJM)).isEqualTo(expected);
+
+    // Restored buckets that have not been used yet are carried into the next checkpoint.
+    assertThat(warm.writeCheckpoint(file).buckets()).isEqualTo(written.buckets());
+  }
+
+  @Test
+  void shouldRejectCorruptOrMissingCheckpoints() throws IOException {
+    Path file = directory.resolve("state.ckpt");
+    MarketDataGenerator generator = new MarketDataGenerator();
+    assertThatThrownBy(() -> generator.restoreCheckpoint(file))
+        .isInstanceOf(NoSuchFileException.class);
+
+    snapshot(generator, MarketCode.CAISO);
+    generator.writeCheckpoint(file);
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file, bytes);
+    assertThatThrownBy(() -> new MarketDataGenerator().restoreCheckpoint(file))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("checksum");
+
+    ByteBuffer.wrap(bytes).putLong(8, 42L);
+    Files.write(file, bytes);
+    assertThatThrownBy(() -> new MarketDataGenerator().restoreCheckpoint(file))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("incompatible generator");
+  }
+
+  private static MarketSnapshot snapshot(MarketDataGenerator generator, MarketCode market) {
+    return generator.generateSnapshot(
+        market,
+        NOW,
+        Duration.ofHours(48),
+        Duration.ofMinutes(15),
+        Duration.ofHours(24),
+        Duration.ofHours(1),
+        FieldSelection.ALL,
+        ForecastModel.HOLT_WINTERS);
+  }
+}
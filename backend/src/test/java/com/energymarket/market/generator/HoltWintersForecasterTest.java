@@ -0,0 +1,87 @@
+package com.energymarket.market.generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.model.BacktestReport;
+import com.energymarket.market.model.ForecastPoint;
+import com.energymarket.market.model.MarketSnapshot;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HoltWintersForecasterTest {
+
+  private static final Duration DAY = Duration.ofHours(24);
+  private static final Duration QUARTER_HOUR = Duration.ofMinutes(15);
+  private static final Duration HOUR = Duration.ofHours(1);
+
+  @Test
+  void shouldForecastTheSameFromCachedAndFreshState() {
+    Instant now = Instant.parse("2025-01-15T12:00:00Z");
+    MarketDataGenerator warm = new MarketDataGenerator();
+    snapshot(warm, now.minus(Duration.ofHours(3)));
+    snapshot(warm, now.minus(HOUR));
+
+    List<ForecastPoint> incremental = snapshot(warm, now).forecast();
+    List<ForecastPoint> fresh = snapshot(new MarketDataGenerator(), now).forecast();
+
+    assertThat(incremental).hasSize(12).isEqualTo(fresh);
+  }
+
+  @Test
+  void shouldNotDisturbCachedStateWhenAskedForAnEarlierOrigin() {
+    Instant now = Instant.parse("2025-01-15T12:00:00Z");
+    MarketDataGenerator generator = new MarketDataGenerator();
+    List<ForecastPoint> before = snapshot(generator, now).forecast();
+    snapshot(generator, now.minus(Duration.ofDays(10)));
+
+    assertThat(snapshot(generator, now).forecast()).isEqualTo(before);
+  }
+
+  @Test
+  void shouldBeatTheNaiveModelInBacktest() {
+    BacktestReport naive = backtest(ForecastModel.SEASONAL_NAIVE);
+    BacktestReport holtWinters = backtest(ForecastModel.HOLT_WINTERS);
+
+    assertThat(holtWinters.forecastModel()).isEqualTo("holt-winters");
+    assertThat(holtWinters.horizons().getLast().mae()).isLessThan(naive.horizons().getLast().mae());
+    assertThat(holtWinters.horizons().getFirst().bandCoveragePercent()).isGreaterThan(50.0);
+  }
+
+  @Test
+  void shouldParseModelCodes() {
+    assertThat(ForecastModel.parse(null)).isEqualTo(ForecastModel.SEASONAL_NAIVE);
+    assertThat(ForecastModel.parse(" Holt-Winters ")).isEqualTo(ForecastModel.HOLT_WINTERS);
+    assertThatThrownBy(() -> ForecastModel.parse("arima"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("arima");
+  }
+
+  private static BacktestReport backtest(ForecastModel model) {
+    Instant last = Instant.parse("2025-01-15T00:00:00Z");
+    return new ForecastBacktester(new MarketDataGenerator())
+        .run(
+            MarketCode.PJM,
+            last.minus(Duration.ofDays(14)),
+            last,
+            HOUR,
+            Duration.ofHours(12),
+            HOUR,
+            model);
+  }
+
+  private static MarketSnapshot snapshot(MarketDataGenerator generator, Instant now) {
+    return generator.generateSnapshot(
+        MarketCode.PJM,
+        now,
+        DAY,
+        QUARTER_HOUR,
+        Duration.ofHours(12),
+        HOUR,
+        FieldSelection.parse("price,forecast"),
+        ForecastModel.HOLT_WINTERS);
+  }
+}
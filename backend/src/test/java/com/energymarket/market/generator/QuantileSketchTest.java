@@ -0,0 +1,59 @@
+package com.energymarket.market.generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class QuantileSketchTest {
+
+  @Test
+  void shouldEstimateQuantilesWithinRelativeAccuracy() {
+    Random random = new Random(7);
+    double[] values = new double[10_000];
+    QuantileSketch sketch = new QuantileSketch();
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 20.0 + Math.exp(random.nextGaussian()) * 50.0;
+      sketch.add(values[i]);
+    }
+    Arrays.sort(values);
+
+    for (double q : new double[] {0.05, 0.25, 0.5, 0.75, 0.95, 0.99}) {
+      double exact = values[(int) (q * (values.length - 1))];
+      assertThat(sketch.quantile(q)).isCloseTo(exact, withinPercentage(1.0));
+    }
+    assertThat(sketch.quantile(0.0)).isEqualTo(values[0]);
+    assertThat(sketch.quantile(1.0)).isEqualTo(values[values.length - 1]);
+  }
+
+  @Test
+  void shouldMergeToTheSketchOfCombinedValues() {
+    QuantileSketch combined = new QuantileSketch();
+    QuantileSketch merged = new QuantileSketch();
+    for (int bucket = 0; bucket < 24; bucket++) {
+      QuantileSketch part = new QuantileSketch();
+      for (int i = 0; i < 4; i++) {
+        double value = 40.0 + bucket * 3.5 + i;
+        part.add(value);
+        combined.add(value);
+      }
+      merged.merge(part);
+    }
+
+    assertThat(merged.count()).isEqualTo(combined.count());
+    for (double q = 0.0; q <= 1.0; q += 0.05) {
+      assertThat(merged.quantile(q)).isEqualTo(combined.quantile(q));
+    }
+  }
+
+  @Test
+  void shouldIgnoreUnsetValues() {
+    QuantileSketch sketch = new QuantileSketch();
+    sketch.add(Double.NaN);
+
+    assertThat(sketch.count()).isZero();
+    assertThat(sketch.quantile(0.5)).isNaN();
+  }
+}
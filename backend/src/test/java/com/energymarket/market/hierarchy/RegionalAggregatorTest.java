@@ -0,0 +1,133 @@
+package com.energymarket.market.hierarchy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.AggregateOverview;
+import com.energymarket.market.model.AggregateSeries;
+import com.energymarket.market.model.PricePoint;
+import com.energymarket.market.tick.MarketTick;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RegionalAggregatorTest {
+
+  private static final Instant START = Instant.parse("2025-01-15T00:00:00Z");
+  private static final Duration STEP = Duration.ofMinutes(15);
+
+  private MarketDataGenerator generator;
+  private RegionalAggregator aggregator;
+
+  @BeforeEach
+  void setUp() {
+    generator = new MarketDataGenerator();
+    aggregator = new RegionalAggregator();
+  }
+
+  @Test
+  void shouldWeightPricesByDemandAtEveryLevel() {
+    publish(START, 8);
+    Instant last = START.plus(STEP.multipliedBy(7));
+
+    assertAggregate(
+        aggregator.overview("east").orElseThrow(), last, MarketCode.NEISO, MarketCode.PJM);
+    assertAggregate(aggregator.overview("US").orElseThrow(), last, MarketCode.values());
+    AggregateOverview pjm = aggregator.overview("PJM").orElseThrow();
+    assertThat(pjm.priceMwh()).isEqualTo(generator.generatePoint(MarketCode.PJM, last).priceMwh());
+    assertThat(pjm.parentId()).isEqualTo("EAST");
+    assertThat(pjm.level()).isEqualTo("iso");
+    assertThat(aggregator.overviews())
+        .extracting(AggregateOverview::id)
+        .containsExactly("US", "WEST", "CENTRAL", "EAST", "CAISO", "ERCOT", "MISO", "NEISO", "PJM");
+
+    AggregateSeries series = aggregator.series("US", Duration.ofHours(1)).orElseThrow();
+    assertThat(series.points()).hasSize(5);
+    assertThat(series.points().getLast().timestamp()).isEqualTo(last);
+    assertThat(aggregator.series("NOWHERE", Duration.ofHours(1))).isEmpty();
+  }
+
+  @Test
+  void shouldOnlyAdvanceAncestorsOnceAllTheirMarketsTicked() {
+    publish(START, 4);
+    Instant previous = START.plus(STEP.multipliedBy(3));
+    Instant next = START.plus(STEP.multipliedBy(4));
+
+    tick(MarketCode.PJM, next);
+
+    assertThat(aggregator.overview("PJM").orElseThrow().timestamp()).isEqualTo(next);
+    assertThat(aggregator.overview("EAST").orElseThrow().timestamp()).isEqualTo(previous);
+    assertThat(aggregator.overview("US").orElseThrow().timestamp()).isEqualTo(previous);
+    assertThat(aggregator.overview("WEST").orElseThrow().timestamp()).isEqualTo(previous);
+
+    tick(MarketCode.NEISO, next);
+
+    assertThat(aggregator.overview("EAST").orElseThrow().timestamp()).isEqualTo(next);
+    assertThat(aggregator.overview("US").orElseThrow().timestamp()).isEqualTo(previous);
+  }
+
+  @Test
+  void shouldStartOverWhenTheClockIsRewound() {
+    publish(START, 4);
+
+    tick(MarketCode.PJM, START.minus(Duration.ofDays(1)));
+
+    AggregateOverview national = aggregator.overview("US").orElseThrow();
+    assertThat(national.timestamp()).isNull();
+    assertThat(national.priceMwh()).isNaN();
+    assertThat(aggregator.overview("PJM").orElseThrow().timestamp())
+        .isEqualTo(START.minus(Duration.ofDays(1)));
+  }
+
+  @Test
+  void shouldRejectInconsistentHierarchies() {
+    assertThatThrownBy(
+            () ->
+                new GridHierarchy.Builder()
+                    .node("EAST", "Eastern US", AggregationLevel.REGION, null)
+                    .node("US", "United States", AggregationLevel.NATIONAL, "EAST"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () ->
+                new GridHierarchy.Builder()
+                    .node("US", "United States", AggregationLevel.NATIONAL, null)
+                    .node("WEST", "Western US", AggregationLevel.REGION, "US")
+                    .market(MarketCode.PJM, AggregationLevel.ISO, "US")
+                    .build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("WEST");
+  }
+
+  private void assertAggregate(AggregateOverview overview, Instant at, MarketCode... markets) {
+    double demand = 0.0;
+    double price = 0.0;
+    double renewables = 0.0;
+    for (MarketCode market : markets) {
+      PricePoint point = generator.generatePoint(market, at);
+      demand += point.demandMw();
+      price += point.priceMwh() * point.demandMw();
+      renewables += point.renewablesShare() * point.demandMw();
+    }
+    assertThat(overview.timestamp()).isEqualTo(at);
+    assertThat(overview.markets()).isEqualTo(markets.length);
+    assertThat(overview.demandMw()).isCloseTo(demand, within(0.5));
+    assertThat(overview.priceMwh()).isCloseTo(price / demand, within(0.005));
+    assertThat(overview.renewablesShare()).isCloseTo(renewables / demand, within(0.05));
+  }
+
+  private void publish(Instant from, int intervals) {
+    for (int i = 0; i < intervals; i++) {
+      for (MarketCode market : MarketCode.values()) {
+        tick(market, from.plus(STEP.multipliedBy(i)));
+      }
+    }
+  }
+
+  private void tick(MarketCode market, Instant timestamp) {
+    aggregator.onTick(new MarketTick(market, generator.generatePoint(market, timestamp), false));
+  }
+}
@@ -0,0 +1,176 @@
+package com.energymarket.market.portfolio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.HedgePosition;
+import com.energymarket.market.model.MarketExposure;
+import com.energymarket.market.model.PortfolioSummary;
+import com.energymarket.market.model.PositionValuation;
+import com.energymarket.market.tick.MarketTick;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PortfolioBookTest {
+
+  private static final Instant START = Instant.parse("2025-01-15T12:00:00Z");
+  private static final Duration STEP = Duration.ofMinutes(15);
+
+  private MarketDataGenerator generator;
+  private PortfolioBook book;
+
+  @BeforeEach
+  void setUp() {
+    generator = new MarketDataGenerator();
+    book = new PortfolioBook(Clock.fixed(START, ZoneOffset.UTC), generator);
+  }
+
+  @Test
+  void shouldValueDeliveredPositionAtRealisedPrices() {
+    Instant from = START.minus(Duration.ofHours(6));
+    Instant to = START.minus(Duration.ofHours(2));
+    PositionValuation valuation =
+        book.put(new HedgePosition("bought", "PJM", 80.0, 40.0, from, to));
+
+    double expected = 0.0;
+    for (Instant timestamp = from; timestamp.isBefore(to); timestamp = timestamp.plus(STEP)) {
+      expected += 5.0 * (generator.generatePoint(MarketCode.PJM, timestamp).priceMwh() - 40.0);
+    }
+    assertThat(valuation.valuedAt()).isEqualTo(START);
+    assertThat(valuation.markToMarket()).isCloseTo(expected, within(0.01));
+    assertThat(valuation.lowMarkToMarket()).isEqualTo(valuation.markToMarket());
+    assertThat(valuation.highMarkToMarket()).isEqualTo(valuation.markToMarket());
+    assertThat(valuation.deliveredMwh()).isEqualTo(80.0);
+    assertThat(valuation.openMwh()).isZero();
+  }
+
+  @Test
+  void shouldRevalueOnlyPositionsOverlappingChangedIntervals() {
+    Instant farStart = START.plus(Duration.ofDays(10));
+    book.putAll(
+        List.of(
+            new HedgePosition(
+                "delivered",
+                "ERCOT",
+                10.0,
+                50.0,
+                START.minus(Duration.ofHours(2)),
+                START.minus(Duration.ofHours(1))),
+            new HedgePosition(
+                "prompt", "ERCOT", -24.0, 50.0, START, START.plus(Duration.ofHours(24))),
+            new HedgePosition(
+                "far", "ERCOT", 96.0, 50.0, farStart, farStart.plus(Duration.ofDays(1)))));
+    PositionValuation delivered = book.valuation("delivered").orElseThrow();
+    PositionValuation prompt = book.valuation("prompt").orElseThrow();
+
+    tick(MarketCode.ERCOT, START.plus(STEP));
+
+    assertThat(book.summary().markets())
+        .singleElement()
+        .extracting(MarketExposure::lastRevaluedPositions)
+        .isEqualTo(1);
+    assertThat(book.valuation("delivered").orElseThrow().markToMarket())
+        .isEqualTo(delivered.markToMarket());
+    assertThat(book.valuation("prompt").orElseThrow().markToMarket())
+        .isNotEqualTo(prompt.markToMarket());
+    PositionValuation far = book.valuation("far").orElseThrow();
+    double reference = MarketCode.ERCOT.parameters().basePrice();
+    assertThat(far.markToMarket()).isCloseTo(96.0 * (reference - 50.0), within(0.01));
+    assertThat(far.valuedAt()).isEqualTo(START.plus(STEP));
+    assertThat(far.openMwh()).isEqualTo(96.0);
+  }
+
+  @Test
+  void shouldMatchFreshValuationAfterIncrementalTicks() {
+    List<HedgePosition> positions = new ArrayList<>();
+    for (int i = 0; i < 60; i++) {
+      Instant from = START.plus(STEP.multipliedBy(37L * i - 600));
+      Duration length = STEP.multipliedBy(4L + (i * 53L) % 500);
+      MarketCode market = MarketCode.values()[i % MarketCode.values().length];
+      positions.add(
+          new HedgePosition(
+              "p" + i, market.code(), i % 3 == 0 ? -50.0 : 75.0, 45.0, from, from.plus(length)));
+    }
+    book.putAll(positions);
+    Instant end = START.plus(Duration.ofHours(12));
+    for (Instant timestamp = START.minus(Duration.ofHours(2));
+        !timestamp.isAfter(end);
+        timestamp = timestamp.plus(STEP)) {
+      for (MarketCode market : MarketCode.values()) {
+        tick(market, timestamp);
+      }
+    }
+
+    PortfolioBook fresh = new PortfolioBook(Clock.fixed(end, ZoneOffset.UTC), generator);
+    List<PositionValuation> expected = fresh.putAll(positions);
+    for (PositionValuation valuation : expected) {
+      assertThat(book.valuation(valuation.positionId())).contains(valuation);
+    }
+  }
+
+  @Test
+  void shouldAggregateProfitAndExposurePerMarket() {
+    Instant from = START.plus(Duration.ofHours(1));
+    Instant to = from.plus(Duration.ofHours(4));
+    book.putAll(
+        List.of(
+            new HedgePosition("long", "MISO", 40.0, 30.0, from, to),
+            new HedgePosition("short", "MISO", -10.0, 35.0, from, to),
+            new HedgePosition("other", "CAISO", 20.0, 60.0, from, to)));
+
+    PortfolioSummary summary = book.summary();
+
+    assertThat(summary.positions()).isEqualTo(3);
+    assertThat(summary.markets())
+        .extracting(MarketExposure::marketCode)
+        .containsExactly("CAISO", "MISO");
+    MarketExposure miso = summary.markets().get(1);
+    assertThat(miso.netOpenMwh()).isEqualTo(30.0);
+    assertThat(miso.grossOpenMwh()).isEqualTo(50.0);
+    assertThat(miso.lowMarkToMarket()).isLessThanOrEqualTo(miso.markToMarket());
+    assertThat(miso.highMarkToMarket()).isGreaterThanOrEqualTo(miso.markToMarket());
+    double total =
+        book.valuations(null, 10).stream().mapToDouble(PositionValuation::markToMarket).sum();
+    assertThat(summary.markToMarket()).isCloseTo(total, within(0.05));
+
+    assertThat(book.remove("other")).isTrue();
+    assertThat(book.remove("other")).isFalse();
+    assertThat(book.summary().markets())
+        .extracting(MarketExposure::marketCode)
+        .containsExactly("MISO");
+    assertThat(book.valuations(MarketCode.CAISO, 10)).isEmpty();
+  }
+
+  @Test
+  void shouldRejectInvalidPositionsWithoutBookingTheBatch() {
+    Instant from = START.plus(Duration.ofHours(1));
+    HedgePosition valid = new HedgePosition("valid", "PJM", 10.0, 40.0, from, from.plus(STEP));
+    HedgePosition misaligned =
+        new HedgePosition("misaligned", "PJM", 10.0, 40.0, from.plusSeconds(60), from.plus(STEP));
+
+    assertThatThrownBy(() -> book.putAll(List.of(valid, misaligned)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("align");
+    assertThat(book.valuation("valid")).isEmpty();
+    assertThatThrownBy(
+            () -> book.put(new HedgePosition("zero", "PJM", 0.0, 40.0, from, from.plus(STEP))))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () -> book.put(new HedgePosition("unknown", "XYZ", 1.0, 40.0, from, from.plus(STEP))))
+        .isInstanceOf(MarketNotFoundException.class);
+  }
+
+  private void tick(MarketCode market, Instant timestamp) {
+    book.onTick(new MarketTick(market, generator.generatePoint(market, timestamp), false));
+  }
+}
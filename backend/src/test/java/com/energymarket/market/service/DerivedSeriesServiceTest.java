@@ -0,0 +1,85 @@
+package com.energymarket.market.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.DerivedSeries;
+import com.energymarket.market.model.DerivedSeriesRequest;
+import com.energymarket.market.model.DerivedSeriesResult;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DerivedSeriesServiceTest {
+
+  private MarketDataGenerator generator;
+  private DerivedSeriesService service;
+
+  @BeforeEach
+  void setUp() {
+    generator = new MarketDataGenerator();
+    Clock clock = Clock.fixed(Instant.parse("2025-01-15T12:07:00Z"), ZoneOffset.UTC);
+    service = new DerivedSeriesService(clock, generator);
+  }
+
+  @Test
+  void shouldEvaluateNamedExpressionsOverTheAlignedWindow() {
+    Map<String, String> expressions = new LinkedHashMap<>();
+    expressions.put("spread", "price - PJM.price");
+    expressions.put("premium", "price - rolling_mean(price, 4h)");
+    expressions.put("undefined", "price / (demand - demand)");
+
+    DerivedSeriesResult result =
+        service.evaluate("ercot", new DerivedSeriesRequest(expressions, 6, null));
+
+    assertThat(result.marketCode()).isEqualTo("ERCOT");
+    assertThat(result.timestamps()).hasSize(25);
+    assertThat(result.timestamps().getFirst()).isEqualTo(Instant.parse("2025-01-15T06:00:00Z"));
+    assertThat(result.timestamps().getLast()).isEqualTo(Instant.parse("2025-01-15T12:00:00Z"));
+    assertThat(result.series())
+        .extracting(DerivedSeries::name)
+        .containsExactly("spread", "premium", "undefined");
+
+    Instant first = result.timestamps().getFirst();
+    double price = generator.generatePoint(MarketCode.ERCOT, first).priceMwh();
+    double pjm = generator.generatePoint(MarketCode.PJM, first).priceMwh();
+    double sum = 0.0;
+    for (int i = 0; i < 16; i++) {
+      sum += generator.generatePoint(MarketCode.ERCOT, first.minusSeconds(900L * i)).priceMwh();
+    }
+    assertThat(result.series().get(0).values().getFirst()).isCloseTo(price - pjm, within(1e-4));
+    assertThat(result.series().get(1).values().getFirst())
+        .isCloseTo(price - sum / 16, within(1e-4));
+    assertThat(result.series().get(1).values()).doesNotContainNull();
+    assertThat(result.series().get(2).values()).containsOnlyNulls();
+  }
+
+  @Test
+  void shouldRejectInvalidRequests() {
+    assertThatThrownBy(
+            () -> service.evaluate("ERCOT", new DerivedSeriesRequest(Map.of(), null, null)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () ->
+                service.evaluate(
+                    "ERCOT", new DerivedSeriesRequest(Map.of("x", "lag(price, 8d)"), null, null)))
+        .hasMessageContaining("look back");
+    assertThatThrownBy(
+            () ->
+                service.evaluate(
+                    "ERCOT",
+                    new DerivedSeriesRequest(Map.of("x", "rolling_mean(price, 90m)"), null, 60)))
+        .hasMessageContaining("not a multiple");
+    DerivedSeriesRequest request = new DerivedSeriesRequest(Map.of("x", "price"), null, null);
+    assertThatThrownBy(() -> service.evaluate("XYZ", request))
+        .isInstanceOf(MarketNotFoundException.class);
+  }
+}
@@ -0,0 +1,138 @@
+package com.energymarket.market.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.FlexWindow;
+import com.energymarket.market.model.FlexWindowQuery;
+import com.energymarket.market.model.FlexWindowResult;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FlexWindowServiceTest {
+
+  private FlexWindowService service;
+
+  @BeforeEach
+  void setUp() {
+    Clock fixedClock = Clock.fixed(Instant.parse("2025-01-15T12:00:00Z"), ZoneOffset.UTC);
+    service = new FlexWindowService(fixedClock, new MarketDataGenerator());
+  }
+
+  @Test
+  void shouldMatchBruteForceCheapestWindowAndPeak() {
+    Random random = new Random(11);
+    double[] prices = random.doubles(200, 20.0, 200.0).toArray();
+    double[] carbon = random.doubles(200, 100.0, 600.0).toArray();
+    FlexWindowFinder finder =
+        new FlexWindowFinder(Instant.EPOCH, Duration.ofMinutes(15), prices, carbon, 150);
+    int width = 12;
+
+    int best = 0;
+    double bestAverage = Double.MAX_VALUE;
+    for (int first = 0; first + width <= prices.length; first++) {
+      double sum = 0.0;
+      for (int i = first; i < first + width; i++) {
+        sum += prices[i];
+      }
+      if (sum / width < bestAverage) {
+        bestAverage = sum / width;
+        best = first;
+      }
+    }
+    double peak = Double.NEGATIVE_INFINITY;
+    for (int i = best; i < best + width; i++) {
+      peak = Math.max(peak, prices[i]);
+    }
+
+    FlexWindow window = finder.find(width, 0.0, 1).getFirst();
+    assertThat(window.start()).isEqualTo(Instant.EPOCH.plus(Duration.ofMinutes(15L * best)));
+    assertThat(window.averagePrice()).isCloseTo(bestAverage, within(0.005));
+    assertThat(window.peakPrice()).isCloseTo(peak, within(0.005));
+  }
+
+  @Test
+  void shouldReturnNonOverlappingWindowsBestFirst() {
+    FlexWindowResult result =
+        service
+            .findWindows(new FlexWindowQuery(List.of("PJM"), List.of(3), 4, null, null, null))
+            .getFirst();
+
+    List<FlexWindow> windows = result.windows();
+    assertThat(windows).hasSize(4);
+    for (int i = 0; i < windows.size(); i++) {
+      FlexWindow window = windows.get(i);
+      assertThat(Duration.between(window.start(), window.end())).isEqualTo(Duration.ofHours(3));
+      if (i > 0) {
+        assertThat(window.score()).isGreaterThanOrEqualTo(windows.get(i - 1).score());
+      }
+      for (FlexWindow other : windows.subList(0, i)) {
+        assertThat(window.start().isBefore(other.end()) && other.start().isBefore(window.end()))
+            .isFalse();
+      }
+    }
+  }
+
+  @Test
+  void shouldAnswerBatchedQueriesInRequestOrder() {
+    List<FlexWindowResult> results =
+        service.findWindows(
+            new FlexWindowQuery(List.of("PJM", "ERCOT"), List.of(2, 6), 1, 1.0, 48, 24));
+
+    assertThat(results)
+        .extracting(FlexWindowResult::marketCode, FlexWindowResult::durationHours)
+        .containsExactly(tuple("PJM", 2), tuple("PJM", 6), tuple("ERCOT", 2), tuple("ERCOT", 6));
+    assertThat(results).allSatisfy(result -> assertThat(result.windows()).hasSize(1));
+  }
+
+  @Test
+  void shouldRankByCarbonWhenFullyWeighted() {
+    FlexWindow cheapest =
+        service
+            .findWindows(new FlexWindowQuery(List.of("CAISO"), List.of(4), 1, 0.0, null, null))
+            .getFirst()
+            .windows()
+            .getFirst();
+    FlexWindow cleanest =
+        service
+            .findWindows(new FlexWindowQuery(List.of("CAISO"), List.of(4), 1, 1.0, null, null))
+            .getFirst()
+            .windows()
+            .getFirst();
+
+    assertThat(cleanest.averageCarbonIntensity())
+        .isLessThanOrEqualTo(cheapest.averageCarbonIntensity());
+    assertThat(cheapest.averagePrice()).isLessThanOrEqualTo(cleanest.averagePrice());
+  }
+
+  @Test
+  void shouldRejectInvalidCarbonWeight() {
+    assertThatThrownBy(
+            () ->
+                service.findWindows(
+                    new FlexWindowQuery(List.of("PJM"), List.of(2), 1, 1.5, null, null)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("carbonWeight");
+  }
+
+  @Test
+  void shouldRejectNullDurations() {
+    assertThatThrownBy(
+            () ->
+                service.findWindows(
+                    new FlexWindowQuery(
+                        List.of("PJM"), Arrays.asList(2, null), 1, null, null, null)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("durationsHours");
+  }
+}
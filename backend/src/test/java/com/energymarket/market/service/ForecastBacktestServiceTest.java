@@ -0,0 +1,117 @@
+package com.energymarket.market.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.ForecastBacktester;
+import com.energymarket.market.generator.ForecastModel;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.BacktestReport;
+import com.energymarket.market.model.ForecastPoint;
+import com.energymarket.market.model.HorizonAccuracy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ForecastBacktestServiceTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-15T12:07:00Z");
+
+  private MarketDataGenerator generator;
+  private ForecastBacktestService service;
+
+  @BeforeEach
+  void setUp() {
+    generator = new MarketDataGenerator();
+    service = new ForecastBacktestService(Clock.fixed(NOW, ZoneOffset.UTC), generator);
+  }
+
+  @Test
+  void shouldScoreTheForecastASnapshotWouldHaveShownAtEachOrigin() {
+    MarketCode market = MarketCode.values()[0];
+    Instant first = Instant.parse("2025-01-10T00:00:00Z");
+    Duration spacing = Duration.ofHours(6);
+    Duration horizon = Duration.ofHours(4);
+    Duration interval = Duration.ofHours(1);
+
+    BacktestReport report =
+        new ForecastBacktester(generator)
+            .run(
+                market,
+                first,
+                first.plus(spacing.multipliedBy(3)),
+                spacing,
+                horizon,
+                interval,
+                ForecastModel.SEASONAL_NAIVE);
+
+    double[] absoluteErrors = new double[4];
+    double[] covered = new double[4];
+    for (int origin = 0; origin < 4; origin++) {
+      List<ForecastPoint> forecast =
+          generator
+              .generateSnapshot(
+                  market,
+                  first.plus(spacing.multipliedBy(origin)),
+                  Duration.ofHours(24),
+                  Duration.ofMinutes(15),
+                  horizon,
+                  interval)
+              .forecast();
+      for (int step = 0; step < forecast.size(); step++) {
+        ForecastPoint point = forecast.get(step);
+        double actual = generator.generatePoint(market, point.timestamp()).priceMwh();
+        absoluteErrors[step] += Math.abs(point.projectedPriceMwh() - actual);
+        if (actual >= point.lowerBound() && actual <= point.upperBound()) {
+          covered[step]++;
+        }
+      }
+    }
+
+    assertThat(report.origins()).isEqualTo(4);
+    assertThat(report.horizons()).hasSize(4);
+    for (int step = 0; step < 4; step++) {
+      HorizonAccuracy accuracy = report.horizons().get(step);
+      assertThat(accuracy.step()).isEqualTo(step + 1);
+      assertThat(accuracy.leadMinutes()).isEqualTo(60L * (step + 1));
+      assertThat(accuracy.mae()).isCloseTo(absoluteErrors[step] / 4, within(0.01));
+      assertThat(accuracy.bandCoveragePercent()).isCloseTo(covered[step] / 4 * 100, within(0.1));
+      assertThat(accuracy.rmse()).isGreaterThanOrEqualTo(accuracy.mae());
+    }
+  }
+
+  @Test
+  void shouldPlaceTheLastOriginOneHorizonBeforeNow() {
+    List<BacktestReport> reports =
+        service.backtest(List.of(), 2, 60, 12, 60, ForecastModel.SEASONAL_NAIVE);
+
+    assertThat(reports).hasSize(MarketCode.values().length);
+    BacktestReport report = reports.getFirst();
+    assertThat(report.lastOrigin()).isEqualTo(Instant.parse("2025-01-15T00:00:00Z"));
+    assertThat(report.origins()).isEqualTo(48);
+    assertThat(report.firstOrigin()).isEqualTo(Instant.parse("2025-01-13T01:00:00Z"));
+    assertThat(report.horizons()).hasSize(12);
+  }
+
+  @Test
+  void shouldRejectInvalidParameters() {
+    ForecastModel model = ForecastModel.HOLT_WINTERS;
+    assertThatThrownBy(() -> service.backtest(List.of(), 0, 60, 12, 60, model))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> service.backtest(List.of(), 30, 50, 12, 60, model))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> service.backtest(List.of(), 30, 60, 5, 120, model))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> service.backtest(List.of(), 365, 15, 72, 15, model))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> service.backtest(List.of("nowhere"), 30, 60, 12, 60, model))
+        .isInstanceOf(MarketNotFoundException.class);
+  }
+}
@@ -2,17 +2,26 @@ package com.energymarket.market.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
 
+import com.energymarket.market.alert.AlertLog;
 import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.FieldSelection;
+import com.energymarket.market.generator.ForecastModel;
 import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.LoadDurationPoint;
+import com.energymarket.market.model.MarketInsights;
 import com.energymarket.market.model.MarketMetadata;
 import com.energymarket.market.model.MarketSnapshot;
+import com.energymarket.market.model.PriceDistribution;
 import com.energymarket.market.model.PricePoint;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -26,6 +35,11 @@ class MarketDataServiceTest {
     service = new MarketDataService(fixedClock, new MarketDataGenerator());
   }
 
+  private static MarketDataService serviceAt(String instant) {
+    return new MarketDataService(
+        Clock.fixed(Instant.parse(instant), ZoneOffset.UTC), new MarketDataGenerator());
+  }
+
   @Test
   void shouldGenerateConsistentSnapshot() {
     MarketSnapshot snapshot = service.getMarketSnapshot("NEISO", 24, 15, 12, 60);
@@ -44,6 +58,212 @@ class MarketDataServiceTest {
     assertThat(snapshot.insights().alerts()).isNotNull();
   }
 
+  @Test
+  void shouldEstimatePercentilesWithinSketchError() {
+    MarketSnapshot snapshot = service.getMarketSnapshot("ERCOT", 24, 15, 12, 60);
+    double[] prices =
+        snapshot.priceSeries().stream().mapToDouble(PricePoint::priceMwh).sorted().toArray();
+    MarketInsights insights = snapshot.insights();
+
+    assertThat(insights.priceP50()).isCloseTo(prices[48], withinPercentage(1.1));
+    assertThat(insights.priceP95()).isCloseTo(prices[91], withinPercentage(1.1));
+    assertThat(insights.priceP5())
+        .isLessThanOrEqualTo(insights.priceP50())
+        .isGreaterThanOrEqualTo(insights.minPrice());
+    assertThat(insights.priceP99()).isLessThanOrEqualTo(insights.maxPrice());
+    assertThat(insights.loadDurationCurve())
+        .hasSize(21)
+        .isSortedAccordingTo(Comparator.comparing(LoadDurationPoint::demandMw).reversed());
+    assertThat(insights.loadDurationCurve().getFirst().demandMw()).isEqualTo(insights.peakDemand());
+  }
+
+  @Test
+  void shouldMergePriceDistributionAcrossMarkets() {
+    MarketSnapshot pjm = service.getMarketSnapshot("PJM", 24, 15, 12, 60);
+    MarketSnapshot ercot = service.getMarketSnapshot("ERCOT", 24, 15, 12, 60);
+
+    PriceDistribution distribution = service.getPriceDistribution(List.of("PJM", "ERCOT"), 24);
+
+    assertThat(distribution.markets()).containsExactly("PJM", "ERCOT");
+    assertThat(distribution.samples()).isEqualTo(2 * 97);
+    assertThat(distribution.minPrice())
+        .isEqualTo(Math.min(pjm.insights().minPrice(), ercot.insights().minPrice()));
+    assertThat(distribution.maxPrice())
+        .isEqualTo(Math.max(pjm.insights().maxPrice(), ercot.insights().maxPrice()));
+    assertThat(distribution.p50()).isBetween(distribution.p5(), distribution.p95());
+  }
+
+  @Test
+  void shouldComputeOnlyRequestedFields() {
+    MarketSnapshot snapshot =
+        service.getMarketSnapshot("NEISO", 24, 15, 12, 60, FieldSelection.parse("price,forecast"));
+
+    assertThat(snapshot.priceSeries())
+        .hasSize(97)
+        .allSatisfy(
+            point -> {
+              assertThat(point.priceMwh()).isGreaterThan(0.0);
+              assertThat(point.demandMw()).isNaN();
+              assertThat(point.carbonIntensity()).isNaN();
+              assertThat(point.renewablesShare()).isNaN();
+            });
+    assertThat(snapshot.forecast()).hasSize(12);
+    assertThat(snapshot.insights()).isNull();
+    assertThat(snapshot.overview().demandMw()).isNaN();
+  }
+
+  @Test
+  void shouldKeepProjectedValuesIdenticalToFullSnapshot() {
+    MarketSnapshot full = service.getMarketSnapshot("ERCOT", 24, 15, 12, 60);
+    MarketSnapshot carbonOnly =
+        service.getMarketSnapshot("ERCOT", 24, 15, 12, 60, FieldSelection.parse("carbon"));
+
+    assertThat(carbonOnly.priceSeries())
+        .extracting(PricePoint::carbonIntensity)
+        .containsExactlyElementsOf(
+            full.priceSeries().stream().map(PricePoint::carbonIntensity).toList());
+    assertThat(carbonOnly.priceSeries()).allSatisfy(point -> assertThat(point.priceMwh()).isNaN());
+    assertThat(carbonOnly.forecast()).isNull();
+  }
+
+  @Test
+  void shouldReturnOnlyNewPointsForCursor() {
+    MarketSnapshot initial = service.getMarketSnapshot("PJM", 24, 15, 12, 60);
+    MarketDataService later = serviceAt("2025-01-15T12:37:00Z");
+
+    MarketSnapshot delta =
+        later.getMarketSnapshot(
+            "PJM",
+            24,
+            15,
+            12,
+            60,
+            FieldSelection.ALL,
+            ForecastModel.SEASONAL_NAIVE,
+            initial.sync().cursor(),
+            null);
+    MarketSnapshot full = later.getMarketSnapshot("PJM", 24, 15, 12, 60);
+
+    assertThat(delta.sync().delta()).isTrue();
+    assertThat(delta.sync().windowStart()).isEqualTo(Instant.parse("2025-01-14T12:30:00Z"));
+    assertThat(delta.priceSeries())
+        .extracting(PricePoint::timestamp)
+        .containsExactly(
+            Instant.parse("2025-01-15T12:15:00Z"), Instant.parse("2025-01-15T12:30:00Z"));
+    assertThat(delta.priceSeries()).isEqualTo(full.priceSeries().subList(95, 97));
+    assertThat(delta.overview().currentPrice()).isEqualTo(full.overview().currentPrice());
+    assertThat(delta.overview().lastUpdated()).isEqualTo(full.overview().lastUpdated());
+    assertThat(delta.insights().averagePrice())
+        .isCloseTo(full.insights().averagePrice(), within(0.011));
+    assertThat(delta.insights().maxPrice()).isEqualTo(full.insights().maxPrice());
+    assertThat(delta.forecast()).hasSameSizeAs(full.forecast());
+  }
+
+  @Test
+  void shouldFallBackToFullSnapshotWhenCursorDoesNotMatch() {
+    MarketSnapshot initial = service.getMarketSnapshot("PJM", 24, 15, 12, 60);
+
+    MarketSnapshot resync =
+        serviceAt("2025-01-15T12:30:00Z")
+            .getMarketSnapshot(
+                "PJM",
+                48,
+                15,
+                12,
+                60,
+                FieldSelection.ALL,
+                ForecastModel.SEASONAL_NAIVE,
+                initial.sync().cursor(),
+                null);
+
+    assertThat(resync.sync().delta()).isFalse();
+    assertThat(resync.priceSeries()).hasSize(193);
+  }
+
+  @Test
+  void shouldFilterPointsAfterSince() {
+    MarketSnapshot delta =
+        service.getMarketSnapshot(
+            "PJM",
+            24,
+            15,
+            12,
+            60,
+            FieldSelection.ALL,
+            ForecastModel.SEASONAL_NAIVE,
+            null,
+            Instant.parse("2025-01-15T11:30:00Z"));
+
+    assertThat(delta.sync().delta()).isTrue();
+    assertThat(delta.priceSeries()).hasSize(2);
+  }
+
+  @Test
+  void shouldRejectCorruptedCursor() {
+    String cursor = service.getMarketSnapshot("PJM", 24, 15, 12, 60).sync().cursor();
+    String corrupted = (cursor.charAt(5) == 'A' ? "B" : "A") + cursor.substring(1);
+
+    assertThatThrownBy(
+            () ->
+                service.getMarketSnapshot(
+                    "PJM",
+                    24,
+                    15,
+                    12,
+                    60,
+                    FieldSelection.ALL,
+                    ForecastModel.SEASONAL_NAIVE,
+                    corrupted,
+                    null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("cursor");
+  }
+
+  @Test
+  void shouldCoarsenLongWindowsWhileOverloaded() {
+    AtomicBoolean overloaded = new AtomicBoolean(true);
+    MarketDataService loaded =
+        new MarketDataService(
+            Clock.fixed(Instant.parse("2025-01-15T12:00:00Z"), ZoneOffset.UTC),
+            new MarketDataGenerator(),
+            new AlertLog(AlertLog.DEFAULT_CAPACITY_PER_MARKET),
+            overloaded::get,
+            MarketDataService.DEFAULT_MAX_HISTORY_POINTS_UNDER_LOAD);
+
+    assertThat(loaded.servedHistoryResolution(168, 5)).isEqualTo(60);
+    assertThat(loaded.servedHistoryResolution(168, 20)).isEqualTo(60);
+    assertThat(loaded.servedHistoryResolution(168, 7)).isEqualTo(7);
+    assertThat(loaded.servedHistoryResolution(24, 5)).isEqualTo(5);
+    MarketSnapshot degraded = loaded.getMarketSnapshot("PJM", 168, 60, 12, 60);
+    assertThat(degraded.sync().resolutionMinutes()).isEqualTo(60);
+    assertThat(degraded.priceSeries()).hasSize(169);
+
+    overloaded.set(false);
+
+    assertThat(loaded.servedHistoryResolution(168, 5)).isEqualTo(5);
+    MarketSnapshot recovered =
+        loaded.getMarketSnapshot(
+            "PJM",
+            168,
+            5,
+            12,
+            60,
+            FieldSelection.ALL,
+            ForecastModel.SEASONAL_NAIVE,
+            degraded.sync().cursor(),
+            null);
+    assertThat(recovered.sync().delta()).isFalse();
+    assertThat(recovered.sync().resolutionMinutes()).isEqualTo(5);
+    assertThat(recovered.priceSeries()).hasSize(2017);
+  }
+
+  @Test
+  void shouldRejectUnknownField() {
+    assertThatThrownBy(() -> FieldSelection.parse("price,volume"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("volume");
+  }
+
   @Test
   void shouldRejectInvalidHistoryResolution() {
     assertThatThrownBy(() -> service.getMarketSnapshot("NEISO", 24, 4, 12, 60))
@@ -71,7 +291,8 @@ class MarketDataServiceTest {
 
     assertThat(catalog).isNotEmpty();
     assertThat(catalog)
-        .isSortedAccordingTo(Comparator.comparing(MarketMetadata::name, String.CASE_INSENSITIVE_ORDER));
+        .isSortedAccordingTo(
+            Comparator.comparing(MarketMetadata::name, String.CASE_INSENSITIVE_ORDER));
     assertThat(catalog).extracting(MarketMetadata::code).contains("NEISO", "ERCOT");
   }
 }
@@ -0,0 +1,110 @@
+package com.energymarket.market.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.MarketCode.MarketParameters;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.MarketInsights;
+import com.energymarket.market.model.ParameterAxis;
+import com.energymarket.market.model.ScenarioRequest;
+import com.energymarket.market.model.ScenarioResult;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+class ScenarioServiceTest {
+
+  private Clock clock;
+  private ScenarioService service;
+
+  @BeforeEach
+  void setUp() {
+    clock = Clock.fixed(Instant.parse("2025-01-15T12:00:00Z"), ZoneOffset.UTC);
+    service = new ScenarioService(clock, new MarketDataGenerator(), Schedulers.parallel());
+  }
+
+  @Test
+  void shouldMatchSnapshotInsightsForUnchangedParameters() {
+    List<ScenarioResult> results = sweep("PJM", new ScenarioRequest(null, null, null, null));
+    MarketInsights snapshot =
+        new MarketDataService(clock, new MarketDataGenerator())
+            .getMarketSnapshot("PJM", 24, 15, 12, 60)
+            .insights();
+
+    assertThat(results).hasSize(1);
+    MarketInsights baseline = results.getFirst().insights();
+    assertThat(results.getFirst().parameters()).isEqualTo(MarketCode.PJM.parameters());
+    assertThat(baseline.averagePrice()).isEqualTo(snapshot.averagePrice());
+    assertThat(baseline.maxPrice()).isEqualTo(snapshot.maxPrice());
+    assertThat(baseline.priceP50()).isEqualTo(snapshot.priceP50());
+    assertThat(baseline.averageRenewablesShare()).isEqualTo(snapshot.averageRenewablesShare());
+    assertThat(baseline.loadDurationCurve()).isEqualTo(snapshot.loadDurationCurve());
+    assertThat(results.getFirst().priceSeries()).isNull();
+  }
+
+  @Test
+  void shouldEvaluateEveryCombinationOfTheGrid() {
+    ScenarioRequest request =
+        new ScenarioRequest(
+            List.of(
+                new ParameterAxis("renewableBase", "add", List.of(0.0, 10.0)),
+                new ParameterAxis("volatility", "scale", List.of(1.0, 2.0, 3.0))),
+            null,
+            null,
+            true);
+
+    List<ScenarioResult> results =
+        sweep("ERCOT", request).stream()
+            .sorted(Comparator.comparingInt(ScenarioResult::scenario))
+            .toList();
+
+    MarketParameters base = MarketCode.ERCOT.parameters();
+    assertThat(results).extracting(ScenarioResult::scenario).containsExactly(0, 1, 2, 3, 4, 5);
+    assertThat(results.get(2).parameters().volatility()).isEqualTo(base.volatility() * 3);
+    assertThat(results.get(4).parameters().renewableBase()).isEqualTo(base.renewableBase() + 10);
+    assertThat(results.get(4).parameters().volatility()).isEqualTo(base.volatility() * 2);
+    assertThat(results.get(3).insights().averageRenewablesShare())
+        .isGreaterThan(results.get(0).insights().averageRenewablesShare());
+    assertThat(results).allSatisfy(result -> assertThat(result.priceSeries()).hasSize(97));
+  }
+
+  @Test
+  void shouldRejectInvalidGrids() {
+    assertThatThrownBy(
+            () -> sweep("PJM", request(new ParameterAxis("windBase", null, List.of(1.0)))))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("windBase");
+    assertThatThrownBy(
+            () -> sweep("PJM", request(new ParameterAxis("volatility", "pow", List.of(2.0)))))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("pow");
+    assertThatThrownBy(
+            () ->
+                sweep(
+                    "PJM",
+                    new ScenarioRequest(
+                        List.of(
+                            new ParameterAxis("basePrice", "add", Collections.nCopies(5000, 1.0))),
+                        168,
+                        5,
+                        false)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("points");
+  }
+
+  private List<ScenarioResult> sweep(String market, ScenarioRequest request) {
+    return service.sweep(market, request).collectList().block();
+  }
+
+  private static ScenarioRequest request(ParameterAxis axis) {
+    return new ScenarioRequest(List.of(axis), null, null, null);
+  }
+}
@@ -0,0 +1,114 @@
+package com.energymarket.market.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.exception.MarketNotFoundException;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.generator.WeeklyProfiler;
+import com.energymarket.market.model.MarketMetric;
+import com.energymarket.market.model.PricePoint;
+import com.energymarket.market.model.ProfileCell;
+import com.energymarket.market.model.ProfileMatrix;
+import com.energymarket.market.model.WeeklyProfile;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WeeklyProfileServiceTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-15T12:07:00Z");
+  private static final Duration WEEK = Duration.ofDays(7);
+  private static final Duration QUARTER_HOUR = Duration.ofMinutes(15);
+
+  private MarketDataGenerator generator;
+  private WeeklyProfileService service;
+
+  @BeforeEach
+  void setUp() {
+    generator = new MarketDataGenerator();
+    service = new WeeklyProfileService(Clock.fixed(NOW, ZoneOffset.UTC), generator);
+  }
+
+  @Test
+  void shouldMatchAPointByPointAggregationInLocalTime() {
+    WeeklyProfile profile = service.getProfile("PJM", 14, 15, List.of("price", "demand"));
+
+    assertThat(profile.windowEnd()).isEqualTo(Instant.parse("2025-01-15T12:00:00Z"));
+    assertThat(profile.windowStart()).isEqualTo(Instant.parse("2025-01-01T12:00:00Z"));
+    assertThat(profile.samples()).isEqualTo(14 * 96);
+    assertThat(profile.metrics())
+        .extracting(ProfileMatrix::metric)
+        .containsExactly("price", "demand");
+
+    ZoneId zone = ZoneId.of(MarketCode.PJM.timezone());
+    long[] counts = new long[7 * 24];
+    double[] sums = new double[7 * 24];
+    Instant timestamp = profile.windowStart();
+    for (; timestamp.isBefore(profile.windowEnd()); timestamp = timestamp.plusSeconds(900)) {
+      ZonedDateTime local = timestamp.atZone(zone);
+      int cell = (local.getDayOfWeek().getValue() - 1) * 24 + local.getHour();
+      PricePoint point = generator.generatePoint(MarketCode.PJM, timestamp);
+      counts[cell]++;
+      sums[cell] += point.priceMwh();
+    }
+    List<List<ProfileCell>> prices = profile.metrics().getFirst().days();
+    for (int day = 0; day < 7; day++) {
+      for (int hour = 0; hour < 24; hour++) {
+        ProfileCell cell = prices.get(day).get(hour);
+        int index = day * 24 + hour;
+        assertThat(cell.count()).isEqualTo(counts[index]).isEqualTo(8);
+        assertThat(cell.mean()).isCloseTo(sums[index] / counts[index], within(0.006));
+        assertThat(cell.p10()).isLessThanOrEqualTo(cell.p50());
+        assertThat(cell.p50()).isLessThanOrEqualTo(cell.p90());
+      }
+    }
+  }
+
+  @Test
+  void shouldBucketDaylightSavingTransitionsByLocalHour() {
+    WeeklyProfiler profiler = new WeeklyProfiler(generator);
+    List<MarketMetric> price = List.of(MarketMetric.PRICE);
+    // Monday 00:00 local time in New York before the March and November transitions.
+    Instant spring = Instant.parse("2025-03-03T05:00:00Z");
+    Instant autumn = Instant.parse("2025-10-27T04:00:00Z");
+
+    List<ProfileCell> springSunday =
+        sunday(profiler.profile(MarketCode.PJM, spring, spring.plus(WEEK), QUARTER_HOUR, price));
+    List<ProfileCell> autumnSunday =
+        sunday(profiler.profile(MarketCode.PJM, autumn, autumn.plus(WEEK), QUARTER_HOUR, price));
+
+    assertThat(springSunday.get(1).count()).isEqualTo(4);
+    assertThat(springSunday.get(2).count()).isZero();
+    assertThat(springSunday.get(2).mean()).isNaN();
+    assertThat(springSunday.get(3).count()).isEqualTo(4);
+    assertThat(autumnSunday.get(1).count()).isEqualTo(8);
+    assertThat(autumnSunday.get(2).count()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldRejectInvalidParameters() {
+    assertThatThrownBy(() -> service.getProfile("XYZ", 28, 15, List.of()))
+        .isInstanceOf(MarketNotFoundException.class);
+    assertThatThrownBy(() -> service.getProfile("PJM", 6, 15, List.of()))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> service.getProfile("PJM", 28, 7, List.of()))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> service.getProfile("PJM", 28, 15, List.of("volume")))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(WeeklyProfileService.parseMetrics(List.of()))
+        .isEqualTo(WeeklyProfileService.DEFAULT_METRICS);
+  }
+
+  private static List<ProfileCell> sunday(WeeklyProfile profile) {
+    return profile.metrics().getFirst().days().get(6);
+  }
+}
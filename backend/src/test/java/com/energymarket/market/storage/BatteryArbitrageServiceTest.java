@@ -0,0 +1,99 @@
+package com.energymarket.market.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.generator.MarketDataGenerator;
+import com.energymarket.market.model.ArbitrageRequest;
+import com.energymarket.market.model.ArbitrageResult;
+import com.energymarket.market.model.BatteryDispatch;
+import com.energymarket.market.model.BatterySpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatteryArbitrageServiceTest {
+
+  private BatteryArbitrageService service;
+
+  @BeforeEach
+  void setUp() {
+    Clock fixedClock = Clock.fixed(Instant.parse("2025-01-15T12:00:00Z"), ZoneOffset.UTC);
+    service =
+        new BatteryArbitrageService(fixedClock, new MarketDataGenerator(), new ForkJoinPool(4));
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  void shouldProduceFeasibleScheduleWhoseCashFlowMatchesRevenue() {
+    BatterySpec battery = new BatterySpec("bess-1", "ERCOT", 100.0, 25.0, 0.95, null, null, null);
+
+    ArbitrageResult result =
+        service.optimise(new ArbitrageRequest(List.of(battery), 24, 60, null)).getFirst();
+
+    List<BatteryDispatch> schedule = result.schedule();
+    assertThat(schedule).hasSize(24);
+    assertThat(schedule)
+        .allSatisfy(
+            step -> {
+              assertThat(step.stateOfChargeMwh()).isBetween(10.0, 90.0);
+              assertThat(Math.abs(step.gridMw())).isLessThanOrEqualTo(25.0 + 1e-6);
+            });
+    assertThat(schedule.getLast().stateOfChargeMwh()).isGreaterThanOrEqualTo(50.0);
+    double cashFlow = schedule.stream().mapToDouble(step -> -step.gridMw() * step.priceMwh()).sum();
+    assertThat(result.expectedRevenue()).isPositive().isCloseTo(cashFlow, within(1.0));
+  }
+
+  @Test
+  void shouldKeepGridFlowsWithinRatedPower() {
+    // One level per MWh, so a full step at rated power is representable on either side of losses.
+    BatterySpec battery = new BatterySpec("bess-1", "PJM", 100.0, 25.0, 0.81, 0.0, 100.0, 50.0);
+
+    ArbitrageResult result =
+        service.optimise(new ArbitrageRequest(List.of(battery), 24, 60, 101)).getFirst();
+
+    double peakMw =
+        result.schedule().stream().mapToDouble(step -> Math.abs(step.gridMw())).max().orElseThrow();
+    assertThat(peakMw).isGreaterThan(24.0).isLessThanOrEqualTo(25.0);
+  }
+
+  @Test
+  void shouldOptimisePortfolioInRequestOrder() {
+    List<BatterySpec> batteries = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      MarketCode market = MarketCode.values()[i % MarketCode.values().length];
+      batteries.add(new BatterySpec("bess-" + i, market.code(), 50.0, 12.5, 0.9, 5.0, 95.0, 50.0));
+    }
+
+    List<ArbitrageResult> results = service.optimise(new ArbitrageRequest(batteries, 48, 60, null));
+
+    assertThat(results).hasSize(300);
+    assertThat(results)
+        .extracting(ArbitrageResult::batteryId)
+        .containsExactlyElementsOf(batteries.stream().map(BatterySpec::id).toList());
+    int markets = MarketCode.values().length;
+    assertThat(results.get(markets).expectedRevenue())
+        .isEqualTo(results.getFirst().expectedRevenue());
+  }
+
+  @Test
+  void shouldRejectInvalidEfficiency() {
+    BatterySpec battery = new BatterySpec("bess-1", "PJM", 100.0, 25.0, 1.2, null, null, null);
+
+    assertThatThrownBy(() -> service.optimise(new ArbitrageRequest(List.of(battery), 24, 60, null)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("roundTripEfficiency");
+  }
+}
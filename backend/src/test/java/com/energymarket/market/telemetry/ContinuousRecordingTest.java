@@ -0,0 +1,72 @@
+package com.energymarket.market.telemetry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.generator.FieldSelection;
+import com.energymarket.market.generator.ForecastModel;
+import com.energymarket.market.generator.MarketDataGenerator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ContinuousRecordingTest {
+
+  private static final String STAGE_EVENT = "com.energymarket.GenerationStage";
+
+  @TempDir Path directory;
+
+  @Test
+  void shouldDumpGenerationStageEventsWhileRecording() throws IOException {
+    ContinuousRecording recording =
+        new ContinuousRecording(true, Duration.ofMinutes(5), 16L * 1024 * 1024);
+    try {
+      new MarketDataGenerator()
+          .generateSnapshot(
+              MarketCode.ERCOT,
+              Instant.parse("2025-01-15T12:00:00Z"),
+              Duration.ofHours(24),
+              Duration.ofMinutes(15),
+              Duration.ofHours(6),
+              Duration.ofMinutes(60),
+              FieldSelection.ALL,
+              ForecastModel.SEASONAL_NAIVE);
+      Path dump = directory.resolve("recording.jfr");
+      recording.dump(dump);
+
+      Map<String, Integer> points =
+          RecordingFile.readAllEvents(dump).stream()
+              .filter(event -> event.getEventType().getName().equals(STAGE_EVENT))
+              .filter(event -> "ERCOT".equals(event.getString("market")))
+              .collect(
+                  Collectors.toMap(
+                      event -> event.getString("stage"),
+                      event -> event.getInt("points"),
+                      Integer::sum));
+      assertThat(points)
+          .containsEntry("history", 97)
+          .containsEntry("distribution", 97)
+          .containsEntry("forecast", 6);
+      assertThat(Files.size(dump)).isPositive();
+    } finally {
+      recording.close();
+    }
+  }
+
+  @Test
+  void shouldRejectDumpWhenDisabled() {
+    ContinuousRecording recording = new ContinuousRecording(false, Duration.ofMinutes(5), 1);
+
+    assertThat(recording.enabled()).isFalse();
+    assertThatThrownBy(() -> recording.dump(directory.resolve("recording.jfr")))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -0,0 +1,68 @@
+package com.energymarket.market.telemetry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.generator.FieldSelection;
+import com.energymarket.market.generator.ForecastModel;
+import com.energymarket.market.generator.MarketDataGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class RequestTimingTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-15T12:00:00Z");
+
+  @Test
+  void shouldBreakDownSnapshotStagesOfBoundRequest() {
+    RequestTiming timing = new RequestTiming(System.nanoTime());
+
+    RequestTiming.Scope scope = timing.enter();
+    try {
+      assertThat(RequestTiming.current()).isSameAs(timing);
+      new MarketDataGenerator()
+          .generateSnapshot(
+              MarketCode.PJM,
+              NOW,
+              Duration.ofHours(24),
+              Duration.ofMinutes(15),
+              Duration.ofHours(12),
+              Duration.ofMinutes(60),
+              FieldSelection.ALL,
+              ForecastModel.SEASONAL_NAIVE);
+    } finally {
+      scope.close();
+    }
+    timing.describe(RequestTiming.CACHE, "miss");
+
+    assertThat(RequestTiming.current()).isNull();
+    assertThat(timing.points()).isEqualTo(97 + 97 + 97 + 12);
+    assertThat(timing.header(System.nanoTime()))
+        .matches(
+            "scheduling;dur=\\d+\\.\\d\\d, history;dur=\\d+\\.\\d\\d,"
+                + " distribution;dur=\\d+\\.\\d\\d, insights;dur=\\d+\\.\\d\\d,"
+                + " forecast;dur=\\d+\\.\\d\\d, cache;desc=\"miss\", total;dur=\\d+\\.\\d\\d");
+  }
+
+  @Test
+  void shouldSumRepeatedStagesAndRestoreOuterBinding() {
+    RequestTiming outer = new RequestTiming(System.nanoTime());
+    RequestTiming inner = new RequestTiming(System.nanoTime());
+
+    RequestTiming.Scope outerScope = outer.enter();
+    RequestTiming.Scope innerScope = inner.enter();
+    StageTimer.start(StageTimer.Stage.HISTORY, MarketCode.PJM).stop(10);
+    StageTimer.start(StageTimer.Stage.HISTORY, MarketCode.ERCOT).stop(5);
+    innerScope.close();
+    assertThat(RequestTiming.current()).isSameAs(outer);
+    outerScope.close();
+    assertThat(RequestTiming.current()).isNull();
+
+    assertThat(inner.points()).isEqualTo(15);
+    assertThat(inner.header(System.nanoTime()))
+        .startsWith("scheduling;dur=")
+        .containsOnlyOnce("history;dur=");
+    assertThat(outer.points()).isZero();
+  }
+}
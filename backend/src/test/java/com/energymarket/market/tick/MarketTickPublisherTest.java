@@ -0,0 +1,122 @@
+package com.energymarket.market.tick;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.energymarket.market.MarketCode;
+import com.energymarket.market.generator.MarketDataGenerator;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MarketTickPublisherTest {
+
+  @Test
+  void shouldReplayWarmupThenPublishOnlyNewIntervals() {
+    List<MarketTick> received = new ArrayList<>();
+    MutableClock clock = new MutableClock(Instant.parse("2025-01-15T12:07:00Z"));
+    MarketTickPublisher publisher =
+        new MarketTickPublisher(
+            clock, new MarketDataGenerator(), List.of(received::add), Duration.ofHours(1));
+    List<MarketTick> streamed = new ArrayList<>();
+    publisher.ticks().subscribe(streamed::add);
+
+    assertThat(publisher.advance()).isEqualTo(5);
+    assertThat(received).hasSize(5 * MarketCode.values().length);
+    assertThat(received.subList(0, 4 * MarketCode.values().length)).allMatch(MarketTick::replay);
+    assertThat(publisher.lastPublished()).isEqualTo(Instant.parse("2025-01-15T12:00:00Z"));
+    assertThat(streamed).hasSize(MarketCode.values().length);
+
+    received.clear();
+    assertThat(publisher.advance()).isZero();
+
+    clock.instant = Instant.parse("2025-01-15T12:31:00Z");
+    assertThat(publisher.advance()).isEqualTo(2);
+    assertThat(received).hasSize(2 * MarketCode.values().length).noneMatch(MarketTick::replay);
+    assertThat(streamed).hasSize(3 * MarketCode.values().length);
+  }
+
+  @Test
+  void shouldReplayWarmupAfterClockIsRewound() {
+    List<MarketTick> received = new ArrayList<>();
+    MutableClock clock = new MutableClock(Instant.parse("2025-01-15T12:00:00Z"));
+    MarketTickPublisher publisher =
+        new MarketTickPublisher(
+            clock, new MarketDataGenerator(), List.of(received::add), Duration.ofHours(1));
+    publisher.advance();
+
+    clock.instant = Instant.parse("2025-01-10T06:00:00Z");
+
+    assertThat(publisher.advance()).isEqualTo(5);
+    assertThat(publisher.lastPublished()).isEqualTo(Instant.parse("2025-01-10T06:00:00Z"));
+  }
+
+  @Test
+  void shouldReplayLongerHistoryOnlyToListenersAskingForIt() {
+    List<MarketTick> recent = new ArrayList<>();
+    List<MarketTick> week = new ArrayList<>();
+    MarketTickListener aggregate =
+        new MarketTickListener() {
+          @Override
+          public void onTick(MarketTick tick) {
+            week.add(tick);
+          }
+
+          @Override
+          public Duration history() {
+            return Duration.ofHours(3);
+          }
+        };
+    MarketTickPublisher publisher =
+        new MarketTickPublisher(
+            new MutableClock(Instant.parse("2025-01-15T12:00:00Z")),
+            new MarketDataGenerator(),
+            List.of(recent::add, aggregate),
+            Duration.ofHours(1));
+
+    assertThat(publisher.advance()).isEqualTo(13);
+    assertThat(week).hasSize(13 * MarketCode.values().length);
+    assertThat(recent).hasSize(5 * MarketCode.values().length);
+    assertThat(recent.getFirst().point().timestamp())
+        .isEqualTo(Instant.parse("2025-01-15T11:00:00Z"));
+  }
+
+  @Test
+  void shouldMatchLatestOverviewPoint() {
+    MarketDataGenerator generator = new MarketDataGenerator();
+    Instant now = Instant.parse("2025-01-15T12:00:00Z");
+
+    assertThat(generator.generatePoint(MarketCode.PJM, now).priceMwh())
+        .isEqualTo(
+            generator
+                .generateOverview(MarketCode.PJM, now, Duration.ofHours(24), Duration.ofMinutes(15))
+                .currentPrice());
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant instant;
+
+    MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -39,6 +39,7 @@ export function getMarketOverview(): Promise<MarketOverview[]> {
 export function getMarketSnapshot(
   marketCode: string,
   params: SnapshotRequestParams,
+  cursor?: string,
 ): Promise<MarketSnapshot> {
   const searchParams = new URLSearchParams({
     historyHours: params.historyHours.toString(),
@@ -46,6 +47,9 @@ export function getMarketSnapshot(
     forecastHours: params.forecastHours.toString(),
     forecastResolutionMinutes: params.forecastResolutionMinutes.toString(),
   });
+  if (cursor) {
+    searchParams.set('cursor', cursor);
+  }
 
   return fetchJson<MarketSnapshot>(
     `/api/markets/${encodeURIComponent(marketCode)}/snapshot?${searchParams.toString()}`,
@@ -1,6 +1,6 @@
-import { keepPreviousData, useQuery } from '@tanstack/react-query';
+import { keepPreviousData, useQuery, useQueryClient } from '@tanstack/react-query';
 import { getMarketCatalog, getMarketOverview, getMarketSnapshot } from '@/api/client';
-import type { SnapshotRequestParams } from '@/types/api';
+import type { MarketSnapshot, SnapshotRequestParams } from '@/types/api';
 
 const CATALOG_QUERY_KEY = ['markets', 'catalog'] as const;
 const OVERVIEW_QUERY_KEY = ['markets', 'overview'] as const;
@@ -34,17 +34,37 @@ export function useMarketOverview() {
   });
 }
 
+/**
+ * Applies a delta response on top of the cached snapshot: points that slid out of the window are
+ * dropped and the new points appended, while the summary sections are taken from the response.
+ */
+function mergeSnapshot(previous: MarketSnapshot | undefined, next: MarketSnapshot): MarketSnapshot {
+  if (!previous || !next.sync?.delta) {
+    return next;
+  }
+  const windowStart = Date.parse(next.sync.windowStart);
+  const retained = previous.priceSeries.filter(
+    (point) => Date.parse(point.timestamp) >= windowStart,
+  );
+  return { ...next, priceSeries: [...retained, ...next.priceSeries] };
+}
+
 export function useMarketSnapshot(
   marketCode: string | undefined,
   params: SnapshotRequestParams,
 ) {
+  const queryClient = useQueryClient();
+  const queryKey = snapshotQueryKey(marketCode, params);
+
   return useQuery({
-    queryKey: snapshotQueryKey(marketCode, params),
-    queryFn: () => {
+    queryKey,
+    queryFn: async () => {
       if (!marketCode) {
         throw new Error('A market code is required to fetch a snapshot');
       }
-      return getMarketSnapshot(marketCode, params);
+      const previous = queryClient.getQueryData<MarketSnapshot>(queryKey);
+      const next = await getMarketSnapshot(marketCode, params, previous?.sync?.cursor);
+      return mergeSnapshot(previous, next);
     },
     enabled: Boolean(marketCode),
     staleTime: 30 * 1000,
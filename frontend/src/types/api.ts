@@ -39,18 +39,36 @@ export interface MarketInsights {
   priceStandardDeviation: number;
   minPrice: number;
   maxPrice: number;
+  priceP5?: number;
+  priceP50?: number;
+  priceP95?: number;
+  priceP99?: number;
   averageDemand: number;
   peakDemand: number;
   averageRenewablesShare: number;
   carbonIntensityTrendPerHour: number;
+  loadDurationCurve?: LoadDurationPoint[];
   alerts: string[];
 }
 
+export interface LoadDurationPoint {
+  exceedancePercent: number;
+  demandMw: number;
+}
+
+export interface SnapshotSync {
+  cursor: string;
+  delta: boolean;
+  windowStart: string;
+  resolutionMinutes: number;
+}
+
 export interface MarketSnapshot {
   overview: MarketOverview;
   priceSeries: PricePoint[];
   forecast: ForecastPoint[];
   insights: MarketInsights;
+  sync?: SnapshotSync;
 }
 
 export interface SnapshotRequestParams {